@@ -0,0 +1,7 @@
+#!/usr/bin/env sh
+# Fails (exit 1) when any benchmark in the current JMH run is slower than the baseline run by more than the
+# given percentage (default 10). Both files come from: java -jar target/benchmarks.jar -rf json -rff <file>
+#
+#   ./compare-baseline.sh baseline.json target/current.json 10
+set -e
+exec java -cp "$(dirname "$0")/target/benchmarks.jar" com.agricredit.benchmark.BaselineComparator "$@"
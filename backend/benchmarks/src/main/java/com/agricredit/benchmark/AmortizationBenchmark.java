@@ -0,0 +1,97 @@
+package com.agricredit.benchmark;
+
+import com.agricredit.amortization.AmortizationEngine;
+import com.agricredit.amortization.PortfolioAccrual;
+import com.agricredit.amortization.ScaledAmortization;
+import com.agricredit.entity.Loan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Portfolio accrual through the BigDecimal engine, one loan at a time, against the scaled-long pass over
+// primitive arrays. Both produce identical figures (AmortizationEngineTests). Run with:
+//
+//   java -jar target/benchmarks.jar AmortizationBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AmortizationBenchmark {
+
+    private static final Loan.RepaymentType[] TYPES = Loan.RepaymentType.values();
+
+    @Param({"100000", "1000000"})
+    private int loans;
+
+    private BigDecimal[] amounts;
+    private double[] rates;
+    private int[] terms;
+    private int[] elapsed;
+
+    @Setup
+    public void generatePortfolio() {
+        Random random = new Random(7);
+        amounts = new BigDecimal[loans];
+        rates = new double[loans];
+        terms = new int[loans];
+        elapsed = new int[loans];
+        for (int i = 0; i < loans; i++) {
+            amounts[i] = BigDecimal.valueOf(5_000_00L + random.nextInt(2_000_000_00), 2);
+            rates[i] = 4 + random.nextInt(20_000) / 1000.0;
+            terms[i] = 3 + random.nextInt(58);
+            elapsed[i] = random.nextInt(terms[i] + 1);
+        }
+    }
+
+    @Benchmark
+    public void bigDecimalPerLoan(Blackhole blackhole) {
+        BigDecimal outstanding = BigDecimal.ZERO;
+        BigDecimal accrued = BigDecimal.ZERO;
+        for (int i = 0; i < loans; i++) {
+            AmortizationEngine.Position position = AmortizationEngine.position(amounts[i], rates[i], terms[i],
+                    TYPES[i % TYPES.length], elapsed[i]);
+            outstanding = outstanding.add(position.outstandingPrincipal());
+            accrued = accrued.add(position.accruedInterest());
+        }
+        blackhole.consume(outstanding);
+        blackhole.consume(accrued);
+    }
+
+    // Includes loading the arrays, as RepaymentScheduleService does from the result stream
+    @Benchmark
+    public void scaledLongArrays(Blackhole blackhole) {
+        PortfolioAccrual accrual = new PortfolioAccrual(loans);
+        for (int i = 0; i < loans; i++) {
+            accrual.add(ScaledAmortization.cents(amounts[i]), ScaledAmortization.rateMilli(rates[i]), terms[i],
+                    TYPES[i % TYPES.length], elapsed[i]);
+        }
+        accrual.compute();
+        blackhole.consume(accrual.totalOutstandingCents());
+        blackhole.consume(accrual.totalAccruedInterestCents());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AmortizationBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
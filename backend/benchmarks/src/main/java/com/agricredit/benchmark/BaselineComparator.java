@@ -0,0 +1,104 @@
+package com.agricredit.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Compares two JMH JSON result files (-rf json) benchmark by benchmark, parameters included, and exits with 1
+// if any score got worse than the baseline by more than the allowed percentage. Throughput must not drop;
+// time-per-operation modes must not rise. Allocation per operation is printed when both runs used -prof gc.
+public final class BaselineComparator {
+
+    private static final double DEFAULT_MAX_REGRESSION_PERCENT = 10.0;
+    private static final String ALLOC_NORM = "gc.alloc.rate.norm";
+
+    private record Result(String mode, double score, String unit, Double allocPerOp) {
+    }
+
+    private BaselineComparator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: BaselineComparator <baseline.json> <current.json> [max-regression-percent]");
+            System.exit(2);
+        }
+        double maxRegression = args.length == 3 ? Double.parseDouble(args[2]) : DEFAULT_MAX_REGRESSION_PERCENT;
+        Map<String, Result> baseline = read(new File(args[0]));
+        Map<String, Result> current = read(new File(args[1]));
+
+        int regressions = 0;
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result now = entry.getValue();
+            Result before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("NEW   %s: %.3f %s%n", entry.getKey(), now.score(), now.unit());
+                continue;
+            }
+            // Positive is an improvement whatever the mode
+            double change = "thrpt".equals(now.mode())
+                    ? (now.score() - before.score()) / before.score() * 100
+                    : (before.score() - now.score()) / before.score() * 100;
+            boolean regressed = change < -maxRegression;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%s %s: %.3f -> %.3f %s (%+.1f%%)%s%n", regressed ? "FAIL " : "ok   ", entry.getKey(),
+                    before.score(), now.score(), now.unit(), change, allocation(before, now));
+        }
+        baseline.keySet().stream()
+                .filter(key -> !current.containsKey(key))
+                .forEach(key -> System.out.println("GONE  " + key));
+
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.1f%%%n", regressions, maxRegression);
+            System.exit(1);
+        }
+        System.out.printf("No regression beyond %.1f%%%n", maxRegression);
+    }
+
+    private static Map<String, Result> read(File file) throws IOException {
+        Map<String, Result> results = new TreeMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            JsonNode primary = run.path("primaryMetric");
+            results.put(key(run), new Result(run.path("mode").asText(), primary.path("score").asDouble(),
+                    primary.path("scoreUnit").asText(), allocPerOp(run.path("secondaryMetrics"))));
+        }
+        return results;
+    }
+
+    // Benchmark name plus its @Param values, e.g. JsonSerializationBenchmark.writeList{rows=100}
+    private static String key(JsonNode run) {
+        String name = run.path("benchmark").asText();
+        String shortName = name.substring(name.lastIndexOf('.', name.lastIndexOf('.') - 1) + 1);
+        Map<String, String> params = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = run.path("params").fields();
+        fields.forEachRemaining(field -> params.put(field.getKey(), field.getValue().asText()));
+        return params.isEmpty() ? shortName : shortName + params;
+    }
+
+    // Older JMH versions prefix the profiler metrics with a middle dot
+    private static Double allocPerOp(JsonNode secondary) {
+        Iterator<Map.Entry<String, JsonNode>> metrics = secondary.fields();
+        while (metrics.hasNext()) {
+            Map.Entry<String, JsonNode> metric = metrics.next();
+            if (metric.getKey().endsWith(ALLOC_NORM)) {
+                return metric.getValue().path("score").asDouble();
+            }
+        }
+        return null;
+    }
+
+    private static String allocation(Result before, Result now) {
+        if (before.allocPerOp() == null || now.allocPerOp() == null) {
+            return "";
+        }
+        return String.format(", alloc %.0f -> %.0f B/op", before.allocPerOp(), now.allocPerOp());
+    }
+}
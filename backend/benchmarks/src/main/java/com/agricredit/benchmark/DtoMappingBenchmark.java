@@ -0,0 +1,66 @@
+package com.agricredit.benchmark;
+
+import com.agricredit.dto.LoanResponse;
+import com.agricredit.dto.WarehouseReceiptResponse;
+import com.agricredit.entity.Loan;
+import com.agricredit.entity.WarehouseReceipt;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Entity to response mapping for one record and for a default and a maximum list page. With -prof gc the
+// gc.alloc.rate.norm figure is the garbage each page of responses costs.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int rows;
+
+    private List<Loan> loans;
+    private List<WarehouseReceipt> receipts;
+
+    @Setup
+    public void generateRecords() {
+        Random random = new Random(11);
+        loans = Fixtures.loans(rows, random);
+        receipts = Fixtures.receipts(rows, random);
+    }
+
+    @Benchmark
+    public void loanFromEntity(Blackhole blackhole) {
+        for (Loan loan : loans) {
+            blackhole.consume(LoanResponse.fromEntity(loan));
+        }
+    }
+
+    @Benchmark
+    public void receiptFromEntity(Blackhole blackhole) {
+        for (WarehouseReceipt receipt : receipts) {
+            blackhole.consume(WarehouseReceiptResponse.fromEntity(receipt));
+        }
+    }
+
+    // The shape a service returns: a new list per page
+    @Benchmark
+    public List<LoanResponse> loanPage() {
+        return loans.stream().map(LoanResponse::fromEntity).toList();
+    }
+}
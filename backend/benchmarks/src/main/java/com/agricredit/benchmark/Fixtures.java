@@ -0,0 +1,112 @@
+package com.agricredit.benchmark;
+
+import com.agricredit.dto.LoanResponse;
+import com.agricredit.entity.Loan;
+import com.agricredit.entity.User;
+import com.agricredit.entity.WarehouseReceipt;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+
+// Seeded records shaped like production rows: every field a list page returns is populated, with names,
+// remarks and transaction hashes of realistic length. Page sizes follow CursorPagination (default 100, max 1000).
+final class Fixtures {
+
+    private static final String[] COMMODITIES = {"Maize", "Wheat", "Teff", "Sorghum", "Coffee", "Sesame"};
+    private static final String[] LOCATIONS = {"Adama", "Hawassa", "Bahir Dar", "Jimma", "Mekelle", "Dire Dawa"};
+    private static final Loan.LoanStatus[] LOAN_STATUSES = Loan.LoanStatus.values();
+    private static final HexFormat HEX = HexFormat.of();
+
+    private Fixtures() {
+    }
+
+    static List<User> users(int count, User.Role role, Random random) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setId((long) (role == User.Role.LENDER ? 1 + i : 1_000 + i));
+            user.setUsername(role.name().toLowerCase() + i);
+            user.setEmail(role.name().toLowerCase() + i + "@example.com");
+            user.setFullName(role == User.Role.LENDER ? "Rural Savings Cooperative " + i : "Abebe Kebede " + i);
+            user.setPhoneNumber("+2519" + (10_000_000 + random.nextInt(89_999_999)));
+            user.setRole(role);
+            users.add(user);
+        }
+        return users;
+    }
+
+    static List<Loan> loans(int count, Random random) {
+        List<User> farmers = users(Math.max(1, count / 4), User.Role.FARMER, random);
+        List<User> lenders = users(Math.max(1, count / 50), User.Role.LENDER, random);
+        List<Loan> loans = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Loan.LoanStatus status = LOAN_STATUSES[random.nextInt(LOAN_STATUSES.length)];
+            LocalDateTime applied = LocalDateTime.of(2025, 1, 1, 8, 0).plusMinutes(random.nextInt(500_000));
+            Loan loan = new Loan();
+            loan.setId(100_000L + i);
+            loan.setFarmer(farmers.get(random.nextInt(farmers.size())));
+            loan.setAmount(BigDecimal.valueOf(50_000 + random.nextInt(5_000_000), 2));
+            loan.setPurpose("Inputs for " + COMMODITIES[random.nextInt(COMMODITIES.length)] + " planting season");
+            loan.setInterestRate(6 + random.nextInt(1_400) / 100.0);
+            loan.setDurationInMonths(3 + random.nextInt(34));
+            loan.setRepaymentType(Loan.RepaymentType.values()[random.nextInt(Loan.RepaymentType.values().length)]);
+            loan.setStatus(status);
+            loan.setAppliedDate(applied);
+            if (status != Loan.LoanStatus.PENDING && status != Loan.LoanStatus.REJECTED) {
+                loan.setLender(lenders.get(random.nextInt(lenders.size())));
+                loan.setApprovedDate(applied.plusDays(2));
+                loan.setDisbursementDate(applied.plusDays(5));
+                loan.setDueDate(applied.plusMonths(loan.getDurationInMonths()));
+            }
+            if (status == Loan.LoanStatus.CLOSED) {
+                loan.setClosedDate(applied.plusMonths(loan.getDurationInMonths()).minusDays(3));
+            }
+            if (status == Loan.LoanStatus.REJECTED) {
+                loan.setRemarks("Insufficient collateral for the requested amount");
+            }
+            loan.setBlockchainTransactionHash(hash(random));
+            loans.add(loan);
+        }
+        return loans;
+    }
+
+    static List<WarehouseReceipt> receipts(int count, Random random) {
+        List<User> farmers = users(Math.max(1, count / 4), User.Role.FARMER, random);
+        List<WarehouseReceipt> receipts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime stored = LocalDateTime.of(2025, 1, 1, 8, 0).plusMinutes(random.nextInt(500_000));
+            WarehouseReceipt receipt = new WarehouseReceipt();
+            receipt.setId(200_000L + i);
+            receipt.setFarmer(farmers.get(random.nextInt(farmers.size())));
+            receipt.setCommodityName(COMMODITIES[random.nextInt(COMMODITIES.length)]);
+            receipt.setVariety("Grade " + (1 + random.nextInt(3)));
+            receipt.setQuantity(BigDecimal.valueOf(100 + random.nextInt(50_000), 2));
+            receipt.setUnitOfMeasure("quintal");
+            receipt.setWarehouseLocation(LOCATIONS[random.nextInt(LOCATIONS.length)]);
+            receipt.setWarehouseKeeperName("Central Stores PLC");
+            receipt.setStoredDate(stored);
+            receipt.setExpiryDate(stored.plusMonths(6));
+            receipt.setQualityGrade("A");
+            receipt.setCondition("Dry, sealed bags");
+            receipt.setReceiptNumber("WR-" + Long.toString(0x1_0000_0000L + random.nextInt(Integer.MAX_VALUE), 36).toUpperCase());
+            receipt.setBlockchainTransactionHash(hash(random));
+            receipt.setStatus(WarehouseReceipt.ReceiptStatus.ACTIVE);
+            receipts.add(receipt);
+        }
+        return receipts;
+    }
+
+    static List<LoanResponse> loanResponses(int count, Random random) {
+        return loans(count, random).stream().map(LoanResponse::fromEntity).toList();
+    }
+
+    private static String hash(Random random) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        return "0x" + HEX.formatHex(bytes);
+    }
+}
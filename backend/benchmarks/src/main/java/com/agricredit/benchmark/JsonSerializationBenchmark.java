@@ -0,0 +1,73 @@
+package com.agricredit.benchmark;
+
+import com.agricredit.dto.LoanResponse;
+import com.agricredit.util.NdjsonWriter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// A page of loans as the list endpoints write it, the same rows through the NDJSON stream writer, and the
+// page read back. The mapper is configured like the one Spring Boot builds for the controllers.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private static final TypeReference<List<LoanResponse>> LOAN_LIST = new TypeReference<>() {
+    };
+
+    @Param({"1", "100", "1000"})
+    private int rows;
+
+    private ObjectMapper objectMapper;
+    private List<LoanResponse> loans;
+    private byte[] json;
+
+    @Setup
+    public void generatePage() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        loans = Fixtures.loanResponses(rows, new Random(17));
+        json = objectMapper.writeValueAsBytes(loans);
+    }
+
+    @Benchmark
+    public byte[] writeList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(loans);
+    }
+
+    @Benchmark
+    public void writeNdjson() throws IOException {
+        NdjsonWriter<LoanResponse> writer = new NdjsonWriter<>(objectMapper, OutputStream.nullOutputStream());
+        loans.forEach(writer);
+        writer.finish();
+    }
+
+    @Benchmark
+    public List<LoanResponse> readList() throws IOException {
+        return objectMapper.readValue(json, LOAN_LIST);
+    }
+}
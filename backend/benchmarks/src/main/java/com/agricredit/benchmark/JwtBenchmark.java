@@ -0,0 +1,70 @@
+package com.agricredit.benchmark;
+
+import com.agricredit.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Token issue at login and the per-request parse in JwtAuthenticationFilter, which verifies the signature and
+// reads the subject and roles in one pass. Uses the secret and lifetime from application.properties.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String SECRET = "agriculturalCreditSecretKeyForTokenGenerationAndVerification";
+    private static final List<String> ROLES = List.of("ROLE_FARMER");
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void createJwtUtil() {
+        jwtUtil = new JwtUtil();
+        set("SECRET_KEY", SECRET);
+        set("JWT_EXPIRATION", 86_400_000L);
+        Method init = ReflectionUtils.findMethod(JwtUtil.class, "init");
+        ReflectionUtils.makeAccessible(init);
+        ReflectionUtils.invokeMethod(init, jwtUtil);
+        token = jwtUtil.generateToken("farmer42", ROLES);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("farmer42", ROLES);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtUtil.extractUsername(token);
+    }
+
+    @Benchmark
+    public Object extractRoles() {
+        Claims claims = jwtUtil.extractAllClaims(token);
+        return claims.get(JwtUtil.ROLES_CLAIM);
+    }
+
+    private void set(String name, Object value) {
+        Field field = ReflectionUtils.findField(JwtUtil.class, name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, jwtUtil, value);
+    }
+}
@@ -0,0 +1,77 @@
+package com.agricredit.benchmark;
+
+import com.agricredit.entity.Loan;
+import com.agricredit.entity.WarehouseReceipt;
+import com.agricredit.ledger.MerkleTree;
+import com.agricredit.ledger.RecordHasher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// The transaction hashes: one record hashed over its canonical encoding, and a Merkle tree built over a
+// batch of record hashes as LedgerAnchoringWorker does (ledger.anchor.batch-size defaults to 1024).
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LedgerHashingBenchmark {
+
+    private final RecordHasher hasher = new RecordHasher();
+    private Loan loan;
+    private WarehouseReceipt receipt;
+
+    @State(Scope.Benchmark)
+    public static class Batch {
+
+        @Param({"64", "1024"})
+        private int batchSize;
+
+        private List<byte[]> recordHashes;
+
+        @Setup
+        public void hashRecords() {
+            RecordHasher hasher = new RecordHasher();
+            recordHashes = new ArrayList<>(batchSize);
+            for (Loan each : Fixtures.loans(batchSize, new Random(19))) {
+                recordHashes.add(hasher.hash(each));
+            }
+        }
+    }
+
+    @Setup
+    public void generateRecords() {
+        Random random = new Random(13);
+        loan = Fixtures.loans(1, random).get(0);
+        receipt = Fixtures.receipts(1, random).get(0);
+    }
+
+    @Benchmark
+    public byte[] hashLoan() {
+        return hasher.hash(loan);
+    }
+
+    @Benchmark
+    public byte[] hashReceipt() {
+        return hasher.hash(receipt);
+    }
+
+    @Benchmark
+    public byte[] merkleRoot(Batch batch) {
+        return MerkleTree.build(batch.recordHashes).root();
+    }
+}
@@ -2,8 +2,10 @@ package com.agricredit;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class AgriculturalCreditApplication {
     public static void main(String[] args) {
         SpringApplication.run(AgriculturalCreditApplication.class, args);
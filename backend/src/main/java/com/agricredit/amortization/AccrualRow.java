@@ -0,0 +1,11 @@
+package com.agricredit.amortization;
+
+import com.agricredit.entity.Loan;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Just the columns accrual needs, streamed straight out of LoanRepository
+public record AccrualRow(BigDecimal amount, Double interestRate, Integer durationInMonths,
+                         Loan.RepaymentType repaymentType, LocalDateTime disbursementDate) {
+}
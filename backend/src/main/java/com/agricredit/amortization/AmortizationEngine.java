@@ -0,0 +1,137 @@
+package com.agricredit.amortization;
+
+import com.agricredit.entity.Loan;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+// Exact schedules in BigDecimal. Every amount is rounded to the cent with HALF_EVEN at the point it is
+// charged, so ScaledAmortization can reproduce the same figures with long arithmetic on cents.
+// Rates are annual percentages, kept to RATE_SCALE decimal places; monthly interest is balance * rate / 1200.
+public final class AmortizationEngine {
+
+    public static final int CURRENCY_SCALE = 2;
+    public static final int RATE_SCALE = 3;
+
+    private static final BigDecimal PERCENT_MONTHS = BigDecimal.valueOf(1200);
+
+    private AmortizationEngine() {
+    }
+
+    public record Position(BigDecimal outstandingPrincipal, BigDecimal accruedInterest) {
+    }
+
+    public static BigDecimal rate(double annualPercent) {
+        return BigDecimal.valueOf(annualPercent).setScale(RATE_SCALE, RoundingMode.HALF_EVEN);
+    }
+
+    public static BigDecimal monthlyInterest(BigDecimal balance, BigDecimal annualRate) {
+        return balance.multiply(annualRate).divide(PERCENT_MONTHS, CURRENCY_SCALE, RoundingMode.HALF_EVEN);
+    }
+
+    // Annuity instalment P * r * (1 + r)^n / ((1 + r)^n - 1), rounded to the cent
+    public static BigDecimal emi(BigDecimal principal, BigDecimal annualRate, int months) {
+        if (annualRate.signum() == 0) {
+            return principal.divide(BigDecimal.valueOf(months), CURRENCY_SCALE, RoundingMode.HALF_EVEN);
+        }
+        BigDecimal monthlyRate = annualRate.divide(PERCENT_MONTHS, MathContext.DECIMAL128);
+        BigDecimal factor = BigDecimal.ONE.add(monthlyRate).pow(months, MathContext.DECIMAL128);
+        return principal.multiply(monthlyRate)
+                .multiply(factor)
+                .divide(factor.subtract(BigDecimal.ONE), CURRENCY_SCALE, RoundingMode.HALF_EVEN);
+    }
+
+    public static List<Instalment> schedule(BigDecimal principal, double annualPercent, int months,
+                                            Loan.RepaymentType type, LocalDate start) {
+        BigDecimal rate = rate(annualPercent);
+        BigDecimal balance = principal.setScale(CURRENCY_SCALE, RoundingMode.HALF_EVEN);
+        List<Instalment> instalments = new ArrayList<>(type == Loan.RepaymentType.BULLET ? 1 : months);
+        switch (type) {
+            case REDUCING_BALANCE -> {
+                BigDecimal emi = emi(balance, rate, months);
+                for (int i = 1; i <= months; i++) {
+                    BigDecimal interest = monthlyInterest(balance, rate);
+                    BigDecimal principalPart = i == months ? balance : emi.subtract(interest).min(balance);
+                    balance = balance.subtract(principalPart);
+                    instalments.add(new Instalment(i, start.plusMonths(i), principalPart, interest,
+                            principalPart.add(interest), balance));
+                }
+            }
+            case FLAT -> {
+                BigDecimal interest = monthlyInterest(balance, rate);
+                BigDecimal principalPart = flatPrincipal(balance, months);
+                for (int i = 1; i <= months; i++) {
+                    BigDecimal part = i == months ? balance : principalPart;
+                    balance = balance.subtract(part);
+                    instalments.add(new Instalment(i, start.plusMonths(i), part, interest, part.add(interest), balance));
+                }
+            }
+            case BULLET -> {
+                // Harvest-season loans: simple interest for the whole term, repaid with the principal at maturity
+                BigDecimal interest = simpleInterest(balance, rate, months);
+                instalments.add(new Instalment(1, start.plusMonths(months), balance, interest,
+                        balance.add(interest), BigDecimal.ZERO.setScale(CURRENCY_SCALE)));
+            }
+        }
+        return instalments;
+    }
+
+    // Principal still owed and interest earned once the first `elapsed` instalment dates have passed,
+    // assuming each was paid on time
+    public static Position position(BigDecimal principal, double annualPercent, int months,
+                                    Loan.RepaymentType type, int elapsed) {
+        BigDecimal rate = rate(annualPercent);
+        BigDecimal balance = principal.setScale(CURRENCY_SCALE, RoundingMode.HALF_EVEN);
+        BigDecimal accrued = BigDecimal.ZERO.setScale(CURRENCY_SCALE);
+        switch (type) {
+            case REDUCING_BALANCE -> {
+                BigDecimal emi = emi(balance, rate, months);
+                for (int i = 1; i <= elapsed; i++) {
+                    BigDecimal interest = monthlyInterest(balance, rate);
+                    balance = balance.subtract(i == months ? balance : emi.subtract(interest).min(balance));
+                    accrued = accrued.add(interest);
+                }
+            }
+            case FLAT -> {
+                accrued = monthlyInterest(balance, rate).multiply(BigDecimal.valueOf(elapsed));
+                balance = elapsed >= months ? BigDecimal.ZERO.setScale(CURRENCY_SCALE)
+                        : balance.subtract(flatPrincipal(balance, months).multiply(BigDecimal.valueOf(elapsed)));
+            }
+            case BULLET -> {
+                accrued = simpleInterest(balance, rate, elapsed);
+                if (elapsed >= months) {
+                    balance = BigDecimal.ZERO.setScale(CURRENCY_SCALE);
+                }
+            }
+        }
+        return new Position(balance, accrued);
+    }
+
+    // Number of instalment dates (start + 1 month, start + 2 months, ...) on or before asOf, capped at the term
+    public static int elapsedInstalments(LocalDate start, int months, LocalDate asOf) {
+        if (!asOf.isAfter(start)) {
+            return 0;
+        }
+        long elapsed = ChronoUnit.MONTHS.between(start, asOf);
+        // plusMonths clamps to the end of shorter months, which between() does not count as a full month
+        if (!start.plusMonths(elapsed + 1).isAfter(asOf)) {
+            elapsed++;
+        }
+        return (int) Math.min(elapsed, months);
+    }
+
+    private static BigDecimal flatPrincipal(BigDecimal principal, int months) {
+        return principal.divide(BigDecimal.valueOf(months), CURRENCY_SCALE, RoundingMode.DOWN);
+    }
+
+    private static BigDecimal simpleInterest(BigDecimal principal, BigDecimal rate, int months) {
+        return principal.multiply(rate)
+                .multiply(BigDecimal.valueOf(months))
+                .divide(PERCENT_MONTHS, CURRENCY_SCALE, RoundingMode.HALF_EVEN);
+    }
+}
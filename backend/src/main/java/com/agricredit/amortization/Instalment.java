@@ -0,0 +1,8 @@
+package com.agricredit.amortization;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record Instalment(int number, LocalDate dueDate, BigDecimal principal, BigDecimal interest,
+                         BigDecimal total, BigDecimal closingBalance) {
+}
@@ -0,0 +1,119 @@
+package com.agricredit.amortization;
+
+import com.agricredit.entity.Loan;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+// Outstanding principal and accrued interest for a whole portfolio, held as parallel primitive arrays
+// (one slot per loan) instead of one object per loan. Reducing-balance loans are stepped one period at a
+// time across a whole chunk, so each pass is a straight walk over a few long[] columns; flat and bullet
+// loans have closed forms. Chunks run in parallel once the portfolio is large enough to pay for it.
+public class PortfolioAccrual {
+
+    static final int CHUNK_SIZE = 4096;
+
+    private static final byte REDUCING = (byte) Loan.RepaymentType.REDUCING_BALANCE.ordinal();
+    private static final byte FLAT = (byte) Loan.RepaymentType.FLAT.ordinal();
+
+    private long[] principal;
+    private long[] rate;
+    private int[] term;
+    private int[] elapsed;
+    private byte[] type;
+    private long[] outstanding;
+    private long[] accrued;
+    private int size;
+
+    public PortfolioAccrual(int expectedSize) {
+        int capacity = Math.max(expectedSize, 16);
+        principal = new long[capacity];
+        rate = new long[capacity];
+        term = new int[capacity];
+        elapsed = new int[capacity];
+        type = new byte[capacity];
+    }
+
+    public void add(long principalCents, long rateMilli, int months, Loan.RepaymentType repaymentType,
+                    int elapsedInstalments) {
+        if (size == principal.length) {
+            grow();
+        }
+        principal[size] = principalCents;
+        rate[size] = rateMilli;
+        term[size] = months;
+        elapsed[size] = Math.min(elapsedInstalments, months);
+        type[size] = (byte) repaymentType.ordinal();
+        size++;
+    }
+
+    public void compute() {
+        outstanding = new long[size];
+        accrued = new long[size];
+        int chunks = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        IntStream range = IntStream.range(0, chunks);
+        (chunks > 1 ? range.parallel() : range)
+                .forEach(chunk -> computeChunk(chunk * CHUNK_SIZE, Math.min(size, (chunk + 1) * CHUNK_SIZE)));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long outstandingCents(int index) {
+        return outstanding[index];
+    }
+
+    public long accruedInterestCents(int index) {
+        return accrued[index];
+    }
+
+    public long totalOutstandingCents() {
+        return Arrays.stream(outstanding).sum();
+    }
+
+    public long totalAccruedInterestCents() {
+        return Arrays.stream(accrued).sum();
+    }
+
+    private void computeChunk(int from, int to) {
+        long[] emi = new long[to - from];
+        int maxElapsed = 0;
+        for (int i = from; i < to; i++) {
+            int k = elapsed[i];
+            if (type[i] == REDUCING) {
+                outstanding[i] = principal[i];
+                emi[i - from] = ScaledAmortization.emi(principal[i], rate[i], term[i]);
+                maxElapsed = Math.max(maxElapsed, k);
+            } else if (type[i] == FLAT) {
+                accrued[i] = ScaledAmortization.monthlyInterest(principal[i], rate[i]) * k;
+                outstanding[i] = k >= term[i] ? 0 : principal[i] - ScaledAmortization.flatPrincipal(principal[i], term[i]) * k;
+            } else {
+                accrued[i] = ScaledAmortization.simpleInterest(principal[i], rate[i], k);
+                outstanding[i] = k >= term[i] ? 0 : principal[i];
+            }
+        }
+
+        for (int step = 1; step <= maxElapsed; step++) {
+            for (int i = from; i < to; i++) {
+                if (type[i] != REDUCING || step > elapsed[i]) {
+                    continue;
+                }
+                long balance = outstanding[i];
+                long interest = ScaledAmortization.monthlyInterest(balance, rate[i]);
+                long principalPart = step == term[i] ? balance : Math.min(emi[i - from] - interest, balance);
+                outstanding[i] = balance - principalPart;
+                accrued[i] += interest;
+            }
+        }
+    }
+
+    private void grow() {
+        int capacity = principal.length * 2;
+        principal = Arrays.copyOf(principal, capacity);
+        rate = Arrays.copyOf(rate, capacity);
+        term = Arrays.copyOf(term, capacity);
+        elapsed = Arrays.copyOf(elapsed, capacity);
+        type = Arrays.copyOf(type, capacity);
+    }
+}
@@ -0,0 +1,57 @@
+package com.agricredit.amortization;
+
+import java.math.BigDecimal;
+
+// The AmortizationEngine rules on primitives: amounts are longs in cents and annual rates are longs in
+// thousandths of a percent, so monthly interest is cents * rate / 1_200_000 rounded HALF_EVEN.
+// Products stay below 2^63 for any amount that fits loans.amount (precision 10, scale 2).
+public final class ScaledAmortization {
+
+    public static final long PERCENT_MONTHS_SCALED = 1_200_000L;
+
+    private ScaledAmortization() {
+    }
+
+    public static long cents(BigDecimal amount) {
+        return amount.movePointRight(AmortizationEngine.CURRENCY_SCALE).longValueExact();
+    }
+
+    public static BigDecimal amount(long cents) {
+        return BigDecimal.valueOf(cents, AmortizationEngine.CURRENCY_SCALE);
+    }
+
+    public static long rateMilli(double annualPercent) {
+        return AmortizationEngine.rate(annualPercent).unscaledValue().longValueExact();
+    }
+
+    public static long monthlyInterest(long balanceCents, long rateMilli) {
+        return divideHalfEven(balanceCents * rateMilli, PERCENT_MONTHS_SCALED);
+    }
+
+    public static long simpleInterest(long principalCents, long rateMilli, int months) {
+        return divideHalfEven(principalCents * rateMilli * months, PERCENT_MONTHS_SCALED);
+    }
+
+    public static long flatPrincipal(long principalCents, int months) {
+        return principalCents / months;
+    }
+
+    // The annuity factor is the one step that is not exact in either path; both round the instalment to the cent
+    public static long emi(long principalCents, long rateMilli, int months) {
+        if (rateMilli == 0) {
+            return divideHalfEven(principalCents, months);
+        }
+        double monthlyRate = (double) rateMilli / PERCENT_MONTHS_SCALED;
+        double factor = Math.pow(1 + monthlyRate, months);
+        return (long) Math.rint(principalCents * monthlyRate * factor / (factor - 1));
+    }
+
+    static long divideHalfEven(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long twiceRemainder = 2 * (dividend % divisor);
+        if (twiceRemainder > divisor || (twiceRemainder == divisor && (quotient & 1) != 0)) {
+            quotient++;
+        }
+        return quotient;
+    }
+}
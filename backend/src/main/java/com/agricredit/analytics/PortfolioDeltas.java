@@ -0,0 +1,66 @@
+package com.agricredit.analytics;
+
+import com.agricredit.collateral.CommodityUnits;
+import com.agricredit.entity.Loan;
+import com.agricredit.entity.PortfolioAggregate;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Net changes to the aggregate rows, collected over one transaction. Opposite moves on the same key cancel
+// out here, so a loan that is approved and then disbursed in one transaction never touches its month row.
+public class PortfolioDeltas {
+
+    public record Delta(long count, BigDecimal total) {
+    }
+
+    private static final String UNKNOWN = "unknown";
+
+    private final TreeMap<PortfolioKey, Delta> deltas = new TreeMap<>();
+
+    // count loans of one status and application month; negative to take them out.
+    // A loan counts platform-wide and, once it has a lender, towards that lender as well.
+    public void loans(Long lenderId, Loan.LoanStatus status, YearMonth month, long count, BigDecimal amount) {
+        String monthBucket = month == null ? UNKNOWN : month.toString();
+        add(PortfolioAggregate.PLATFORM, PortfolioAggregate.Dimension.STATUS, status.name(), count, amount);
+        add(PortfolioAggregate.PLATFORM, PortfolioAggregate.Dimension.MONTH, monthBucket, count, amount);
+        if (lenderId != null) {
+            add(lenderId, PortfolioAggregate.Dimension.STATUS, status.name(), count, amount);
+            add(lenderId, PortfolioAggregate.Dimension.MONTH, monthBucket, count, amount);
+        }
+    }
+
+    // count active receipts holding quantity in unit; negative to take them out. Only active receipts are
+    // stock, and quantities in units the platform cannot convert add to the count only.
+    public void activeReceipts(String commodity, String location, String unit, long count, BigDecimal quantity) {
+        BigDecimal kilograms = quantity != null && CommodityUnits.isSupported(unit)
+                ? BigDecimal.valueOf(CommodityUnits.toKilograms(quantity, unit))
+                : BigDecimal.ZERO;
+        add(PortfolioAggregate.PLATFORM, PortfolioAggregate.Dimension.COMMODITY,
+                commodity == null ? UNKNOWN : CommodityUnits.key(commodity), count, kilograms);
+        add(PortfolioAggregate.PLATFORM, PortfolioAggregate.Dimension.LOCATION,
+                location == null ? UNKNOWN : location.trim().toLowerCase(Locale.ROOT), count, kilograms);
+    }
+
+    public boolean isEmpty() {
+        return deltas.isEmpty();
+    }
+
+    // Sorted by key, without the entries that netted to nothing
+    public Map<PortfolioKey, Delta> netChanges() {
+        return deltas;
+    }
+
+    private void add(long lenderId, PortfolioAggregate.Dimension dimension, String bucket, long count, BigDecimal amount) {
+        BigDecimal magnitude = amount == null ? BigDecimal.ZERO : amount.abs();
+        BigDecimal signed = count < 0 ? magnitude.negate() : magnitude;
+        deltas.compute(new PortfolioKey(lenderId, dimension, bucket), (key, current) -> {
+            long itemCount = (current == null ? 0 : current.count()) + count;
+            BigDecimal total = current == null ? signed : current.total().add(signed);
+            return itemCount == 0 && total.signum() == 0 ? null : new Delta(itemCount, total);
+        });
+    }
+}
@@ -0,0 +1,19 @@
+package com.agricredit.analytics;
+
+import com.agricredit.entity.PortfolioAggregate;
+
+import java.util.Comparator;
+
+// Deltas are applied in key order so two transactions touching the same rows always lock them in the same order
+public record PortfolioKey(long lenderId, PortfolioAggregate.Dimension dimension, String bucket)
+        implements Comparable<PortfolioKey> {
+
+    private static final Comparator<PortfolioKey> ORDER = Comparator.comparingLong(PortfolioKey::lenderId)
+            .thenComparing(PortfolioKey::dimension)
+            .thenComparing(PortfolioKey::bucket);
+
+    @Override
+    public int compareTo(PortfolioKey other) {
+        return ORDER.compare(this, other);
+    }
+}
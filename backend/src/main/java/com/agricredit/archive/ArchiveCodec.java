@@ -0,0 +1,18 @@
+package com.agricredit.archive;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Column layout of one archived record type. The id column comes first and rows are written in id order,
+// which is what lets a reader find a record by binary search over that one column. The id is the lookup key:
+// usually the record's own id, but a type looked up by its parent, such as a loan's timeline, is keyed by the
+// parent id and holds several rows per key.
+public record ArchiveCodec<T>(String recordType, Supplier<T> factory, Function<T, Long> id, List<ArchiveColumn<T>> columns) {
+
+    public ArchiveCodec {
+        if (columns.isEmpty() || columns.get(0).type() != ArchiveColumn.Type.LONG) {
+            throw new IllegalArgumentException("The first archive column must be the LONG id");
+        }
+    }
+}
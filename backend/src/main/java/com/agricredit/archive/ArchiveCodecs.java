@@ -0,0 +1,97 @@
+package com.agricredit.archive;
+
+import com.agricredit.dto.LoanEventResponse;
+import com.agricredit.dto.LoanResponse;
+import com.agricredit.dto.MarginCallEventResponse;
+import com.agricredit.dto.WarehouseReceiptResponse;
+
+import java.util.List;
+
+import static com.agricredit.archive.ArchiveColumn.Type.DECIMAL;
+import static com.agricredit.archive.ArchiveColumn.Type.DOUBLE;
+import static com.agricredit.archive.ArchiveColumn.Type.INT;
+import static com.agricredit.archive.ArchiveColumn.Type.LONG;
+import static com.agricredit.archive.ArchiveColumn.Type.STRING;
+import static com.agricredit.archive.ArchiveColumn.Type.TIMESTAMP;
+
+// Records are archived as their API responses, so farmer and lender names stay readable after the live rows are gone
+public final class ArchiveCodecs {
+
+    public static final ArchiveCodec<LoanResponse> LOANS = new ArchiveCodec<>("loans", LoanResponse::new,
+            LoanResponse::getId, List.of(
+            ArchiveColumn.of("id", LONG, LoanResponse::getId, LoanResponse::setId),
+            ArchiveColumn.of("farmerId", LONG, LoanResponse::getFarmerId, LoanResponse::setFarmerId),
+            ArchiveColumn.of("farmerName", STRING, LoanResponse::getFarmerName, LoanResponse::setFarmerName),
+            ArchiveColumn.of("lenderId", LONG, LoanResponse::getLenderId, LoanResponse::setLenderId),
+            ArchiveColumn.of("lenderName", STRING, LoanResponse::getLenderName, LoanResponse::setLenderName),
+            ArchiveColumn.of("amount", DECIMAL, LoanResponse::getAmount, LoanResponse::setAmount),
+            ArchiveColumn.of("purpose", STRING, LoanResponse::getPurpose, LoanResponse::setPurpose),
+            ArchiveColumn.of("interestRate", DOUBLE, LoanResponse::getInterestRate, LoanResponse::setInterestRate),
+            ArchiveColumn.of("durationInMonths", INT, LoanResponse::getDurationInMonths, LoanResponse::setDurationInMonths),
+            ArchiveColumn.of("repaymentType", STRING, LoanResponse::getRepaymentType, LoanResponse::setRepaymentType),
+            ArchiveColumn.of("status", STRING, LoanResponse::getStatus, LoanResponse::setStatus),
+            ArchiveColumn.of("appliedDate", TIMESTAMP, LoanResponse::getAppliedDate, LoanResponse::setAppliedDate),
+            ArchiveColumn.of("approvedDate", TIMESTAMP, LoanResponse::getApprovedDate, LoanResponse::setApprovedDate),
+            ArchiveColumn.of("disbursementDate", TIMESTAMP, LoanResponse::getDisbursementDate, LoanResponse::setDisbursementDate),
+            ArchiveColumn.of("dueDate", TIMESTAMP, LoanResponse::getDueDate, LoanResponse::setDueDate),
+            ArchiveColumn.of("closedDate", TIMESTAMP, LoanResponse::getClosedDate, LoanResponse::setClosedDate),
+            ArchiveColumn.of("remarks", STRING, LoanResponse::getRemarks, LoanResponse::setRemarks),
+            ArchiveColumn.of("blockchainTransactionHash", STRING, LoanResponse::getBlockchainTransactionHash,
+                    LoanResponse::setBlockchainTransactionHash)));
+
+    public static final ArchiveCodec<WarehouseReceiptResponse> RECEIPTS = new ArchiveCodec<>("receipts",
+            WarehouseReceiptResponse::new, WarehouseReceiptResponse::getId, List.of(
+            ArchiveColumn.of("id", LONG, WarehouseReceiptResponse::getId, WarehouseReceiptResponse::setId),
+            ArchiveColumn.of("farmerId", LONG, WarehouseReceiptResponse::getFarmerId, WarehouseReceiptResponse::setFarmerId),
+            ArchiveColumn.of("farmerName", STRING, WarehouseReceiptResponse::getFarmerName, WarehouseReceiptResponse::setFarmerName),
+            ArchiveColumn.of("commodityName", STRING, WarehouseReceiptResponse::getCommodityName,
+                    WarehouseReceiptResponse::setCommodityName),
+            ArchiveColumn.of("variety", STRING, WarehouseReceiptResponse::getVariety, WarehouseReceiptResponse::setVariety),
+            ArchiveColumn.of("quantity", DECIMAL, WarehouseReceiptResponse::getQuantity, WarehouseReceiptResponse::setQuantity),
+            ArchiveColumn.of("unitOfMeasure", STRING, WarehouseReceiptResponse::getUnitOfMeasure,
+                    WarehouseReceiptResponse::setUnitOfMeasure),
+            ArchiveColumn.of("warehouseLocation", STRING, WarehouseReceiptResponse::getWarehouseLocation,
+                    WarehouseReceiptResponse::setWarehouseLocation),
+            ArchiveColumn.of("warehouseKeeperName", STRING, WarehouseReceiptResponse::getWarehouseKeeperName,
+                    WarehouseReceiptResponse::setWarehouseKeeperName),
+            ArchiveColumn.of("storedDate", TIMESTAMP, WarehouseReceiptResponse::getStoredDate, WarehouseReceiptResponse::setStoredDate),
+            ArchiveColumn.of("expiryDate", TIMESTAMP, WarehouseReceiptResponse::getExpiryDate, WarehouseReceiptResponse::setExpiryDate),
+            ArchiveColumn.of("qualityGrade", STRING, WarehouseReceiptResponse::getQualityGrade,
+                    WarehouseReceiptResponse::setQualityGrade),
+            ArchiveColumn.of("condition", STRING, WarehouseReceiptResponse::getCondition, WarehouseReceiptResponse::setCondition),
+            ArchiveColumn.of("remarks", STRING, WarehouseReceiptResponse::getRemarks, WarehouseReceiptResponse::setRemarks),
+            ArchiveColumn.of("receiptNumber", STRING, WarehouseReceiptResponse::getReceiptNumber,
+                    WarehouseReceiptResponse::setReceiptNumber),
+            ArchiveColumn.of("blockchainTransactionHash", STRING, WarehouseReceiptResponse::getBlockchainTransactionHash,
+                    WarehouseReceiptResponse::setBlockchainTransactionHash),
+            ArchiveColumn.of("status", STRING, WarehouseReceiptResponse::getStatus, WarehouseReceiptResponse::setStatus),
+            ArchiveColumn.of("pledgedLoanId", LONG, WarehouseReceiptResponse::getPledgedLoanId,
+                    WarehouseReceiptResponse::setPledgedLoanId)));
+
+    // Keyed by loan, so an archived loan's whole timeline comes back from one lookup
+    public static final ArchiveCodec<LoanEventResponse> LOAN_TIMELINES = new ArchiveCodec<>("loan-timelines",
+            LoanEventResponse::new, LoanEventResponse::getLoanId, List.of(
+            ArchiveColumn.of("loanId", LONG, LoanEventResponse::getLoanId, LoanEventResponse::setLoanId),
+            ArchiveColumn.of("id", LONG, LoanEventResponse::getId, LoanEventResponse::setId),
+            ArchiveColumn.of("fromStatus", STRING, LoanEventResponse::getFromStatus, LoanEventResponse::setFromStatus),
+            ArchiveColumn.of("toStatus", STRING, LoanEventResponse::getToStatus, LoanEventResponse::setToStatus),
+            ArchiveColumn.of("occurredAt", TIMESTAMP, LoanEventResponse::getOccurredAt, LoanEventResponse::setOccurredAt)));
+
+    public static final ArchiveCodec<MarginCallEventResponse> MARGIN_CALL_EVENTS = new ArchiveCodec<>("margin-call-events",
+            MarginCallEventResponse::new, MarginCallEventResponse::getId, List.of(
+            ArchiveColumn.of("id", LONG, MarginCallEventResponse::getId, MarginCallEventResponse::setId),
+            ArchiveColumn.of("loanId", LONG, MarginCallEventResponse::getLoanId, MarginCallEventResponse::setLoanId),
+            ArchiveColumn.of("previousLevel", STRING, MarginCallEventResponse::getPreviousLevel,
+                    MarginCallEventResponse::setPreviousLevel),
+            ArchiveColumn.of("level", STRING, MarginCallEventResponse::getLevel, MarginCallEventResponse::setLevel),
+            ArchiveColumn.of("ltv", DECIMAL, MarginCallEventResponse::getLtv, MarginCallEventResponse::setLtv),
+            ArchiveColumn.of("exposure", DECIMAL, MarginCallEventResponse::getExposure, MarginCallEventResponse::setExposure),
+            ArchiveColumn.of("collateralValue", DECIMAL, MarginCallEventResponse::getCollateralValue,
+                    MarginCallEventResponse::setCollateralValue),
+            ArchiveColumn.of("commodity", STRING, MarginCallEventResponse::getCommodity, MarginCallEventResponse::setCommodity),
+            ArchiveColumn.of("occurredAt", TIMESTAMP, MarginCallEventResponse::getOccurredAt,
+                    MarginCallEventResponse::setOccurredAt)));
+
+    private ArchiveCodecs() {
+    }
+}
@@ -0,0 +1,57 @@
+package com.agricredit.archive;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+// One field of an archived record: how to read it off the record, how to set it back, and how to encode it.
+// Every value is preceded by a presence flag, so all columns are nullable.
+public record ArchiveColumn<T>(String name, Type type, Function<T, Object> getter, BiConsumer<T, Object> setter) {
+
+    public enum Type {
+        LONG, INT, DOUBLE, DECIMAL, STRING, TIMESTAMP
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T, V> ArchiveColumn<T> of(String name, Type type, Function<T, V> getter, BiConsumer<T, V> setter) {
+        return new ArchiveColumn<>(name, type, (Function<T, Object>) getter, (BiConsumer<T, Object>) setter);
+    }
+
+    void write(DataOutputStream out, Object value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value == null) {
+            return;
+        }
+        switch (type) {
+            case LONG -> out.writeLong((Long) value);
+            case INT -> out.writeInt((Integer) value);
+            case DOUBLE -> out.writeDouble((Double) value);
+            case DECIMAL -> out.writeUTF(((BigDecimal) value).toPlainString());
+            case STRING -> out.writeUTF((String) value);
+            case TIMESTAMP -> {
+                LocalDateTime timestamp = (LocalDateTime) value;
+                out.writeLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+                out.writeInt(timestamp.getNano());
+            }
+        }
+    }
+
+    Object read(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        return switch (type) {
+            case LONG -> in.readLong();
+            case INT -> in.readInt();
+            case DOUBLE -> in.readDouble();
+            case DECIMAL -> new BigDecimal(in.readUTF());
+            case STRING -> in.readUTF();
+            case TIMESTAMP -> LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+        };
+    }
+}
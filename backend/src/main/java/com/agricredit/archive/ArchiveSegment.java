@@ -0,0 +1,193 @@
+package com.agricredit.archive;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// A columnar archive file. The header names the record type, the id range and the columns with their
+// compressed sizes; after it every column is stored as one gzip block holding that field for all rows.
+// Similar values sit next to each other, which is what makes the blocks compress well, and a lookup only
+// has to inflate the id block to learn whether the file holds a record at all.
+public final class ArchiveSegment {
+
+    private static final int MAGIC = 0x41475347;
+    private static final short VERSION = 1;
+
+    public record Info(Path path, String recordType, int rows, long minId, long maxId) {
+
+        public boolean mayContain(long id) {
+            return id >= minId && id <= maxId;
+        }
+    }
+
+    private record Header(Info info, List<String> names, long[] offsets) {
+    }
+
+    private ArchiveSegment() {
+    }
+
+    // rows must be sorted by id. The file is written under a temporary name, forced to disk and then renamed,
+    // so a reader never sees half a segment.
+    public static <T> Info write(Path path, ArchiveCodec<T> codec, List<T> rows) throws IOException {
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException("An archive segment needs at least one row");
+        }
+        List<byte[]> blocks = new ArrayList<>(codec.columns().size());
+        for (ArchiveColumn<T> column : codec.columns()) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes, 1 << 16))) {
+                for (T row : rows) {
+                    column.write(out, column.getter().apply(row));
+                }
+            }
+            blocks.add(bytes.toByteArray());
+        }
+
+        long minId = codec.id().apply(rows.get(0));
+        long maxId = codec.id().apply(rows.get(rows.size() - 1));
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeUTF(codec.recordType());
+            out.writeInt(rows.size());
+            out.writeLong(minId);
+            out.writeLong(maxId);
+            out.writeShort(blocks.size());
+            for (int i = 0; i < blocks.size(); i++) {
+                ArchiveColumn<T> column = codec.columns().get(i);
+                out.writeUTF(column.name());
+                out.writeByte(column.type().ordinal());
+                out.writeInt(blocks.get(i).length);
+            }
+            for (byte[] block : blocks) {
+                out.write(block);
+            }
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return new Info(path, codec.recordType(), rows.size(), minId, maxId);
+    }
+
+    public static Info readInfo(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return readHeader(path, channel).info();
+        }
+    }
+
+    public static <T> Optional<T> find(Info segment, ArchiveCodec<T> codec, long id) throws IOException {
+        return findAll(segment, codec, id).stream().findFirst();
+    }
+
+    // Every row stored under id, in file order; for codecs keyed by a parent id there can be several
+    public static <T> List<T> findAll(Info segment, ArchiveCodec<T> codec, long id) throws IOException {
+        if (!segment.mayContain(id)) {
+            return List.of();
+        }
+        try (FileChannel channel = FileChannel.open(segment.path(), StandardOpenOption.READ)) {
+            Header header = readHeader(segment.path(), channel);
+            int rows = header.info().rows();
+
+            long[] ids = new long[rows];
+            try (DataInputStream in = block(channel, header.offsets()[0])) {
+                for (int i = 0; i < rows; i++) {
+                    Long value = (Long) codec.columns().get(0).read(in);
+                    ids[i] = value;
+                }
+            }
+            int row = Arrays.binarySearch(ids, id);
+            if (row < 0) {
+                return List.of();
+            }
+            int first = row;
+            while (first > 0 && ids[first - 1] == id) {
+                first--;
+            }
+            int last = row;
+            while (last < rows - 1 && ids[last + 1] == id) {
+                last++;
+            }
+
+            List<T> records = new ArrayList<>(last - first + 1);
+            for (int i = first; i <= last; i++) {
+                records.add(codec.factory().get());
+            }
+            for (int c = 0; c < codec.columns().size(); c++) {
+                ArchiveColumn<T> column = codec.columns().get(c);
+                int index = header.names().indexOf(column.name());
+                if (index < 0) {
+                    continue;
+                }
+                try (DataInputStream in = block(channel, header.offsets()[index])) {
+                    for (int i = 0; i <= last; i++) {
+                        Object value = column.read(in);
+                        if (i >= first) {
+                            column.setter().accept(records.get(i - first), value);
+                        }
+                    }
+                }
+            }
+            return records;
+        }
+    }
+
+    private static Header readHeader(Path path, FileChannel channel) throws IOException {
+        channel.position(0);
+        // Unbuffered, so the channel position afterwards is exactly the end of the header
+        DataInputStream in = new DataInputStream(Channels.newInputStream(channel));
+        if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+            throw new IOException("Not an archive segment: " + path);
+        }
+        String recordType = in.readUTF();
+        int rows = in.readInt();
+        long minId = in.readLong();
+        long maxId = in.readLong();
+        int columns = in.readShort();
+        List<String> names = new ArrayList<>(columns);
+        int[] lengths = new int[columns];
+        for (int i = 0; i < columns; i++) {
+            names.add(in.readUTF());
+            in.readByte();
+            lengths[i] = in.readInt();
+        }
+        long[] offsets = new long[columns];
+        long offset = channel.position();
+        for (int i = 0; i < columns; i++) {
+            offsets[i] = offset;
+            offset += lengths[i];
+        }
+        return new Header(new Info(path, recordType, rows, minId, maxId), names, offsets);
+    }
+
+    private static DataInputStream block(FileChannel channel, long offset) throws IOException {
+        channel.position(offset);
+        InputStream raw = new BufferedInputStream(Channels.newInputStream(channel), 1 << 16);
+        // Callers read exactly the rows a block holds, so nothing depends on where the stream thinks it ends.
+        // Closing releases the inflater but leaves the caller's channel open.
+        return new DataInputStream(new GZIPInputStream(raw, 1 << 16) {
+            @Override
+            public void close() {
+                inf.end();
+            }
+        });
+    }
+}
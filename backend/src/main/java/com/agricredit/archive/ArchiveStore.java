@@ -0,0 +1,171 @@
+package com.agricredit.archive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Archive segments on disk, one directory for all record types. Segment headers are read at startup; a lookup
+// only opens the segments whose id range covers the id, newest first. When several nodes share the directory,
+// a lookup that misses picks up the segments other nodes have written since, before giving up.
+public class ArchiveStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchiveStore.class);
+    private static final String SUFFIX = ".seg";
+
+    private final Path directory;
+    private final Map<String, List<ArchiveSegment.Info>> segments = new ConcurrentHashMap<>();
+    private final Set<Path> loaded = ConcurrentHashMap.newKeySet();
+    private volatile FileTime scannedAt;
+
+    public ArchiveStore(Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open archive directory " + directory, e);
+        }
+        scan();
+        log.info("Archive store at {} holds {} segments", directory, loaded.size());
+    }
+
+    private ArchiveStore() {
+        this.directory = null;
+    }
+
+    // A store with no directory: lookups find nothing and nothing can be archived into it
+    public static ArchiveStore none() {
+        return new ArchiveStore();
+    }
+
+    public boolean isWritable() {
+        return directory != null;
+    }
+
+    public <T> ArchiveSegment.Info write(ArchiveCodec<T> codec, List<T> rows) {
+        if (directory == null) {
+            throw new IllegalStateException("No archive directory configured (archive.dir)");
+        }
+        long first = codec.id().apply(rows.get(0));
+        long last = codec.id().apply(rows.get(rows.size() - 1));
+        Path path = directory.resolve(codec.recordType() + "-" + first + "-" + last + "-" + System.currentTimeMillis() + SUFFIX);
+        try {
+            ArchiveSegment.Info info = ArchiveSegment.write(path, codec, rows);
+            add(info);
+            return info;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write archive segment " + path, e);
+        }
+    }
+
+    public <T> Optional<T> find(ArchiveCodec<T> codec, long id) {
+        if (directory == null) {
+            return Optional.empty();
+        }
+        Optional<T> record = findLoaded(codec, id);
+        if (record.isEmpty() && scan()) {
+            record = findLoaded(codec, id);
+        }
+        return record;
+    }
+
+    // Every row stored under id across all segments, newest segment first. A batch archived twice after a crash
+    // shows up twice, so callers drop duplicates by the rows' own ids.
+    public <T> List<T> findAll(ArchiveCodec<T> codec, long id) {
+        if (directory == null) {
+            return List.of();
+        }
+        List<T> records = findAllLoaded(codec, id);
+        if (records.isEmpty() && scan()) {
+            records = findAllLoaded(codec, id);
+        }
+        return records;
+    }
+
+    private <T> List<T> findAllLoaded(ArchiveCodec<T> codec, long id) {
+        List<ArchiveSegment.Info> candidates = segmentsOf(codec.recordType());
+        List<T> records = new ArrayList<>();
+        for (int i = candidates.size() - 1; i >= 0; i--) {
+            ArchiveSegment.Info segment = candidates.get(i);
+            if (!segment.mayContain(id)) {
+                continue;
+            }
+            try {
+                records.addAll(ArchiveSegment.findAll(segment, codec, id));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read archive segment " + segment.path(), e);
+            }
+        }
+        return records;
+    }
+
+    private <T> Optional<T> findLoaded(ArchiveCodec<T> codec, long id) {
+        List<ArchiveSegment.Info> candidates = segmentsOf(codec.recordType());
+        for (int i = candidates.size() - 1; i >= 0; i--) {
+            ArchiveSegment.Info segment = candidates.get(i);
+            if (!segment.mayContain(id)) {
+                continue;
+            }
+            try {
+                Optional<T> record = ArchiveSegment.find(segment, codec, id);
+                if (record.isPresent()) {
+                    return record;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read archive segment " + segment.path(), e);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public int segmentCount(String recordType) {
+        return segmentsOf(recordType).size();
+    }
+
+    // Reads the headers of segments not seen yet, if the directory changed since the last scan. Returns
+    // whether there was anything new.
+    private synchronized boolean scan() {
+        try {
+            FileTime modified = Files.getLastModifiedTime(directory);
+            if (modified.equals(scannedAt)) {
+                return false;
+            }
+            boolean found = false;
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+                for (Path file : files) {
+                    if (!loaded.contains(file)) {
+                        add(ArchiveSegment.readInfo(file));
+                        found = true;
+                    }
+                }
+            }
+            // A directory changed within the last second may change again without its timestamp moving
+            scannedAt = modified.toMillis() < System.currentTimeMillis() - 1000 ? modified : null;
+            return found;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read archive directory " + directory, e);
+        }
+    }
+
+    private void add(ArchiveSegment.Info info) {
+        if (loaded.add(info.path())) {
+            segmentsOf(info.recordType()).add(info);
+        }
+    }
+
+    private List<ArchiveSegment.Info> segmentsOf(String recordType) {
+        return segments.computeIfAbsent(recordType, type -> new CopyOnWriteArrayList<>());
+    }
+}
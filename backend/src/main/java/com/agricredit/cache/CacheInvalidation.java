@@ -0,0 +1,19 @@
+package com.agricredit.cache;
+
+import java.util.Arrays;
+import java.util.List;
+
+// An empty key list means the whole cache was cleared
+public record CacheInvalidation(String origin, String cacheName, List<String> keys) {
+
+    private static final String SEPARATOR = "\t";
+
+    public String encode() {
+        return origin + SEPARATOR + cacheName + (keys.isEmpty() ? "" : SEPARATOR + String.join(SEPARATOR, keys));
+    }
+
+    public static CacheInvalidation decode(String message) {
+        String[] parts = message.split(SEPARATOR);
+        return new CacheInvalidation(parts[0], parts[1], Arrays.asList(parts).subList(2, parts.length));
+    }
+}
@@ -0,0 +1,11 @@
+package com.agricredit.cache;
+
+import java.util.function.Consumer;
+
+// Fan-out of evictions so every node drops its local copy
+public interface CacheInvalidationBus {
+
+    void publish(CacheInvalidation invalidation);
+
+    void subscribe(Consumer<CacheInvalidation> listener);
+}
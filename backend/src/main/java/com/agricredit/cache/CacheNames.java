@@ -0,0 +1,12 @@
+package com.agricredit.cache;
+
+public final class CacheNames {
+
+    public static final String LOANS = "loans";
+    public static final String LOANS_BY_FARMER = "loansByFarmer";
+    public static final String RECEIPTS = "receipts";
+    public static final String RECEIPTS_BY_FARMER = "receiptsByFarmer";
+
+    private CacheNames() {
+    }
+}
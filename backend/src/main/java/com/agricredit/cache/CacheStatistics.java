@@ -0,0 +1,54 @@
+package com.agricredit.cache;
+
+import com.agricredit.dto.CacheStatsResponse;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class CacheStatistics {
+
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder remoteInvalidations = new LongAdder();
+    private final LongAdder remoteErrors = new LongAdder();
+
+    void recordLocalHit() {
+        localHits.increment();
+    }
+
+    void recordRemoteHit() {
+        remoteHits.increment();
+    }
+
+    void recordMiss() {
+        misses.increment();
+    }
+
+    void recordPut() {
+        puts.increment();
+    }
+
+    void recordEvictions(int count) {
+        evictions.add(count);
+    }
+
+    void recordRemoteInvalidation() {
+        remoteInvalidations.increment();
+    }
+
+    void recordRemoteError() {
+        remoteErrors.increment();
+    }
+
+    public CacheStatsResponse snapshot(String cacheName, long localSize) {
+        long local = localHits.sum();
+        long remote = remoteHits.sum();
+        long missed = misses.sum();
+        long lookups = local + remote + missed;
+        return new CacheStatsResponse(cacheName, local, remote, missed, puts.sum(), evictions.sum(),
+                remoteInvalidations.sum(), remoteErrors.sum(), localSize,
+                lookups == 0 ? 0.0 : (double) (local + remote) / lookups);
+    }
+}
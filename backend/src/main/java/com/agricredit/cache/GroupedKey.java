@@ -0,0 +1,6 @@
+package com.agricredit.cache;
+
+// A cached value that belongs to a group, e.g. one page of a farmer's loans.
+// Evicting the group drops every member with a single key deletion.
+public record GroupedKey(String group, String member) {
+}
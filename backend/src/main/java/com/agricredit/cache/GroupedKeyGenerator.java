@@ -0,0 +1,21 @@
+package com.agricredit.cache;
+
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.data.domain.Limit;
+
+import java.lang.reflect.Method;
+import java.util.StringJoiner;
+
+// The first argument names the group; the remaining arguments identify the member within it
+public class GroupedKeyGenerator implements KeyGenerator {
+
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        StringJoiner member = new StringJoiner(":");
+        for (int i = 1; i < params.length; i++) {
+            Object param = params[i];
+            member.add(param instanceof Limit limit ? String.valueOf(limit.max()) : String.valueOf(param));
+        }
+        return new GroupedKey(String.valueOf(params[0]), member.toString());
+    }
+}
@@ -0,0 +1,48 @@
+package com.agricredit.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Stand-in for Redis in single-node runs and tests; entries do not expire
+public class InMemoryRemoteCacheStore implements RemoteCacheStore {
+
+    private final Map<String, Object> values = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Object>> groups = new ConcurrentHashMap<>();
+
+    @Override
+    public Object get(String key) {
+        return values.get(key);
+    }
+
+    @Override
+    public void put(String key, Object value, Duration ttl) {
+        values.put(key, value);
+    }
+
+    @Override
+    public Object getMember(String key, String member) {
+        Map<String, Object> group = groups.get(key);
+        return group == null ? null : group.get(member);
+    }
+
+    @Override
+    public void putMember(String key, String member, Object value, Duration ttl) {
+        groups.computeIfAbsent(key, k -> new ConcurrentHashMap<>()).put(member, value);
+    }
+
+    @Override
+    public void delete(Collection<String> keys) {
+        for (String key : keys) {
+            values.remove(key);
+            groups.remove(key);
+        }
+    }
+
+    @Override
+    public void deleteByPrefix(String prefix) {
+        values.keySet().removeIf(key -> key.startsWith(prefix));
+        groups.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+}
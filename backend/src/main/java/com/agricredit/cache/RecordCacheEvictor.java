@@ -0,0 +1,69 @@
+package com.agricredit.cache;
+
+import com.agricredit.entity.Loan;
+import com.agricredit.entity.WarehouseReceipt;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+
+// Drops the cached views of changed records: the record itself and its farmer's list pages
+@Component
+public class RecordCacheEvictor {
+
+    @Autowired
+    private TwoTierCacheManager cacheManager;
+
+    public void loanChanged(Loan loan) {
+        loansChanged(List.of(loan));
+    }
+
+    public void loansChanged(Collection<Loan> loans) {
+        loansChanged(loans.stream().map(Loan::getId).toList(),
+                loans.stream().map(loan -> loan.getFarmer().getId()).distinct().toList());
+    }
+
+    public void loansChanged(Collection<Long> loanIds, Collection<Long> farmerIds) {
+        evict(CacheNames.LOANS, loanIds);
+        evict(CacheNames.LOANS_BY_FARMER, farmerIds);
+    }
+
+    public void receiptChanged(WarehouseReceipt receipt) {
+        receiptsChanged(List.of(receipt));
+    }
+
+    public void receiptsChanged(Collection<WarehouseReceipt> receipts) {
+        receiptsChanged(receipts.stream().map(WarehouseReceipt::getId).toList(),
+                receipts.stream().map(receipt -> receipt.getFarmer().getId()).distinct().toList());
+    }
+
+    public void receiptsChanged(Collection<Long> receiptIds, Collection<Long> farmerIds) {
+        evict(CacheNames.RECEIPTS, receiptIds);
+        farmerReceiptsChanged(farmerIds);
+    }
+
+    public void farmerReceiptsChanged(Collection<Long> farmerIds) {
+        evict(CacheNames.RECEIPTS_BY_FARMER, farmerIds);
+    }
+
+    // Deferred to commit; evicting earlier lets a concurrent reader re-cache the old row
+    private void evict(String cacheName, Collection<?> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        TwoTierCache cache = cacheManager.getCache(cacheName);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.evictAll(keys);
+                }
+            });
+        } else {
+            cache.evictAll(keys);
+        }
+    }
+}
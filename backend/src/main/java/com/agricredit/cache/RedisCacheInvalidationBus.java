@@ -0,0 +1,92 @@
+package com.agricredit.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+// Subscribes in the background and keeps retrying, so a Redis outage at boot does not stop the node.
+// Until the subscription is up, stale local entries are bounded by the local TTL.
+public class RedisCacheInvalidationBus implements CacheInvalidationBus, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisCacheInvalidationBus.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ChannelTopic topic;
+    private final Duration retryInterval;
+    private volatile Thread subscriber;
+
+    public RedisCacheInvalidationBus(RedisConnectionFactory connectionFactory, StringRedisTemplate redisTemplate,
+                                     String channel, Duration retryInterval) {
+        this.redisTemplate = redisTemplate;
+        // Not a bean: its own lifecycle would fail the context when Redis is down at startup
+        this.listenerContainer = new RedisMessageListenerContainer();
+        this.listenerContainer.setConnectionFactory(connectionFactory);
+        this.listenerContainer.afterPropertiesSet();
+        this.topic = new ChannelTopic(channel);
+        this.retryInterval = retryInterval;
+    }
+
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        redisTemplate.convertAndSend(topic.getTopic(), invalidation.encode());
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> listener) {
+        listenerContainer.addMessageListener((message, pattern) ->
+                listener.accept(CacheInvalidation.decode(new String(message.getBody(), StandardCharsets.UTF_8))), topic);
+    }
+
+    @Override
+    public void start() {
+        Thread thread = new Thread(this::listen, "cache-invalidation-subscriber");
+        thread.setDaemon(true);
+        subscriber = thread;
+        thread.start();
+    }
+
+    private void listen() {
+        while (subscriber == Thread.currentThread() && !listenerContainer.isRunning()) {
+            try {
+                listenerContainer.start();
+                log.info("Subscribed to cache invalidations on {}", topic.getTopic());
+            } catch (RuntimeException e) {
+                log.warn("Cache invalidation subscription failed, retrying in {}: {}", retryInterval, e.getMessage());
+                listenerContainer.stop();
+                try {
+                    Thread.sleep(retryInterval.toMillis());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        Thread thread = subscriber;
+        subscriber = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        try {
+            listenerContainer.destroy();
+        } catch (Exception e) {
+            log.warn("Failed to stop cache invalidation subscription: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return subscriber != null;
+    }
+}
@@ -0,0 +1,66 @@
+package com.agricredit.cache;
+
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class RedisRemoteCacheStore implements RemoteCacheStore {
+
+    private static final int DELETE_BATCH_SIZE = 500;
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    public RedisRemoteCacheStore(RedisTemplate<String, Object> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public Object get(String key) {
+        return redisTemplate.opsForValue().get(key);
+    }
+
+    @Override
+    public void put(String key, Object value, Duration ttl) {
+        redisTemplate.opsForValue().set(key, value, ttl);
+    }
+
+    @Override
+    public Object getMember(String key, String member) {
+        return redisTemplate.opsForHash().get(key, member);
+    }
+
+    @Override
+    public void putMember(String key, String member, Object value, Duration ttl) {
+        redisTemplate.opsForHash().put(key, member, value);
+        redisTemplate.expire(key, ttl);
+    }
+
+    @Override
+    public void delete(Collection<String> keys) {
+        redisTemplate.delete(keys);
+    }
+
+    // SCAN rather than KEYS so a clear never blocks the Redis event loop
+    @Override
+    public void deleteByPrefix(String prefix) {
+        List<String> batch = new ArrayList<>(DELETE_BATCH_SIZE);
+        ScanOptions options = ScanOptions.scanOptions().match(prefix + "*").count(DELETE_BATCH_SIZE).build();
+        try (Cursor<String> keys = redisTemplate.scan(options)) {
+            while (keys.hasNext()) {
+                batch.add(keys.next());
+                if (batch.size() == DELETE_BATCH_SIZE) {
+                    redisTemplate.delete(batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            redisTemplate.delete(batch);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.agricredit.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+
+// Shared second tier. Grouped entries live in one hash per group so the whole group is one key.
+public interface RemoteCacheStore {
+
+    Object get(String key);
+
+    void put(String key, Object value, Duration ttl);
+
+    Object getMember(String key, String member);
+
+    void putMember(String key, String member, Object value, Duration ttl);
+
+    void delete(Collection<String> keys);
+
+    void deleteByPrefix(String prefix);
+}
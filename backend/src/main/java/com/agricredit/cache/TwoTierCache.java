@@ -0,0 +1,203 @@
+package com.agricredit.cache;
+
+import com.agricredit.dto.CacheStatsResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Bounded per-node L1 in front of a shared L2. Evictions clear both tiers and are broadcast so
+// other nodes drop their L1 copy; an unreachable L2 degrades to L1 plus the database.
+public class TwoTierCache extends AbstractValueAdaptingCache {
+
+    private static final Logger log = LoggerFactory.getLogger(TwoTierCache.class);
+
+    private static final String KEY_PREFIX = "agricredit:cache:";
+
+    // After an L2 failure, reads and writes skip L2 briefly instead of each waiting on a timeout
+    private static final long REMOTE_BACKOFF_NANOS = Duration.ofSeconds(5).toNanos();
+
+    private final String name;
+    private final String keyPrefix;
+    private final String nodeId;
+    private final Cache<String, Object> local;
+    private final RemoteCacheStore remote;
+    private final CacheInvalidationBus invalidationBus;
+    private final Duration remoteTtl;
+    private final CacheStatistics statistics = new CacheStatistics();
+    private volatile long remoteSuspendedUntil = System.nanoTime();
+
+    public TwoTierCache(String name, String nodeId, Cache<String, Object> local, RemoteCacheStore remote,
+                        CacheInvalidationBus invalidationBus, Duration remoteTtl) {
+        super(false);
+        this.name = name;
+        this.keyPrefix = KEY_PREFIX + name + ":";
+        this.nodeId = nodeId;
+        this.local = local;
+        this.remote = remote;
+        this.invalidationBus = invalidationBus;
+        this.remoteTtl = remoteTtl;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        if (key instanceof GroupedKey groupedKey) {
+            return lookupMember(groupedKey);
+        }
+        String localKey = String.valueOf(key);
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            statistics.recordLocalHit();
+            return value;
+        }
+        value = remote(false, () -> remote.get(keyPrefix + localKey));
+        if (value != null) {
+            statistics.recordRemoteHit();
+            local.put(localKey, value);
+            return value;
+        }
+        statistics.recordMiss();
+        return null;
+    }
+
+    private Object lookupMember(GroupedKey key) {
+        Map<String, Object> members = localGroup(key.group(), false);
+        Object value = members == null ? null : members.get(key.member());
+        if (value != null) {
+            statistics.recordLocalHit();
+            return value;
+        }
+        value = remote(false, () -> remote.getMember(keyPrefix + key.group(), key.member()));
+        if (value != null) {
+            statistics.recordRemoteHit();
+            localGroup(key.group(), true).put(key.member(), value);
+            return value;
+        }
+        statistics.recordMiss();
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Object stored = toStoreValue(value);
+        if (key instanceof GroupedKey groupedKey) {
+            localGroup(groupedKey.group(), true).put(groupedKey.member(), stored);
+            remote(false, () -> {
+                remote.putMember(keyPrefix + groupedKey.group(), groupedKey.member(), stored, remoteTtl);
+                return null;
+            });
+        } else {
+            String localKey = String.valueOf(key);
+            local.put(localKey, stored);
+            remote(false, () -> {
+                remote.put(keyPrefix + localKey, stored, remoteTtl);
+                return null;
+            });
+        }
+        statistics.recordPut();
+    }
+
+    // Evicting a grouped key drops its whole group
+    @Override
+    public void evict(Object key) {
+        evictAll(List.of(key));
+    }
+
+    public void evictAll(Collection<?> keys) {
+        List<String> groups = keys.stream()
+                .map(key -> key instanceof GroupedKey groupedKey ? groupedKey.group() : String.valueOf(key))
+                .distinct()
+                .toList();
+        if (groups.isEmpty()) {
+            return;
+        }
+        local.invalidateAll(groups);
+        remote(true, () -> {
+            remote.delete(groups.stream().map(group -> keyPrefix + group).toList());
+            invalidationBus.publish(new CacheInvalidation(nodeId, name, groups));
+            return null;
+        });
+        statistics.recordEvictions(groups.size());
+    }
+
+    @Override
+    public void clear() {
+        local.invalidateAll();
+        remote(true, () -> {
+            remote.deleteByPrefix(keyPrefix);
+            invalidationBus.publish(new CacheInvalidation(nodeId, name, List.of()));
+            return null;
+        });
+    }
+
+    // Another node changed these entries; only the local copy needs to go
+    void onInvalidation(CacheInvalidation invalidation) {
+        if (invalidation.keys().isEmpty()) {
+            local.invalidateAll();
+        } else {
+            local.invalidateAll(invalidation.keys());
+        }
+        statistics.recordRemoteInvalidation();
+    }
+
+    public CacheStatsResponse getStatistics() {
+        return statistics.snapshot(name, local.estimatedSize());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> localGroup(String group, boolean create) {
+        return create
+                ? (Map<String, Object>) local.get(group, g -> new ConcurrentHashMap<String, Object>())
+                : (Map<String, Object>) local.getIfPresent(group);
+    }
+
+    // Evictions always try L2: skipping one would leave a stale entry there until its TTL
+    private Object remote(boolean eviction, Supplier<Object> call) {
+        if (!eviction && System.nanoTime() - remoteSuspendedUntil < 0) {
+            return null;
+        }
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            remoteSuspendedUntil = System.nanoTime() + REMOTE_BACKOFF_NANOS;
+            statistics.recordRemoteError();
+            log.warn("Remote cache call failed for {}: {}", name, e.getMessage());
+            return null;
+        }
+    }
+}
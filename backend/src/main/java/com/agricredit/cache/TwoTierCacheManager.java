@@ -0,0 +1,51 @@
+package com.agricredit.cache;
+
+import com.agricredit.dto.CacheStatsResponse;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class TwoTierCacheManager implements CacheManager {
+
+    // Identifies this node's own broadcasts so it does not invalidate what it just wrote
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, TwoTierCache> caches = new LinkedHashMap<>();
+
+    public TwoTierCacheManager(Collection<String> cacheNames, long localMaxEntries, Duration localTtl,
+                               RemoteCacheStore remote, CacheInvalidationBus invalidationBus, Duration remoteTtl) {
+        for (String cacheName : cacheNames) {
+            caches.put(cacheName, new TwoTierCache(cacheName, nodeId,
+                    Caffeine.newBuilder()
+                            .maximumSize(localMaxEntries)
+                            .expireAfterWrite(localTtl)
+                            .build(),
+                    remote, invalidationBus, remoteTtl));
+        }
+        invalidationBus.subscribe(invalidation -> {
+            TwoTierCache cache = caches.get(invalidation.cacheName());
+            if (cache != null && !nodeId.equals(invalidation.origin())) {
+                cache.onInvalidation(invalidation);
+            }
+        });
+    }
+
+    @Override
+    public TwoTierCache getCache(String name) {
+        return caches.get(name);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return caches.keySet();
+    }
+
+    public List<CacheStatsResponse> getStatistics() {
+        return caches.values().stream().map(TwoTierCache::getStatistics).toList();
+    }
+}
@@ -0,0 +1,10 @@
+package com.agricredit.collateral;
+
+import com.agricredit.entity.WarehouseReceipt;
+
+import java.math.BigDecimal;
+
+// One warehouse receipt as collateral: what is stored, how much, and which loan (if any) it is pledged to
+public record CollateralLot(Long receiptId, Long loanId, Long farmerId, String commodityName, BigDecimal quantity,
+                            String unitOfMeasure, WarehouseReceipt.ReceiptStatus status) {
+}
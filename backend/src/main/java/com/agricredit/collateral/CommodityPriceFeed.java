@@ -0,0 +1,10 @@
+package com.agricredit.collateral;
+
+import java.util.List;
+
+// Source of commodity prices, polled by CommodityPriceWorker. A poll may return the full table or only
+// the quotes that moved; the LTV engine ignores quotes that did not change.
+public interface CommodityPriceFeed {
+
+    List<CommodityQuote> poll();
+}
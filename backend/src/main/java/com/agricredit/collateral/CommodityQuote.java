@@ -0,0 +1,7 @@
+package com.agricredit.collateral;
+
+import java.math.BigDecimal;
+
+// A price for one commodity, quoted per the given unit of measure
+public record CommodityQuote(String commodity, String unit, BigDecimal price) {
+}
@@ -0,0 +1,50 @@
+package com.agricredit.collateral;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.Map;
+
+// Receipts and price quotes use the units warehouses write on them; the LTV engine works in kilograms
+public final class CommodityUnits {
+
+    private static final Map<String, Double> KILOGRAMS_PER_UNIT = Map.ofEntries(
+            Map.entry("kg", 1.0),
+            Map.entry("kgs", 1.0),
+            Map.entry("kilogram", 1.0),
+            Map.entry("kilograms", 1.0),
+            Map.entry("quintal", 100.0),
+            Map.entry("quintals", 100.0),
+            Map.entry("qtl", 100.0),
+            Map.entry("ton", 1000.0),
+            Map.entry("tons", 1000.0),
+            Map.entry("tonne", 1000.0),
+            Map.entry("tonnes", 1000.0),
+            Map.entry("mt", 1000.0));
+
+    private CommodityUnits() {
+    }
+
+    public static String key(String commodity) {
+        return commodity.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public static boolean isSupported(String unit) {
+        return unit != null && KILOGRAMS_PER_UNIT.containsKey(unit.trim().toLowerCase(Locale.ROOT));
+    }
+
+    public static double toKilograms(BigDecimal quantity, String unit) {
+        return quantity.doubleValue() * kilogramsPer(unit);
+    }
+
+    public static double pricePerKilogram(BigDecimal price, String unit) {
+        return price.doubleValue() / kilogramsPer(unit);
+    }
+
+    private static double kilogramsPer(String unit) {
+        Double factor = unit == null ? null : KILOGRAMS_PER_UNIT.get(unit.trim().toLowerCase(Locale.ROOT));
+        if (factor == null) {
+            throw new IllegalArgumentException("Unsupported unit of measure: " + unit);
+        }
+        return factor;
+    }
+}
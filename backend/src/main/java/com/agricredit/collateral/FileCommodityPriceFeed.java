@@ -0,0 +1,61 @@
+package com.agricredit.collateral;
+
+import com.agricredit.util.CsvReader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Reads a commodity,unit,price CSV (header row first) and re-reads it only when the file changes
+public class FileCommodityPriceFeed implements CommodityPriceFeed {
+
+    private final Path file;
+    private final ReentrantLock lock = new ReentrantLock();
+    private FileTime lastModified;
+
+    public FileCommodityPriceFeed(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public List<CommodityQuote> poll() {
+        lock.lock();
+        try {
+            if (!Files.exists(file)) {
+                return List.of();
+            }
+            FileTime modified = Files.getLastModifiedTime(file);
+            if (modified.equals(lastModified)) {
+                return List.of();
+            }
+            List<CommodityQuote> quotes = read();
+            lastModified = modified;
+            return quotes;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read commodity prices from " + file, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<CommodityQuote> read() throws IOException {
+        List<CommodityQuote> quotes = new ArrayList<>();
+        try (CsvReader csv = new CsvReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            csv.readRecord();
+            List<String> row;
+            while ((row = csv.readRecord()) != null) {
+                if (row.size() >= 3 && !row.get(0).isBlank()) {
+                    quotes.add(new CommodityQuote(row.get(0).trim(), row.get(1).trim(), new BigDecimal(row.get(2).trim())));
+                }
+            }
+        }
+        return quotes;
+    }
+}
@@ -0,0 +1,22 @@
+package com.agricredit.collateral;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+public class InMemoryPledgeChangeBus implements PledgeChangeBus {
+
+    private final List<Consumer<PledgeChange>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(PledgeChange change) {
+        for (Consumer<PledgeChange> listener : listeners) {
+            listener.accept(change);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<PledgeChange> listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,8 @@
+package com.agricredit.collateral;
+
+import com.agricredit.entity.MarginCallEvent;
+
+// A loan whose LTV moved into a different level; commodity is the price that moved it, if any
+public record LtvBreach(Long loanId, MarginCallEvent.Level previousLevel, MarginCallEvent.Level level, double ltv,
+                        double exposure, double collateralValue, String commodity) {
+}
@@ -0,0 +1,206 @@
+package com.agricredit.collateral;
+
+import com.agricredit.entity.MarginCallEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+// In-memory loan-to-value book. Besides each loan's position it keeps an index from commodity to the loans
+// pledging it and their kilograms, so a price tick touches only those loans: each collateral value moves by
+// kilograms * price delta instead of being summed again from every lot. Pledge changes recompute the loan
+// exactly, which also clears any rounding the increments picked up.
+public class LtvEngine {
+
+    private final double marginCallThreshold;
+    private final double liquidationThreshold;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Map<String, Double> pricePerKg = new HashMap<>();
+    private final Map<String, Map<Long, Double>> pledgedKgByCommodity = new HashMap<>();
+    private final Map<Long, Position> positions = new HashMap<>();
+
+    private static final class Position {
+        double exposure;
+        double collateralValue;
+        MarginCallEvent.Level level = MarginCallEvent.Level.HEALTHY;
+        final Map<String, Double> kgByCommodity = new HashMap<>();
+    }
+
+    public LtvEngine(double marginCallThreshold, double liquidationThreshold) {
+        if (marginCallThreshold <= 0 || liquidationThreshold < marginCallThreshold) {
+            throw new IllegalArgumentException("LTV thresholds must satisfy 0 < margin call <= liquidation");
+        }
+        this.marginCallThreshold = marginCallThreshold;
+        this.liquidationThreshold = liquidationThreshold;
+    }
+
+    public boolean hasPrice(String commodity) {
+        lock.lock();
+        try {
+            return pricePerKg.containsKey(CommodityUnits.key(commodity));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, Double> prices() {
+        lock.lock();
+        try {
+            return Map.copyOf(pricePerKg);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Applies one quote; returns the loans that changed level because of it
+    public List<LtvBreach> onPrice(String commodity, double newPricePerKg) {
+        String key = CommodityUnits.key(commodity);
+        lock.lock();
+        try {
+            Double previous = pricePerKg.put(key, newPricePerKg);
+            double delta = newPricePerKg - (previous == null ? 0 : previous);
+            Map<Long, Double> pledged = pledgedKgByCommodity.get(key);
+            if (delta == 0 || pledged == null) {
+                return List.of();
+            }
+            List<LtvBreach> breaches = new ArrayList<>();
+            pledged.forEach((loanId, kg) -> {
+                Position position = positions.get(loanId);
+                position.collateralValue += kg * delta;
+                reassess(loanId, position, key, breaches);
+            });
+            return breaches;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Optional<LtvBreach> addLot(Long loanId, double exposure, String commodity, double kg) {
+        return addLots(loanId, exposure, Map.of(commodity, kg));
+    }
+
+    // Several lots pledged together are assessed once, so a partly applied pledge never raises a margin call
+    public Optional<LtvBreach> addLots(Long loanId, double exposure, Map<String, Double> kgByCommodity) {
+        return changeLots(loanId, exposure, kgByCommodity, 1);
+    }
+
+    public Optional<LtvBreach> removeLot(Long loanId, String commodity, double kg) {
+        lock.lock();
+        try {
+            Position position = positions.get(loanId);
+            if (position == null) {
+                return Optional.empty();
+            }
+            return changeLots(loanId, position.exposure, Map.of(commodity, kg), -1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void removeLoan(Long loanId) {
+        lock.lock();
+        try {
+            Position position = positions.remove(loanId);
+            if (position == null) {
+                return;
+            }
+            position.kgByCommodity.keySet().forEach(commodity -> {
+                Map<Long, Double> pledged = pledgedKgByCommodity.get(commodity);
+                pledged.remove(loanId);
+                if (pledged.isEmpty()) {
+                    pledgedKgByCommodity.remove(commodity);
+                }
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Swaps in a loan's current lots, e.g. after another node changed its pledges. The level is assessed afresh
+    // and not reported: the node that made the change reports it.
+    public void replaceLoan(Long loanId, double exposure, Map<String, Double> kgByCommodity) {
+        lock.lock();
+        try {
+            removeLoan(loanId);
+            if (!kgByCommodity.isEmpty()) {
+                addLots(loanId, exposure, kgByCommodity);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Optional<LtvSnapshot> snapshot(Long loanId) {
+        lock.lock();
+        try {
+            Position position = positions.get(loanId);
+            return position == null ? Optional.empty() : Optional.of(new LtvSnapshot(loanId, position.exposure,
+                    position.collateralValue, ltv(position), position.level));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int loanCount() {
+        lock.lock();
+        try {
+            return positions.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Optional<LtvBreach> changeLots(Long loanId, double exposure, Map<String, Double> kgByCommodity, int sign) {
+        lock.lock();
+        try {
+            Position position = positions.computeIfAbsent(loanId, id -> new Position());
+            position.exposure = exposure;
+            kgByCommodity.forEach((commodity, kg) -> {
+                String key = CommodityUnits.key(commodity);
+                double total = position.kgByCommodity.merge(key, sign * kg, Double::sum);
+                Map<Long, Double> pledged = pledgedKgByCommodity.computeIfAbsent(key, c -> new HashMap<>());
+                if (total <= 0) {
+                    position.kgByCommodity.remove(key);
+                    pledged.remove(loanId);
+                    if (pledged.isEmpty()) {
+                        pledgedKgByCommodity.remove(key);
+                    }
+                } else {
+                    pledged.put(loanId, total);
+                }
+            });
+            if (position.kgByCommodity.isEmpty()) {
+                positions.remove(loanId);
+                return Optional.empty();
+            }
+
+            position.collateralValue = 0;
+            position.kgByCommodity.forEach((c, pledgedKg) -> position.collateralValue += pledgedKg * pricePerKg.getOrDefault(c, 0.0));
+            List<LtvBreach> breaches = new ArrayList<>(1);
+            reassess(loanId, position, null, breaches);
+            return breaches.stream().findFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void reassess(Long loanId, Position position, String commodity, List<LtvBreach> breaches) {
+        double ltv = ltv(position);
+        MarginCallEvent.Level level = ltv >= liquidationThreshold ? MarginCallEvent.Level.LIQUIDATION
+                : ltv >= marginCallThreshold ? MarginCallEvent.Level.MARGIN_CALL
+                : MarginCallEvent.Level.HEALTHY;
+        if (level != position.level) {
+            breaches.add(new LtvBreach(loanId, position.level, level, ltv, position.exposure,
+                    position.collateralValue, commodity));
+            position.level = level;
+        }
+    }
+
+    private static double ltv(Position position) {
+        return position.collateralValue <= 0 ? Double.POSITIVE_INFINITY : position.exposure / position.collateralValue;
+    }
+}
@@ -0,0 +1,7 @@
+package com.agricredit.collateral;
+
+import com.agricredit.entity.MarginCallEvent;
+
+public record LtvSnapshot(Long loanId, double exposure, double collateralValue, double ltv,
+                          MarginCallEvent.Level level) {
+}
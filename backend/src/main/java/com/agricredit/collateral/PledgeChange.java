@@ -0,0 +1,16 @@
+package com.agricredit.collateral;
+
+// A loan's pledged receipts changed on the node named by origin; the others reload that loan's lots
+public record PledgeChange(String origin, Long loanId) {
+
+    private static final String SEPARATOR = "\t";
+
+    public String encode() {
+        return origin + SEPARATOR + loanId;
+    }
+
+    public static PledgeChange decode(String message) {
+        String[] parts = message.split(SEPARATOR);
+        return new PledgeChange(parts[0], Long.valueOf(parts[1]));
+    }
+}
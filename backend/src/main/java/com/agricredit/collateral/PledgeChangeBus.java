@@ -0,0 +1,11 @@
+package com.agricredit.collateral;
+
+import java.util.function.Consumer;
+
+// Fan-out of pledge changes so every node's LTV engine follows the pledged receipts
+public interface PledgeChangeBus {
+
+    void publish(PledgeChange change);
+
+    void subscribe(Consumer<PledgeChange> listener);
+}
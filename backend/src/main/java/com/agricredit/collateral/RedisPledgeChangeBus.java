@@ -0,0 +1,92 @@
+package com.agricredit.collateral;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+// Subscribes in the background and keeps retrying, like the cache invalidation bus, so a Redis outage at boot does
+// not stop the node. Changes published while the subscription is down are missed until the node restarts.
+public class RedisPledgeChangeBus implements PledgeChangeBus, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisPledgeChangeBus.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ChannelTopic topic;
+    private final Duration retryInterval;
+    private volatile Thread subscriber;
+
+    public RedisPledgeChangeBus(RedisConnectionFactory connectionFactory, StringRedisTemplate redisTemplate,
+                                String channel, Duration retryInterval) {
+        this.redisTemplate = redisTemplate;
+        // Not a bean: its own lifecycle would fail the context when Redis is down at startup
+        this.listenerContainer = new RedisMessageListenerContainer();
+        this.listenerContainer.setConnectionFactory(connectionFactory);
+        this.listenerContainer.afterPropertiesSet();
+        this.topic = new ChannelTopic(channel);
+        this.retryInterval = retryInterval;
+    }
+
+    @Override
+    public void publish(PledgeChange change) {
+        redisTemplate.convertAndSend(topic.getTopic(), change.encode());
+    }
+
+    @Override
+    public void subscribe(Consumer<PledgeChange> listener) {
+        listenerContainer.addMessageListener((message, pattern) ->
+                listener.accept(PledgeChange.decode(new String(message.getBody(), StandardCharsets.UTF_8))), topic);
+    }
+
+    @Override
+    public void start() {
+        Thread thread = new Thread(this::listen, "pledge-change-subscriber");
+        thread.setDaemon(true);
+        subscriber = thread;
+        thread.start();
+    }
+
+    private void listen() {
+        while (subscriber == Thread.currentThread() && !listenerContainer.isRunning()) {
+            try {
+                listenerContainer.start();
+                log.info("Subscribed to pledge changes on {}", topic.getTopic());
+            } catch (RuntimeException e) {
+                log.warn("Pledge change subscription failed, retrying in {}: {}", retryInterval, e.getMessage());
+                listenerContainer.stop();
+                try {
+                    Thread.sleep(retryInterval.toMillis());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        Thread thread = subscriber;
+        subscriber = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        try {
+            listenerContainer.destroy();
+        } catch (Exception e) {
+            log.warn("Failed to stop pledge change subscription: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return subscriber != null;
+    }
+}
@@ -0,0 +1,46 @@
+package com.agricredit.collateral;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// Stand-in for a market feed: starts from fixed per-quintal prices and moves each by up to ±maxMovePercent per poll
+public class StubCommodityPriceFeed implements CommodityPriceFeed {
+
+    private static final String UNIT = "quintal";
+
+    private final Map<String, BigDecimal> prices = new LinkedHashMap<>();
+    private final double maxMovePercent;
+    private final Random random;
+    private boolean first = true;
+
+    public StubCommodityPriceFeed(double maxMovePercent, long seed) {
+        this.maxMovePercent = maxMovePercent;
+        this.random = new Random(seed);
+        prices.put("maize", new BigDecimal("2200.00"));
+        prices.put("wheat", new BigDecimal("2450.00"));
+        prices.put("rice", new BigDecimal("3100.00"));
+        prices.put("sorghum", new BigDecimal("2800.00"));
+        prices.put("soybean", new BigDecimal("4600.00"));
+        prices.put("coffee", new BigDecimal("31000.00"));
+    }
+
+    @Override
+    public List<CommodityQuote> poll() {
+        List<CommodityQuote> quotes = new ArrayList<>(prices.size());
+        prices.replaceAll((commodity, price) -> {
+            if (first) {
+                return price;
+            }
+            double move = (random.nextDouble() * 2 - 1) * maxMovePercent / 100;
+            return price.multiply(BigDecimal.valueOf(1 + move)).setScale(2, RoundingMode.HALF_EVEN);
+        });
+        prices.forEach((commodity, price) -> quotes.add(new CommodityQuote(commodity, UNIT, price)));
+        first = false;
+        return quotes;
+    }
+}
@@ -0,0 +1,31 @@
+package com.agricredit.config;
+
+import com.agricredit.archive.ArchiveStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class ArchiveConfig {
+
+    // Archived rows exist nowhere else once they leave the database, so there is no default directory: it has to
+    // be named, as an absolute path on a durable volume every node mounts. Without one lookups find nothing, and
+    // archival refuses to run.
+    @Bean
+    public ArchiveStore archiveStore(@Value("${archive.dir:}") String dir,
+                                     @Value("${archive.enabled:false}") boolean enabled) {
+        if (dir.isBlank()) {
+            if (enabled) {
+                throw new IllegalStateException("archive.enabled needs archive.dir, a durable directory shared by all nodes");
+            }
+            return ArchiveStore.none();
+        }
+        Path path = Path.of(dir);
+        if (!path.isAbsolute()) {
+            throw new IllegalStateException("archive.dir must be an absolute path, got " + dir);
+        }
+        return new ArchiveStore(path);
+    }
+}
@@ -0,0 +1,37 @@
+package com.agricredit.config;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+// Picks the highest BCrypt cost whose hash still fits the target latency on this hardware.
+// Each cost step doubles the work, so one measurement at the floor is enough to extrapolate.
+public final class BCryptCostCalibrator {
+
+    private static final int SAMPLES = 3;
+
+    private BCryptCostCalibrator() {
+    }
+
+    public static int calibrate(Duration target, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        probe.encode("calibration");
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return strengthFor(best, target.toNanos(), minStrength, maxStrength);
+    }
+
+    static int strengthFor(long nanosAtMin, long targetNanos, int minStrength, int maxStrength) {
+        int strength = minStrength;
+        long estimate = nanosAtMin;
+        while (strength < maxStrength && estimate * 2 <= targetNanos) {
+            strength++;
+            estimate *= 2;
+        }
+        return strength;
+    }
+}
@@ -0,0 +1,100 @@
+package com.agricredit.config;
+
+import com.agricredit.cache.CacheInvalidationBus;
+import com.agricredit.cache.CacheNames;
+import com.agricredit.cache.GroupedKeyGenerator;
+import com.agricredit.cache.InMemoryCacheInvalidationBus;
+import com.agricredit.cache.InMemoryRemoteCacheStore;
+import com.agricredit.cache.RedisCacheInvalidationBus;
+import com.agricredit.cache.RedisRemoteCacheStore;
+import com.agricredit.cache.RemoteCacheStore;
+import com.agricredit.cache.TwoTierCacheManager;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    @Value("${cache.local.max-entries:10000}")
+    private long localMaxEntries;
+
+    @Value("${cache.local.ttl-seconds:60}")
+    private long localTtlSeconds;
+
+    @Value("${cache.remote.ttl-seconds:600}")
+    private long remoteTtlSeconds;
+
+    @Bean
+    public TwoTierCacheManager cacheManager(RemoteCacheStore remoteCacheStore, CacheInvalidationBus cacheInvalidationBus) {
+        return new TwoTierCacheManager(
+                List.of(CacheNames.LOANS, CacheNames.LOANS_BY_FARMER, CacheNames.RECEIPTS, CacheNames.RECEIPTS_BY_FARMER),
+                localMaxEntries, Duration.ofSeconds(localTtlSeconds),
+                remoteCacheStore, cacheInvalidationBus, Duration.ofSeconds(remoteTtlSeconds));
+    }
+
+    @Bean
+    public KeyGenerator groupedKeyGenerator() {
+        return new GroupedKeyGenerator();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "cache.backend", havingValue = "memory", matchIfMissing = true)
+    public RemoteCacheStore inMemoryRemoteCacheStore() {
+        return new InMemoryRemoteCacheStore();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "cache.backend", havingValue = "memory", matchIfMissing = true)
+    public CacheInvalidationBus inMemoryCacheInvalidationBus() {
+        return new InMemoryCacheInvalidationBus();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "cache.backend", havingValue = "redis")
+    public RemoteCacheStore redisRemoteCacheStore(RedisConnectionFactory connectionFactory, ObjectMapper objectMapper) {
+        // Type hints are needed to read values back, so only our DTOs and plain JDK value types are accepted
+        ObjectMapper mapper = objectMapper.copy();
+        mapper.activateDefaultTyping(BasicPolymorphicTypeValidator.builder()
+                        .allowIfSubType("com.agricredit.dto.")
+                        .allowIfSubType("java.util.")
+                        .allowIfSubType("java.math.")
+                        .build(),
+                ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer(mapper);
+
+        RedisTemplate<String, Object> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(StringRedisSerializer.UTF_8);
+        template.setHashKeySerializer(StringRedisSerializer.UTF_8);
+        template.setValueSerializer(serializer);
+        template.setHashValueSerializer(serializer);
+        template.afterPropertiesSet();
+        return new RedisRemoteCacheStore(template);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "cache.backend", havingValue = "redis")
+    public CacheInvalidationBus redisCacheInvalidationBus(RedisConnectionFactory connectionFactory,
+                                                          StringRedisTemplate redisTemplate,
+                                                          @Value("${cache.invalidation.channel:agricredit:cache:invalidations}") String channel,
+                                                          @Value("${cache.invalidation.retry-seconds:5}") long retrySeconds) {
+        return new RedisCacheInvalidationBus(connectionFactory, redisTemplate, channel,
+                Duration.ofSeconds(retrySeconds));
+    }
+}
@@ -0,0 +1,71 @@
+package com.agricredit.config;
+
+import com.agricredit.collateral.CommodityPriceFeed;
+import com.agricredit.collateral.FileCommodityPriceFeed;
+import com.agricredit.collateral.InMemoryPledgeChangeBus;
+import com.agricredit.collateral.LtvEngine;
+import com.agricredit.collateral.PledgeChangeBus;
+import com.agricredit.collateral.RedisPledgeChangeBus;
+import com.agricredit.collateral.StubCommodityPriceFeed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+public class CommodityPriceConfig {
+
+    // Prices drive margin calls against real loans, so there is no default source: it has to be named. The stub
+    // makes prices up, so only the tests and the dev profile may use it, and they say so with
+    // commodity.prices.stub.allowed.
+    @Bean
+    public CommodityPriceFeed commodityPriceFeed(@Value("${commodity.prices.source:}") String source,
+                                                 @Value("${commodity.prices.file:}") String file,
+                                                 @Value("${commodity.prices.stub.allowed:false}") boolean stubAllowed,
+                                                 @Value("${commodity.prices.stub.max-move-percent:1.5}") double maxMovePercent,
+                                                 @Value("${commodity.prices.stub.seed:42}") long seed) {
+        switch (source) {
+            case "file" -> {
+                if (file.isBlank()) {
+                    throw new IllegalStateException("commodity.prices.source=file needs commodity.prices.file");
+                }
+                return new FileCommodityPriceFeed(Path.of(file));
+            }
+            case "stub" -> {
+                if (!stubAllowed) {
+                    throw new IllegalStateException("commodity.prices.source=stub invents prices and would raise margin "
+                            + "calls against real loans; use commodity.prices.source=file outside tests and the dev profile");
+                }
+                return new StubCommodityPriceFeed(maxMovePercent, seed);
+            }
+            default -> throw new IllegalStateException("commodity.prices.source must be set to file, got '" + source + "'");
+        }
+    }
+
+    @Bean
+    public LtvEngine ltvEngine(@Value("${ltv.margin-call-threshold:0.80}") double marginCallThreshold,
+                               @Value("${ltv.liquidation-threshold:0.90}") double liquidationThreshold) {
+        return new LtvEngine(marginCallThreshold, liquidationThreshold);
+    }
+
+    // Pledge changes travel with the cache backend: a single node needs no fan-out, several share Redis
+    @Bean
+    @ConditionalOnProperty(name = "cache.backend", havingValue = "memory", matchIfMissing = true)
+    public PledgeChangeBus inMemoryPledgeChangeBus() {
+        return new InMemoryPledgeChangeBus();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "cache.backend", havingValue = "redis")
+    public PledgeChangeBus redisPledgeChangeBus(RedisConnectionFactory connectionFactory,
+                                                StringRedisTemplate redisTemplate,
+                                                @Value("${collateral.pledges.channel:agricredit:collateral:pledges}") String channel,
+                                                @Value("${cache.invalidation.retry-seconds:5}") long retrySeconds) {
+        return new RedisPledgeChangeBus(connectionFactory, redisTemplate, channel, Duration.ofSeconds(retrySeconds));
+    }
+}
@@ -0,0 +1,82 @@
+package com.agricredit.config;
+
+import com.agricredit.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+
+// Authenticates Bearer tokens from their claims alone; no user lookup per request
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache cache;
+
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, int cacheSize) {
+        this.jwtUtil = jwtUtil;
+        this.cache = new VerifiedTokenCache(cacheSize);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            Authentication authentication = authenticate(header.substring(BEARER_PREFIX.length()));
+            if (authentication != null) {
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(authentication);
+                SecurityContextHolder.setContext(context);
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    Authentication authenticate(String token) {
+        long now = System.currentTimeMillis();
+        Authentication cached = cache.get(token, now);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims;
+        try {
+            claims = jwtUtil.extractAllClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+
+        Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(
+                claims.getSubject(), null, authorities(claims));
+        if (claims.getExpiration() != null) {
+            cache.put(token, authentication, claims.getExpiration().getTime(), now);
+        }
+        return authentication;
+    }
+
+    private Collection<? extends GrantedAuthority> authorities(Claims claims) {
+        Object roles = claims.get(JwtUtil.ROLES_CLAIM);
+        if (!(roles instanceof Collection<?> values)) {
+            return List.of();
+        }
+        return values.stream()
+                .map(role -> new SimpleGrantedAuthority(String.valueOf(role)))
+                .toList();
+    }
+}
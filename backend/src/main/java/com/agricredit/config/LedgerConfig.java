@@ -0,0 +1,44 @@
+package com.agricredit.config;
+
+import com.agricredit.ledger.FileLedgerClient;
+import com.agricredit.ledger.InMemoryLedgerClient;
+import com.agricredit.ledger.LedgerClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class LedgerConfig {
+
+    // Anchors vanish with the process while the outbox keeps their transaction ids, so proofs stop resolving after
+    // a restart or on another node. Only the tests may use it, and they say so with ledger.memory.allowed.
+    @Bean
+    @ConditionalOnProperty(name = "ledger.client", havingValue = "memory")
+    public LedgerClient inMemoryLedgerClient(@Value("${ledger.memory.allowed:false}") boolean allowed) {
+        if (!allowed) {
+            throw new IllegalStateException("ledger.client=memory loses every anchor on restart; use ledger.client=file "
+                    + "(or an external ledger client) outside tests");
+        }
+        return new InMemoryLedgerClient();
+    }
+
+    // Proofs are checked against the anchors in this file, and any node may be asked for one, so like the archive
+    // directory it has no default: it has to be named, as an absolute path on a durable volume every node mounts.
+    // A relative path would quietly give each node a chain of its own. Appends are serialized with a file lock, so
+    // the volume has to honour locks across hosts (NFSv4 does; a plain bind mount on each host does not).
+    @Bean
+    @ConditionalOnProperty(name = "ledger.client", havingValue = "file", matchIfMissing = true)
+    public LedgerClient fileLedgerClient(@Value("${ledger.file:}") String file) {
+        if (file.isBlank()) {
+            throw new IllegalStateException("ledger.client=file needs ledger.file, an anchor file shared by all nodes");
+        }
+        Path path = Path.of(file);
+        if (!path.isAbsolute()) {
+            throw new IllegalStateException("ledger.file must be an absolute path, got " + file);
+        }
+        return new FileLedgerClient(path);
+    }
+}
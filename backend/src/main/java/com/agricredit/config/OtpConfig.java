@@ -0,0 +1,35 @@
+package com.agricredit.config;
+
+import com.agricredit.service.InMemoryOtpStore;
+import com.agricredit.service.OtpStore;
+import com.agricredit.service.RedisOtpStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class OtpConfig {
+
+    @Value("${otp.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${otp.max-attempts:5}")
+    private int maxAttempts;
+
+    // Codes live on the node that issued them, so memory only suits a single node
+    @Bean
+    @ConditionalOnProperty(name = "otp.store", havingValue = "memory", matchIfMissing = true)
+    public OtpStore inMemoryOtpStore() {
+        return new InMemoryOtpStore(Duration.ofSeconds(ttlSeconds), maxAttempts);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "otp.store", havingValue = "redis")
+    public OtpStore redisOtpStore(StringRedisTemplate redisTemplate) {
+        return new RedisOtpStore(redisTemplate, Duration.ofSeconds(ttlSeconds), maxAttempts);
+    }
+}
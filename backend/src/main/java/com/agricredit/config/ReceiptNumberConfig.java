@@ -0,0 +1,36 @@
+package com.agricredit.config;
+
+import com.agricredit.service.ReceiptNumberGenerator;
+import com.agricredit.service.SequenceReceiptNumberGenerator;
+import com.agricredit.service.SnowflakeReceiptNumberGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+public class ReceiptNumberConfig {
+
+    // Opt-in: the node id has no default, since two nodes left on the same id would hand out identical numbers
+    @Bean
+    @ConditionalOnProperty(name = "receipt.number.strategy", havingValue = "snowflake")
+    public ReceiptNumberGenerator snowflakeReceiptNumberGenerator(
+            @Value("${receipt.number.node-id:#{null}}") Long nodeId) {
+        if (nodeId == null) {
+            throw new IllegalStateException(
+                    "receipt.number.node-id must be set to a value unique to this node (0-1023) for the snowflake strategy");
+        }
+        return new SnowflakeReceiptNumberGenerator(nodeId);
+    }
+
+    // The default: needs no per-node setup. receipt_number_seq comes from the migrations
+    @Bean
+    @ConditionalOnProperty(name = "receipt.number.strategy", havingValue = "sequence", matchIfMissing = true)
+    public ReceiptNumberGenerator sequenceReceiptNumberGenerator(
+            JdbcTemplate jdbcTemplate,
+            @Value("${receipt.number.block-size:1000}") long blockSize) {
+        return new SequenceReceiptNumberGenerator(
+                () -> jdbcTemplate.queryForObject("SELECT nextval('receipt_number_seq')", Long.class), blockSize);
+    }
+}
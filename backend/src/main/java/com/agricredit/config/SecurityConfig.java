@@ -1,7 +1,13 @@
 package com.agricredit.config;
 
+import com.agricredit.service.PasswordHashingService;
 import com.agricredit.service.UserService;
+import com.agricredit.util.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -12,21 +18,62 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
+import java.util.Map;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
 public class SecurityConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
+    private static final String BCRYPT = "bcrypt";
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${jwt.cache.max-entries:10000}")
+    private int jwtCacheMaxEntries;
+
+    // 0 calibrates the cost at startup to the target latency, within the min/max bounds
+    @Value("${password.bcrypt.strength:0}")
+    private int bcryptStrength;
+
+    @Value("${password.bcrypt.target-ms:100}")
+    private long bcryptTargetMs;
+
+    @Value("${password.bcrypt.min-strength:10}")
+    private int bcryptMinStrength;
+
+    @Value("${password.bcrypt.max-strength:16}")
+    private int bcryptMaxStrength;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        int strength = bcryptStrength > 0 ? bcryptStrength
+                : BCryptCostCalibrator.calibrate(Duration.ofMillis(bcryptTargetMs), bcryptMinStrength, bcryptMaxStrength);
+        log.info("Using BCrypt cost {}", strength);
+
+        PasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(BCRYPT, Map.of(BCRYPT, bcrypt));
+        // Hashes stored before the {id} prefix was introduced are plain BCrypt
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return new TimedPasswordEncoder(delegating, passwordHashingService, meterRegistry);
     }
 
     @Bean
@@ -39,6 +86,8 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        // Rehashes on a successful login when the stored hash is unprefixed or below the current cost
+        authProvider.setUserDetailsPasswordService(userService);
         return authProvider;
     }
 
@@ -49,12 +98,18 @@ public class SecurityConfig {
                 .authorizeHttpRequests(authz -> authz
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/public/**").permitAll()
-                        .requestMatchers("/actuator/**").permitAll()
+                        // Probes stay open; metrics name routes, tables and pool sizes, so they are for admins
+                        .requestMatchers("/actuator/health", "/actuator/health/**", "/actuator/info").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 );
 
         http.authenticationProvider(authenticationProvider());
 
+        // Not a bean, so Boot does not also register it as a plain servlet filter
+        http.addFilterBefore(new JwtAuthenticationFilter(jwtUtil, jwtCacheMaxEntries),
+                UsernamePasswordAuthenticationFilter.class);
+
         return http.build();
     }
 }
\ No newline at end of file
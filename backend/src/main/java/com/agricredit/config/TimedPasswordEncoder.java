@@ -0,0 +1,54 @@
+package com.agricredit.config;
+
+import com.agricredit.service.PasswordHashingService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final PasswordHashingService passwordHashingService;
+    private final Timer encodeTimer;
+    private final Timer verifyTimer;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, PasswordHashingService passwordHashingService,
+                                MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.passwordHashingService = passwordHashingService;
+        this.encodeTimer = Timer.builder("agricredit.password.hash").tag("operation", "encode").register(meterRegistry);
+        this.verifyTimer = Timer.builder("agricredit.password.hash").tag("operation", "verify").register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        long start = System.nanoTime();
+        try {
+            return delegate.encode(rawPassword);
+        } finally {
+            long nanos = System.nanoTime() - start;
+            passwordHashingService.recordEncode(nanos);
+            encodeTimer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        try {
+            return delegate.matches(rawPassword, encodedPassword);
+        } finally {
+            long nanos = System.nanoTime() - start;
+            passwordHashingService.recordVerify(nanos);
+            verifyTimer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Must be forwarded, or the default (false) would switch off hash upgrades on login
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
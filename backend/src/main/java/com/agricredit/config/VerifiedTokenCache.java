@@ -0,0 +1,58 @@
+package com.agricredit.config;
+
+import org.springframework.security.core.Authentication;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Bounded map of tokens whose signature has already been checked, kept only until the token expires
+class VerifiedTokenCache {
+
+    private record Entry(Authentication authentication, long expiresAtMillis) {
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+
+    VerifiedTokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    Authentication get(String token, long nowMillis) {
+        Entry entry = entries.get(token);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis() <= nowMillis) {
+            entries.remove(token, entry);
+            return null;
+        }
+        return entry.authentication();
+    }
+
+    void put(String token, Authentication authentication, long expiresAtMillis, long nowMillis) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            evict(nowMillis);
+        }
+        entries.put(token, new Entry(authentication, expiresAtMillis));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    // Drop expired tokens first; if that is not enough, drop arbitrary ones until a quarter is free
+    private void evict(long nowMillis) {
+        entries.values().removeIf(entry -> entry.expiresAtMillis() <= nowMillis);
+        Iterator<String> iterator = entries.keySet().iterator();
+        int target = maxEntries - Math.max(1, maxEntries / 4);
+        while (entries.size() > target && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.agricredit.controller;
+
+import com.agricredit.dto.PortfolioAnalyticsResponse;
+import com.agricredit.service.PortfolioAnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/analytics/portfolio")
+@CrossOrigin(origins = "*")
+public class AnalyticsController {
+
+    @Autowired
+    private PortfolioAnalyticsService portfolioAnalyticsService;
+
+    @GetMapping
+    public ResponseEntity<PortfolioAnalyticsResponse> getPlatformPortfolio() {
+        return ResponseEntity.ok(portfolioAnalyticsService.getPortfolio(null));
+    }
+
+    @GetMapping("/lender/{lenderId}")
+    public ResponseEntity<PortfolioAnalyticsResponse> getLenderPortfolio(@PathVariable Long lenderId) {
+        return ResponseEntity.ok(portfolioAnalyticsService.getPortfolio(lenderId));
+    }
+
+    // Recounts the aggregates from the loan and receipt tables
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PortfolioAnalyticsResponse> rebuild() {
+        portfolioAnalyticsService.rebuild();
+        return ResponseEntity.ok(portfolioAnalyticsService.getPortfolio(null));
+    }
+}
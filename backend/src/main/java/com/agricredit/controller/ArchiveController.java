@@ -0,0 +1,35 @@
+package com.agricredit.controller;
+
+import com.agricredit.dto.ArchivalStatusResponse;
+import com.agricredit.service.ArchivalService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/jobs/archive")
+@CrossOrigin(origins = "*")
+public class ArchiveController {
+
+    @Autowired
+    private ArchivalService archivalService;
+
+    @GetMapping
+    public ResponseEntity<ArchivalStatusResponse> getStatus() {
+        return ResponseEntity.ok(archivalService.getStatus());
+    }
+
+    @PostMapping("/run")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> run() {
+        if (!archivalService.isConfigured()) {
+            return ResponseEntity.badRequest().body("No archive directory configured (archive.dir)");
+        }
+        if (!archivalService.trigger()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Archival is already running");
+        }
+        return ResponseEntity.accepted().build();
+    }
+}
@@ -4,31 +4,31 @@ import com.agricredit.dto.AuthRequest;
 import com.agricredit.dto.AuthResponse;
 import com.agricredit.dto.OtpRequest;
 import com.agricredit.entity.User;
+import com.agricredit.service.OtpStore;
+import com.agricredit.service.OtpVerification;
+import com.agricredit.service.PasswordHashingService;
 import com.agricredit.service.UserService;
 import com.agricredit.util.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.security.SecureRandom;
-import java.time.Instant;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "*")
 public class AuthController {
 
-    @Autowired
-    private AuthenticationManager authenticationManager;
-
     @Autowired
     private UserService userService;
 
@@ -38,73 +38,87 @@ public class AuthController {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private OtpStore otpStore;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
     private final Random random = new SecureRandom();
 
+    // Encoded on first use at the current cost
+    private volatile String unknownUserHash;
+
+    // BCrypt runs under the hashing service's concurrency limit: a few hashes at a time, a bounded number of
+    // logins waiting for a turn, and 429 at once beyond that.
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody AuthRequest authRequest) {
+        User user = userService.findByUsername(authRequest.getUsername()).orElse(null);
+        String password = authRequest.getPassword() == null ? "" : authRequest.getPassword();
         try {
-            // Authenticate user
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            authRequest.getUsername(),
-                            authRequest.getPassword()
-                    )
-            );
-
-            // Generate OTP for additional security
-            String otp = generateOTP();
-            
-            User user = (User) authentication.getPrincipal();
-            user.setOtp(otp);
-            user.setOtpExpiryTime(Instant.now().plusSeconds(300).toEpochMilli()); // 5 minutes expiry
-            userService.saveUser(user);
-
-            // Return user info with OTP requirement
-            Map<String, Object> response = new HashMap<>();
-            response.put("message", "OTP sent to user. Please verify.");
-            response.put("userId", user.getId());
-            response.put("username", user.getUsername());
-            response.put("role", user.getRole().name());
-
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body("Invalid credentials");
+            // An unknown user is checked against a dummy hash, so the response time does not tell who exists
+            boolean matches = hash(() -> passwordEncoder.matches(password,
+                    user != null ? user.getPassword() : unknownUserHash()));
+            if (user == null || !matches || !user.isEnabled()) {
+                return ResponseEntity.badRequest().body("Invalid credentials");
+            }
+            // Hashes that are unprefixed or below the current cost are replaced on a successful login
+            if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+                String upgraded = hash(() -> passwordEncoder.encode(password));
+                userService.updatePassword(user, upgraded);
+            }
+        } catch (RejectedExecutionException e) {
+            return tooManyRequests();
         }
+
+        // Generate OTP for additional security
+        String otp = generateOTP();
+        otpStore.issue(user.getUsername(), otp, user.getId(), user.getRole().name());
+
+        // Return user info with OTP requirement
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "OTP sent to user. Please verify.");
+        response.put("userId", user.getId());
+        response.put("username", user.getUsername());
+        response.put("role", user.getRole().name());
+
+        return ResponseEntity.ok(response);
     }
 
     @PostMapping("/verify-otp")
     public ResponseEntity<?> verifyOtp(@RequestBody OtpRequest otpRequest) {
-        User user = userService.findByUsername(otpRequest.getUsername())
-                .orElse(null);
-
-        if (user == null || user.getOtp() == null) {
+        if (otpRequest.getUsername() == null) {
             return ResponseEntity.badRequest().body("Invalid user or OTP not generated");
         }
 
-        if (!user.getOtp().equals(otpRequest.getOtp())) {
-            return ResponseEntity.badRequest().body("Invalid OTP");
-        }
-
-        if (Instant.now().toEpochMilli() > user.getOtpExpiryTime()) {
-            return ResponseEntity.badRequest().body("OTP has expired");
+        // Everything needed for the tokens was stored with the code, so the users table is not read
+        OtpVerification verification = otpStore.verify(otpRequest.getUsername(), otpRequest.getOtp());
+        switch (verification.status()) {
+            case NOT_FOUND:
+                return ResponseEntity.badRequest().body("Invalid user or OTP not generated");
+            case EXPIRED:
+                return ResponseEntity.badRequest().body("OTP has expired");
+            case INVALID:
+                return ResponseEntity.badRequest().body("Invalid OTP");
+            case LOCKED:
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .body("Too many invalid OTP attempts. Please log in again.");
+            default:
+                break;
         }
 
-        // Clear OTP after successful verification
-        user.setOtp(null);
-        user.setOtpExpiryTime(null);
-        userService.saveUser(user);
-
         // Generate JWT tokens
-        String accessToken = jwtUtil.generateToken(user);
-        String refreshToken = jwtUtil.generateToken(user); // In a real app, you'd store refresh tokens securely
+        List<String> roles = List.of("ROLE_" + verification.role());
+        String accessToken = jwtUtil.generateToken(otpRequest.getUsername(), roles);
+        String refreshToken = jwtUtil.generateToken(otpRequest.getUsername(), roles); // In a real app, you'd store refresh tokens securely
 
         AuthResponse authResponse = new AuthResponse(
                 accessToken,
                 refreshToken,
                 "Bearer",
-                user.getId(),
-                user.getUsername(),
-                user.getRole().name()
+                verification.userId(),
+                otpRequest.getUsername(),
+                verification.role()
         );
 
         return ResponseEntity.ok(authResponse);
@@ -112,6 +126,14 @@ public class AuthController {
 
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody User user) {
+        // Anyone can call this, so it only opens farmer and lender accounts; admins are made by an admin
+        if (user.getRole() == null) {
+            user.setRole(User.Role.FARMER);
+        }
+        if (user.getRole() == User.Role.ADMIN) {
+            return ResponseEntity.badRequest().body("Admin accounts cannot be self-registered");
+        }
+
         // Check if username or email already exists
         if (userService.existsByUsername(user.getUsername())) {
             return ResponseEntity.badRequest().body("Username already exists");
@@ -121,8 +143,13 @@ public class AuthController {
         }
 
         // Encode password
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        
+        try {
+            String encoded = hash(() -> passwordEncoder.encode(user.getPassword()));
+            user.setPassword(encoded);
+        } catch (RejectedExecutionException e) {
+            return tooManyRequests();
+        }
+
         // Set default active status
         user.setIsActive(true);
 
@@ -137,6 +164,26 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
 
+    // Throws RejectedExecutionException straight away when hashing is at capacity
+    private <T> T hash(Supplier<T> task) {
+        return passwordHashingService.run(task);
+    }
+
+    private String unknownUserHash() {
+        String hash = unknownUserHash;
+        if (hash == null) {
+            hash = passwordEncoder.encode("unknown-user");
+            unknownUserHash = hash;
+        }
+        return hash;
+    }
+
+    private ResponseEntity<?> tooManyRequests() {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Too many authentication requests. Please retry shortly.");
+    }
+
     private String generateOTP() {
         int otp = random.nextInt(900000) + 100000; // Generate 6-digit OTP
         return String.valueOf(otp);
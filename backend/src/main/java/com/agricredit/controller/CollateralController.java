@@ -0,0 +1,78 @@
+package com.agricredit.controller;
+
+import com.agricredit.collateral.CommodityQuote;
+import com.agricredit.dto.CollateralPledgeRequest;
+import com.agricredit.dto.LoanCollateralResponse;
+import com.agricredit.dto.MarginCallEventResponse;
+import com.agricredit.service.CollateralService;
+import com.agricredit.util.CursorPagination;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "*")
+public class CollateralController {
+
+    private static final int MAX_PLEDGE_SIZE = 1000;
+
+    @Autowired
+    private CollateralService collateralService;
+
+    @PostMapping("/loans/{loanId}/collateral")
+    public ResponseEntity<?> pledge(@PathVariable Long loanId, @RequestBody CollateralPledgeRequest request) {
+        if (request.getReceiptIds() != null && request.getReceiptIds().size() > MAX_PLEDGE_SIZE) {
+            return ResponseEntity.badRequest().body("Pledge size exceeds " + MAX_PLEDGE_SIZE);
+        }
+        try {
+            collateralService.pledge(loanId, request.getReceiptIds());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        return ResponseEntity.ok(collateralService.getCollateral(loanId));
+    }
+
+    @DeleteMapping("/loans/{loanId}/collateral/{receiptId}")
+    public ResponseEntity<LoanCollateralResponse> unpledge(@PathVariable Long loanId, @PathVariable Long receiptId) {
+        collateralService.unpledge(loanId, receiptId);
+        return ResponseEntity.ok(collateralService.getCollateral(loanId));
+    }
+
+    @GetMapping("/loans/{loanId}/collateral")
+    public ResponseEntity<LoanCollateralResponse> getCollateral(@PathVariable Long loanId) {
+        return ResponseEntity.ok(collateralService.getCollateral(loanId));
+    }
+
+    // Prices per kilogram, as the LTV engine holds them
+    @GetMapping("/commodities/prices")
+    public ResponseEntity<Map<String, BigDecimal>> getPrices() {
+        return ResponseEntity.ok(collateralService.getPrices());
+    }
+
+    // Manual quotes, applied like a feed tick; returns the margin-call events written with them
+    @PutMapping("/commodities/prices")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> updatePrices(@RequestBody List<CommodityQuote> quotes) {
+        try {
+            return ResponseEntity.ok(collateralService.applyQuotes(quotes));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/margin-calls")
+    public ResponseEntity<List<MarginCallEventResponse>> getMarginCalls(
+            @RequestParam(required = false) Long loanId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        List<MarginCallEventResponse> events = collateralService.getMarginCalls(
+                loanId, CursorPagination.after(after), CursorPagination.limit(limit));
+        return CursorPagination.page(events, limit, MarginCallEventResponse::getId);
+    }
+}
@@ -0,0 +1,22 @@
+package com.agricredit.controller;
+
+import com.agricredit.exception.StateConflictException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice
+public class ConflictExceptionHandler {
+
+    @ExceptionHandler(StateConflictException.class)
+    public ResponseEntity<String> handleStateConflict(StateConflictException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLock(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("Record was modified concurrently");
+    }
+}
@@ -0,0 +1,56 @@
+package com.agricredit.controller;
+
+import com.agricredit.dto.DataSourcePoolResponse;
+import com.agricredit.dto.SqlProfileReport;
+import com.agricredit.metrics.SqlProfiler;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/diagnostics")
+@CrossOrigin(origins = "*")
+public class DiagnosticsController {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private SqlProfiler sqlProfiler;
+
+    // Connection pool occupancy, sampled by the load-test runner to spot pool saturation
+    @GetMapping("/datasource")
+    public ResponseEntity<?> getDataSourcePool() throws SQLException {
+        if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+            return ResponseEntity.badRequest().body("Data source is not a Hikari pool");
+        }
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        if (pool == null) {
+            return ResponseEntity.badRequest().body("Connection pool has not started");
+        }
+        return ResponseEntity.ok(new DataSourcePoolResponse(hikari.getPoolName(), pool.getActiveConnections(),
+                pool.getIdleConnections(), pool.getTotalConnections(), hikari.getMaximumPoolSize(),
+                pool.getThreadsAwaitingConnection()));
+    }
+
+    // Latest flagged requests with their statement shapes; the SQL text is schema detail, so admins only
+    @GetMapping("/sql-profiles")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getSqlProfiles(
+            @RequestParam(required = false) String flag,
+            @RequestParam(defaultValue = "50") int limit) {
+        if (!sqlProfiler.isEnabled()) {
+            return ResponseEntity.badRequest().body("SQL profiling is disabled (sql.profiling.enabled)");
+        }
+        List<SqlProfileReport> reports = sqlProfiler.getReports(flag, Math.max(1, Math.min(limit, 500)));
+        return ResponseEntity.ok(reports);
+    }
+}
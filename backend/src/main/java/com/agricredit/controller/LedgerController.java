@@ -0,0 +1,30 @@
+package com.agricredit.controller;
+
+import com.agricredit.dto.ProofVerificationRequest;
+import com.agricredit.dto.ProofVerificationResponse;
+import com.agricredit.service.LedgerProofService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/ledger")
+@CrossOrigin(origins = "*")
+public class LedgerController {
+
+    private static final int MAX_PROOFS_PER_REQUEST = 10000;
+
+    @Autowired
+    private LedgerProofService ledgerProofService;
+
+    @PostMapping("/proofs/verify")
+    public ResponseEntity<?> verifyProofs(@RequestBody List<ProofVerificationRequest> requests) {
+        if (requests.size() > MAX_PROOFS_PER_REQUEST) {
+            return ResponseEntity.badRequest().body("Batch size exceeds " + MAX_PROOFS_PER_REQUEST);
+        }
+        ProofVerificationResponse response = ledgerProofService.verifyAll(requests);
+        return ResponseEntity.ok(response);
+    }
+}
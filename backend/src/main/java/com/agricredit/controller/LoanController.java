@@ -1,12 +1,28 @@
 package com.agricredit.controller;
 
+import com.agricredit.dto.BatchItemResult;
+import com.agricredit.dto.LedgerProofResponse;
+import com.agricredit.dto.LoanEventResponse;
+import com.agricredit.dto.LoanInstalmentResponse;
 import com.agricredit.dto.LoanRequest;
 import com.agricredit.dto.LoanResponse;
+import com.agricredit.dto.PortfolioAccrualResponse;
+import com.agricredit.service.LedgerProofService;
+import com.agricredit.service.LoanEventService;
 import com.agricredit.service.LoanService;
+import com.agricredit.service.RepaymentScheduleService;
+import com.agricredit.util.CursorPagination;
+import com.agricredit.util.DateRange;
+import com.agricredit.util.NdjsonWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -14,15 +30,47 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class LoanController {
 
+    private static final int MAX_BATCH_SIZE = 1000;
+
     @Autowired
     private LoanService loanService;
 
+    @Autowired
+    private LedgerProofService ledgerProofService;
+
+    @Autowired
+    private LoanEventService loanEventService;
+
+    @Autowired
+    private RepaymentScheduleService repaymentScheduleService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping("/apply")
     public ResponseEntity<LoanResponse> applyForLoan(@RequestBody LoanRequest loanRequest) {
         LoanResponse response = loanService.applyForLoan(loanRequest);
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<?> applyForLoans(@RequestBody List<LoanRequest> loanRequests) {
+        if (loanRequests.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().body("Batch size exceeds " + MAX_BATCH_SIZE);
+        }
+        List<BatchItemResult<LoanResponse>> results = loanService.applyForLoans(loanRequests);
+        return ResponseEntity.ok(results);
+    }
+
+    @PutMapping("/approve-batch")
+    public ResponseEntity<?> approveLoans(@RequestParam Long lenderId, @RequestBody List<Long> loanIds) {
+        if (loanIds.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().body("Batch size exceeds " + MAX_BATCH_SIZE);
+        }
+        List<BatchItemResult<LoanResponse>> results = loanService.approveLoans(loanIds, lenderId);
+        return ResponseEntity.ok(results);
+    }
+
     @PutMapping("/{loanId}/approve")
     public ResponseEntity<LoanResponse> approveLoan(@PathVariable Long loanId, @RequestParam Long lenderId) {
         LoanResponse response = loanService.approveLoan(loanId, lenderId);
@@ -41,16 +89,70 @@ public class LoanController {
         return ResponseEntity.ok(response);
     }
 
+    @PutMapping("/{loanId}/repay")
+    public ResponseEntity<LoanResponse> repayLoan(@PathVariable Long loanId) {
+        LoanResponse response = loanService.repayLoan(loanId);
+        return ResponseEntity.ok(response);
+    }
+
+    @PutMapping("/{loanId}/default")
+    public ResponseEntity<LoanResponse> markDefaulted(@PathVariable Long loanId) {
+        LoanResponse response = loanService.markDefaulted(loanId);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/{loanId}/schedule")
+    public ResponseEntity<List<LoanInstalmentResponse>> getRepaymentSchedule(@PathVariable Long loanId) {
+        List<LoanInstalmentResponse> schedule = repaymentScheduleService.getSchedule(loanId);
+        return ResponseEntity.ok(schedule);
+    }
+
+    @GetMapping("/outstanding")
+    public ResponseEntity<PortfolioAccrualResponse> getPortfolioOutstanding(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        PortfolioAccrualResponse response = repaymentScheduleService.computeOutstanding(
+                asOf == null ? LocalDate.now() : asOf);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/{loanId}/events")
+    public ResponseEntity<List<LoanEventResponse>> getLoanEvents(
+            @PathVariable Long loanId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        List<LoanEventResponse> events = loanEventService.getTimeline(
+                loanId, CursorPagination.after(after), CursorPagination.limit(limit));
+        return CursorPagination.page(events, limit, LoanEventResponse::getId);
+    }
+
     @GetMapping("/farmer/{farmerId}")
-    public ResponseEntity<List<LoanResponse>> getLoansByFarmer(@PathVariable Long farmerId) {
-        List<LoanResponse> loans = loanService.getLoansByFarmer(farmerId);
-        return ResponseEntity.ok(loans);
+    public ResponseEntity<List<LoanResponse>> getLoansByFarmer(
+            @PathVariable Long farmerId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        List<LoanResponse> loans = loanService.getLoansByFarmer(
+                farmerId, CursorPagination.after(after), CursorPagination.limit(limit));
+        return CursorPagination.page(loans, limit, LoanResponse::getId);
     }
 
     @GetMapping("/lender/{lenderId}")
-    public ResponseEntity<List<LoanResponse>> getLoansByLender(@PathVariable Long lenderId) {
-        List<LoanResponse> loans = loanService.getLoansByLender(lenderId);
-        return ResponseEntity.ok(loans);
+    public ResponseEntity<List<LoanResponse>> getLoansByLender(
+            @PathVariable Long lenderId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        List<LoanResponse> loans = loanService.getLoansByLender(
+                lenderId, CursorPagination.after(after), CursorPagination.limit(limit));
+        return CursorPagination.page(loans, limit, LoanResponse::getId);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllLoans() {
+        StreamingResponseBody body = out -> {
+            NdjsonWriter<LoanResponse> writer = new NdjsonWriter<>(objectMapper, out);
+            loanService.streamAllLoans(writer);
+            writer.finish();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @GetMapping("/{loanId}")
@@ -59,9 +161,28 @@ public class LoanController {
         return ResponseEntity.ok(loan);
     }
 
+    @GetMapping("/{loanId}/proof")
+    public ResponseEntity<LedgerProofResponse> getLoanProof(@PathVariable Long loanId) {
+        LedgerProofResponse proof = ledgerProofService.getLoanProof(loanId);
+        return ResponseEntity.ok(proof);
+    }
+
     @GetMapping
-    public ResponseEntity<List<LoanResponse>> getAllLoans() {
-        List<LoanResponse> loans = loanService.getAllLoans();
-        return ResponseEntity.ok(loans);
+    public ResponseEntity<?> getAllLoans(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (from == null && to == null) {
+            List<LoanResponse> loans = loanService.getAllLoans(CursorPagination.after(after), CursorPagination.limit(limit));
+            return CursorPagination.page(loans, limit, LoanResponse::getId);
+        }
+        DateRange range = DateRange.of(from, to);
+        if (range == null) {
+            return ResponseEntity.badRequest().body("from must not be after to");
+        }
+        List<LoanResponse> loans = loanService.getLoansAppliedBetween(range.start(), range.end(),
+                CursorPagination.after(after), CursorPagination.limit(limit));
+        return CursorPagination.page(loans, limit, LoanResponse::getId);
     }
 }
\ No newline at end of file
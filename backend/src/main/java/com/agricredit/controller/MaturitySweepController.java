@@ -0,0 +1,34 @@
+package com.agricredit.controller;
+
+import com.agricredit.dto.MaturitySweepStatusResponse;
+import com.agricredit.service.MaturitySweepService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/jobs/maturity-sweep")
+@CrossOrigin(origins = "*")
+public class MaturitySweepController {
+
+    @Autowired
+    private MaturitySweepService maturitySweepService;
+
+    @GetMapping
+    public ResponseEntity<List<MaturitySweepStatusResponse>> getStatus() {
+        return ResponseEntity.ok(maturitySweepService.getStatus());
+    }
+
+    @PostMapping("/run")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> run() {
+        if (!maturitySweepService.trigger()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Maturity sweep is already running");
+        }
+        return ResponseEntity.accepted().build();
+    }
+}
@@ -0,0 +1,23 @@
+package com.agricredit.controller;
+
+import com.agricredit.dto.PasswordHashingStatsResponse;
+import com.agricredit.service.PasswordHashingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/password-hashing")
+@CrossOrigin(origins = "*")
+public class PasswordHashingController {
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PasswordHashingStatsResponse> getStats() {
+        return ResponseEntity.ok(passwordHashingService.getStats());
+    }
+}
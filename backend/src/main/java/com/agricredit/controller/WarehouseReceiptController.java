@@ -1,13 +1,34 @@
 package com.agricredit.controller;
 
+import com.agricredit.dto.LedgerProofResponse;
+import com.agricredit.dto.ReceiptImportReport;
+import com.agricredit.dto.ReceiptSearchHit;
+import com.agricredit.dto.ReceiptSearchResponse;
 import com.agricredit.dto.WarehouseReceiptRequest;
 import com.agricredit.dto.WarehouseReceiptResponse;
 import com.agricredit.entity.WarehouseReceipt;
+import com.agricredit.search.ReceiptSearchQuery;
+import com.agricredit.service.LedgerProofService;
+import com.agricredit.service.ReceiptImportService;
+import com.agricredit.service.ReceiptSearchService;
 import com.agricredit.service.WarehouseReceiptService;
+import com.agricredit.util.CursorPagination;
+import com.agricredit.util.DateRange;
+import com.agricredit.util.NdjsonWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -18,12 +39,32 @@ public class WarehouseReceiptController {
     @Autowired
     private WarehouseReceiptService warehouseReceiptService;
 
+    @Autowired
+    private ReceiptImportService receiptImportService;
+
+    @Autowired
+    private LedgerProofService ledgerProofService;
+
+    @Autowired
+    private ReceiptSearchService receiptSearchService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping("/receipts")
     public ResponseEntity<WarehouseReceiptResponse> createReceipt(@RequestBody WarehouseReceiptRequest request) {
         WarehouseReceiptResponse response = warehouseReceiptService.createReceipt(request);
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping(value = "/receipts/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ReceiptImportReport> importReceipts(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream input = file.getInputStream()) {
+            ReceiptImportReport report = receiptImportService.importReceipts(input);
+            return ResponseEntity.ok(report);
+        }
+    }
+
     @PutMapping("/receipts/{receiptId}/status")
     public ResponseEntity<WarehouseReceiptResponse> updateReceiptStatus(
             @PathVariable Long receiptId, 
@@ -33,21 +74,85 @@ public class WarehouseReceiptController {
     }
 
     @GetMapping("/receipts/farmer/{farmerId}")
-    public ResponseEntity<List<WarehouseReceiptResponse>> getReceiptsByFarmer(@PathVariable Long farmerId) {
-        List<WarehouseReceiptResponse> receipts = warehouseReceiptService.getReceiptsByFarmer(farmerId);
-        return ResponseEntity.ok(receipts);
+    public ResponseEntity<List<WarehouseReceiptResponse>> getReceiptsByFarmer(
+            @PathVariable Long farmerId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        List<WarehouseReceiptResponse> receipts = warehouseReceiptService.getReceiptsByFarmer(
+                farmerId, CursorPagination.after(after), CursorPagination.limit(limit));
+        return CursorPagination.page(receipts, limit, WarehouseReceiptResponse::getId);
     }
 
     @GetMapping("/receipts/active")
-    public ResponseEntity<List<WarehouseReceiptResponse>> getActiveReceipts() {
-        List<WarehouseReceiptResponse> receipts = warehouseReceiptService.getActiveReceipts();
-        return ResponseEntity.ok(receipts);
+    public ResponseEntity<List<WarehouseReceiptResponse>> getActiveReceipts(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        List<WarehouseReceiptResponse> receipts = warehouseReceiptService.getActiveReceipts(
+                CursorPagination.after(after), CursorPagination.limit(limit));
+        return CursorPagination.page(receipts, limit, WarehouseReceiptResponse::getId);
     }
 
     @GetMapping("/receipts/status/{status}")
-    public ResponseEntity<List<WarehouseReceiptResponse>> getReceiptsByStatus(@PathVariable WarehouseReceipt.ReceiptStatus status) {
-        List<WarehouseReceiptResponse> receipts = warehouseReceiptService.getReceiptsByStatus(status);
-        return ResponseEntity.ok(receipts);
+    public ResponseEntity<List<WarehouseReceiptResponse>> getReceiptsByStatus(
+            @PathVariable WarehouseReceipt.ReceiptStatus status,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        List<WarehouseReceiptResponse> receipts = warehouseReceiptService.getReceiptsByStatus(
+                status, CursorPagination.after(after), CursorPagination.limit(limit));
+        return CursorPagination.page(receipts, limit, WarehouseReceiptResponse::getId);
+    }
+
+    @GetMapping(value = "/receipts/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamReceipts(
+            @RequestParam(required = false) WarehouseReceipt.ReceiptStatus status) {
+        StreamingResponseBody body = out -> {
+            NdjsonWriter<WarehouseReceiptResponse> writer = new NdjsonWriter<>(objectMapper, out);
+            warehouseReceiptService.streamReceipts(status, writer);
+            writer.finish();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    // Served from the in-memory index; facet counts cover every match, not just the returned page
+    @GetMapping("/receipts/search")
+    public ResponseEntity<?> searchReceipts(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) List<String> commodity,
+            @RequestParam(required = false) List<String> variety,
+            @RequestParam(required = false) List<String> grade,
+            @RequestParam(required = false) List<String> unit,
+            @RequestParam(required = false) List<String> status,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) BigDecimal minQuantity,
+            @RequestParam(required = false) BigDecimal maxQuantity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if (!receiptSearchService.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Receipt search index is still loading");
+        }
+        DateRange range = null;
+        if (from != null || to != null) {
+            range = DateRange.of(from, to);
+            if (range == null) {
+                return ResponseEntity.badRequest().body("from must not be after to");
+            }
+        }
+        if (minQuantity != null && maxQuantity != null && minQuantity.compareTo(maxQuantity) > 0) {
+            return ResponseEntity.badRequest().body("minQuantity must not be greater than maxQuantity");
+        }
+        int pageSize = CursorPagination.limit(limit).max();
+        ReceiptSearchResponse response = receiptSearchService.search(new ReceiptSearchQuery(q, commodity, variety,
+                grade, unit, status, location, minQuantity, maxQuantity,
+                range == null ? null : range.start(), range == null ? null : range.end(),
+                CursorPagination.after(after), pageSize));
+        List<ReceiptSearchHit> hits = response.getHits();
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (!hits.isEmpty() && hits.size() >= pageSize) {
+            builder.header(CursorPagination.NEXT_CURSOR_HEADER, String.valueOf(hits.get(hits.size() - 1).getId()));
+        }
+        return builder.body(response);
     }
 
     @GetMapping("/receipts/{receiptId}")
@@ -56,9 +161,29 @@ public class WarehouseReceiptController {
         return ResponseEntity.ok(receipt);
     }
 
+    @GetMapping("/receipts/{receiptId}/proof")
+    public ResponseEntity<LedgerProofResponse> getReceiptProof(@PathVariable Long receiptId) {
+        LedgerProofResponse proof = ledgerProofService.getReceiptProof(receiptId);
+        return ResponseEntity.ok(proof);
+    }
+
     @GetMapping("/receipts")
-    public ResponseEntity<List<WarehouseReceiptResponse>> getAllReceipts() {
-        List<WarehouseReceiptResponse> receipts = warehouseReceiptService.getAllReceipts();
-        return ResponseEntity.ok(receipts);
+    public ResponseEntity<?> getAllReceipts(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (from == null && to == null) {
+            List<WarehouseReceiptResponse> receipts = warehouseReceiptService.getAllReceipts(
+                    CursorPagination.after(after), CursorPagination.limit(limit));
+            return CursorPagination.page(receipts, limit, WarehouseReceiptResponse::getId);
+        }
+        DateRange range = DateRange.of(from, to);
+        if (range == null) {
+            return ResponseEntity.badRequest().body("from must not be after to");
+        }
+        List<WarehouseReceiptResponse> receipts = warehouseReceiptService.getReceiptsStoredBetween(range.start(),
+                range.end(), CursorPagination.after(after), CursorPagination.limit(limit));
+        return CursorPagination.page(receipts, limit, WarehouseReceiptResponse::getId);
     }
 }
\ No newline at end of file
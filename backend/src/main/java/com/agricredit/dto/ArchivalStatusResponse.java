@@ -0,0 +1,22 @@
+package com.agricredit.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivalStatusResponse {
+    private boolean running;
+    // Records closed before this instant were eligible in the last run
+    private LocalDateTime cutoff;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private long loansArchived;
+    private long receiptsArchived;
+    private int segmentsWritten;
+    private String error;
+}
@@ -0,0 +1,23 @@
+package com.agricredit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResult<T> {
+    private int index;
+    private boolean success;
+    private T result;
+    private String error;
+
+    public static <T> BatchItemResult<T> ok(int index, T result) {
+        return new BatchItemResult<>(index, true, result, null);
+    }
+
+    public static <T> BatchItemResult<T> failed(int index, String error) {
+        return new BatchItemResult<>(index, false, null, error);
+    }
+}
@@ -0,0 +1,21 @@
+package com.agricredit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsResponse {
+    private String cacheName;
+    private long localHits;
+    private long remoteHits;
+    private long misses;
+    private long puts;
+    private long evictions;
+    private long remoteInvalidations;
+    private long remoteErrors;
+    private long localSize;
+    private double hitRatio;
+}
@@ -0,0 +1,14 @@
+package com.agricredit.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CollateralPledgeRequest {
+    private List<Long> receiptIds;
+}
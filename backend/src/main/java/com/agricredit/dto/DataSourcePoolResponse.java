@@ -0,0 +1,18 @@
+package com.agricredit.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DataSourcePoolResponse {
+    private String poolName;
+    private int active;
+    private int idle;
+    private int total;
+    private int maximum;
+    // Requests blocked waiting for a connection; above zero the pool is saturated
+    private int threadsAwaitingConnection;
+}
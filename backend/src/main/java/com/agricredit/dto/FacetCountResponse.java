@@ -0,0 +1,13 @@
+package com.agricredit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetCountResponse {
+    private String value;
+    private long count;
+}
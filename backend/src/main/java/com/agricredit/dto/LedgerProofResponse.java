@@ -0,0 +1,25 @@
+package com.agricredit.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+public class LedgerProofResponse {
+    private String recordType;
+    private Long recordId;
+    private String anchoredRecordHash;
+    // Current state hashed under the anchor's format, so the two hashes compare like for like
+    private String currentRecordHash;
+    private Integer hashFormat;
+    private Integer leafIndex;
+    private String merkleRoot;
+    private String merkleProof;
+    private String ledgerTransactionId;
+    private LocalDateTime anchoredAt;
+    private boolean proofValid;
+    private boolean anchoredOnLedger;
+    private boolean matchesCurrentState;
+}
@@ -0,0 +1,21 @@
+package com.agricredit.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanCollateralResponse {
+    private Long loanId;
+    private BigDecimal exposure;
+    private BigDecimal collateralValue;
+    // Null while nothing priced is pledged
+    private BigDecimal ltv;
+    private String level;
+    private List<WarehouseReceiptResponse> receipts;
+}
@@ -0,0 +1,24 @@
+package com.agricredit.dto;
+
+import com.agricredit.entity.Loan;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanEventResponse {
+    private Long id;
+    private Long loanId;
+    private String fromStatus;
+    private String toStatus;
+    private LocalDateTime occurredAt;
+
+    public LoanEventResponse(Long id, Long loanId, Loan.LoanStatus fromStatus, Loan.LoanStatus toStatus,
+                             LocalDateTime occurredAt) {
+        this(id, loanId, fromStatus == null ? null : fromStatus.name(), toStatus.name(), occurredAt);
+    }
+}
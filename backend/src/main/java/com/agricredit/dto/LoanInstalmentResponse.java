@@ -0,0 +1,20 @@
+package com.agricredit.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanInstalmentResponse {
+    private Integer instalmentNumber;
+    private LocalDate dueDate;
+    private BigDecimal principalDue;
+    private BigDecimal interestDue;
+    private BigDecimal totalDue;
+    private BigDecimal closingBalance;
+}
@@ -1,5 +1,6 @@
 package com.agricredit.dto;
 
+import com.agricredit.entity.Loan;
 import lombok.Data;
 import java.math.BigDecimal;
 
@@ -10,4 +11,6 @@ public class LoanRequest {
     private String purpose;
     private Double interestRate;
     private Integer durationInMonths;
+    // Defaults to REDUCING_BALANCE
+    private Loan.RepaymentType repaymentType;
 }
\ No newline at end of file
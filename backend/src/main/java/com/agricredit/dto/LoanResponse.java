@@ -21,6 +21,7 @@ public class LoanResponse {
     private String purpose;
     private Double interestRate;
     private Integer durationInMonths;
+    private String repaymentType;
     private String status;
     private LocalDateTime appliedDate;
     private LocalDateTime approvedDate;
@@ -30,6 +31,17 @@ public class LoanResponse {
     private String remarks;
     private String blockchainTransactionHash;
 
+    // Target of the JPQL constructor expressions in LoanRepository
+    public LoanResponse(Long id, Long farmerId, String farmerName, Long lenderId, String lenderName,
+                        BigDecimal amount, String purpose, Double interestRate, Integer durationInMonths,
+                        Loan.RepaymentType repaymentType, Loan.LoanStatus status, LocalDateTime appliedDate, LocalDateTime approvedDate,
+                        LocalDateTime disbursementDate, LocalDateTime dueDate, LocalDateTime closedDate,
+                        String remarks, String blockchainTransactionHash) {
+        this(id, farmerId, farmerName, lenderId, lenderName, amount, purpose, interestRate, durationInMonths,
+                repaymentType.toString(), status.toString(), appliedDate, approvedDate, disbursementDate, dueDate, closedDate,
+                remarks, blockchainTransactionHash);
+    }
+
     public static LoanResponse fromEntity(Loan loan) {
         LoanResponse response = new LoanResponse();
         response.setId(loan.getId());
@@ -43,6 +55,7 @@ public class LoanResponse {
         response.setPurpose(loan.getPurpose());
         response.setInterestRate(loan.getInterestRate());
         response.setDurationInMonths(loan.getDurationInMonths());
+        response.setRepaymentType(loan.getRepaymentType().toString());
         response.setStatus(loan.getStatus().toString());
         response.setAppliedDate(loan.getAppliedDate());
         response.setApprovedDate(loan.getApprovedDate());
@@ -0,0 +1,30 @@
+package com.agricredit.dto;
+
+import com.agricredit.entity.MarginCallEvent;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MarginCallEventResponse {
+    private Long id;
+    private Long loanId;
+    private String previousLevel;
+    private String level;
+    private BigDecimal ltv;
+    private BigDecimal exposure;
+    private BigDecimal collateralValue;
+    private String commodity;
+    private LocalDateTime occurredAt;
+
+    public MarginCallEventResponse(Long id, Long loanId, MarginCallEvent.Level previousLevel, MarginCallEvent.Level level,
+                                   BigDecimal ltv, BigDecimal exposure, BigDecimal collateralValue, String commodity,
+                                   LocalDateTime occurredAt) {
+        this(id, loanId, previousLevel.name(), level.name(), ltv, exposure, collateralValue, commodity, occurredAt);
+    }
+}
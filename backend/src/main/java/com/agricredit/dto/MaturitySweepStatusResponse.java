@@ -0,0 +1,44 @@
+package com.agricredit.dto;
+
+import com.agricredit.entity.SweepCheckpoint;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MaturitySweepStatusResponse {
+    private String target;
+    private String status;
+    private LocalDateTime cutoff;
+    private Long lastProcessedId;
+    private Long rowsScanned;
+    private Long rowsUpdated;
+    private Integer chunks;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    // Rows scanned per second of the current or last run
+    private double rowsPerSecond;
+    // Age of the cutoff being applied: how far the stored statuses may trail the calendar
+    private long lagSeconds;
+
+    public static MaturitySweepStatusResponse of(SweepCheckpoint checkpoint, LocalDateTime now) {
+        long elapsedMillis = Math.max(1, Duration.between(checkpoint.getStartedAt(), checkpoint.getUpdatedAt()).toMillis());
+        return new MaturitySweepStatusResponse(
+                checkpoint.getTarget().toString(),
+                checkpoint.getStatus().toString(),
+                checkpoint.getCutoff(),
+                checkpoint.getLastId(),
+                checkpoint.getRowsScanned(),
+                checkpoint.getRowsUpdated(),
+                checkpoint.getChunks(),
+                checkpoint.getStartedAt(),
+                checkpoint.getCompletedAt(),
+                checkpoint.getRowsScanned() * 1000.0 / elapsedMillis,
+                Duration.between(checkpoint.getCutoff(), now).toSeconds());
+    }
+}
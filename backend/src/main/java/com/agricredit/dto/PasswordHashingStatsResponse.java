@@ -0,0 +1,18 @@
+package com.agricredit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PasswordHashingStatsResponse {
+    private int threads;
+    private int activeTasks;
+    private int queuedTasks;
+    private long rejectedTasks;
+    private LatencySummary queueWait;
+    private LatencySummary verify;
+    private LatencySummary encode;
+}
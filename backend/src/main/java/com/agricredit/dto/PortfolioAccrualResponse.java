@@ -0,0 +1,19 @@
+package com.agricredit.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioAccrualResponse {
+    private LocalDate asOf;
+    private int loanCount;
+    private BigDecimal outstandingPrincipal;
+    private BigDecimal accruedInterest;
+    private long computeMillis;
+}
@@ -0,0 +1,19 @@
+package com.agricredit.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioAnalyticsResponse {
+    // Null for the platform-wide view
+    private Long lenderId;
+    private List<PortfolioBucketResponse> byStatus;
+    private List<PortfolioBucketResponse> byMonth;
+    private List<PortfolioBucketResponse> byCommodity;
+    private List<PortfolioBucketResponse> byLocation;
+}
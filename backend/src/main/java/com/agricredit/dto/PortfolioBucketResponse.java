@@ -0,0 +1,22 @@
+package com.agricredit.dto;
+
+import com.agricredit.entity.PortfolioAggregate;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioBucketResponse {
+    private String dimension;
+    private String bucket;
+    private Long count;
+    private BigDecimal total;
+
+    public PortfolioBucketResponse(PortfolioAggregate.Dimension dimension, String bucket, Long count, BigDecimal total) {
+        this(dimension.name(), bucket, count, total);
+    }
+}
@@ -0,0 +1,11 @@
+package com.agricredit.dto;
+
+import lombok.Data;
+
+@Data
+public class ProofVerificationRequest {
+    private String recordHash;
+    private String merkleProof;
+    private String merkleRoot;
+    private String ledgerTransactionId;
+}
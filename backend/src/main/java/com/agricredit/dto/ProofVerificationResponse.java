@@ -0,0 +1,16 @@
+package com.agricredit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProofVerificationResponse {
+    private int total;
+    private int valid;
+    private List<Boolean> results;
+}
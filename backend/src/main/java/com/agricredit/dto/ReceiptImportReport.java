@@ -0,0 +1,28 @@
+package com.agricredit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class ReceiptImportReport {
+    private long totalRows;
+    private long importedRows;
+    private long failedRows;
+    private String loadMethod;
+    private List<RowError> errors = new ArrayList<>();
+    // Imported chunks whose follow-up updates failed; their rows count as imported
+    private List<String> warnings = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String message;
+    }
+}
@@ -0,0 +1,25 @@
+package com.agricredit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// The indexed fields of a receipt; the full record is at /api/warehouse/receipts/{id}
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReceiptSearchHit {
+    private Long id;
+    private Long farmerId;
+    private String commodityName;
+    private String variety;
+    private BigDecimal quantity;
+    private String unitOfMeasure;
+    private String warehouseLocation;
+    private String qualityGrade;
+    private String status;
+    private LocalDateTime storedDate;
+}
@@ -0,0 +1,19 @@
+package com.agricredit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReceiptSearchResponse {
+    // All matching receipts, not just this page
+    private long total;
+    private List<ReceiptSearchHit> hits;
+    // Facet name -> most frequent values among all matches
+    private Map<String, List<FacetCountResponse>> facets;
+}
@@ -0,0 +1,25 @@
+package com.agricredit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SqlProfileReport {
+    private LocalDateTime completedAt;
+    private String method;
+    private String uri;
+    private int status;
+    private double durationMillis;
+    private int statements;
+    private double jdbcMillis;
+    // N_PLUS_ONE, SLOW_STATEMENT and/or SLOW_REQUEST
+    private List<String> flags;
+    // Costliest shapes first
+    private List<SqlStatementShapeResponse> shapes;
+}
@@ -0,0 +1,15 @@
+package com.agricredit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SqlStatementShapeResponse {
+    private String sql;
+    private int count;
+    private double totalMillis;
+    private double maxMillis;
+}
@@ -2,6 +2,7 @@ package com.agricredit.dto;
 
 import lombok.Data;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Data
 public class WarehouseReceiptRequest {
@@ -12,6 +13,7 @@ public class WarehouseReceiptRequest {
     private String unitOfMeasure;
     private String warehouseLocation;
     private String warehouseKeeperName;
+    private LocalDateTime expiryDate;
     private String qualityGrade;
     private String condition;
     private String remarks;
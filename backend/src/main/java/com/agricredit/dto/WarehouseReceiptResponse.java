@@ -29,6 +29,19 @@ public class WarehouseReceiptResponse {
     private String receiptNumber;
     private String blockchainTransactionHash;
     private String status;
+    private Long pledgedLoanId;
+
+    // Target of the JPQL constructor expressions in WarehouseReceiptRepository
+    public WarehouseReceiptResponse(Long id, Long farmerId, String farmerName, String commodityName, String variety,
+                                    BigDecimal quantity, String unitOfMeasure, String warehouseLocation,
+                                    String warehouseKeeperName, LocalDateTime storedDate, LocalDateTime expiryDate,
+                                    String qualityGrade, String condition, String remarks, String receiptNumber,
+                                    String blockchainTransactionHash, WarehouseReceipt.ReceiptStatus status,
+                                    Long pledgedLoanId) {
+        this(id, farmerId, farmerName, commodityName, variety, quantity, unitOfMeasure, warehouseLocation,
+                warehouseKeeperName, storedDate, expiryDate, qualityGrade, condition, remarks, receiptNumber,
+                blockchainTransactionHash, status.toString(), pledgedLoanId);
+    }
 
     public static WarehouseReceiptResponse fromEntity(WarehouseReceipt receipt) {
         WarehouseReceiptResponse response = new WarehouseReceiptResponse();
@@ -49,6 +62,7 @@ public class WarehouseReceiptResponse {
         response.setReceiptNumber(receipt.getReceiptNumber());
         response.setBlockchainTransactionHash(receipt.getBlockchainTransactionHash());
         response.setStatus(receipt.getStatus().toString());
+        response.setPledgedLoanId(receipt.getPledgedLoanId());
         return response;
     }
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.agricredit.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+// One row per background job that must run on a single node at a time. The row carries no state: holding
+// its row lock is what claims the job, see JobLockRepository.
+@Entity
+@Table(name = "job_locks")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobLock {
+
+    @Id
+    @Column(length = 40)
+    private String name;
+}
@@ -0,0 +1,73 @@
+package com.agricredit.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "ledger_outbox", indexes = {
+        @Index(name = "ix_ledger_outbox_status_id", columnList = "status, id"),
+        @Index(name = "ix_ledger_outbox_record", columnList = "recordType, recordId")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerOutboxEntry {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ledger_outbox_seq")
+    @SequenceGenerator(name = "ledger_outbox_seq", sequenceName = "ledger_outbox_seq", allocationSize = 50)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private RecordType recordType;
+    
+    @Column(nullable = false)
+    private Long recordId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxStatus status;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    // When the batch's root was committed for submission to the ledger
+    @Column
+    private LocalDateTime preparedAt;
+    
+    @Column
+    private LocalDateTime anchoredAt;
+    
+    // SHA-256 of the record at anchoring time, hex encoded
+    @Column(length = 64)
+    private String recordHash;
+    
+    // RecordHasher format the hash was computed under; set when anchored
+    @Column
+    private Integer hashFormat;
+    
+    @Column
+    private Integer leafIndex;
+    
+    @Column(length = 64)
+    private String merkleRoot;
+    
+    @Column(length = 4000)
+    private String merkleProof;
+    
+    @Column
+    private String ledgerTransactionId;
+    
+    public enum RecordType {
+        LOAN, WAREHOUSE_RECEIPT
+    }
+    
+    public enum OutboxStatus {
+        PENDING, SUBMITTING, ANCHORED
+    }
+}
@@ -4,19 +4,24 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
+@DynamicUpdate
 @Table(name = "loans")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Loan {
     
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loan_seq")
+    @SequenceGenerator(name = "loan_seq", sequenceName = "loan_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -39,6 +44,11 @@ public class Loan {
     @Column(nullable = false)
     private Integer durationInMonths;
     
+    @Enumerated(EnumType.STRING)
+    @ColumnDefault("'REDUCING_BALANCE'")
+    @Column(nullable = false, length = 20)
+    private RepaymentType repaymentType = RepaymentType.REDUCING_BALANCE;
+    
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private LoanStatus status;
@@ -64,7 +74,17 @@ public class Loan {
     @Column
     private String blockchainTransactionHash;
     
+    // Status transitions are conditional bulk UPDATEs that bump this themselves
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+    
     public enum LoanStatus {
         PENDING, APPROVED, REJECTED, DISBURSED, CLOSED, DEFAULTED
     }
+    
+    public enum RepaymentType {
+        FLAT, REDUCING_BALANCE, BULLET
+    }
 }
\ No newline at end of file
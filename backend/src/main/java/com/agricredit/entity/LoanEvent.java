@@ -0,0 +1,40 @@
+package com.agricredit.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Append-only status history; a loan's timeline is read from here by (loanId, id) without touching loans
+@Entity
+@Table(name = "loan_events", indexes = {
+        @Index(name = "ix_loan_events_loan_timeline", columnList = "loanId, occurredAt, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanEvent {
+
+    // Pooled sequence so a batch of transitions is appended with batched inserts
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loan_event_seq")
+    @SequenceGenerator(name = "loan_event_seq", sequenceName = "loan_event_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long loanId;
+
+    // Null for the event that creates the loan
+    @Enumerated(EnumType.STRING)
+    @Column
+    private Loan.LoanStatus fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Loan.LoanStatus toStatus;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,46 @@
+package com.agricredit.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Repayment schedule, written once in a batch when the loan is disbursed
+@Entity
+@Table(name = "loan_instalments", indexes = {
+        @Index(name = "ix_loan_instalments_loan_id", columnList = "loanId, instalmentNumber", unique = true)
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanInstalment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loan_instalment_seq")
+    @SequenceGenerator(name = "loan_instalment_seq", sequenceName = "loan_instalment_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long loanId;
+
+    @Column(nullable = false)
+    private Integer instalmentNumber;
+
+    @Column(nullable = false)
+    private LocalDate dueDate;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal principalDue;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal interestDue;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal totalDue;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal closingBalance;
+}
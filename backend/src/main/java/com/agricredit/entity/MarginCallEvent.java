@@ -0,0 +1,56 @@
+package com.agricredit.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Written whenever a loan's LTV crosses into a different level, in either direction
+@Entity
+@Table(name = "margin_call_events", indexes = {
+        @Index(name = "ix_margin_call_events_loan_id", columnList = "loanId, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MarginCallEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "margin_call_event_seq")
+    @SequenceGenerator(name = "margin_call_event_seq", sequenceName = "margin_call_event_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long loanId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Level previousLevel;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Level level;
+
+    @Column(nullable = false, precision = 10, scale = 4)
+    private BigDecimal ltv;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal exposure;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal collateralValue;
+
+    // The commodity whose price moved, or null when a pledge change caused the crossing
+    @Column
+    private String commodity;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+
+    public enum Level {
+        HEALTHY, MARGIN_CALL, LIQUIDATION
+    }
+}
@@ -0,0 +1,58 @@
+package com.agricredit.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+// Running totals behind the portfolio dashboards, one row per (lender, dimension, bucket, shard); a bucket's
+// total is the sum of its shards. Lender 0 is the platform-wide scope. Rows are only ever adjusted by deltas,
+// see PortfolioAggregateWriter.
+@Entity
+@Table(name = "portfolio_aggregates")
+@IdClass(PortfolioAggregate.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioAggregate {
+
+    public static final long PLATFORM = 0L;
+
+    @Id
+    private Long lenderId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private Dimension dimension;
+
+    @Id
+    private String bucket;
+
+    @Id
+    private Integer shard;
+
+    @Column(nullable = false)
+    private Long itemCount;
+
+    // Loan amount for STATUS and MONTH, stored kilograms for COMMODITY and LOCATION
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal total;
+
+    public enum Dimension {
+        STATUS, MONTH, COMMODITY, LOCATION
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long lenderId;
+        private Dimension dimension;
+        private String bucket;
+        private Integer shard;
+    }
+}
@@ -0,0 +1,60 @@
+package com.agricredit.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Progress of the maturity sweep, one row per table. A RUNNING row is resumed after lastId with the
+// same cutoff, so a crashed run picks up where it stopped instead of rescanning from the start.
+@Entity
+@Table(name = "sweep_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SweepCheckpoint {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private Target target;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    // Loans due and receipts expiring before this instant are swept in this run
+    @Column(nullable = false)
+    private LocalDateTime cutoff;
+
+    @Column(nullable = false)
+    private Long lastId;
+
+    @Column(nullable = false)
+    private Long rowsScanned;
+
+    @Column(nullable = false)
+    private Long rowsUpdated;
+
+    @Column(nullable = false)
+    private Integer chunks;
+
+    @Column(nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column
+    private LocalDateTime completedAt;
+
+    public enum Target {
+        LOANS, RECEIPTS
+    }
+
+    public enum Status {
+        RUNNING, COMPLETED
+    }
+}
@@ -44,12 +44,6 @@ public class User implements UserDetails {
     @Column(nullable = true)
     private Boolean isActive = true;
     
-    @Column(nullable = true)
-    private String otp;
-    
-    @Column(nullable = true)
-    private Long otpExpiryTime;
-    
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
@@ -72,7 +66,8 @@ public class User implements UserDetails {
     
     @Override
     public boolean isEnabled() {
-        return isActive;
+        // The column is nullable; a missing flag counts as inactive
+        return Boolean.TRUE.equals(isActive);
     }
     
     public enum Role {
@@ -4,12 +4,20 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "warehouse_receipts")
+@DynamicUpdate
+// The pledged-lots index is only the key here: V14 adds its INCLUDE columns and pledged-only predicate, which JPA
+// cannot express
+@Table(name = "warehouse_receipts", indexes = {
+        @Index(name = "ux_warehouse_receipts_receipt_number", columnList = "receiptNumber", unique = true),
+        @Index(name = "ix_warehouse_receipts_pledged_lots", columnList = "pledgedLoanId, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -65,6 +73,15 @@ public class WarehouseReceipt {
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private ReceiptStatus status;
+
+    // Set while the receipt is locked as collateral for a loan; a pledged receipt cannot change status
+    @Column
+    private Long pledgedLoanId;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
     
     public enum ReceiptStatus {
         ACTIVE, RELEASED, EXPIRED, CANCELLED
@@ -0,0 +1,9 @@
+package com.agricredit.exception;
+
+// The record exists but is no longer in the state the operation requires; answered with 409
+public class StateConflictException extends RuntimeException {
+
+    public StateConflictException(String message) {
+        super(message);
+    }
+}
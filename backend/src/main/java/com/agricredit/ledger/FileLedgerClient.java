@@ -0,0 +1,148 @@
+package com.agricredit.ledger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HexFormat;
+import java.util.Optional;
+
+// Same hash chain as the in-memory stub, appended to a file every node shares. An OS-level lock on the file
+// serializes appends across nodes, and a node first replays whatever the others appended since it last looked,
+// so it always chains onto the real head and knows every anchor. The in-memory lock only keeps this node's own
+// threads off the channel lock, which the JVM holds per process.
+public class FileLedgerClient extends InMemoryLedgerClient {
+
+    private static final byte NEWLINE = '\n';
+
+    private final Path file;
+    // Bytes of the file already replayed; guarded by lock
+    private long replayed;
+
+    public FileLedgerClient(Path file) {
+        this.file = file;
+        lock.lock();
+        try {
+            if (Files.exists(file)) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+                     FileLock ignored = channel.lock(0, Long.MAX_VALUE, true)) {
+                    catchUp(channel);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read ledger anchors from " + file, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String submitRoot(byte[] merkleRoot, int leafCount) {
+        // The chain only moves on once the line is on disk, so a failed append leaves nothing in memory that a
+        // restart would not see
+        lock.lock();
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock()) {
+                catchUp(channel);
+                if (channel.size() > replayed) {
+                    // A writer died mid-line; ending its line makes every node read it the same way
+                    write(channel, new byte[]{NEWLINE});
+                    catchUp(channel);
+                }
+                Anchor anchor = nextAnchor(merkleRoot, leafCount);
+                String line = String.join(",", anchor.transactionId(), HexFormat.of().formatHex(merkleRoot),
+                        String.valueOf(leafCount), String.valueOf(anchor.timestampMillis())) + "\n";
+                write(channel, line.getBytes(StandardCharsets.UTF_8));
+                channel.force(false);
+                catchUp(channel);
+                return anchor.transactionId();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append ledger anchor to " + file, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isAnchored(String transactionId, byte[] merkleRoot) {
+        if (super.isAnchored(transactionId, merkleRoot)) {
+            return true;
+        }
+        // Another node may have anchored it since this one last read the file
+        lock.lock();
+        try {
+            if (!Files.exists(file)) {
+                return false;
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+                 FileLock ignored = channel.lock(0, Long.MAX_VALUE, true)) {
+                catchUp(channel);
+            }
+            return super.isAnchored(transactionId, merkleRoot);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read ledger anchors from " + file, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Replays the whole lines appended since the last call, by this node or any other; an unfinished last line
+    // stays for later
+    private void catchUp(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size <= replayed) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(size - replayed));
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, replayed + buffer.position()) < 0) {
+                break;
+            }
+        }
+        byte[] bytes = buffer.array();
+        int start = 0;
+        for (int i = 0; i < buffer.position(); i++) {
+            if (bytes[i] == NEWLINE) {
+                parse(new String(bytes, start, i - start, StandardCharsets.UTF_8)).ifPresent(this::restore);
+                start = i + 1;
+            }
+        }
+        replayed += start;
+    }
+
+    private void write(FileChannel channel, byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long position = channel.size();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    // A line cut short by a crashed writer was never acknowledged; unless what is left still holds a whole anchor,
+    // it is skipped and the chain goes on from the line before it
+    private static Optional<Anchor> parse(String line) {
+        String[] fields = line.split(",");
+        if (fields.length != 4 || fields[0].length() != 2 + 2 * MerkleTree.HASH_LENGTH || !fields[0].startsWith("0x")
+                || fields[1].length() != 2 * MerkleTree.HASH_LENGTH) {
+            return Optional.empty();
+        }
+        try {
+            HexFormat.of().parseHex(fields[0].substring(2));
+            return Optional.of(new Anchor(fields[0], HexFormat.of().parseHex(fields[1]),
+                    Integer.parseInt(fields[2]), Long.parseLong(fields[3])));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
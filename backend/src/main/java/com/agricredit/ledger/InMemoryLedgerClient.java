@@ -0,0 +1,76 @@
+package com.agricredit.ledger;
+
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Local stand-in for a chain: each anchor's transaction id hashes the previous one, so the anchors form a chain
+public class InMemoryLedgerClient implements LedgerClient {
+
+    public record Anchor(String transactionId, byte[] merkleRoot, int leafCount, long timestampMillis) {
+    }
+
+    // A lock rather than synchronized so the file-backed subclass can do I/O under it without pinning virtual threads
+    protected final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Anchor> anchors = new LinkedHashMap<>();
+    private byte[] previous = new byte[MerkleTree.HASH_LENGTH];
+
+    @Override
+    public String submitRoot(byte[] merkleRoot, int leafCount) {
+        lock.lock();
+        try {
+            Anchor anchor = nextAnchor(merkleRoot, leafCount);
+            restore(anchor);
+            return anchor.transactionId();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The anchor that would follow the current head; nothing changes until it is passed to restore
+    protected Anchor nextAnchor(byte[] merkleRoot, int leafCount) {
+        lock.lock();
+        try {
+            MessageDigest digest = MerkleTree.sha256();
+            digest.update(previous);
+            String transactionId = "0x" + HexFormat.of().formatHex(digest.digest(merkleRoot));
+            return new Anchor(transactionId, merkleRoot.clone(), leafCount, System.currentTimeMillis());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isAnchored(String transactionId, byte[] merkleRoot) {
+        lock.lock();
+        try {
+            Anchor anchor = anchors.get(transactionId);
+            return anchor != null && MessageDigest.isEqual(anchor.merkleRoot(), merkleRoot);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Replays an anchor recorded elsewhere (e.g. on disk) and continues the chain from it
+    protected void restore(Anchor anchor) {
+        lock.lock();
+        try {
+            anchors.put(anchor.transactionId(), anchor);
+            previous = HexFormat.of().parseHex(anchor.transactionId().substring(2));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<Anchor> getAnchors() {
+        lock.lock();
+        try {
+            return List.copyOf(anchors.values());
+        } finally {
+            lock.unlock();
+        }
+    }
+}
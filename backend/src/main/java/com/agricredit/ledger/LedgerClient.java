@@ -0,0 +1,10 @@
+package com.agricredit.ledger;
+
+// Anchors one Merkle root per batch on an external ledger and returns the ledger's transaction id
+public interface LedgerClient {
+
+    String submitRoot(byte[] merkleRoot, int leafCount);
+
+    // True when the ledger holds exactly this root under the given transaction
+    boolean isAnchored(String transactionId, byte[] merkleRoot);
+}
@@ -0,0 +1,133 @@
+package com.agricredit.ledger;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+// SHA-256 Merkle tree with RFC 6962 style domain separation (0x00 for leaves, 0x01 for inner nodes).
+// An odd node at the end of a level is carried up unchanged rather than duplicated.
+public final class MerkleTree {
+
+    public static final int HASH_LENGTH = 32;
+
+    private static final byte LEAF_PREFIX = 0x00;
+    private static final byte NODE_PREFIX = 0x01;
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final List<byte[][]> levels;
+
+    private MerkleTree(List<byte[][]> levels) {
+        this.levels = levels;
+    }
+
+    // One step of an inclusion proof: the sibling hash and which side it sits on
+    public record ProofStep(boolean siblingOnLeft, byte[] sibling) {
+    }
+
+    public static MerkleTree build(List<byte[]> recordHashes) {
+        if (recordHashes.isEmpty()) {
+            throw new IllegalArgumentException("Cannot build a Merkle tree without leaves");
+        }
+        MessageDigest digest = sha256();
+        byte[][] level = new byte[recordHashes.size()][];
+        for (int i = 0; i < level.length; i++) {
+            level[i] = leafHash(digest, recordHashes.get(i));
+        }
+
+        List<byte[][]> levels = new ArrayList<>();
+        levels.add(level);
+        while (level.length > 1) {
+            byte[][] parent = new byte[(level.length + 1) / 2][];
+            for (int i = 0; i < parent.length; i++) {
+                int left = 2 * i;
+                parent[i] = left + 1 < level.length ? nodeHash(digest, level[left], level[left + 1]) : level[left];
+            }
+            levels.add(parent);
+            level = parent;
+        }
+        return new MerkleTree(levels);
+    }
+
+    public byte[] root() {
+        return levels.get(levels.size() - 1)[0].clone();
+    }
+
+    public int size() {
+        return levels.get(0).length;
+    }
+
+    public List<ProofStep> proof(int leafIndex) {
+        List<ProofStep> steps = new ArrayList<>();
+        int index = leafIndex;
+        for (int depth = 0; depth < levels.size() - 1; depth++) {
+            byte[][] level = levels.get(depth);
+            int sibling = index ^ 1;
+            if (sibling < level.length) {
+                steps.add(new ProofStep(sibling < index, level[sibling]));
+            }
+            index /= 2;
+        }
+        return steps;
+    }
+
+    public static boolean verify(byte[] recordHash, List<ProofStep> proof, byte[] expectedRoot) {
+        return MessageDigest.isEqual(computeRoot(sha256(), recordHash, proof), expectedRoot);
+    }
+
+    // Reuses the caller's digest so bulk verification allocates one MessageDigest per thread
+    public static byte[] computeRoot(MessageDigest digest, byte[] recordHash, List<ProofStep> proof) {
+        byte[] current = leafHash(digest, recordHash);
+        for (ProofStep step : proof) {
+            current = step.siblingOnLeft()
+                    ? nodeHash(digest, step.sibling(), current)
+                    : nodeHash(digest, current, step.sibling());
+        }
+        return current;
+    }
+
+    // Compact text form stored with each anchored record: 'L' or 'R' followed by the sibling hash in hex
+    public static String encodeProof(List<ProofStep> proof) {
+        StringBuilder encoded = new StringBuilder(proof.size() * (1 + 2 * HASH_LENGTH));
+        for (ProofStep step : proof) {
+            encoded.append(step.siblingOnLeft() ? 'L' : 'R').append(HEX.formatHex(step.sibling()));
+        }
+        return encoded.toString();
+    }
+
+    public static List<ProofStep> decodeProof(String encoded) {
+        int stepLength = 1 + 2 * HASH_LENGTH;
+        if (encoded.length() % stepLength != 0) {
+            throw new IllegalArgumentException("Malformed Merkle proof");
+        }
+        List<ProofStep> steps = new ArrayList<>(encoded.length() / stepLength);
+        for (int offset = 0; offset < encoded.length(); offset += stepLength) {
+            char side = encoded.charAt(offset);
+            if (side != 'L' && side != 'R') {
+                throw new IllegalArgumentException("Malformed Merkle proof");
+            }
+            steps.add(new ProofStep(side == 'L', HEX.parseHex(encoded, offset + 1, offset + stepLength)));
+        }
+        return steps;
+    }
+
+    public static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static byte[] leafHash(MessageDigest digest, byte[] recordHash) {
+        digest.update(LEAF_PREFIX);
+        return digest.digest(recordHash);
+    }
+
+    private static byte[] nodeHash(MessageDigest digest, byte[] left, byte[] right) {
+        digest.update(NODE_PREFIX);
+        digest.update(left);
+        return digest.digest(right);
+    }
+}
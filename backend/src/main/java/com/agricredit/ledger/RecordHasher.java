@@ -0,0 +1,110 @@
+package com.agricredit.ledger;
+
+import com.agricredit.entity.Loan;
+import com.agricredit.entity.User;
+import com.agricredit.entity.WarehouseReceipt;
+
+import java.security.MessageDigest;
+
+// SHA-256 over the canonical encoding of a record. The transaction hash itself is never part of the input.
+// One instance per thread: it reuses its digest and encode buffer.
+//
+// Each anchor records the format it was hashed under, and older formats stay encodable, so a record anchored
+// before a field was added can still be compared against its current state.
+//   1: the original layout
+//   2: adds the loan's repayment type and the loan a receipt is pledged to
+public final class RecordHasher {
+
+    public static final int CURRENT_FORMAT = 2;
+    private static final int LOAN_TAG = 'L';
+    private static final int RECEIPT_TAG = 'W';
+
+    private final MessageDigest digest = MerkleTree.sha256();
+    private final CanonicalEncoder encoder = new CanonicalEncoder();
+
+    public byte[] hash(Loan loan) {
+        return hash(loan, CURRENT_FORMAT);
+    }
+
+    public byte[] hash(WarehouseReceipt receipt) {
+        return hash(receipt, CURRENT_FORMAT);
+    }
+
+    public byte[] hash(Loan loan, int format) {
+        return encode(loan, format).digest(digest);
+    }
+
+    public byte[] hash(WarehouseReceipt receipt, int format) {
+        return encode(receipt, format).digest(digest);
+    }
+
+    CanonicalEncoder encode(Loan loan) {
+        return encode(loan, CURRENT_FORMAT);
+    }
+
+    CanonicalEncoder encode(WarehouseReceipt receipt) {
+        return encode(receipt, CURRENT_FORMAT);
+    }
+
+    CanonicalEncoder encode(Loan loan, int format) {
+        checkFormat(format);
+        encoder.reset()
+                .writeByte(format)
+                .writeByte(LOAN_TAG)
+                .writeLong(loan.getId())
+                .writeLong(idOf(loan.getFarmer()))
+                .writeLong(idOf(loan.getLender()))
+                .writeDecimal(loan.getAmount())
+                .writeString(loan.getPurpose())
+                .writeDouble(loan.getInterestRate())
+                .writeInt(loan.getDurationInMonths())
+                .writeEnum(loan.getStatus())
+                .writeTimestamp(loan.getAppliedDate())
+                .writeTimestamp(loan.getApprovedDate())
+                .writeTimestamp(loan.getDisbursementDate())
+                .writeTimestamp(loan.getDueDate())
+                .writeTimestamp(loan.getClosedDate())
+                .writeString(loan.getRemarks());
+        if (format >= 2) {
+            encoder.writeEnum(loan.getRepaymentType());
+        }
+        return encoder;
+    }
+
+    CanonicalEncoder encode(WarehouseReceipt receipt, int format) {
+        checkFormat(format);
+        encoder.reset()
+                .writeByte(format)
+                .writeByte(RECEIPT_TAG)
+                .writeLong(receipt.getId())
+                .writeLong(idOf(receipt.getFarmer()))
+                .writeString(receipt.getReceiptNumber())
+                .writeString(receipt.getCommodityName())
+                .writeString(receipt.getVariety())
+                .writeDecimal(receipt.getQuantity())
+                .writeString(receipt.getUnitOfMeasure())
+                .writeString(receipt.getWarehouseLocation())
+                .writeString(receipt.getWarehouseKeeperName())
+                .writeTimestamp(receipt.getStoredDate())
+                .writeTimestamp(receipt.getExpiryDate())
+                .writeString(receipt.getQualityGrade())
+                .writeString(receipt.getCondition())
+                .writeString(receipt.getRemarks())
+                .writeEnum(receipt.getStatus());
+        if (format >= 2) {
+            encoder.writeLong(receipt.getPledgedLoanId());
+        }
+        return encoder;
+    }
+
+    private static void checkFormat(int format) {
+        if (format < 1 || format > CURRENT_FORMAT) {
+            throw new IllegalArgumentException("Unknown record hash format " + format);
+        }
+    }
+
+    // Reading the id of a lazy proxy does not initialise it
+    private static Long idOf(User user) {
+        return user == null ? null : user.getId();
+    }
+}
@@ -0,0 +1,162 @@
+package com.agricredit.metrics;
+
+import com.agricredit.dto.SqlProfileReport;
+import com.agricredit.dto.SqlStatementShapeResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Flags requests that repeat one statement shape (N+1), run a slow statement or are slow overall, and keeps
+// the latest reports in a ring buffer for /api/diagnostics/sql-profiles. The request thread only makes the
+// threshold checks; reports are built, counted and logged on a single background thread, and are dropped
+// rather than queued without bound when that thread falls behind.
+@Component
+public class SqlProfiler {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlProfiler.class);
+
+    private static final int MAX_SHAPES_PER_REPORT = 20;
+    private static final int MAX_SQL_LENGTH = 2000;
+
+    @Value("${sql.profiling.enabled:true}")
+    private boolean enabled;
+
+    @Value("${sql.profiling.repeat-threshold:10}")
+    private int repeatThreshold;
+
+    @Value("${sql.profiling.slow-statement-ms:100}")
+    private long slowStatementMs;
+
+    @Value("${sql.profiling.slow-request-ms:500}")
+    private long slowRequestMs;
+
+    // Fraction of flagged requests that are reported; lower it if a hot endpoint floods the buffer
+    @Value("${sql.profiling.sample-rate:1.0}")
+    private double sampleRate;
+
+    @Value("${sql.profiling.ring-size:256}")
+    private int ringSize;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private AtomicReferenceArray<SqlProfileReport> ring;
+    private final AtomicLong written = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private ThreadPoolExecutor reporter;
+
+    @PostConstruct
+    void init() {
+        ring = new AtomicReferenceArray<>(ringSize);
+        reporter = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1024),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "sql-profiler");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, executor) -> dropped.increment());
+        FunctionCounter.builder("agricredit.sql.profile.dropped", dropped, LongAdder::sum).register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        reporter.shutdown();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Called by RequestSqlMetricsFilter once the request is done with the context
+    public void completed(String method, String uri, int status, SqlRequestContext context) {
+        if (!enabled) {
+            return;
+        }
+        long elapsedNanos = context.getElapsedNanos();
+        boolean flagged = context.getMaxRepeats() >= repeatThreshold
+                || context.getMaxStatementNanos() >= TimeUnit.MILLISECONDS.toNanos(slowStatementMs)
+                || elapsedNanos >= TimeUnit.MILLISECONDS.toNanos(slowRequestMs);
+        if (!flagged || (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return;
+        }
+        reporter.execute(() -> publish(method, uri, status, elapsedNanos, context));
+    }
+
+    // Newest first, optionally only those carrying the given flag
+    public List<SqlProfileReport> getReports(String flag, int limit) {
+        List<SqlProfileReport> reports = new ArrayList<>();
+        long newest = written.get();
+        for (long seq = newest - 1; seq >= Math.max(0, newest - ringSize) && reports.size() < limit; seq--) {
+            SqlProfileReport report = ring.get((int) (seq % ringSize));
+            if (report != null && (flag == null || report.getFlags().contains(flag))) {
+                reports.add(report);
+            }
+        }
+        return reports;
+    }
+
+    private void publish(String method, String uri, int status, long elapsedNanos, SqlRequestContext context) {
+        List<String> flags = new ArrayList<>();
+        if (context.getMaxRepeats() >= repeatThreshold) {
+            flags.add("N_PLUS_ONE");
+        }
+        if (context.getMaxStatementNanos() >= TimeUnit.MILLISECONDS.toNanos(slowStatementMs)) {
+            flags.add("SLOW_STATEMENT");
+        }
+        if (elapsedNanos >= TimeUnit.MILLISECONDS.toNanos(slowRequestMs)) {
+            flags.add("SLOW_REQUEST");
+        }
+
+        List<SqlStatementShapeResponse> shapes = context.getShapes().stream()
+                .sorted(Comparator.comparingLong(SqlRequestContext.StatementShape::getTotalNanos).reversed())
+                .limit(MAX_SHAPES_PER_REPORT)
+                .map(shape -> new SqlStatementShapeResponse(truncate(shape.getSql()), shape.getCount(),
+                        shape.getTotalNanos() / 1e6, shape.getMaxNanos() / 1e6))
+                .toList();
+        SqlProfileReport report = new SqlProfileReport(LocalDateTime.now(), method, uri, status, elapsedNanos / 1e6,
+                context.getStatements(), context.getNanos() / 1e6, flags, shapes);
+
+        // Single writer, so claiming the slot and publishing the sequence need not be atomic together
+        long seq = written.get();
+        ring.set((int) (seq % ringSize), report);
+        written.set(seq + 1);
+
+        for (String flag : flags) {
+            Counter.builder("agricredit.sql.profile.flags")
+                    .tag("method", method)
+                    .tag("uri", uri)
+                    .tag("flag", flag)
+                    .register(meterRegistry)
+                    .increment();
+        }
+        if (flags.contains("N_PLUS_ONE")) {
+            context.getShapes().stream()
+                    .max(Comparator.comparingInt(SqlRequestContext.StatementShape::getCount))
+                    .ifPresent(shape -> log.warn("Possible N+1 on {} {}: {} statements, {} x {}", method, uri,
+                            report.getStatements(), shape.getCount(), truncate(shape.getSql())));
+        }
+    }
+
+    private static String truncate(String sql) {
+        return sql.length() <= MAX_SQL_LENGTH ? sql : sql.substring(0, MAX_SQL_LENGTH) + "...";
+    }
+}
@@ -0,0 +1,117 @@
+package com.agricredit.metrics;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Statements run on the current request thread. Work handed to other pools (password hashing, async jobs)
+// is not attributed to the request. With profiling on, statements are also grouped by their SQL text, which
+// for prepared statements is the query shape without parameter values.
+public final class SqlRequestContext {
+
+    private static final ThreadLocal<SqlRequestContext> CURRENT = new ThreadLocal<>();
+
+    // Bounds the per-request map for requests that run an unusual number of distinct statements
+    private static final int MAX_SHAPES = 100;
+    static final String OTHER_SHAPES = "(other statements)";
+
+    private final long startedNanos = System.nanoTime();
+    private final Map<String, StatementShape> shapes;
+    private int statements;
+    private long nanos;
+    private int maxRepeats;
+    private long maxStatementNanos;
+
+    private SqlRequestContext(boolean captureShapes) {
+        this.shapes = captureShapes ? new HashMap<>() : null;
+    }
+
+    public static SqlRequestContext begin(boolean captureShapes) {
+        SqlRequestContext context = new SqlRequestContext(captureShapes);
+        CURRENT.set(context);
+        return context;
+    }
+
+    public static SqlRequestContext current() {
+        return CURRENT.get();
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    void record(String sql, long statementNanos) {
+        statements++;
+        nanos += statementNanos;
+        maxStatementNanos = Math.max(maxStatementNanos, statementNanos);
+        if (shapes == null) {
+            return;
+        }
+        String key = shapes.size() < MAX_SHAPES || shapes.containsKey(sql) ? sql : OTHER_SHAPES;
+        StatementShape shape = shapes.computeIfAbsent(key, StatementShape::new);
+        shape.record(statementNanos);
+        if (key != OTHER_SHAPES) {
+            maxRepeats = Math.max(maxRepeats, shape.count);
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public long getElapsedNanos() {
+        return System.nanoTime() - startedNanos;
+    }
+
+    // Highest number of times one statement shape ran; the N+1 signal
+    public int getMaxRepeats() {
+        return maxRepeats;
+    }
+
+    public long getMaxStatementNanos() {
+        return maxStatementNanos;
+    }
+
+    public Collection<StatementShape> getShapes() {
+        return shapes == null ? List.of() : shapes.values();
+    }
+
+    public static final class StatementShape {
+
+        private final String sql;
+        private int count;
+        private long totalNanos;
+        private long maxNanos;
+
+        private StatementShape(String sql) {
+            this.sql = sql;
+        }
+
+        private void record(long statementNanos) {
+            count++;
+            totalNanos += statementNanos;
+            maxNanos = Math.max(maxNanos, statementNanos);
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.agricredit.metrics;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Sees every statement through the proxied DataSource: totals per statement type for the whole process,
+// plus the current request's statements for RequestSqlMetricsFilter and SqlProfiler. The process totals are
+// adders that the registry reads at scrape time.
+@Component
+public class SqlStatementMetrics implements QueryExecutionListener, MeterBinder {
+
+    private static final String STARTED = "agricredit.started";
+
+    private final Map<QueryType, LongAdder> counts = new EnumMap<>(QueryType.class);
+    private final Map<QueryType, LongAdder> nanos = new EnumMap<>(QueryType.class);
+
+    public SqlStatementMetrics() {
+        for (QueryType type : QueryType.values()) {
+            counts.put(type, new LongAdder());
+            nanos.put(type, new LongAdder());
+        }
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(STARTED, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long started = execInfo.getCustomValue(STARTED, Long.class);
+        long elapsed = started == null ? 0 : System.nanoTime() - started;
+        // A JDBC batch is one round trip, so it counts once, by its first statement
+        String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+        QueryType type = sql.isEmpty() ? QueryType.OTHER : QueryUtils.getQueryType(sql);
+        counts.get(type).increment();
+        nanos.get(type).add(elapsed);
+
+        SqlRequestContext context = SqlRequestContext.current();
+        if (context != null) {
+            context.record(sql, elapsed);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (QueryType type : QueryType.values()) {
+            FunctionTimer.builder("agricredit.jdbc.statements", this,
+                            metrics -> metrics.counts.get(type).sum(),
+                            metrics -> metrics.nanos.get(type).sum(), TimeUnit.NANOSECONDS)
+                    .tag("type", type.name())
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.agricredit.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+// Cluster-wide mutual exclusion for background jobs: a job runs while its job_locks row is locked FOR UPDATE.
+// The lock is held on a connection of its own, outside any Spring transaction, so the job's own transactions
+// commit as usual while it runs. If the node dies the database ends the session and the lock goes with it.
+@Repository
+public class JobLockRepository {
+
+    private static final String CLAIM_SQL = "SELECT name FROM job_locks WHERE name = ? FOR UPDATE";
+
+    @Autowired
+    private DataSource dataSource;
+
+    // Runs work under the lock and returns true, or returns false straight away if another node holds it
+    public boolean tryRun(String name, Runnable work) {
+        return hold(name, " SKIP LOCKED", () -> {
+            work.run();
+            return true;
+        }, false);
+    }
+
+    // Runs work under the lock, waiting for another node to release it first
+    public <T> T run(String name, Supplier<T> work) {
+        return hold(name, "", work, null);
+    }
+
+    private <T> T hold(String name, String wait, Supplier<T> work, T whenHeld) {
+        try (Connection connection = dataSource.getConnection()) {
+            ensureRow(connection, name);
+            connection.setAutoCommit(false);
+            try {
+                try (PreparedStatement claim = connection.prepareStatement(CLAIM_SQL + wait)) {
+                    claim.setString(1, name);
+                    try (ResultSet rs = claim.executeQuery()) {
+                        if (!rs.next()) {
+                            return whenHeld;
+                        }
+                    }
+                }
+                return work.get();
+            } finally {
+                // Nothing was written under the lock; ending the transaction is what releases it
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new CannotAcquireLockException("Could not take job lock " + name, e);
+        }
+    }
+
+    // Rows are created on first use, in autocommit so a lost insert race does not abort the claim
+    private static void ensureRow(Connection connection, String name) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO job_locks (name) SELECT ? WHERE NOT EXISTS (SELECT 1 FROM job_locks WHERE name = ?)")) {
+            insert.setString(1, name);
+            insert.setString(2, name);
+            insert.executeUpdate();
+        } catch (SQLException e) {
+            if (!"23505".equals(e.getSQLState())) {
+                throw new DataAccessResourceFailureException("Could not create job lock " + name, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.agricredit.repository;
+
+import com.agricredit.entity.LedgerOutboxEntry;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LedgerOutboxRepository extends JpaRepository<LedgerOutboxEntry, Long> {
+
+    // SKIP LOCKED (lock timeout -2) lets several nodes drain the outbox without blocking each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    List<LedgerOutboxEntry> findByStatusOrderByIdAsc(LedgerOutboxEntry.OutboxStatus status, Limit limit);
+
+    Optional<LedgerOutboxEntry> findFirstByRecordTypeAndRecordIdAndStatusOrderByIdDesc(
+            LedgerOutboxEntry.RecordType recordType, Long recordId, LedgerOutboxEntry.OutboxStatus status);
+
+    long countByStatus(LedgerOutboxEntry.OutboxStatus status);
+
+    List<LedgerOutboxEntry> findByMerkleRootAndStatus(String merkleRoot, LedgerOutboxEntry.OutboxStatus status);
+
+    int countByMerkleRootAndStatus(String merkleRoot, LedgerOutboxEntry.OutboxStatus status);
+
+    // Roots in the given status (SUBMITTING) since before the cutoff
+    @Query("select distinct e.merkleRoot from LedgerOutboxEntry e where e.status = :status and e.preparedAt < :preparedBefore")
+    List<String> findRootsPreparedBefore(LedgerOutboxEntry.OutboxStatus status, LocalDateTime preparedBefore);
+}
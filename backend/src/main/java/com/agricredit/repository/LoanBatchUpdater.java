@@ -0,0 +1,31 @@
+package com.agricredit.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Repository
+public class LoanBatchUpdater {
+
+    private static final String APPROVE_SQL = "UPDATE loans SET status = 'APPROVED', lender_id = ?, approved_date = ?, "
+            + "version = version + 1 WHERE id = ? AND status = 'PENDING'";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // The same conditional UPDATE as a single approval, sent as one JDBC batch.
+    // counts[i] is 1 when loanIds[i] was still PENDING and is now approved, 0 otherwise.
+    public int[] approveAll(List<Long> loanIds, Long lenderId, LocalDateTime approvedDate) {
+        Timestamp approvedAt = Timestamp.valueOf(approvedDate);
+        List<Object[]> rows = new ArrayList<>(loanIds.size());
+        for (Long loanId : loanIds) {
+            rows.add(new Object[]{lenderId, approvedAt, loanId});
+        }
+        return jdbcTemplate.batchUpdate(APPROVE_SQL, rows);
+    }
+}
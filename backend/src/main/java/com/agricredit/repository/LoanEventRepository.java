@@ -0,0 +1,42 @@
+package com.agricredit.repository;
+
+import com.agricredit.dto.LoanEventResponse;
+import com.agricredit.entity.LoanEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface LoanEventRepository extends JpaRepository<LoanEvent, Long> {
+
+    // Ids come from a pooled sequence, so across nodes they are not in commit order; the time is, with the id
+    // only breaking ties
+    List<LoanEvent> findByLoanIdOrderByOccurredAtAscIdAsc(Long loanId);
+
+    // First page of one loan's timeline, served from the (loanId, occurredAt, id) index
+    @Query("select new com.agricredit.dto.LoanEventResponse(e.id, e.loanId, e.fromStatus, e.toStatus, e.occurredAt) "
+            + "from LoanEvent e where e.loanId = :loanId order by e.occurredAt, e.id")
+    List<LoanEventResponse> findResponsesByLoanId(Long loanId, Limit limit);
+
+    // Keyset page after the cursor event (afterAt, afterId)
+    @Query("select new com.agricredit.dto.LoanEventResponse(e.id, e.loanId, e.fromStatus, e.toStatus, e.occurredAt) "
+            + "from LoanEvent e where e.loanId = :loanId "
+            + "and (e.occurredAt > :afterAt or (e.occurredAt = :afterAt and e.id > :afterId)) "
+            + "order by e.occurredAt, e.id")
+    List<LoanEventResponse> findResponsesByLoanIdAfter(Long loanId, LocalDateTime afterAt, long afterId, Limit limit);
+
+    // The timelines of a batch of archived loans, in loan order for the archive segment
+    @Query("select new com.agricredit.dto.LoanEventResponse(e.id, e.loanId, e.fromStatus, e.toStatus, e.occurredAt) "
+            + "from LoanEvent e where e.loanId in :loanIds order by e.loanId, e.occurredAt, e.id")
+    List<LoanEventResponse> findResponsesByLoanIdIn(Collection<Long> loanIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from LoanEvent e where e.loanId in :loanIds")
+    int deleteByLoanIdIn(Collection<Long> loanIds);
+}
@@ -0,0 +1,24 @@
+package com.agricredit.repository;
+
+import com.agricredit.dto.LoanInstalmentResponse;
+import com.agricredit.entity.LoanInstalment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface LoanInstalmentRepository extends JpaRepository<LoanInstalment, Long> {
+
+    @Query("select new com.agricredit.dto.LoanInstalmentResponse(i.instalmentNumber, i.dueDate, i.principalDue, "
+            + "i.interestDue, i.totalDue, i.closingBalance) "
+            + "from LoanInstalment i where i.loanId = :loanId order by i.instalmentNumber")
+    List<LoanInstalmentResponse> findResponsesByLoanId(Long loanId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from LoanInstalment i where i.loanId in :loanIds")
+    int deleteByLoanIdIn(Collection<Long> loanIds);
+}
@@ -1,17 +1,134 @@
 package com.agricredit.repository;
 
+import com.agricredit.amortization.AccrualRow;
+import com.agricredit.dto.LoanResponse;
 import com.agricredit.entity.Loan;
 import com.agricredit.entity.User;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface LoanRepository extends JpaRepository<Loan, Long> {
+    int STREAM_FETCH_SIZE = 500;
+
+    // Farmer and lender names are joined in the same statement, so no lazy loads per row
+    String SELECT_RESPONSE = "select new com.agricredit.dto.LoanResponse("
+            + "l.id, f.id, f.fullName, le.id, le.fullName, l.amount, l.purpose, l.interestRate, "
+            + "l.durationInMonths, l.repaymentType, l.status, l.appliedDate, l.approvedDate, l.disbursementDate, "
+            + "l.dueDate, l.closedDate, l.remarks, l.blockchainTransactionHash) "
+            + "from Loan l join l.farmer f left join l.lender le ";
+
     List<Loan> findByFarmer(User farmer);
     List<Loan> findByLender(User lender);
     List<Loan> findByStatus(Loan.LoanStatus status);
     List<Loan> findByFarmerAndStatus(User farmer, Loan.LoanStatus status);
     List<Loan> findByLenderAndStatus(User lender, Loan.LoanStatus status);
-}
\ No newline at end of file
+
+    // Bulk updates bypass the persistence context: flush it before and clear it after so no stale version survives
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Loan l set l.blockchainTransactionHash = :transactionHash, l.version = l.version + 1 where l.id in :ids")
+    int updateBlockchainTransactionHash(Collection<Long> ids, String transactionHash);
+
+    // Conditional transitions: one statement, and 0 rows means the loan is missing or has left the expected status
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Loan l set l.status = :status, l.lender = :lender, l.approvedDate = :approvedDate, "
+            + "l.version = l.version + 1 where l.id = :id and l.status = :expected")
+    int approve(Long id, Loan.LoanStatus expected, Loan.LoanStatus status, User lender, LocalDateTime approvedDate);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Loan l set l.status = :status, l.remarks = :remarks, l.closedDate = :closedDate, "
+            + "l.version = l.version + 1 where l.id = :id and l.status = :expected")
+    int reject(Long id, Loan.LoanStatus expected, Loan.LoanStatus status, String remarks, LocalDateTime closedDate);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Loan l set l.status = :status, l.disbursementDate = :disbursementDate, "
+            + "l.version = l.version + 1 where l.id = :id and l.status = :expected")
+    int disburse(Long id, Loan.LoanStatus expected, Loan.LoanStatus status, LocalDateTime disbursementDate);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Loan l set l.status = :status, l.closedDate = :closedDate, "
+            + "l.version = l.version + 1 where l.id = :id and l.status = :expected")
+    int close(Long id, Loan.LoanStatus expected, Loan.LoanStatus status, LocalDateTime closedDate);
+
+    // Only a loan already past its due date can default
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Loan l set l.status = :status, l.version = l.version + 1 "
+            + "where l.id = :id and l.status = :expected and l.dueDate < :now")
+    int markDefaulted(Long id, Loan.LoanStatus expected, Loan.LoanStatus status, LocalDateTime now);
+
+    // Part of the disbursement that already bumped the version in this transaction
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Loan l set l.dueDate = :dueDate where l.id = :id")
+    int updateDueDate(Long id, LocalDateTime dueDate);
+
+    @Query("select l.status from Loan l where l.id = :id")
+    Optional<Loan.LoanStatus> findStatusById(Long id);
+
+    @Query("select l.id from Loan l where l.id in :ids")
+    List<Long> findExistingIds(Collection<Long> ids);
+
+    @Query(SELECT_RESPONSE + "where l.id in :ids")
+    List<LoanResponse> findResponsesByIdIn(Collection<Long> ids);
+
+    @Query(SELECT_RESPONSE + "where l.id = :id")
+    Optional<LoanResponse> findResponseById(Long id);
+
+    // Keyset pagination: rows strictly after the given id, in id order
+    @Query(SELECT_RESPONSE + "where l.id > :afterId order by l.id")
+    List<LoanResponse> findResponsesAfter(long afterId, Limit limit);
+
+    @Query(SELECT_RESPONSE + "where f.id = :farmerId and l.id > :afterId order by l.id")
+    List<LoanResponse> findResponsesByFarmerAfter(Long farmerId, long afterId, Limit limit);
+
+    @Query(SELECT_RESPONSE + "where le.id = :lenderId and l.id > :afterId order by l.id")
+    List<LoanResponse> findResponsesByLenderAfter(Long lenderId, long afterId, Limit limit);
+
+    @Query(SELECT_RESPONSE + "where l.status = :status and l.id > :afterId order by l.id")
+    List<LoanResponse> findResponsesByStatusAfter(Loan.LoanStatus status, long afterId, Limit limit);
+
+    @Query(SELECT_RESPONSE + "where f.id = :farmerId and l.status = :status and l.id > :afterId order by l.id")
+    List<LoanResponse> findResponsesByFarmerAndStatusAfter(Long farmerId, Loan.LoanStatus status, long afterId, Limit limit);
+
+    @Query(SELECT_RESPONSE + "where le.id = :lenderId and l.status = :status and l.id > :afterId order by l.id")
+    List<LoanResponse> findResponsesByLenderAndStatusAfter(Long lenderId, Loan.LoanStatus status, long afterId, Limit limit);
+
+    // Bounded on applied_date, so only the applied_date index range for [from, to) is read
+    @Query(SELECT_RESPONSE + "where l.appliedDate >= :from and l.appliedDate < :to and l.id > :afterId order by l.id")
+    List<LoanResponse> findResponsesAppliedBetweenAfter(LocalDateTime from, LocalDateTime to, long afterId, Limit limit);
+
+    // Terminal loans that ended before the archive cutoff. Loans rejected before closedDate was set on rejection
+    // fall back to their applied date.
+    @Query(SELECT_RESPONSE + "where coalesce(l.closedDate, l.appliedDate) < :cutoff and l.status in :statuses "
+            + "and l.id > :afterId order by l.id")
+    List<LoanResponse> findArchivableResponsesAfter(LocalDateTime cutoff, Collection<Loan.LoanStatus> statuses,
+                                                    long afterId, Limit limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Loan l where l.id in :ids and coalesce(l.closedDate, l.appliedDate) < :cutoff "
+            + "and l.status in :statuses")
+    int deleteArchived(Collection<Long> ids, LocalDateTime cutoff, Collection<Loan.LoanStatus> statuses);
+
+    // Must be consumed inside a read-only transaction and closed by the caller
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    @Query("select new com.agricredit.amortization.AccrualRow(l.amount, l.interestRate, l.durationInMonths, "
+            + "l.repaymentType, l.disbursementDate) from Loan l where l.status in :statuses")
+    Stream<AccrualRow> streamAccrualRows(Collection<Loan.LoanStatus> statuses);
+
+    // Must be consumed inside a read-only transaction and closed by the caller
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    @Query(SELECT_RESPONSE + "order by l.id")
+    Stream<LoanResponse> streamAllResponses();
+}
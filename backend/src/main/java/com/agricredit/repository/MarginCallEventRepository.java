@@ -0,0 +1,38 @@
+package com.agricredit.repository;
+
+import com.agricredit.dto.MarginCallEventResponse;
+import com.agricredit.entity.MarginCallEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MarginCallEventRepository extends JpaRepository<MarginCallEvent, Long> {
+
+    String SELECT_RESPONSE = "select new com.agricredit.dto.MarginCallEventResponse(e.id, e.loanId, e.previousLevel, "
+            + "e.level, e.ltv, e.exposure, e.collateralValue, e.commodity, e.occurredAt) from MarginCallEvent e ";
+
+    @Query(SELECT_RESPONSE + "where e.id > :afterId order by e.id")
+    List<MarginCallEventResponse> findResponsesAfter(long afterId, Limit limit);
+
+    @Query(SELECT_RESPONSE + "where e.loanId = :loanId and e.id > :afterId order by e.id")
+    List<MarginCallEventResponse> findResponsesByLoanIdAfter(Long loanId, long afterId, Limit limit);
+
+    // Each loan's most recent margin calls: the ones at its latest occurredAt
+    @Query("select e from MarginCallEvent e where e.loanId in :loanIds and e.occurredAt = "
+            + "(select max(m.occurredAt) from MarginCallEvent m where m.loanId = e.loanId) order by e.id")
+    List<MarginCallEvent> findLatestByLoanIdIn(Collection<Long> loanIds);
+
+    // The margin calls of a batch of archived loans, in id order for the archive segment
+    @Query(SELECT_RESPONSE + "where e.loanId in :loanIds order by e.id")
+    List<MarginCallEventResponse> findResponsesByLoanIdIn(Collection<Long> loanIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from MarginCallEvent e where e.loanId in :loanIds")
+    int deleteByLoanIdIn(Collection<Long> loanIds);
+}
@@ -0,0 +1,73 @@
+package com.agricredit.repository;
+
+import com.agricredit.entity.SweepCheckpoint;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Plain SQL for the maturity sweep: chunk boundaries come from the primary key index and each chunk is
+// one locking SELECT of the affected ids plus one set-based UPDATE over the same id range
+@Repository
+public class MaturitySweepRepository {
+
+    public record Chunk(long upToId, int rows) {
+    }
+
+    public record SweptLoan(long id, long farmerId, Long lenderId, BigDecimal amount, LocalDateTime appliedDate) {
+    }
+
+    public record SweptReceipt(long id, long farmerId, String commodityName, String warehouseLocation,
+                               String unitOfMeasure, BigDecimal quantity) {
+    }
+
+    private static final String NEXT_CHUNK_SQL = "SELECT max(id), count(*) FROM "
+            + "(SELECT id FROM %s WHERE id > ? ORDER BY id LIMIT ?) chunk";
+
+    private static final String OVERDUE_LOANS = " WHERE id > ? AND id <= ? AND status = 'DISBURSED' AND due_date < ?";
+
+    private static final String EXPIRED_RECEIPTS = " WHERE id > ? AND id <= ? AND status = 'ACTIVE' AND expiry_date < ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // The next keyset chunk after afterId: its last id and row count, or null once the table is exhausted
+    public Chunk nextChunk(SweepCheckpoint.Target target, long afterId, int chunkSize) {
+        String sql = String.format(NEXT_CHUNK_SQL, target == SweepCheckpoint.Target.LOANS ? "loans" : "warehouse_receipts");
+        return jdbcTemplate.queryForObject(sql, (rs, rowNum) -> {
+            int rows = rs.getInt(2);
+            return rows == 0 ? null : new Chunk(rs.getLong(1), rows);
+        }, afterId, chunkSize);
+    }
+
+    // Row locks keep concurrent transitions out until the UPDATE below has run, so the two agree on the ids
+    public List<SweptLoan> lockOverdueLoans(long afterId, long upToId, LocalDateTime cutoff) {
+        return jdbcTemplate.query("SELECT id, farmer_id, lender_id, amount, applied_date FROM loans" + OVERDUE_LOANS
+                        + " FOR UPDATE",
+                (rs, rowNum) -> new SweptLoan(rs.getLong(1), rs.getLong(2), rs.getObject(3, Long.class),
+                        rs.getBigDecimal(4), rs.getObject(5, LocalDateTime.class)),
+                afterId, upToId, Timestamp.valueOf(cutoff));
+    }
+
+    public int defaultOverdueLoans(long afterId, long upToId, LocalDateTime cutoff) {
+        return jdbcTemplate.update("UPDATE loans SET status = 'DEFAULTED', version = version + 1" + OVERDUE_LOANS,
+                afterId, upToId, Timestamp.valueOf(cutoff));
+    }
+
+    public List<SweptReceipt> lockExpiredReceipts(long afterId, long upToId, LocalDateTime cutoff) {
+        return jdbcTemplate.query("SELECT id, farmer_id, commodity_name, warehouse_location, unit_of_measure, quantity "
+                        + "FROM warehouse_receipts" + EXPIRED_RECEIPTS + " FOR UPDATE",
+                (rs, rowNum) -> new SweptReceipt(rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getString(4),
+                        rs.getString(5), rs.getBigDecimal(6)),
+                afterId, upToId, Timestamp.valueOf(cutoff));
+    }
+
+    public int expireReceipts(long afterId, long upToId, LocalDateTime cutoff) {
+        return jdbcTemplate.update("UPDATE warehouse_receipts SET status = 'EXPIRED', version = version + 1"
+                + EXPIRED_RECEIPTS, afterId, upToId, Timestamp.valueOf(cutoff));
+    }
+}
@@ -0,0 +1,21 @@
+package com.agricredit.repository;
+
+import com.agricredit.dto.PortfolioBucketResponse;
+import com.agricredit.entity.PortfolioAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PortfolioAggregateRepository extends JpaRepository<PortfolioAggregate, PortfolioAggregate.Key> {
+
+    // One primary-key range read summed over the shards; its size depends on the number of buckets, not on
+    // the number of loans
+    @Query("select new com.agricredit.dto.PortfolioBucketResponse(a.dimension, a.bucket, sum(a.itemCount), sum(a.total)) "
+            + "from PortfolioAggregate a where a.lenderId = :lenderId "
+            + "group by a.dimension, a.bucket having sum(a.itemCount) <> 0 "
+            + "order by a.dimension, a.bucket")
+    List<PortfolioBucketResponse> findBucketsByLenderId(Long lenderId);
+}
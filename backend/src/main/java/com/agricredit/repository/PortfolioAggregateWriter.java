@@ -0,0 +1,106 @@
+package com.agricredit.repository;
+
+import com.agricredit.analytics.PortfolioDeltas;
+import com.agricredit.analytics.PortfolioKey;
+import com.agricredit.entity.Loan;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Adds deltas to the aggregate rows, creating rows the first time a bucket is seen. PostgreSQL gets one batch
+// of INSERT .. ON CONFLICT, which is safe against two transactions creating the same row. Other databases get
+// the standard MERGE, which is not, so there each row goes on its own and is retried if it lost that race.
+// Every bucket is split over a number of shard rows and each batch goes to one shard picked at random, so
+// concurrent transactions touching the same bucket, above all the platform-wide ones, rarely wait on each other.
+@Repository
+public class PortfolioAggregateWriter {
+
+    private static final String UPSERT_SQL = "INSERT INTO portfolio_aggregates (lender_id, dimension, bucket, shard, item_count, total) "
+            + "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT (lender_id, dimension, bucket, shard) DO UPDATE SET "
+            + "item_count = portfolio_aggregates.item_count + EXCLUDED.item_count, "
+            + "total = portfolio_aggregates.total + EXCLUDED.total";
+
+    private static final String MERGE_SQL = "MERGE INTO portfolio_aggregates a USING (VALUES (CAST(? AS BIGINT), "
+            + "CAST(? AS VARCHAR(20)), CAST(? AS VARCHAR(255)), CAST(? AS INTEGER), CAST(? AS BIGINT), "
+            + "CAST(? AS NUMERIC(19, 2)))) AS d (lender_id, dimension, bucket, shard, item_count, total) "
+            + "ON a.lender_id = d.lender_id AND a.dimension = d.dimension AND a.bucket = d.bucket AND a.shard = d.shard "
+            + "WHEN MATCHED THEN UPDATE SET item_count = a.item_count + d.item_count, total = a.total + d.total "
+            + "WHEN NOT MATCHED THEN INSERT (lender_id, dimension, bucket, shard, item_count, total) "
+            + "VALUES (d.lender_id, d.dimension, d.bucket, d.shard, d.item_count, d.total)";
+
+    @Value("${analytics.aggregate-shards:8}")
+    private int shards;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgres;
+
+    public void apply(Map<PortfolioKey, PortfolioDeltas.Delta> deltas) {
+        apply(deltas, ThreadLocalRandom.current().nextInt(Math.max(1, shards)));
+    }
+
+    // Readers sum the shards, so a change in the shard count needs no migration of existing rows
+    public void apply(Map<PortfolioKey, PortfolioDeltas.Delta> deltas, int shard) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((key, delta) -> rows.add(new Object[]{
+                key.lenderId(), key.dimension().name(), key.bucket(), shard, delta.count(), delta.total()}));
+        if (isPostgres()) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+            return;
+        }
+        for (Object[] row : rows) {
+            try {
+                jdbcTemplate.update(MERGE_SQL, row);
+            } catch (DuplicateKeyException e) {
+                jdbcTemplate.update(MERGE_SQL, row);
+            }
+        }
+    }
+
+    public void deleteAll() {
+        jdbcTemplate.update("DELETE FROM portfolio_aggregates");
+    }
+
+    // Full recount for a rebuild: loans grouped by status, lender and application month
+    public void scanLoans(PortfolioDeltas deltas) {
+        jdbcTemplate.query("SELECT status, lender_id, EXTRACT(YEAR FROM applied_date), EXTRACT(MONTH FROM applied_date), "
+                + "count(*), sum(amount) FROM loans GROUP BY status, lender_id, "
+                + "EXTRACT(YEAR FROM applied_date), EXTRACT(MONTH FROM applied_date)", rs -> {
+            long lenderId = rs.getLong(2);
+            int year = rs.getInt(3);
+            YearMonth month = rs.wasNull() ? null : YearMonth.of(year, rs.getInt(4));
+            deltas.loans(lenderId == 0 ? null : lenderId, Loan.LoanStatus.valueOf(rs.getString(1)), month,
+                    rs.getLong(5), rs.getBigDecimal(6));
+        });
+    }
+
+    public void scanActiveReceipts(PortfolioDeltas deltas) {
+        jdbcTemplate.query("SELECT commodity_name, warehouse_location, unit_of_measure, count(*), sum(quantity) "
+                + "FROM warehouse_receipts WHERE status = 'ACTIVE' "
+                + "GROUP BY commodity_name, warehouse_location, unit_of_measure", rs -> {
+            deltas.activeReceipts(rs.getString(1), rs.getString(2), rs.getString(3), rs.getLong(4), rs.getBigDecimal(5));
+        });
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    connection.isWrapperFor(PGConnection.class));
+        }
+        return postgres;
+    }
+}
@@ -0,0 +1,9 @@
+package com.agricredit.repository;
+
+import com.agricredit.entity.SweepCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SweepCheckpointRepository extends JpaRepository<SweepCheckpoint, SweepCheckpoint.Target> {
+}
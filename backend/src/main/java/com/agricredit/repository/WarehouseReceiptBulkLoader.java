@@ -0,0 +1,141 @@
+package com.agricredit.repository;
+
+import com.agricredit.entity.WarehouseReceipt;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+// Inserts receipts without going through the persistence context: COPY on PostgreSQL, JDBC batches elsewhere
+@Repository
+public class WarehouseReceiptBulkLoader {
+
+    public enum Method { COPY, JDBC_BATCH }
+
+    private static final String COLUMNS = "farmer_id, commodity_name, variety, quantity, unit_of_measure, "
+            + "warehouse_location, warehouse_keeper_name, stored_date, expiry_date, quality_grade, condition, "
+            + "remarks, receipt_number, blockchain_transaction_hash, status";
+
+    private static final String COPY_SQL = "COPY warehouse_receipts (" + COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+
+    private static final String INSERT_SQL = "INSERT INTO warehouse_receipts (" + COLUMNS + ") "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Queues the new rows for ledger anchoring; ids come from the outbox sequence directly
+    private static final String OUTBOX_SQL = "INSERT INTO ledger_outbox (id, record_type, record_id, status, created_at) "
+            + "SELECT nextval('ledger_outbox_seq'), 'WAREHOUSE_RECEIPT', id, 'PENDING', ? "
+            + "FROM warehouse_receipts WHERE receipt_number IN (%s)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Each call is one round of COPY or one executeBatch plus the matching outbox rows, committed together
+    @Transactional
+    public Method load(List<WarehouseReceipt> receipts) {
+        Method method = jdbcTemplate.execute((ConnectionCallback<Method>) connection -> {
+            if (connection.isWrapperFor(PGConnection.class)) {
+                copy(connection, receipts);
+                return Method.COPY;
+            }
+            batchInsert(connection, receipts);
+            return Method.JDBC_BATCH;
+        });
+
+        Object[] args = new Object[receipts.size() + 1];
+        args[0] = Timestamp.valueOf(LocalDateTime.now());
+        for (int i = 0; i < receipts.size(); i++) {
+            args[i + 1] = receipts.get(i).getReceiptNumber();
+        }
+        jdbcTemplate.update(String.format(OUTBOX_SQL, String.join(", ", Collections.nCopies(receipts.size(), "?"))), args);
+        return method;
+    }
+
+    private void copy(Connection connection, List<WarehouseReceipt> receipts) throws SQLException {
+        StringBuilder csv = new StringBuilder(receipts.size() * 256);
+        for (WarehouseReceipt receipt : receipts) {
+            csv.append(receipt.getFarmer().getId()).append(',');
+            appendQuoted(csv, receipt.getCommodityName()).append(',');
+            appendQuoted(csv, receipt.getVariety()).append(',');
+            csv.append(receipt.getQuantity().toPlainString()).append(',');
+            appendQuoted(csv, receipt.getUnitOfMeasure()).append(',');
+            appendQuoted(csv, receipt.getWarehouseLocation()).append(',');
+            appendQuoted(csv, receipt.getWarehouseKeeperName()).append(',');
+            appendTimestamp(csv, receipt.getStoredDate()).append(',');
+            appendTimestamp(csv, receipt.getExpiryDate()).append(',');
+            appendQuoted(csv, receipt.getQualityGrade()).append(',');
+            appendQuoted(csv, receipt.getCondition()).append(',');
+            appendQuoted(csv, receipt.getRemarks()).append(',');
+            appendQuoted(csv, receipt.getReceiptNumber()).append(',');
+            appendQuoted(csv, receipt.getBlockchainTransactionHash()).append(',');
+            csv.append(receipt.getStatus().name()).append('\n');
+        }
+        try {
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            copyManager.copyIn(COPY_SQL, new StringReader(csv.toString()));
+        } catch (IOException e) {
+            throw new SQLException("COPY into warehouse_receipts failed", e);
+        }
+    }
+
+    private void batchInsert(Connection connection, List<WarehouseReceipt> receipts) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+            for (WarehouseReceipt receipt : receipts) {
+                statement.setLong(1, receipt.getFarmer().getId());
+                statement.setString(2, receipt.getCommodityName());
+                statement.setString(3, receipt.getVariety());
+                statement.setBigDecimal(4, receipt.getQuantity());
+                statement.setString(5, receipt.getUnitOfMeasure());
+                statement.setString(6, receipt.getWarehouseLocation());
+                statement.setString(7, receipt.getWarehouseKeeperName());
+                statement.setTimestamp(8, Timestamp.valueOf(receipt.getStoredDate()));
+                if (receipt.getExpiryDate() != null) {
+                    statement.setTimestamp(9, Timestamp.valueOf(receipt.getExpiryDate()));
+                } else {
+                    statement.setNull(9, Types.TIMESTAMP);
+                }
+                statement.setString(10, receipt.getQualityGrade());
+                statement.setString(11, receipt.getCondition());
+                statement.setString(12, receipt.getRemarks());
+                statement.setString(13, receipt.getReceiptNumber());
+                statement.setString(14, receipt.getBlockchainTransactionHash());
+                statement.setString(15, receipt.getStatus().name());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    // In COPY csv format an unquoted empty field is NULL and a quoted one is an empty string
+    private static StringBuilder appendQuoted(StringBuilder csv, String value) {
+        if (value == null) {
+            return csv;
+        }
+        csv.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '"') {
+                csv.append('"');
+            }
+            csv.append(ch);
+        }
+        return csv.append('"');
+    }
+
+    private static StringBuilder appendTimestamp(StringBuilder csv, LocalDateTime value) {
+        return value == null ? csv : csv.append(value);
+    }
+}
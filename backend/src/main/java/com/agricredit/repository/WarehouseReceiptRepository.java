@@ -1,16 +1,133 @@
 package com.agricredit.repository;
 
+import com.agricredit.collateral.CollateralLot;
+import com.agricredit.dto.WarehouseReceiptResponse;
 import com.agricredit.entity.WarehouseReceipt;
 import com.agricredit.entity.User;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface WarehouseReceiptRepository extends JpaRepository<WarehouseReceipt, Long> {
+    int STREAM_FETCH_SIZE = 500;
+
+    // Farmer name is joined in the same statement, so no lazy load per row
+    String SELECT_RESPONSE = "select new com.agricredit.dto.WarehouseReceiptResponse("
+            + "r.id, f.id, f.fullName, r.commodityName, r.variety, r.quantity, r.unitOfMeasure, "
+            + "r.warehouseLocation, r.warehouseKeeperName, r.storedDate, r.expiryDate, r.qualityGrade, "
+            + "r.condition, r.remarks, r.receiptNumber, r.blockchainTransactionHash, r.status, r.pledgedLoanId) "
+            + "from WarehouseReceipt r join r.farmer f ";
+
     List<WarehouseReceipt> findByFarmer(User farmer);
     List<WarehouseReceipt> findByStatus(WarehouseReceipt.ReceiptStatus status);
     List<WarehouseReceipt> findByFarmerAndStatus(User farmer, WarehouseReceipt.ReceiptStatus status);
     List<WarehouseReceipt> findByWarehouseLocation(String warehouseLocation);
-}
\ No newline at end of file
+
+    // Bulk updates bypass the persistence context: flush it before and clear it after so no stale version survives
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update WarehouseReceipt r set r.blockchainTransactionHash = :transactionHash, r.version = r.version + 1 where r.id in :ids")
+    int updateBlockchainTransactionHash(Collection<Long> ids, String transactionHash);
+
+    // The expiry date becomes the time the receipt ended; 0 rows means the receipt is missing, has left the
+    // expected status or is pledged as collateral
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update WarehouseReceipt r set r.status = :status, r.expiryDate = :endedAt, r.version = r.version + 1 "
+            + "where r.id = :id and r.status = :expected and r.pledgedLoanId is null")
+    int updateStatus(Long id, WarehouseReceipt.ReceiptStatus expected, WarehouseReceipt.ReceiptStatus status,
+                     LocalDateTime endedAt);
+
+    // Locks the receipts for the loan only if every one is still active, owned by the farmer and unpledged
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update WarehouseReceipt r set r.pledgedLoanId = :loanId, r.version = r.version + 1 "
+            + "where r.id in :ids and r.farmer.id = :farmerId and r.status = :status and r.pledgedLoanId is null")
+    int pledge(Collection<Long> ids, Long loanId, Long farmerId, WarehouseReceipt.ReceiptStatus status);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update WarehouseReceipt r set r.pledgedLoanId = null, r.version = r.version + 1 "
+            + "where r.id in :ids and r.pledgedLoanId = :loanId")
+    int unpledge(Collection<Long> ids, Long loanId);
+
+    @Query("select new com.agricredit.collateral.CollateralLot(r.id, r.pledgedLoanId, f.id, r.commodityName, "
+            + "r.quantity, r.unitOfMeasure, r.status) from WarehouseReceipt r join r.farmer f where r.id in :ids")
+    List<CollateralLot> findLotsByIdIn(Collection<Long> ids);
+
+    @Query("select new com.agricredit.collateral.CollateralLot(r.id, r.pledgedLoanId, f.id, r.commodityName, "
+            + "r.quantity, r.unitOfMeasure, r.status) from WarehouseReceipt r join r.farmer f "
+            + "where r.pledgedLoanId = :loanId order by r.id")
+    List<CollateralLot> findLotsByPledgedLoanId(Long loanId);
+
+    // Every pledged lot, for rebuilding the LTV index at startup
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    @Query("select new com.agricredit.collateral.CollateralLot(r.id, r.pledgedLoanId, f.id, r.commodityName, "
+            + "r.quantity, r.unitOfMeasure, r.status) from WarehouseReceipt r join r.farmer f "
+            + "where r.pledgedLoanId is not null")
+    Stream<CollateralLot> streamPledgedLots();
+
+    @Query(SELECT_RESPONSE + "where r.pledgedLoanId = :loanId order by r.id")
+    List<WarehouseReceiptResponse> findResponsesByPledgedLoanId(Long loanId);
+
+    boolean existsByIdAndPledgedLoanIdIsNotNull(Long id);
+
+    @Query("select r.status from WarehouseReceipt r where r.id = :id")
+    Optional<WarehouseReceipt.ReceiptStatus> findStatusById(Long id);
+
+    @Query(SELECT_RESPONSE + "where r.id = :id")
+    Optional<WarehouseReceiptResponse> findResponseById(Long id);
+
+    @Query(SELECT_RESPONSE + "where r.receiptNumber in :receiptNumbers order by r.id")
+    List<WarehouseReceiptResponse> findResponsesByReceiptNumberIn(Collection<String> receiptNumbers);
+
+    // Keyset pagination: rows strictly after the given id, in id order
+    @Query(SELECT_RESPONSE + "where r.id > :afterId order by r.id")
+    List<WarehouseReceiptResponse> findResponsesAfter(long afterId, Limit limit);
+
+    @Query(SELECT_RESPONSE + "where f.id = :farmerId and r.id > :afterId order by r.id")
+    List<WarehouseReceiptResponse> findResponsesByFarmerAfter(Long farmerId, long afterId, Limit limit);
+
+    @Query(SELECT_RESPONSE + "where r.status = :status and r.id > :afterId order by r.id")
+    List<WarehouseReceiptResponse> findResponsesByStatusAfter(WarehouseReceipt.ReceiptStatus status, long afterId, Limit limit);
+
+    @Query(SELECT_RESPONSE + "where f.id = :farmerId and r.status = :status and r.id > :afterId order by r.id")
+    List<WarehouseReceiptResponse> findResponsesByFarmerAndStatusAfter(Long farmerId, WarehouseReceipt.ReceiptStatus status, long afterId, Limit limit);
+
+    @Query(SELECT_RESPONSE + "where r.warehouseLocation = :warehouseLocation and r.id > :afterId order by r.id")
+    List<WarehouseReceiptResponse> findResponsesByWarehouseLocationAfter(String warehouseLocation, long afterId, Limit limit);
+
+    // Bounded on stored_date, so only the stored_date index range for [from, to) is read
+    @Query(SELECT_RESPONSE + "where r.storedDate >= :from and r.storedDate < :to and r.id > :afterId order by r.id")
+    List<WarehouseReceiptResponse> findResponsesStoredBetweenAfter(LocalDateTime from, LocalDateTime to, long afterId, Limit limit);
+
+    // Closed, unpledged receipts that ended before the archive cutoff: closing a receipt stamps expiryDate
+    @Query(SELECT_RESPONSE + "where coalesce(r.expiryDate, r.storedDate) < :cutoff and r.status in :statuses "
+            + "and r.pledgedLoanId is null and r.id > :afterId order by r.id")
+    List<WarehouseReceiptResponse> findArchivableResponsesAfter(LocalDateTime cutoff,
+                                                                Collection<WarehouseReceipt.ReceiptStatus> statuses,
+                                                                long afterId, Limit limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from WarehouseReceipt r where r.id in :ids and coalesce(r.expiryDate, r.storedDate) < :cutoff "
+            + "and r.status in :statuses and r.pledgedLoanId is null")
+    int deleteArchived(Collection<Long> ids, LocalDateTime cutoff, Collection<WarehouseReceipt.ReceiptStatus> statuses);
+
+    // Must be consumed inside a read-only transaction and closed by the caller
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    @Query(SELECT_RESPONSE + "order by r.id")
+    Stream<WarehouseReceiptResponse> streamAllResponses();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    @Query(SELECT_RESPONSE + "where r.status = :status order by r.id")
+    Stream<WarehouseReceiptResponse> streamResponsesByStatus(WarehouseReceipt.ReceiptStatus status);
+}
@@ -0,0 +1,369 @@
+package com.agricredit.search;
+
+import com.agricredit.dto.FacetCountResponse;
+import com.agricredit.dto.ReceiptSearchHit;
+import com.agricredit.dto.ReceiptSearchResponse;
+import com.agricredit.dto.WarehouseReceiptResponse;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory inverted index over warehouse receipts, keyed by receipt id. Every keyword field keeps a
+// dictionary of its distinct values with one compressed bitmap of receipt ids per value, plus the value
+// ordinal of each receipt so an update can take the receipt out of its old bitmaps. Free text is matched
+// against the words of those same values, so it needs no postings of its own. Stored dates are bucketed by
+// month; quantities and the partial months at the ends of a date range are checked per candidate.
+//
+// One lock guards everything: searches share it, writes take it exclusively for a single receipt or batch.
+public class ReceiptSearchIndex {
+
+    public enum Field {
+        COMMODITY("commodityName"),
+        VARIETY("variety"),
+        GRADE("qualityGrade"),
+        UNIT("unitOfMeasure"),
+        STATUS("status"),
+        LOCATION("warehouseLocation"),
+        KEEPER(null),
+        CONDITION(null);
+
+        // Name of the facet in responses; null for fields that are searchable but not faceted
+        private final String facet;
+
+        Field(String facet) {
+            this.facet = facet;
+        }
+    }
+
+    private static final int MAX_FACET_VALUES = 20;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Field, KeywordField> fields = new EnumMap<>(Field.class);
+    // word -> (field, ordinal) pairs whose value contains it
+    private final TreeMap<String, List<long[]>> words = new TreeMap<>();
+    private final TreeMap<Integer, RoaringBitmap> storedMonths = new TreeMap<>();
+    private final RoaringBitmap live = new RoaringBitmap();
+
+    private long[] farmerIds = new long[INITIAL_CAPACITY];
+    private double[] quantities = new double[INITIAL_CAPACITY];
+    private long[] storedAt = new long[INITIAL_CAPACITY];
+
+    public ReceiptSearchIndex() {
+        for (Field field : Field.values()) {
+            fields.put(field, new KeywordField(field));
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void index(Collection<WarehouseReceiptResponse> receipts) {
+        lock.writeLock().lock();
+        try {
+            for (WarehouseReceiptResponse receipt : receipts) {
+                put(receipt);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void updateStatus(Collection<Long> receiptIds, String status) {
+        lock.writeLock().lock();
+        try {
+            for (Long receiptId : receiptIds) {
+                int doc = Math.toIntExact(receiptId);
+                if (live.contains(doc)) {
+                    fields.get(Field.STATUS).set(doc, status);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Collection<Long> receiptIds) {
+        lock.writeLock().lock();
+        try {
+            for (Long receiptId : receiptIds) {
+                int doc = Math.toIntExact(receiptId);
+                if (!live.contains(doc)) {
+                    continue;
+                }
+                for (KeywordField field : fields.values()) {
+                    field.set(doc, null);
+                }
+                storedMonths.get(month(storedAt[doc])).remove(doc);
+                live.remove(doc);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public ReceiptSearchResponse search(ReceiptSearchQuery query) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap matches = match(query);
+            Map<String, List<FacetCountResponse>> facets = new LinkedHashMap<>();
+            for (Field field : Field.values()) {
+                if (field.facet != null) {
+                    facets.put(field.facet, fields.get(field).facetCounts(matches));
+                }
+            }
+            return new ReceiptSearchResponse(matches.getCardinality(), page(matches, query), facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(WarehouseReceiptResponse receipt) {
+        int doc = Math.toIntExact(receipt.getId());
+        ensureCapacity(doc);
+        if (live.contains(doc)) {
+            storedMonths.get(month(storedAt[doc])).remove(doc);
+        }
+        fields.get(Field.COMMODITY).set(doc, receipt.getCommodityName());
+        fields.get(Field.VARIETY).set(doc, receipt.getVariety());
+        fields.get(Field.GRADE).set(doc, receipt.getQualityGrade());
+        fields.get(Field.UNIT).set(doc, receipt.getUnitOfMeasure());
+        fields.get(Field.STATUS).set(doc, receipt.getStatus());
+        fields.get(Field.LOCATION).set(doc, receipt.getWarehouseLocation());
+        fields.get(Field.KEEPER).set(doc, receipt.getWarehouseKeeperName());
+        fields.get(Field.CONDITION).set(doc, receipt.getCondition());
+        farmerIds[doc] = receipt.getFarmerId() == null ? 0 : receipt.getFarmerId();
+        quantities[doc] = receipt.getQuantity() == null ? 0 : receipt.getQuantity().doubleValue();
+        storedAt[doc] = receipt.getStoredDate() == null ? 0 : receipt.getStoredDate().toEpochSecond(ZoneOffset.UTC);
+        storedMonths.computeIfAbsent(month(storedAt[doc]), m -> new RoaringBitmap()).add(doc);
+        live.add(doc);
+    }
+
+    private RoaringBitmap match(ReceiptSearchQuery query) {
+        List<RoaringBitmap> required = new ArrayList<>();
+        addValues(required, Field.COMMODITY, query.commodities());
+        addValues(required, Field.VARIETY, query.varieties());
+        addValues(required, Field.GRADE, query.grades());
+        addValues(required, Field.UNIT, query.units());
+        addValues(required, Field.STATUS, query.statuses());
+        if (query.locationPrefix() != null && !query.locationPrefix().isBlank()) {
+            required.add(fields.get(Field.LOCATION).prefix(normalize(query.locationPrefix())));
+        }
+        if (query.text() != null) {
+            for (String word : words(query.text())) {
+                required.add(wordPrefix(word));
+            }
+        }
+        long from = query.storedFrom() == null ? Long.MIN_VALUE : query.storedFrom().toEpochSecond(ZoneOffset.UTC);
+        long to = query.storedTo() == null ? Long.MAX_VALUE : query.storedTo().toEpochSecond(ZoneOffset.UTC);
+        if (query.storedFrom() != null || query.storedTo() != null) {
+            int fromMonth = query.storedFrom() == null ? Integer.MIN_VALUE : month(from);
+            int toMonth = query.storedTo() == null ? Integer.MAX_VALUE : month(to);
+            required.add(FastAggregation.or(storedMonths.subMap(fromMonth, true, toMonth, true).values().iterator()));
+        }
+
+        // Smallest bitmap first keeps every intermediate intersection small
+        required.sort(Comparator.comparingInt(RoaringBitmap::getCardinality));
+        RoaringBitmap matches = required.isEmpty() ? live.clone() : required.get(0).clone();
+        for (int i = 1; i < required.size() && !matches.isEmpty(); i++) {
+            matches.and(required.get(i));
+        }
+        matches.and(live);
+
+        boolean checkDates = query.storedFrom() != null || query.storedTo() != null;
+        boolean checkQuantity = query.minQuantity() != null || query.maxQuantity() != null;
+        if (!checkDates && !checkQuantity) {
+            return matches;
+        }
+        double min = query.minQuantity() == null ? Double.NEGATIVE_INFINITY : query.minQuantity().doubleValue();
+        double max = query.maxQuantity() == null ? Double.POSITIVE_INFINITY : query.maxQuantity().doubleValue();
+        RoaringBitmap exact = new RoaringBitmap();
+        IntIterator it = matches.getIntIterator();
+        while (it.hasNext()) {
+            int doc = it.next();
+            if (storedAt[doc] >= from && storedAt[doc] < to && quantities[doc] >= min && quantities[doc] <= max) {
+                exact.add(doc);
+            }
+        }
+        return exact;
+    }
+
+    private void addValues(List<RoaringBitmap> required, Field field, List<String> values) {
+        if (values == null || values.isEmpty()) {
+            return;
+        }
+        KeywordField keywords = fields.get(field);
+        required.add(FastAggregation.or(values.stream().map(value -> keywords.postings(normalize(value))).iterator()));
+    }
+
+    private RoaringBitmap wordPrefix(String prefix) {
+        List<RoaringBitmap> postings = new ArrayList<>();
+        for (List<long[]> values : words.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            for (long[] value : values) {
+                postings.add(fields.get(Field.values()[(int) value[0]]).postings.get((int) value[1]));
+            }
+        }
+        return FastAggregation.or(postings.iterator());
+    }
+
+    private List<ReceiptSearchHit> page(RoaringBitmap matches, ReceiptSearchQuery query) {
+        List<ReceiptSearchHit> hits = new ArrayList<>(Math.min(query.limit(), matches.getCardinality()));
+        if (query.afterId() >= Integer.MAX_VALUE) {
+            return hits;
+        }
+        PeekableIntIterator it = matches.getIntIterator();
+        it.advanceIfNeeded((int) Math.max(query.afterId() + 1, 0));
+        while (it.hasNext() && hits.size() < query.limit()) {
+            int doc = it.next();
+            hits.add(new ReceiptSearchHit((long) doc, farmerIds[doc],
+                    fields.get(Field.COMMODITY).value(doc), fields.get(Field.VARIETY).value(doc),
+                    BigDecimal.valueOf(quantities[doc]), fields.get(Field.UNIT).value(doc),
+                    fields.get(Field.LOCATION).value(doc), fields.get(Field.GRADE).value(doc),
+                    fields.get(Field.STATUS).value(doc), LocalDateTime.ofEpochSecond(storedAt[doc], 0, ZoneOffset.UTC)));
+        }
+        return hits;
+    }
+
+    private void ensureCapacity(int doc) {
+        if (doc < farmerIds.length) {
+            return;
+        }
+        int capacity = Math.max(doc + 1, (int) Math.min(Integer.MAX_VALUE - 8, farmerIds.length * 3L / 2));
+        farmerIds = Arrays.copyOf(farmerIds, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+        storedAt = Arrays.copyOf(storedAt, capacity);
+        for (KeywordField field : fields.values()) {
+            field.ensureCapacity(capacity);
+        }
+    }
+
+    private void addWords(Field field, int ordinal, String value) {
+        for (String word : words(value)) {
+            words.computeIfAbsent(word, w -> new ArrayList<>()).add(new long[]{field.ordinal(), ordinal});
+        }
+    }
+
+    private static int month(long epochSecond) {
+        LocalDateTime time = LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+        return time.getYear() * 12 + time.getMonthValue() - 1;
+    }
+
+    static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static List<String> words(String text) {
+        return Arrays.stream(normalize(text).split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    // Distinct values of one field: ordinal per value, bitmap per ordinal, ordinal per receipt (-1 for none)
+    private final class KeywordField {
+
+        private final Field field;
+        private final NavigableMap<String, Integer> ordinals = new TreeMap<>();
+        private final List<String> values = new ArrayList<>();
+        private final List<RoaringBitmap> postings = new ArrayList<>();
+        private int[] docOrdinals = filled(INITIAL_CAPACITY);
+
+        KeywordField(Field field) {
+            this.field = field;
+        }
+
+        void set(int doc, String value) {
+            int previous = docOrdinals[doc];
+            int ordinal = value == null || value.isBlank() ? -1 : ordinal(value);
+            if (previous == ordinal) {
+                return;
+            }
+            if (previous >= 0) {
+                postings.get(previous).remove(doc);
+            }
+            if (ordinal >= 0) {
+                postings.get(ordinal).add(doc);
+            }
+            docOrdinals[doc] = ordinal;
+        }
+
+        // Values are told apart case-insensitively; the spelling seen first is the one displayed
+        private int ordinal(String value) {
+            String key = normalize(value);
+            Integer existing = ordinals.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            int ordinal = values.size();
+            ordinals.put(key, ordinal);
+            values.add(value.trim());
+            postings.add(new RoaringBitmap());
+            addWords(field, ordinal, value);
+            return ordinal;
+        }
+
+        String value(int doc) {
+            int ordinal = docOrdinals[doc];
+            return ordinal < 0 ? null : values.get(ordinal);
+        }
+
+        RoaringBitmap postings(String key) {
+            Integer ordinal = ordinals.get(key);
+            return ordinal == null ? new RoaringBitmap() : postings.get(ordinal);
+        }
+
+        RoaringBitmap prefix(String prefix) {
+            return FastAggregation.or(ordinals.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()
+                    .stream().map(postings::get).iterator());
+        }
+
+        List<FacetCountResponse> facetCounts(RoaringBitmap matches) {
+            List<FacetCountResponse> counts = new ArrayList<>();
+            for (int ordinal = 0; ordinal < postings.size(); ordinal++) {
+                long count = RoaringBitmap.andCardinality(matches, postings.get(ordinal));
+                if (count > 0) {
+                    counts.add(new FacetCountResponse(values.get(ordinal), count));
+                }
+            }
+            counts.sort(Comparator.comparingLong(FacetCountResponse::getCount).reversed()
+                    .thenComparing(FacetCountResponse::getValue));
+            return counts.size() > MAX_FACET_VALUES ? new ArrayList<>(counts.subList(0, MAX_FACET_VALUES)) : counts;
+        }
+
+        void ensureCapacity(int capacity) {
+            int previous = docOrdinals.length;
+            docOrdinals = Arrays.copyOf(docOrdinals, capacity);
+            Arrays.fill(docOrdinals, previous, capacity, -1);
+        }
+
+        private int[] filled(int capacity) {
+            int[] ordinals = new int[capacity];
+            Arrays.fill(ordinals, -1);
+            return ordinals;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.agricredit.search;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Values within one field are alternatives (OR); fields, text tokens and ranges all have to match (AND).
+// Empty lists and nulls leave that part unconstrained. storedFrom is inclusive, storedTo exclusive.
+public record ReceiptSearchQuery(String text,
+                                 List<String> commodities,
+                                 List<String> varieties,
+                                 List<String> grades,
+                                 List<String> units,
+                                 List<String> statuses,
+                                 String locationPrefix,
+                                 BigDecimal minQuantity,
+                                 BigDecimal maxQuantity,
+                                 LocalDateTime storedFrom,
+                                 LocalDateTime storedTo,
+                                 long afterId,
+                                 int limit) {
+}
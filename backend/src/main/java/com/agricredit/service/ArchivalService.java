@@ -0,0 +1,242 @@
+package com.agricredit.service;
+
+import com.agricredit.archive.ArchiveCodecs;
+import com.agricredit.archive.ArchiveStore;
+import com.agricredit.cache.RecordCacheEvictor;
+import com.agricredit.dto.ArchivalStatusResponse;
+import com.agricredit.dto.LoanEventResponse;
+import com.agricredit.dto.LoanResponse;
+import com.agricredit.dto.MarginCallEventResponse;
+import com.agricredit.dto.WarehouseReceiptResponse;
+import com.agricredit.entity.Loan;
+import com.agricredit.entity.WarehouseReceipt;
+import com.agricredit.repository.JobLockRepository;
+import com.agricredit.repository.LoanEventRepository;
+import com.agricredit.repository.LoanInstalmentRepository;
+import com.agricredit.repository.LoanRepository;
+import com.agricredit.repository.MarginCallEventRepository;
+import com.agricredit.repository.WarehouseReceiptRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Moves loans and receipts that closed before the horizon out of the live tables into archive segments. A loan
+// takes its event timeline and margin calls along; its instalments are dropped, since the schedule is recomputed
+// from the archived terms.
+// Each batch is written to its segment before the rows are deleted, so a crash in between leaves the rows in
+// both places and the next run archives them again; lookups prefer the live row and duplicates are harmless.
+// Only one node in the cluster archives at a time; the others find the job lock taken and skip the trigger.
+// This job is what keeps the live tables bounded; they are not partitioned by month (see V13 for why), so the
+// date-bounded finders rely on the applied_date/stored_date indexes rather than partition pruning.
+@Service
+public class ArchivalService {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchivalService.class);
+
+    static final String LOCK = "archival";
+
+    static final List<Loan.LoanStatus> LOAN_STATUSES = List.of(Loan.LoanStatus.CLOSED, Loan.LoanStatus.REJECTED);
+    static final List<WarehouseReceipt.ReceiptStatus> RECEIPT_STATUSES = List.of(WarehouseReceipt.ReceiptStatus.RELEASED,
+            WarehouseReceipt.ReceiptStatus.EXPIRED, WarehouseReceipt.ReceiptStatus.CANCELLED);
+
+    @Value("${archive.horizon-days:365}")
+    private int horizonDays;
+
+    @Value("${archive.batch-size:5000}")
+    private int batchSize;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private LoanEventRepository loanEventRepository;
+
+    @Autowired
+    private MarginCallEventRepository marginCallEventRepository;
+
+    @Autowired
+    private LoanInstalmentRepository loanInstalmentRepository;
+
+    @Autowired
+    private WarehouseReceiptRepository warehouseReceiptRepository;
+
+    @Autowired
+    private ArchiveStore archiveStore;
+
+    @Autowired
+    private JobLockRepository jobLockRepository;
+
+    @Autowired
+    private RecordCacheEvictor recordCacheEvictor;
+
+    @Autowired
+    private PortfolioAnalyticsService portfolioAnalyticsService;
+
+    @Autowired
+    private ReceiptSearchService receiptSearchService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private volatile boolean running;
+    private volatile ArchivalStatusResponse lastRun = new ArchivalStatusResponse();
+    private ExecutorService launcher;
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        launcher = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "archival");
+            thread.setDaemon(true);
+            return thread;
+        });
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        launcher.shutdownNow();
+    }
+
+    public boolean isConfigured() {
+        return archiveStore.isWritable();
+    }
+
+    // Archives on the calling thread. Returns false if a run is already in progress on any node.
+    public boolean run() {
+        return run(LocalDateTime.now().minusDays(horizonDays));
+    }
+
+    boolean run(LocalDateTime cutoff) {
+        if (!isConfigured()) {
+            throw new IllegalStateException("No archive directory configured (archive.dir)");
+        }
+        return jobLockRepository.tryRun(LOCK, () -> archive(cutoff));
+    }
+
+    // Starts a run in the background for the admin endpoint, once the lock has been claimed for it
+    public boolean trigger() {
+        CompletableFuture<Boolean> claimed = new CompletableFuture<>();
+        launcher.execute(() -> {
+            try {
+                if (!jobLockRepository.tryRun(LOCK, () -> {
+                    claimed.complete(true);
+                    archive(LocalDateTime.now().minusDays(horizonDays));
+                })) {
+                    claimed.complete(false);
+                }
+            } catch (RuntimeException e) {
+                if (!claimed.completeExceptionally(e)) {
+                    log.warn("Archival failed: {}", e.getMessage());
+                }
+            }
+        });
+        try {
+            return claimed.join();
+        } catch (CompletionException e) {
+            throw (RuntimeException) e.getCause();
+        }
+    }
+
+    public ArchivalStatusResponse getStatus() {
+        ArchivalStatusResponse status = lastRun;
+        return new ArchivalStatusResponse(running, status.getCutoff(), status.getStartedAt(),
+                status.getCompletedAt(), status.getLoansArchived(), status.getReceiptsArchived(),
+                status.getSegmentsWritten(), status.getError());
+    }
+
+    private void archive(LocalDateTime cutoff) {
+        running = true;
+        ArchivalStatusResponse status = new ArchivalStatusResponse();
+        status.setCutoff(cutoff);
+        status.setStartedAt(LocalDateTime.now());
+        lastRun = status;
+        try {
+            archiveLoans(cutoff, status);
+            archiveReceipts(cutoff, status);
+            log.info("Archival done: {} loans and {} receipts in {} segments",
+                    status.getLoansArchived(), status.getReceiptsArchived(), status.getSegmentsWritten());
+        } catch (RuntimeException e) {
+            status.setError(e.getMessage());
+            throw e;
+        } finally {
+            status.setCompletedAt(LocalDateTime.now());
+            running = false;
+        }
+    }
+
+    private void archiveLoans(LocalDateTime cutoff, ArchivalStatusResponse status) {
+        long afterId = 0;
+        while (true) {
+            List<LoanResponse> batch = loanRepository.findArchivableResponsesAfter(cutoff, LOAN_STATUSES, afterId,
+                    Limit.of(batchSize));
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<Long> ids = batch.stream().map(LoanResponse::getId).toList();
+            archiveStore.write(ArchiveCodecs.LOANS, batch);
+            int segments = 1;
+            List<LoanEventResponse> events = loanEventRepository.findResponsesByLoanIdIn(ids);
+            if (!events.isEmpty()) {
+                archiveStore.write(ArchiveCodecs.LOAN_TIMELINES, events);
+                segments++;
+            }
+            List<MarginCallEventResponse> marginCalls = marginCallEventRepository.findResponsesByLoanIdIn(ids);
+            if (!marginCalls.isEmpty()) {
+                archiveStore.write(ArchiveCodecs.MARGIN_CALL_EVENTS, marginCalls);
+                segments++;
+            }
+            // Terminal loans take no new events, so the children read above are all there is to delete
+            int deleted = transactionTemplate.execute(tx -> {
+                loanEventRepository.deleteByLoanIdIn(ids);
+                marginCallEventRepository.deleteByLoanIdIn(ids);
+                loanInstalmentRepository.deleteByLoanIdIn(ids);
+                int rows = loanRepository.deleteArchived(ids, cutoff, LOAN_STATUSES);
+                portfolioAnalyticsService.loansArchived(batch);
+                recordCacheEvictor.loansChanged(ids, batch.stream().map(LoanResponse::getFarmerId).distinct().toList());
+                return rows;
+            });
+            status.setLoansArchived(status.getLoansArchived() + deleted);
+            status.setSegmentsWritten(status.getSegmentsWritten() + segments);
+            afterId = batch.get(batch.size() - 1).getId();
+        }
+    }
+
+    private void archiveReceipts(LocalDateTime cutoff, ArchivalStatusResponse status) {
+        long afterId = 0;
+        while (true) {
+            List<WarehouseReceiptResponse> batch = warehouseReceiptRepository.findArchivableResponsesAfter(cutoff,
+                    RECEIPT_STATUSES, afterId, Limit.of(batchSize));
+            if (batch.isEmpty()) {
+                return;
+            }
+            archiveStore.write(ArchiveCodecs.RECEIPTS, batch);
+            // Only active receipts are in the aggregates, so archiving closed ones leaves them as they are
+            int deleted = transactionTemplate.execute(tx -> {
+                List<Long> ids = batch.stream().map(WarehouseReceiptResponse::getId).toList();
+                int rows = warehouseReceiptRepository.deleteArchived(ids, cutoff, RECEIPT_STATUSES);
+                recordCacheEvictor.receiptsChanged(ids,
+                        batch.stream().map(WarehouseReceiptResponse::getFarmerId).distinct().toList());
+                receiptSearchService.receiptsRemoved(ids);
+                return rows;
+            });
+            status.setReceiptsArchived(status.getReceiptsArchived() + deleted);
+            status.setSegmentsWritten(status.getSegmentsWritten() + 1);
+            afterId = batch.get(batch.size() - 1).getId();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.agricredit.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "archive.enabled", havingValue = "true")
+public class ArchivalWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchivalWorker.class);
+
+    @Autowired
+    private ArchivalService archivalService;
+
+    @Scheduled(cron = "${archive.cron:0 0 3 * * *}")
+    public void nightly() {
+        try {
+            if (!archivalService.run()) {
+                log.info("Archival already running, skipping this trigger");
+            }
+        } catch (RuntimeException e) {
+            // Rows are only deleted after their segment is on disk, so the next run picks up where this one failed
+            log.warn("Archival failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package com.agricredit.service;
+
+import com.agricredit.cache.RecordCacheEvictor;
+import com.agricredit.collateral.CollateralLot;
+import com.agricredit.collateral.CommodityPriceFeed;
+import com.agricredit.collateral.CommodityQuote;
+import com.agricredit.collateral.CommodityUnits;
+import com.agricredit.collateral.LtvBreach;
+import com.agricredit.collateral.LtvEngine;
+import com.agricredit.collateral.LtvSnapshot;
+import com.agricredit.collateral.PledgeChange;
+import com.agricredit.collateral.PledgeChangeBus;
+import com.agricredit.dto.LoanCollateralResponse;
+import com.agricredit.dto.LoanResponse;
+import com.agricredit.dto.MarginCallEventResponse;
+import com.agricredit.dto.WarehouseReceiptResponse;
+import com.agricredit.entity.LedgerOutboxEntry;
+import com.agricredit.entity.Loan;
+import com.agricredit.entity.MarginCallEvent;
+import com.agricredit.entity.WarehouseReceipt;
+import com.agricredit.exception.StateConflictException;
+import com.agricredit.repository.JobLockRepository;
+import com.agricredit.repository.LoanRepository;
+import com.agricredit.repository.MarginCallEventRepository;
+import com.agricredit.repository.WarehouseReceiptRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Pledges warehouse receipts against loans and keeps the LTV engine in step with the database.
+// The receipts table is the source of truth; the engine only learns about a pledge change once it has
+// committed, and is rebuilt from the pledged receipts at startup. Every node runs its own engine, so a pledge
+// change is announced on the pledge change bus and the other nodes reload that loan's lots. Margin calls are
+// queued and written by the price poll, never by the request that caused them.
+@Service
+public class CollateralService {
+
+    private static final Logger log = LoggerFactory.getLogger(CollateralService.class);
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    static final String MARGIN_CALL_LOCK = "margin-calls";
+
+    @Autowired
+    private WarehouseReceiptRepository warehouseReceiptRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private MarginCallEventRepository marginCallEventRepository;
+
+    @Autowired
+    private RecordCacheEvictor recordCacheEvictor;
+
+    @Autowired
+    private CommodityPriceFeed commodityPriceFeed;
+
+    @Autowired
+    private LtvEngine ltvEngine;
+
+    @Autowired
+    private LedgerOutboxService ledgerOutboxService;
+
+    @Autowired
+    private PledgeChangeBus pledgeChangeBus;
+
+    @Autowired
+    private JobLockRepository jobLockRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Level changes waiting to be written. Pledges only queue theirs after commit: writing them there would hold
+    // the request's connection while waiting for the lock, and a failure would turn a committed pledge into an error.
+    private final LinkedBlockingDeque<LtvBreach> pendingBreaches = new LinkedBlockingDeque<>();
+
+    // Identifies this node's own announcements, which it has already applied
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        // Subscribed before the rebuild, so a change committed while it runs is reloaded afterwards at worst
+        pledgeChangeBus.subscribe(change -> {
+            if (!nodeId.equals(change.origin())) {
+                reload(change.loanId());
+            }
+        });
+        pollPrices();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        int lots = readOnly.execute(status -> rebuild());
+        log.info("LTV engine loaded {} pledged receipts across {} loans", lots, ltvEngine.loanCount());
+    }
+
+    public void pollPrices() {
+        applyQuotes(commodityPriceFeed.poll());
+    }
+
+    public List<MarginCallEventResponse> applyQuotes(List<CommodityQuote> quotes) {
+        List<LtvBreach> breaches = new ArrayList<>();
+        for (CommodityQuote quote : quotes) {
+            if (!CommodityUnits.isSupported(quote.unit()) || quote.price() == null || quote.price().signum() < 0) {
+                throw new IllegalArgumentException("Invalid quote for " + quote.commodity());
+            }
+            breaches.addAll(ltvEngine.onPrice(quote.commodity(), CommodityUnits.pricePerKilogram(quote.price(), quote.unit())));
+        }
+        pendingBreaches.addAll(breaches);
+        return recordPendingBreaches();
+    }
+
+    // Writes the queued level changes, unless another node is writing its own right now; they then wait for the
+    // next price poll. Returns the events written.
+    public List<MarginCallEventResponse> recordPendingBreaches() {
+        if (pendingBreaches.isEmpty()) {
+            return List.of();
+        }
+        List<MarginCallEventResponse> recorded = new ArrayList<>();
+        jobLockRepository.tryRun(MARGIN_CALL_LOCK, () -> {
+            List<LtvBreach> breaches = new ArrayList<>();
+            pendingBreaches.drainTo(breaches);
+            if (breaches.isEmpty()) {
+                return;
+            }
+            try {
+                recorded.addAll(new TransactionTemplate(transactionManager).execute(status -> persistBreaches(breaches)));
+            } catch (RuntimeException e) {
+                // Back at the head of the queue, in their original order, for the next attempt
+                for (int i = breaches.size() - 1; i >= 0; i--) {
+                    pendingBreaches.addFirst(breaches.get(i));
+                }
+                throw e;
+            }
+        });
+        return recorded;
+    }
+
+    public Map<String, BigDecimal> getPrices() {
+        Map<String, BigDecimal> prices = new HashMap<>();
+        ltvEngine.prices().forEach((commodity, perKg) -> prices.put(commodity, money(perKg)));
+        return prices;
+    }
+
+    @Transactional
+    public void pledge(Long loanId, List<Long> receiptIds) {
+        if (receiptIds == null || receiptIds.isEmpty()) {
+            throw new IllegalArgumentException("No receipts to pledge");
+        }
+        List<Long> ids = List.copyOf(new LinkedHashSet<>(receiptIds));
+        LoanResponse loan = loanRepository.findResponseById(loanId)
+                .orElseThrow(() -> new RuntimeException("Loan not found"));
+        if (LoanStateMachine.isTerminal(Loan.LoanStatus.valueOf(loan.getStatus()))) {
+            throw new StateConflictException("Loan is closed or rejected");
+        }
+
+        List<CollateralLot> lots = warehouseReceiptRepository.findLotsByIdIn(ids);
+        if (lots.size() != ids.size()) {
+            throw new RuntimeException("Warehouse receipt not found");
+        }
+        for (CollateralLot lot : lots) {
+            if (!lot.farmerId().equals(loan.getFarmerId())) {
+                throw new IllegalArgumentException("Warehouse receipt " + lot.receiptId() + " belongs to another farmer");
+            }
+            if (!CommodityUnits.isSupported(lot.unitOfMeasure())) {
+                throw new IllegalArgumentException("Unsupported unit of measure: " + lot.unitOfMeasure());
+            }
+            if (!ltvEngine.hasPrice(lot.commodityName())) {
+                throw new IllegalArgumentException("No price for commodity: " + lot.commodityName());
+            }
+        }
+
+        // Status and pledge checks live in the UPDATE so two concurrent pledges cannot both take a receipt
+        int pledged = warehouseReceiptRepository.pledge(ids, loanId, loan.getFarmerId(), WarehouseReceipt.ReceiptStatus.ACTIVE);
+        if (pledged != ids.size()) {
+            throw new StateConflictException("Warehouse receipt is not active or already pledged");
+        }
+        recordCacheEvictor.receiptsChanged(ids, List.of(loan.getFarmerId()));
+        ledgerOutboxService.enqueueAll(LedgerOutboxEntry.RecordType.WAREHOUSE_RECEIPT, ids);
+
+        double exposure = loan.getAmount().doubleValue();
+        Map<String, Double> kgByCommodity = kilogramsByCommodity(lots);
+        afterCommit(() -> {
+            announce(loanId);
+            ltvEngine.addLots(loanId, exposure, kgByCommodity).ifPresent(pendingBreaches::add);
+        });
+    }
+
+    @Transactional
+    public void unpledge(Long loanId, Long receiptId) {
+        CollateralLot lot = warehouseReceiptRepository.findLotsByIdIn(List.of(receiptId)).stream().findFirst()
+                .orElseThrow(() -> new RuntimeException("Warehouse receipt not found"));
+        if (warehouseReceiptRepository.unpledge(List.of(receiptId), loanId) == 0) {
+            throw new StateConflictException("Warehouse receipt is not pledged to this loan");
+        }
+        recordCacheEvictor.receiptsChanged(List.of(receiptId), List.of(lot.farmerId()));
+        ledgerOutboxService.enqueue(LedgerOutboxEntry.RecordType.WAREHOUSE_RECEIPT, receiptId);
+        afterCommit(() -> {
+            announce(loanId);
+            ltvEngine.removeLot(loanId, lot.commodityName(), kilograms(lot)).ifPresent(pendingBreaches::add);
+        });
+    }
+
+    // Called inside the transaction that moves the loan to a terminal status
+    public void releaseAll(Long loanId) {
+        List<CollateralLot> lots = warehouseReceiptRepository.findLotsByPledgedLoanId(loanId);
+        if (lots.isEmpty()) {
+            return;
+        }
+        List<Long> ids = lots.stream().map(CollateralLot::receiptId).toList();
+        warehouseReceiptRepository.unpledge(ids, loanId);
+        recordCacheEvictor.receiptsChanged(ids, lots.stream().map(CollateralLot::farmerId).distinct().toList());
+        ledgerOutboxService.enqueueAll(LedgerOutboxEntry.RecordType.WAREHOUSE_RECEIPT, ids);
+        afterCommit(() -> {
+            ltvEngine.removeLoan(loanId);
+            announce(loanId);
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public LoanCollateralResponse getCollateral(Long loanId) {
+        LoanResponse loan = loanRepository.findResponseById(loanId)
+                .orElseThrow(() -> new RuntimeException("Loan not found"));
+        return collateralResponse(loanId, loan.getAmount().doubleValue(),
+                warehouseReceiptRepository.findResponsesByPledgedLoanId(loanId), ltvEngine.snapshot(loanId));
+    }
+
+    public List<MarginCallEventResponse> getMarginCalls(Long loanId, long afterId, Limit limit) {
+        return loanId == null
+                ? marginCallEventRepository.findResponsesAfter(afterId, limit)
+                : marginCallEventRepository.findResponsesByLoanIdAfter(loanId, afterId, limit);
+    }
+
+    private int rebuild() {
+        Map<Long, List<CollateralLot>> lotsByLoan;
+        try (Stream<CollateralLot> lots = warehouseReceiptRepository.streamPledgedLots()) {
+            lotsByLoan = lots.collect(Collectors.groupingBy(CollateralLot::loanId));
+        }
+        List<Long> loanIds = new ArrayList<>(lotsByLoan.keySet());
+        int count = 0;
+        for (int from = 0; from < loanIds.size(); from += REBUILD_BATCH_SIZE) {
+            List<Long> batch = loanIds.subList(from, Math.min(from + REBUILD_BATCH_SIZE, loanIds.size()));
+            for (LoanResponse loan : loanRepository.findResponsesByIdIn(batch)) {
+                List<CollateralLot> lots = lotsByLoan.get(loan.getId());
+                ltvEngine.addLots(loan.getId(), loan.getAmount().doubleValue(), kilogramsByCommodity(lots));
+                count += lots.size();
+            }
+        }
+        return count;
+    }
+
+    private void announce(Long loanId) {
+        try {
+            pledgeChangeBus.publish(new PledgeChange(nodeId, loanId));
+        } catch (RuntimeException e) {
+            // The other nodes keep the old lots for this loan until they restart
+            log.warn("Could not announce the pledge change on loan {}: {}", loanId, e.getMessage());
+        }
+    }
+
+    // Another node changed this loan's pledges
+    private void reload(Long loanId) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            List<CollateralLot> lots = warehouseReceiptRepository.findLotsByPledgedLoanId(loanId);
+            Optional<LoanResponse> loan = lots.isEmpty() ? Optional.empty() : loanRepository.findResponseById(loanId);
+            ltvEngine.replaceLoan(loanId, loan.map(found -> found.getAmount().doubleValue()).orElse(0.0),
+                    loan.isPresent() ? kilogramsByCommodity(lots) : Map.of());
+        });
+    }
+
+    // Every node follows the same prices, so several can find the same breach at once. Breaches are written one
+    // node at a time under the margin-call lock, and one that repeats the loan's last recorded level is dropped.
+    private List<MarginCallEventResponse> persistBreaches(List<LtvBreach> breaches) {
+        Map<Long, MarginCallEvent.Level> recorded = new HashMap<>();
+        marginCallEventRepository.findLatestByLoanIdIn(breaches.stream().map(LtvBreach::loanId).distinct().toList())
+                .forEach(event -> recorded.put(event.getLoanId(), event.getLevel()));
+        LocalDateTime now = LocalDateTime.now();
+        List<MarginCallEvent> events = new ArrayList<>();
+        for (LtvBreach breach : breaches) {
+            if (recorded.put(breach.loanId(), breach.level()) == breach.level()) {
+                continue;
+            }
+            events.add(new MarginCallEvent(null, breach.loanId(), breach.previousLevel(), breach.level(),
+                    ratio(breach.ltv()), money(breach.exposure()), money(breach.collateralValue()),
+                    breach.commodity(), now));
+        }
+        marginCallEventRepository.saveAll(events);
+        events.stream()
+                .filter(event -> event.getLevel() != MarginCallEvent.Level.HEALTHY)
+                .forEach(event -> log.warn("Loan {} moved to {} at LTV {}", event.getLoanId(), event.getLevel(), event.getLtv()));
+        return events.stream()
+                .map(event -> new MarginCallEventResponse(event.getId(), event.getLoanId(), event.getPreviousLevel(),
+                        event.getLevel(), event.getLtv(), event.getExposure(), event.getCollateralValue(),
+                        event.getCommodity(), event.getOccurredAt()))
+                .toList();
+    }
+
+    private static LoanCollateralResponse collateralResponse(Long loanId, double exposure,
+                                                             List<WarehouseReceiptResponse> receipts,
+                                                             Optional<LtvSnapshot> snapshot) {
+        double value = snapshot.map(LtvSnapshot::collateralValue).orElse(0.0);
+        BigDecimal ltv = value > 0 ? ratio(exposure / value) : null;
+        String level = snapshot.map(LtvSnapshot::level).map(Enum::name).orElse(null);
+        return new LoanCollateralResponse(loanId, money(exposure), money(value), ltv, level, receipts);
+    }
+
+    private static Map<String, Double> kilogramsByCommodity(List<CollateralLot> lots) {
+        return lots.stream().collect(Collectors.groupingBy(lot -> CommodityUnits.key(lot.commodityName()),
+                Collectors.summingDouble(CollateralService::kilograms)));
+    }
+
+    private static double kilograms(CollateralLot lot) {
+        return CommodityUnits.toKilograms(lot.quantity(), lot.unitOfMeasure());
+    }
+
+    private static BigDecimal money(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_EVEN);
+    }
+
+    // An uncovered loan has an infinite LTV; the column stores it capped
+    private static BigDecimal ratio(double value) {
+        return BigDecimal.valueOf(Double.isFinite(value) ? Math.min(value, 999_999.0) : 999_999.0)
+                .setScale(4, RoundingMode.HALF_EVEN);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,34 @@
+package com.agricredit.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "commodity.prices.enabled", havingValue = "true", matchIfMissing = true)
+public class CommodityPriceWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(CommodityPriceWorker.class);
+
+    @Autowired
+    private CollateralService collateralService;
+
+    @Scheduled(fixedDelayString = "${commodity.prices.poll-ms:5000}")
+    public void poll() {
+        try {
+            collateralService.pollPrices();
+        } catch (RuntimeException e) {
+            // Prices stay at their last values until the feed recovers
+            log.warn("Commodity price poll failed: {}", e.getMessage());
+        }
+        try {
+            // Level changes from pledges, and any a busy margin-call lock held back
+            collateralService.recordPendingBreaches();
+        } catch (RuntimeException e) {
+            log.warn("Recording margin calls failed, retrying next poll: {}", e.getMessage());
+        }
+    }
+}
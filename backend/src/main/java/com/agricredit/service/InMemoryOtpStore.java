@@ -0,0 +1,96 @@
+package com.agricredit.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Single-node store. Expired codes are dropped on read, and each shard is swept at most once per
+// interval by whichever login lands on it, so no background thread is needed.
+public class InMemoryOtpStore implements OtpStore {
+
+    private static final int SHARDS = 16;
+    private static final long SWEEP_INTERVAL_MILLIS = 30_000;
+
+    private record Entry(byte[] code, Long userId, String role, long expiresAt, int attempts) {
+    }
+
+    private static final class Shard {
+        private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+        private final AtomicLong nextSweep = new AtomicLong();
+    }
+
+    private final Shard[] shards = new Shard[SHARDS];
+    private final long ttlMillis;
+    private final int maxAttempts;
+    private final Clock clock;
+
+    public InMemoryOtpStore(Duration ttl, int maxAttempts) {
+        this(ttl, maxAttempts, Clock.systemUTC());
+    }
+
+    InMemoryOtpStore(Duration ttl, int maxAttempts, Clock clock) {
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = new Shard();
+        }
+        this.ttlMillis = ttl.toMillis();
+        this.maxAttempts = maxAttempts;
+        this.clock = clock;
+    }
+
+    @Override
+    public void issue(String username, String code, Long userId, String role) {
+        long now = clock.millis();
+        Shard shard = shardFor(username);
+        sweep(shard, now);
+        shard.entries.put(username, new Entry(code.getBytes(StandardCharsets.UTF_8), userId, role, now + ttlMillis, 0));
+    }
+
+    @Override
+    public OtpVerification verify(String username, String code) {
+        long now = clock.millis();
+        byte[] candidate = code == null ? new byte[0] : code.getBytes(StandardCharsets.UTF_8);
+        OtpVerification[] result = new OtpVerification[1];
+        // The whole check-and-count runs under the entry's bin lock, so concurrent guesses cannot share an attempt
+        shardFor(username).entries.computeIfPresent(username, (key, entry) -> {
+            if (now >= entry.expiresAt()) {
+                result[0] = OtpVerification.of(OtpVerification.Status.EXPIRED);
+                return null;
+            }
+            if (MessageDigest.isEqual(entry.code(), candidate)) {
+                result[0] = OtpVerification.verified(entry.userId(), entry.role());
+                return null;
+            }
+            int attempts = entry.attempts() + 1;
+            if (attempts >= maxAttempts) {
+                result[0] = OtpVerification.of(OtpVerification.Status.LOCKED);
+                return null;
+            }
+            result[0] = OtpVerification.of(OtpVerification.Status.INVALID);
+            return new Entry(entry.code(), entry.userId(), entry.role(), entry.expiresAt(), attempts);
+        });
+        return result[0] == null ? OtpVerification.of(OtpVerification.Status.NOT_FOUND) : result[0];
+    }
+
+    int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            size += shard.entries.size();
+        }
+        return size;
+    }
+
+    private Shard shardFor(String username) {
+        int hash = username.hashCode();
+        return shards[(hash ^ (hash >>> 16)) & (SHARDS - 1)];
+    }
+
+    private void sweep(Shard shard, long now) {
+        long due = shard.nextSweep.get();
+        if (now >= due && shard.nextSweep.compareAndSet(due, now + SWEEP_INTERVAL_MILLIS)) {
+            shard.entries.values().removeIf(entry -> now >= entry.expiresAt());
+        }
+    }
+}
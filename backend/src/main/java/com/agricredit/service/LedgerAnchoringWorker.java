@@ -0,0 +1,47 @@
+package com.agricredit.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Background drain of the ledger outbox; request threads only ever insert outbox rows
+@Component
+@ConditionalOnProperty(name = "ledger.anchor.enabled", havingValue = "true", matchIfMissing = true)
+public class LedgerAnchoringWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerAnchoringWorker.class);
+
+    @Autowired
+    private LedgerOutboxService ledgerOutboxService;
+
+    // Well past a ledger call, so a root another node is still submitting is not submitted again
+    @Value("${ledger.anchor.resubmit-after-ms:60000}")
+    private long resubmitAfterMs;
+
+    @Scheduled(fixedDelayString = "${ledger.anchor.interval-ms:2000}")
+    public void drain() {
+        try {
+            int resubmitted = ledgerOutboxService.resubmitStalled(LocalDateTime.now().minus(Duration.ofMillis(resubmitAfterMs)));
+            if (resubmitted > 0) {
+                log.info("Anchored {} ledger records from stalled batches", resubmitted);
+            }
+            int anchored;
+            do {
+                anchored = ledgerOutboxService.anchorPendingBatch();
+                if (anchored > 0) {
+                    log.debug("Anchored {} ledger records", anchored);
+                }
+            } while (anchored >= ledgerOutboxService.getBatchSize());
+        } catch (RuntimeException e) {
+            // Entries stay PENDING, or SUBMITTING until resubmit-after-ms has passed, and are retried
+            log.warn("Ledger anchoring failed: {}", e.getMessage());
+        }
+    }
+}
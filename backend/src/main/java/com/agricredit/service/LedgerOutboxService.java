@@ -0,0 +1,198 @@
+package com.agricredit.service;
+
+import com.agricredit.cache.RecordCacheEvictor;
+import com.agricredit.entity.LedgerOutboxEntry;
+import com.agricredit.entity.Loan;
+import com.agricredit.entity.WarehouseReceipt;
+import com.agricredit.ledger.LedgerClient;
+import com.agricredit.ledger.MerkleTree;
+import com.agricredit.ledger.RecordHasher;
+import com.agricredit.repository.LedgerOutboxRepository;
+import com.agricredit.repository.LoanRepository;
+import com.agricredit.repository.WarehouseReceiptRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class LedgerOutboxService {
+
+    @Autowired
+    private LedgerOutboxRepository ledgerOutboxRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private WarehouseReceiptRepository warehouseReceiptRepository;
+
+    @Autowired
+    private LedgerClient ledgerClient;
+
+    @Autowired
+    private RecordCacheEvictor recordCacheEvictor;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${ledger.anchor.batch-size:1024}")
+    private int batchSize;
+
+    // Called inside the caller's transaction so the outbox row commits or rolls back with the record
+    public void enqueue(LedgerOutboxEntry.RecordType recordType, Long recordId) {
+        enqueueAll(recordType, List.of(recordId));
+    }
+
+    public void enqueueAll(LedgerOutboxEntry.RecordType recordType, Collection<Long> recordIds) {
+        LocalDateTime now = LocalDateTime.now();
+        List<LedgerOutboxEntry> entries = new ArrayList<>(recordIds.size());
+        for (Long recordId : recordIds) {
+            LedgerOutboxEntry entry = new LedgerOutboxEntry();
+            entry.setRecordType(recordType);
+            entry.setRecordId(recordId);
+            entry.setStatus(LedgerOutboxEntry.OutboxStatus.PENDING);
+            entry.setCreatedAt(now);
+            entries.add(entry);
+        }
+        ledgerOutboxRepository.saveAll(entries);
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    // Drains up to one batch: prepares its Merkle root, anchors it on the ledger, then records the ledger's
+    // transaction id. Returns the number of entries anchored.
+    public int anchorPendingBatch() {
+        byte[] root = transactionTemplate().execute(status -> prepareBatch());
+        return root == null ? 0 : submit(root);
+    }
+
+    // Roots prepared before the cutoff and never recorded as anchored, e.g. because the node stopped or the ledger
+    // failed in between, are submitted again. A root that did reach the ledger then has two anchors, and the proofs
+    // name the second. Returns the number of entries anchored.
+    public int resubmitStalled(LocalDateTime preparedBefore) {
+        int anchored = 0;
+        for (String root : ledgerOutboxRepository.findRootsPreparedBefore(
+                LedgerOutboxEntry.OutboxStatus.SUBMITTING, preparedBefore)) {
+            anchored += submit(HexFormat.of().parseHex(root));
+        }
+        return anchored;
+    }
+
+    // Hashes the current state of each record and stores every record's hash, leaf and inclusion proof under a
+    // single Merkle root, left SUBMITTING. Commits before the root goes to the ledger, so a slow ledger holds no
+    // connection and a rolled-back batch never reaches it. Returns the root, or null when nothing was pending.
+    byte[] prepareBatch() {
+        List<LedgerOutboxEntry> entries = ledgerOutboxRepository.findByStatusOrderByIdAsc(
+                LedgerOutboxEntry.OutboxStatus.PENDING, Limit.of(batchSize));
+        if (entries.isEmpty()) {
+            return null;
+        }
+
+        Map<Long, Loan> loans = loanRepository.findAllById(idsOf(entries, LedgerOutboxEntry.RecordType.LOAN))
+                .stream()
+                .collect(Collectors.toMap(Loan::getId, Function.identity()));
+        Map<Long, WarehouseReceipt> receipts = warehouseReceiptRepository.findAllById(idsOf(entries, LedgerOutboxEntry.RecordType.WAREHOUSE_RECEIPT))
+                .stream()
+                .collect(Collectors.toMap(WarehouseReceipt::getId, Function.identity()));
+
+        RecordHasher hasher = new RecordHasher();
+        List<LedgerOutboxEntry> prepared = new ArrayList<>(entries.size());
+        List<byte[]> recordHashes = new ArrayList<>(entries.size());
+        for (LedgerOutboxEntry entry : entries) {
+            byte[] recordHash = switch (entry.getRecordType()) {
+                case LOAN -> loans.containsKey(entry.getRecordId())
+                        ? hasher.hash(loans.get(entry.getRecordId())) : null;
+                case WAREHOUSE_RECEIPT -> receipts.containsKey(entry.getRecordId())
+                        ? hasher.hash(receipts.get(entry.getRecordId())) : null;
+            };
+            if (recordHash == null) {
+                // The record no longer exists; nothing to anchor
+                ledgerOutboxRepository.delete(entry);
+                continue;
+            }
+            prepared.add(entry);
+            recordHashes.add(recordHash);
+        }
+        if (prepared.isEmpty()) {
+            return null;
+        }
+
+        MerkleTree tree = MerkleTree.build(recordHashes);
+        HexFormat hex = HexFormat.of();
+        String root = hex.formatHex(tree.root());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < prepared.size(); i++) {
+            LedgerOutboxEntry entry = prepared.get(i);
+            entry.setStatus(LedgerOutboxEntry.OutboxStatus.SUBMITTING);
+            entry.setPreparedAt(now);
+            entry.setRecordHash(hex.formatHex(recordHashes.get(i)));
+            entry.setHashFormat(RecordHasher.CURRENT_FORMAT);
+            entry.setLeafIndex(i);
+            entry.setMerkleRoot(root);
+            entry.setMerkleProof(MerkleTree.encodeProof(tree.proof(i)));
+        }
+        return tree.root();
+    }
+
+    // Anchors a prepared root outside any transaction, then records the transaction id in one of its own
+    private int submit(byte[] root) {
+        String merkleRoot = HexFormat.of().formatHex(root);
+        int leafCount = ledgerOutboxRepository.countByMerkleRootAndStatus(merkleRoot, LedgerOutboxEntry.OutboxStatus.SUBMITTING);
+        if (leafCount == 0) {
+            return 0;
+        }
+        String transactionId = ledgerClient.submitRoot(root, leafCount);
+        return transactionTemplate().execute(status -> recordAnchor(merkleRoot, transactionId));
+    }
+
+    private int recordAnchor(String merkleRoot, String transactionId) {
+        List<LedgerOutboxEntry> anchored = ledgerOutboxRepository.findByMerkleRootAndStatus(
+                merkleRoot, LedgerOutboxEntry.OutboxStatus.SUBMITTING);
+        LocalDateTime now = LocalDateTime.now();
+        for (LedgerOutboxEntry entry : anchored) {
+            entry.setStatus(LedgerOutboxEntry.OutboxStatus.ANCHORED);
+            entry.setAnchoredAt(now);
+            entry.setLedgerTransactionId(transactionId);
+        }
+
+        Set<Long> loanIds = idsOf(anchored, LedgerOutboxEntry.RecordType.LOAN);
+        if (!loanIds.isEmpty()) {
+            List<Loan> loans = loanRepository.findAllById(loanIds);
+            loanRepository.updateBlockchainTransactionHash(loanIds, transactionId);
+            recordCacheEvictor.loansChanged(loans);
+        }
+        Set<Long> receiptIds = idsOf(anchored, LedgerOutboxEntry.RecordType.WAREHOUSE_RECEIPT);
+        if (!receiptIds.isEmpty()) {
+            List<WarehouseReceipt> receipts = warehouseReceiptRepository.findAllById(receiptIds);
+            warehouseReceiptRepository.updateBlockchainTransactionHash(receiptIds, transactionId);
+            recordCacheEvictor.receiptsChanged(receipts);
+        }
+        return anchored.size();
+    }
+
+    private TransactionTemplate transactionTemplate() {
+        return new TransactionTemplate(transactionManager);
+    }
+
+    private static Set<Long> idsOf(List<LedgerOutboxEntry> entries, LedgerOutboxEntry.RecordType recordType) {
+        return entries.stream()
+                .filter(entry -> entry.getRecordType() == recordType)
+                .map(LedgerOutboxEntry::getRecordId)
+                .collect(Collectors.toSet());
+    }
+}
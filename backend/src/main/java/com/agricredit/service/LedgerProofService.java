@@ -0,0 +1,146 @@
+package com.agricredit.service;
+
+import com.agricredit.dto.LedgerProofResponse;
+import com.agricredit.dto.ProofVerificationRequest;
+import com.agricredit.dto.ProofVerificationResponse;
+import com.agricredit.entity.LedgerOutboxEntry;
+import com.agricredit.entity.Loan;
+import com.agricredit.entity.WarehouseReceipt;
+import com.agricredit.ledger.LedgerClient;
+import com.agricredit.ledger.MerkleTree;
+import com.agricredit.ledger.RecordHasher;
+import com.agricredit.repository.LedgerOutboxRepository;
+import com.agricredit.repository.LoanRepository;
+import com.agricredit.repository.WarehouseReceiptRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+@Service
+public class LedgerProofService {
+
+    // Below this many proofs the fork/join hand-off costs more than the hashing
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    private static final HexFormat HEX = HexFormat.of();
+    private static final ThreadLocal<MessageDigest> DIGESTS = ThreadLocal.withInitial(MerkleTree::sha256);
+
+    @Autowired
+    private LedgerOutboxRepository ledgerOutboxRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private WarehouseReceiptRepository warehouseReceiptRepository;
+
+    @Autowired
+    private LedgerClient ledgerClient;
+
+    @Transactional(readOnly = true)
+    public LedgerProofResponse getLoanProof(Long loanId) {
+        Loan loan = loanRepository.findById(loanId)
+                .orElseThrow(() -> new RuntimeException("Loan not found"));
+        LedgerOutboxEntry entry = latestAnchor(LedgerOutboxEntry.RecordType.LOAN, loanId);
+        return toProof(entry, new RecordHasher().hash(loan, entry.getHashFormat()));
+    }
+
+    @Transactional(readOnly = true)
+    public LedgerProofResponse getReceiptProof(Long receiptId) {
+        WarehouseReceipt receipt = warehouseReceiptRepository.findById(receiptId)
+                .orElseThrow(() -> new RuntimeException("Warehouse receipt not found"));
+        LedgerOutboxEntry entry = latestAnchor(LedgerOutboxEntry.RecordType.WAREHOUSE_RECEIPT, receiptId);
+        return toProof(entry, new RecordHasher().hash(receipt, entry.getHashFormat()));
+    }
+
+    // A proof is valid when it recomputes its root and the ledger holds that root under the given transaction id.
+    // Without a transaction id nothing ties the root to the ledger, and any self-consistent tree would pass.
+    public ProofVerificationResponse verifyAll(List<ProofVerificationRequest> requests) {
+        // Batches usually share a handful of roots, so ask the ledger once per distinct anchor
+        Map<String, Boolean> anchors = new HashMap<>();
+        for (ProofVerificationRequest request : requests) {
+            if (request.getLedgerTransactionId() != null && request.getMerkleRoot() != null) {
+                anchors.computeIfAbsent(request.getLedgerTransactionId() + ":" + request.getMerkleRoot(),
+                        key -> isAnchored(request.getLedgerTransactionId(), request.getMerkleRoot()));
+            }
+        }
+
+        IntStream indexes = IntStream.range(0, requests.size());
+        if (requests.size() >= PARALLEL_THRESHOLD) {
+            indexes = indexes.parallel();
+        }
+        boolean[] results = new boolean[requests.size()];
+        indexes.forEach(i -> {
+            ProofVerificationRequest request = requests.get(i);
+            boolean anchored = request.getLedgerTransactionId() != null
+                    && anchors.getOrDefault(request.getLedgerTransactionId() + ":" + request.getMerkleRoot(), false);
+            results[i] = anchored && verify(DIGESTS.get(), request);
+        });
+
+        int valid = 0;
+        Boolean[] boxed = new Boolean[results.length];
+        for (int i = 0; i < results.length; i++) {
+            boxed[i] = results[i];
+            if (results[i]) {
+                valid++;
+            }
+        }
+        return new ProofVerificationResponse(results.length, valid, Arrays.asList(boxed));
+    }
+
+    private LedgerOutboxEntry latestAnchor(LedgerOutboxEntry.RecordType recordType, Long recordId) {
+        return ledgerOutboxRepository.findFirstByRecordTypeAndRecordIdAndStatusOrderByIdDesc(
+                        recordType, recordId, LedgerOutboxEntry.OutboxStatus.ANCHORED)
+                .orElseThrow(() -> new RuntimeException("Record has not been anchored yet"));
+    }
+
+    private LedgerProofResponse toProof(LedgerOutboxEntry entry, byte[] currentHash) {
+        byte[] anchoredHash = HEX.parseHex(entry.getRecordHash());
+        byte[] root = HEX.parseHex(entry.getMerkleRoot());
+
+        LedgerProofResponse response = new LedgerProofResponse();
+        response.setRecordType(entry.getRecordType().name());
+        response.setRecordId(entry.getRecordId());
+        response.setAnchoredRecordHash(entry.getRecordHash());
+        response.setCurrentRecordHash(HEX.formatHex(currentHash));
+        response.setHashFormat(entry.getHashFormat());
+        response.setLeafIndex(entry.getLeafIndex());
+        response.setMerkleRoot(entry.getMerkleRoot());
+        response.setMerkleProof(entry.getMerkleProof());
+        response.setLedgerTransactionId(entry.getLedgerTransactionId());
+        response.setAnchoredAt(entry.getAnchoredAt());
+        response.setProofValid(MerkleTree.verify(anchoredHash, MerkleTree.decodeProof(entry.getMerkleProof()), root));
+        response.setAnchoredOnLedger(ledgerClient.isAnchored(entry.getLedgerTransactionId(), root));
+        response.setMatchesCurrentState(MessageDigest.isEqual(anchoredHash, currentHash));
+        return response;
+    }
+
+    private boolean isAnchored(String transactionId, String merkleRoot) {
+        try {
+            return ledgerClient.isAnchored(transactionId, HEX.parseHex(merkleRoot));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static boolean verify(MessageDigest digest, ProofVerificationRequest request) {
+        if (request.getRecordHash() == null || request.getMerkleProof() == null || request.getMerkleRoot() == null) {
+            return false;
+        }
+        try {
+            byte[] computed = MerkleTree.computeRoot(digest, HEX.parseHex(request.getRecordHash()),
+                    MerkleTree.decodeProof(request.getMerkleProof()));
+            return MessageDigest.isEqual(computed, HEX.parseHex(request.getMerkleRoot()));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.agricredit.service;
+
+import com.agricredit.archive.ArchiveCodecs;
+import com.agricredit.archive.ArchiveStore;
+import com.agricredit.dto.LoanEventResponse;
+import com.agricredit.entity.Loan;
+import com.agricredit.entity.LoanEvent;
+import com.agricredit.repository.LoanEventRepository;
+import com.agricredit.repository.LoanRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+@Service
+public class LoanEventService {
+
+    @Autowired
+    private LoanEventRepository loanEventRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ArchiveStore archiveStore;
+
+    // Called inside the transition's transaction, so an event exists exactly when the status change commits
+    public void record(Long loanId, Loan.LoanStatus from, Loan.LoanStatus to, LocalDateTime occurredAt) {
+        recordAll(List.of(loanId), from, to, occurredAt);
+    }
+
+    public void recordAll(Collection<Long> loanIds, Loan.LoanStatus from, Loan.LoanStatus to, LocalDateTime occurredAt) {
+        List<LoanEvent> events = new ArrayList<>(loanIds.size());
+        for (Long loanId : loanIds) {
+            LoanEvent event = new LoanEvent();
+            event.setLoanId(loanId);
+            event.setFromStatus(from);
+            event.setToStatus(to);
+            event.setOccurredAt(occurredAt);
+            events.add(event);
+        }
+        loanEventRepository.saveAll(events);
+        countTransitions(from, to, loanIds.size());
+    }
+
+    // Counted on commit, so a rolled-back transition does not show up in agricredit.loan.transitions
+    private void countTransitions(Loan.LoanStatus from, Loan.LoanStatus to, int loans) {
+        Counter counter = Counter.builder("agricredit.loan.transitions")
+                .tag("from", from == null ? "NONE" : from.name())
+                .tag("to", to.name())
+                .register(meterRegistry);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    counter.increment(loans);
+                }
+            });
+        } else {
+            counter.increment(loans);
+        }
+    }
+
+    // Pages in occurrence order; the cursor is the id of the last event on the previous page
+    public List<LoanEventResponse> getTimeline(Long loanId, long afterId, Limit limit) {
+        if (!loanRepository.existsById(loanId)) {
+            return getArchivedTimeline(loanId, afterId, limit);
+        }
+        if (afterId == 0) {
+            return loanEventRepository.findResponsesByLoanId(loanId, limit);
+        }
+        LoanEvent cursor = loanEventRepository.findById(afterId)
+                .filter(event -> event.getLoanId().equals(loanId))
+                .orElseThrow(() -> new RuntimeException("Event not found"));
+        return loanEventRepository.findResponsesByLoanIdAfter(loanId, cursor.getOccurredAt(), afterId, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public Loan.LoanStatus replayStatus(Long loanId) {
+        return LoanStateMachine.replay(loanEventRepository.findByLoanIdOrderByOccurredAtAscIdAsc(loanId));
+    }
+
+    // An archived loan's timeline is read whole from its segments and paged in memory; a timeline is short
+    private List<LoanEventResponse> getArchivedTimeline(Long loanId, long afterId, Limit limit) {
+        List<LoanEventResponse> events = archiveStore.findAll(ArchiveCodecs.LOAN_TIMELINES, loanId).stream()
+                .distinct()
+                .sorted(Comparator.comparing(LoanEventResponse::getOccurredAt).thenComparing(LoanEventResponse::getId))
+                .toList();
+        if (events.isEmpty() && archiveStore.find(ArchiveCodecs.LOANS, loanId).isEmpty()) {
+            throw new RuntimeException("Loan not found");
+        }
+        int from = 0;
+        if (afterId != 0) {
+            from = events.stream().map(LoanEventResponse::getId).toList().indexOf(afterId) + 1;
+            if (from == 0) {
+                throw new RuntimeException("Event not found");
+            }
+        }
+        return events.subList(from, Math.min(events.size(), from + limit.max()));
+    }
+}
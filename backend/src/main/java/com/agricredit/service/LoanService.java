@@ -1,20 +1,43 @@
 package com.agricredit.service;
 
+import com.agricredit.archive.ArchiveCodecs;
+import com.agricredit.archive.ArchiveStore;
+import com.agricredit.cache.CacheNames;
+import com.agricredit.cache.RecordCacheEvictor;
+import com.agricredit.dto.BatchItemResult;
 import com.agricredit.dto.LoanRequest;
 import com.agricredit.dto.LoanResponse;
+import com.agricredit.entity.LedgerOutboxEntry;
 import com.agricredit.entity.Loan;
 import com.agricredit.entity.User;
+import com.agricredit.exception.StateConflictException;
+import com.agricredit.repository.LoanBatchUpdater;
 import com.agricredit.repository.LoanRepository;
 import com.agricredit.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+// Every public method is timed as agricredit.service{class,method}
 @Service
+@Timed("agricredit.service")
 public class LoanService {
 
     @Autowired
@@ -23,119 +46,284 @@ public class LoanService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private LedgerOutboxService ledgerOutboxService;
+
+    @Autowired
+    private RecordCacheEvictor recordCacheEvictor;
+
+    @Autowired
+    private LoanBatchUpdater loanBatchUpdater;
+
+    @Autowired
+    private LoanEventService loanEventService;
+
+    @Autowired
+    private RepaymentScheduleService repaymentScheduleService;
+
+    @Autowired
+    private CollateralService collateralService;
+
+    @Autowired
+    private PortfolioAnalyticsService portfolioAnalyticsService;
+
+    @Autowired
+    private ArchiveStore archiveStore;
+
+    @FunctionalInterface
+    private interface StatusUpdate {
+        int apply(Loan.LoanStatus from, LocalDateTime now);
+    }
+
+    @Transactional
     public LoanResponse applyForLoan(LoanRequest loanRequest) {
         // Get farmer by ID
         User farmer = userRepository.findById(loanRequest.getFarmerId())
                 .orElseThrow(() -> new RuntimeException("Farmer not found"));
 
-        // Create new loan
-        Loan loan = new Loan();
-        loan.setFarmer(farmer);
-        loan.setAmount(loanRequest.getAmount());
-        loan.setPurpose(loanRequest.getPurpose());
-        loan.setInterestRate(loanRequest.getInterestRate());
-        loan.setDurationInMonths(loanRequest.getDurationInMonths());
-        loan.setStatus(Loan.LoanStatus.PENDING);
-        loan.setAppliedDate(LocalDateTime.now());
+        Loan savedLoan = loanRepository.save(newLoan(farmer, loanRequest));
+        loanEventService.record(savedLoan.getId(), null, LoanStateMachine.INITIAL, savedLoan.getAppliedDate());
+        portfolioAnalyticsService.loanApplied(savedLoan);
+        ledgerOutboxService.enqueue(LedgerOutboxEntry.RecordType.LOAN, savedLoan.getId());
+        recordCacheEvictor.loanChanged(savedLoan);
+        return LoanResponse.fromEntity(savedLoan);
+    }
 
-        // Calculate due date
-        loan.setDueDate(LocalDateTime.now().plusMonths(loanRequest.getDurationInMonths()));
+    // All farmers are resolved in one IN query and the inserts go out as JDBC batches
+    @Transactional
+    public List<BatchItemResult<LoanResponse>> applyForLoans(List<LoanRequest> loanRequests) {
+        Map<Long, User> farmers = userRepository.findAllById(loanRequests.stream()
+                        .map(LoanRequest::getFarmerId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
 
-        // Mock blockchain integration - generate a fake transaction hash
-        loan.setBlockchainTransactionHash(generateBlockchainTransactionHash(loan));
+        List<BatchItemResult<LoanResponse>> results = new ArrayList<>(loanRequests.size());
+        Map<Integer, Loan> accepted = new LinkedHashMap<>();
+        for (int i = 0; i < loanRequests.size(); i++) {
+            LoanRequest loanRequest = loanRequests.get(i);
+            String error = validate(loanRequest);
+            User farmer = loanRequest.getFarmerId() == null ? null : farmers.get(loanRequest.getFarmerId());
+            if (error == null && farmer == null) {
+                error = "Farmer not found";
+            }
+            if (error != null) {
+                results.add(BatchItemResult.failed(i, error));
+            } else {
+                results.add(null);
+                accepted.put(i, newLoan(farmer, loanRequest));
+            }
+        }
 
-        Loan savedLoan = loanRepository.save(loan);
-        return LoanResponse.fromEntity(savedLoan);
+        loanRepository.saveAll(accepted.values());
+        List<Long> savedIds = accepted.values().stream().map(Loan::getId).toList();
+        loanEventService.recordAll(savedIds, null, LoanStateMachine.INITIAL, LocalDateTime.now());
+        portfolioAnalyticsService.loansApplied(accepted.values());
+        ledgerOutboxService.enqueueAll(LedgerOutboxEntry.RecordType.LOAN, savedIds);
+        recordCacheEvictor.loansChanged(accepted.values());
+        accepted.forEach((index, loan) -> results.set(index, BatchItemResult.ok(index, LoanResponse.fromEntity(loan))));
+        return results;
     }
 
+    @Transactional
     public LoanResponse approveLoan(Long loanId, Long lenderId) {
-        Loan loan = loanRepository.findById(loanId)
-                .orElseThrow(() -> new RuntimeException("Loan not found"));
+        User lender = userRepository.findById(lenderId)
+                .orElseThrow(() -> new RuntimeException("Lender not found"));
 
-        if (loan.getStatus() != Loan.LoanStatus.PENDING) {
-            throw new RuntimeException("Loan is not in pending status");
-        }
+        return transition(loanId, Loan.LoanStatus.APPROVED, "Loan is not in pending status",
+                (from, now) -> loanRepository.approve(loanId, from, Loan.LoanStatus.APPROVED, lender, now));
+    }
 
+    // One conditional UPDATE per loan, sent as a single JDBC batch; a loan that left PENDING
+    // concurrently simply matches no row and is reported as failed
+    @Transactional
+    public List<BatchItemResult<LoanResponse>> approveLoans(List<Long> loanIds, Long lenderId) {
         User lender = userRepository.findById(lenderId)
                 .orElseThrow(() -> new RuntimeException("Lender not found"));
 
-        loan.setLender(lender);
-        loan.setStatus(Loan.LoanStatus.APPROVED);
-        loan.setApprovedDate(LocalDateTime.now());
+        List<Long> candidates = loanIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        // The batch goes straight to JDBC, so pending entity changes must reach the database first
+        loanRepository.flush();
+        LocalDateTime now = LocalDateTime.now();
+        int[] counts = loanBatchUpdater.approveAll(candidates, lender.getId(), now);
+
+        Set<Long> approvedIds = new HashSet<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            if (counts[i] > 0) {
+                approvedIds.add(candidates.get(i));
+            }
+        }
+        Set<Long> existingIds = approvedIds.size() == candidates.size()
+                ? approvedIds
+                : new HashSet<>(loanRepository.findExistingIds(candidates));
+        Map<Long, LoanResponse> responses = approvedIds.isEmpty()
+                ? Map.of()
+                : loanRepository.findResponsesByIdIn(approvedIds).stream()
+                        .collect(Collectors.toMap(LoanResponse::getId, Function.identity()));
+
+        List<BatchItemResult<LoanResponse>> results = new ArrayList<>(loanIds.size());
+        Set<Long> reported = new HashSet<>();
+        for (int i = 0; i < loanIds.size(); i++) {
+            Long loanId = loanIds.get(i);
+            if (loanId == null || !existingIds.contains(loanId)) {
+                results.add(BatchItemResult.failed(i, "Loan not found"));
+            } else if (responses.containsKey(loanId) && reported.add(loanId)) {
+                results.add(BatchItemResult.ok(i, responses.get(loanId)));
+            } else {
+                results.add(BatchItemResult.failed(i, "Loan is not in pending status"));
+            }
+        }
 
-        Loan updatedLoan = loanRepository.save(loan);
-        return LoanResponse.fromEntity(updatedLoan);
+        List<Long> approved = List.copyOf(responses.keySet());
+        loanEventService.recordAll(approved, Loan.LoanStatus.PENDING, Loan.LoanStatus.APPROVED, now);
+        responses.values().forEach(loan -> portfolioAnalyticsService.loanMoved(loan, Loan.LoanStatus.PENDING));
+        ledgerOutboxService.enqueueAll(LedgerOutboxEntry.RecordType.LOAN, approved);
+        recordCacheEvictor.loansChanged(approved, responses.values().stream()
+                .map(LoanResponse::getFarmerId)
+                .distinct()
+                .toList());
+        return results;
     }
 
+    @Transactional
     public LoanResponse rejectLoan(Long loanId, String remarks) {
-        Loan loan = loanRepository.findById(loanId)
-                .orElseThrow(() -> new RuntimeException("Loan not found"));
+        return transition(loanId, Loan.LoanStatus.REJECTED, "Loan is not in pending status",
+                (from, now) -> loanRepository.reject(loanId, from, Loan.LoanStatus.REJECTED, remarks, now));
+    }
 
-        if (loan.getStatus() != Loan.LoanStatus.PENDING) {
-            throw new RuntimeException("Loan is not in pending status");
-        }
+    @Transactional
+    public LoanResponse disburseLoan(Long loanId) {
+        LoanResponse response = transition(loanId, Loan.LoanStatus.DISBURSED, "Loan is not approved",
+                (from, now) -> loanRepository.disburse(loanId, from, Loan.LoanStatus.DISBURSED, now));
+        response.setDueDate(repaymentScheduleService.createSchedule(response));
+        return response;
+    }
 
-        loan.setStatus(Loan.LoanStatus.REJECTED);
-        loan.setRemarks(remarks);
-        
-        Loan updatedLoan = loanRepository.save(loan);
-        return LoanResponse.fromEntity(updatedLoan);
+    // Full repayment closes a disbursed loan, or settles one that had already defaulted
+    @Transactional
+    public LoanResponse repayLoan(Long loanId) {
+        return transition(loanId, Loan.LoanStatus.CLOSED, "Loan is not disbursed or defaulted",
+                (from, now) -> loanRepository.close(loanId, from, Loan.LoanStatus.CLOSED, now));
     }
 
-    public LoanResponse disburseLoan(Long loanId) {
-        Loan loan = loanRepository.findById(loanId)
-                .orElseThrow(() -> new RuntimeException("Loan not found"));
+    @Transactional
+    public LoanResponse markDefaulted(Long loanId) {
+        return transition(loanId, Loan.LoanStatus.DEFAULTED, "Loan is not disbursed and overdue",
+                (from, now) -> loanRepository.markDefaulted(loanId, from, Loan.LoanStatus.DEFAULTED, now));
+    }
 
-        if (loan.getStatus() != Loan.LoanStatus.APPROVED) {
-            throw new RuntimeException("Loan is not approved");
+    // Every single-loan status change goes through here. The state machine names the legal source;
+    // when there are several, the current status picks which one the conditional UPDATE guards on.
+    // An UPDATE that matches nothing means the loan is missing or was moved on by someone else.
+    private LoanResponse transition(Long loanId, Loan.LoanStatus target, String conflictMessage, StatusUpdate update) {
+        Set<Loan.LoanStatus> sources = LoanStateMachine.sourcesOf(target);
+        Loan.LoanStatus from = sources.size() == 1 ? sources.iterator().next() : currentStatus(loanId);
+        if (!LoanStateMachine.canTransition(from, target)) {
+            throw new StateConflictException(conflictMessage);
         }
 
-        loan.setStatus(Loan.LoanStatus.DISBURSED);
-        loan.setDisbursementDate(LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        if (update.apply(from, now) == 0) {
+            currentStatus(loanId);
+            throw new StateConflictException(conflictMessage);
+        }
 
-        Loan updatedLoan = loanRepository.save(loan);
-        return LoanResponse.fromEntity(updatedLoan);
+        LoanResponse response = loanRepository.findResponseById(loanId)
+                .orElseThrow(() -> new RuntimeException("Loan not found"));
+        loanEventService.record(loanId, from, target, now);
+        portfolioAnalyticsService.loanMoved(response, from);
+        if (LoanStateMachine.isTerminal(target)) {
+            collateralService.releaseAll(loanId);
+        }
+        ledgerOutboxService.enqueue(LedgerOutboxEntry.RecordType.LOAN, loanId);
+        recordCacheEvictor.loansChanged(List.of(loanId), List.of(response.getFarmerId()));
+        return response;
     }
 
-    public List<LoanResponse> getLoansByFarmer(Long farmerId) {
-        User farmer = userRepository.findById(farmerId)
-                .orElseThrow(() -> new RuntimeException("Farmer not found"));
+    private Loan.LoanStatus currentStatus(Long loanId) {
+        return loanRepository.findStatusById(loanId)
+                .orElseThrow(() -> new RuntimeException("Loan not found"));
+    }
+
+    @Cacheable(cacheNames = CacheNames.LOANS_BY_FARMER, keyGenerator = "groupedKeyGenerator")
+    public List<LoanResponse> getLoansByFarmer(Long farmerId, long afterId, Limit limit) {
+        if (!userRepository.existsById(farmerId)) {
+            throw new RuntimeException("Farmer not found");
+        }
         
-        List<Loan> loans = loanRepository.findByFarmer(farmer);
-        return loans.stream()
-                .map(LoanResponse::fromEntity)
-                .collect(Collectors.toList());
+        return loanRepository.findResponsesByFarmerAfter(farmerId, afterId, limit);
     }
 
-    public List<LoanResponse> getLoansByLender(Long lenderId) {
-        User lender = userRepository.findById(lenderId)
-                .orElseThrow(() -> new RuntimeException("Lender not found"));
+    public List<LoanResponse> getLoansByLender(Long lenderId, long afterId, Limit limit) {
+        if (!userRepository.existsById(lenderId)) {
+            throw new RuntimeException("Lender not found");
+        }
         
-        List<Loan> loans = loanRepository.findByLender(lender);
-        return loans.stream()
-                .map(LoanResponse::fromEntity)
-                .collect(Collectors.toList());
+        return loanRepository.findResponsesByLenderAfter(lenderId, afterId, limit);
+    }
+
+    public List<LoanResponse> getAllLoans(long afterId, Limit limit) {
+        return loanRepository.findResponsesAfter(afterId, limit);
     }
 
-    public List<LoanResponse> getAllLoans() {
-        List<Loan> loans = loanRepository.findAll();
-        return loans.stream()
-                .map(LoanResponse::fromEntity)
-                .collect(Collectors.toList());
+    public List<LoanResponse> getLoansAppliedBetween(LocalDateTime from, LocalDateTime to, long afterId, Limit limit) {
+        return loanRepository.findResponsesAppliedBetweenAfter(from, to, afterId, limit);
     }
 
+    @Transactional(readOnly = true)
+    public void streamAllLoans(Consumer<LoanResponse> sink) {
+        try (Stream<LoanResponse> loans = loanRepository.streamAllResponses()) {
+            loans.forEach(sink);
+        }
+    }
+
+    @Cacheable(cacheNames = CacheNames.LOANS, key = "#loanId")
     public LoanResponse getLoanById(Long loanId) {
-        Loan loan = loanRepository.findById(loanId)
+        // Closed loans past the archive horizon live only in the archive segments
+        return loanRepository.findResponseById(loanId)
+                .or(() -> archiveStore.find(ArchiveCodecs.LOANS, loanId))
                 .orElseThrow(() -> new RuntimeException("Loan not found"));
-        
-        return LoanResponse.fromEntity(loan);
     }
 
-    private String generateBlockchainTransactionHash(Loan loan) {
-        // Mock blockchain transaction hash generation
-        String data = loan.getFarmer().getId() + "_" + 
-                     loan.getAmount() + "_" + 
-                     loan.getAppliedDate().toString();
-        return "0x" + java.util.UUID.nameUUIDFromBytes(data.getBytes()).toString().replace("-", "");
+    private Loan newLoan(User farmer, LoanRequest loanRequest) {
+        Loan loan = new Loan();
+        loan.setFarmer(farmer);
+        loan.setAmount(loanRequest.getAmount());
+        loan.setPurpose(loanRequest.getPurpose());
+        loan.setInterestRate(loanRequest.getInterestRate());
+        loan.setDurationInMonths(loanRequest.getDurationInMonths());
+        loan.setRepaymentType(loanRequest.getRepaymentType() == null
+                ? Loan.RepaymentType.REDUCING_BALANCE : loanRequest.getRepaymentType());
+        loan.setStatus(Loan.LoanStatus.PENDING);
+        loan.setAppliedDate(LocalDateTime.now());
+
+        // Calculate due date
+        loan.setDueDate(LocalDateTime.now().plusMonths(loanRequest.getDurationInMonths()));
+        return loan;
+    }
+
+    // A bad row must be reported, not allowed to fail the whole batch at flush time
+    private String validate(LoanRequest loanRequest) {
+        if (loanRequest.getFarmerId() == null) {
+            return "Farmer id is required";
+        }
+        if (loanRequest.getAmount() == null || loanRequest.getAmount().signum() <= 0) {
+            return "Amount must be positive";
+        }
+        if (loanRequest.getPurpose() == null || loanRequest.getPurpose().isBlank()) {
+            return "Purpose is required";
+        }
+        if (loanRequest.getInterestRate() == null) {
+            return "Interest rate is required";
+        }
+        if (loanRequest.getDurationInMonths() == null || loanRequest.getDurationInMonths() <= 0) {
+            return "Duration must be positive";
+        }
+        return null;
     }
+
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.agricredit.service;
+
+import com.agricredit.entity.Loan;
+import com.agricredit.entity.LoanEvent;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.agricredit.entity.Loan.LoanStatus.APPROVED;
+import static com.agricredit.entity.Loan.LoanStatus.CLOSED;
+import static com.agricredit.entity.Loan.LoanStatus.DEFAULTED;
+import static com.agricredit.entity.Loan.LoanStatus.DISBURSED;
+import static com.agricredit.entity.Loan.LoanStatus.PENDING;
+import static com.agricredit.entity.Loan.LoanStatus.REJECTED;
+
+// The loan lifecycle as a table: every legal (from, to) pair is listed once and everything else is derived
+public final class LoanStateMachine {
+
+    public static final Loan.LoanStatus INITIAL = PENDING;
+
+    private static final Loan.LoanStatus[][] TRANSITIONS = {
+            {PENDING, APPROVED},
+            {PENDING, REJECTED},
+            {APPROVED, DISBURSED},
+            {DISBURSED, CLOSED},
+            {DISBURSED, DEFAULTED},
+            {DEFAULTED, CLOSED},
+    };
+
+    // Legal targets per source as a bitmask over LoanStatus ordinals, so a check is one lookup and one AND
+    private static final EnumMap<Loan.LoanStatus, Integer> TARGETS = new EnumMap<>(Loan.LoanStatus.class);
+    private static final EnumMap<Loan.LoanStatus, Set<Loan.LoanStatus>> SOURCES = new EnumMap<>(Loan.LoanStatus.class);
+
+    static {
+        for (Loan.LoanStatus status : Loan.LoanStatus.values()) {
+            TARGETS.put(status, 0);
+            SOURCES.put(status, EnumSet.noneOf(Loan.LoanStatus.class));
+        }
+        for (Loan.LoanStatus[] transition : TRANSITIONS) {
+            TARGETS.merge(transition[0], 1 << transition[1].ordinal(), (a, b) -> a | b);
+            SOURCES.get(transition[1]).add(transition[0]);
+        }
+        SOURCES.replaceAll((status, sources) -> Collections.unmodifiableSet(sources));
+    }
+
+    private LoanStateMachine() {
+    }
+
+    public static boolean canTransition(Loan.LoanStatus from, Loan.LoanStatus to) {
+        return (TARGETS.get(from) & (1 << to.ordinal())) != 0;
+    }
+
+    public static Set<Loan.LoanStatus> sourcesOf(Loan.LoanStatus to) {
+        return SOURCES.get(to);
+    }
+
+    public static boolean isTerminal(Loan.LoanStatus status) {
+        return TARGETS.get(status) == 0;
+    }
+
+    // Folds an event history in order back into a status, rejecting any step the table does not allow
+    public static Loan.LoanStatus replay(List<LoanEvent> events) {
+        Loan.LoanStatus status = null;
+        for (LoanEvent event : events) {
+            boolean legal = status == null
+                    ? event.getFromStatus() == null && event.getToStatus() == INITIAL
+                    : event.getFromStatus() == status && canTransition(status, event.getToStatus());
+            if (!legal) {
+                throw new IllegalStateException("Illegal loan transition " + event.getFromStatus()
+                        + " -> " + event.getToStatus() + " in event " + event.getId());
+            }
+            status = event.getToStatus();
+        }
+        return status;
+    }
+}
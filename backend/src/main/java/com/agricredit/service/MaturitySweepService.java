@@ -0,0 +1,295 @@
+package com.agricredit.service;
+
+import com.agricredit.cache.RecordCacheEvictor;
+import com.agricredit.dto.MaturitySweepStatusResponse;
+import com.agricredit.entity.LedgerOutboxEntry;
+import com.agricredit.entity.Loan;
+import com.agricredit.entity.SweepCheckpoint;
+import com.agricredit.entity.WarehouseReceipt;
+import com.agricredit.repository.JobLockRepository;
+import com.agricredit.repository.MaturitySweepRepository;
+import com.agricredit.repository.SweepCheckpointRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+// Moves overdue disbursed loans to DEFAULTED and lapsed active receipts to EXPIRED.
+// Each table is walked in primary-key order; a wave of keyset chunks is handed to a fork-join pool, every
+// chunk commits on its own, and the checkpoint advances to the end of the wave once all of its chunks are done.
+// Re-running a chunk after a crash is harmless because the UPDATEs only match rows still in the old status.
+// Only one node in the cluster sweeps at a time; the others find the job lock taken and skip the trigger.
+@Service
+public class MaturitySweepService {
+
+    private static final Logger log = LoggerFactory.getLogger(MaturitySweepService.class);
+
+    static final String LOCK = "maturity-sweep";
+
+    @Value("${maturity.sweep.chunk-size:10000}")
+    private int chunkSize;
+
+    @Value("${maturity.sweep.parallelism:4}")
+    private int parallelism;
+
+    @Autowired
+    private MaturitySweepRepository maturitySweepRepository;
+
+    @Autowired
+    private SweepCheckpointRepository sweepCheckpointRepository;
+
+    @Autowired
+    private JobLockRepository jobLockRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private LoanEventService loanEventService;
+
+    @Autowired
+    private LedgerOutboxService ledgerOutboxService;
+
+    @Autowired
+    private RecordCacheEvictor recordCacheEvictor;
+
+    @Autowired
+    private PortfolioAnalyticsService portfolioAnalyticsService;
+
+    @Autowired
+    private ReceiptSearchService receiptSearchService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ForkJoinPool pool;
+    private ExecutorService launcher;
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        pool = new ForkJoinPool(parallelism);
+        launcher = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "maturity-sweep");
+            thread.setDaemon(true);
+            return thread;
+        });
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // Read from the checkpoint rows, so every node reports the run wherever it happened
+        for (SweepCheckpoint.Target target : SweepCheckpoint.Target.values()) {
+            checkpointGauge("agricredit.maturity.sweep.rows.per.second", target, null,
+                    MaturitySweepStatusResponse::getRowsPerSecond);
+            checkpointGauge("agricredit.maturity.sweep.lag", target, "seconds",
+                    MaturitySweepStatusResponse::getLagSeconds);
+            checkpointGauge("agricredit.maturity.sweep.last.completed", target, "seconds", status ->
+                    status.getCompletedAt() == null ? Double.NaN
+                            : status.getCompletedAt().atZone(ZoneId.systemDefault()).toEpochSecond());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        launcher.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    // Sweeps both tables on the calling thread. Returns false if a sweep is already running on any node.
+    public boolean run() {
+        return jobLockRepository.tryRun(LOCK, this::sweepAll);
+    }
+
+    // Starts a sweep in the background for the admin endpoint, once the lock has been claimed for it
+    public boolean trigger() {
+        CompletableFuture<Boolean> claimed = new CompletableFuture<>();
+        launcher.execute(() -> {
+            try {
+                if (!jobLockRepository.tryRun(LOCK, () -> {
+                    claimed.complete(true);
+                    sweepAll();
+                })) {
+                    claimed.complete(false);
+                }
+            } catch (RuntimeException e) {
+                if (!claimed.completeExceptionally(e)) {
+                    log.warn("Maturity sweep failed: {}", e.getMessage());
+                }
+            }
+        });
+        try {
+            return claimed.join();
+        } catch (CompletionException e) {
+            throw (RuntimeException) e.getCause();
+        }
+    }
+
+    public List<MaturitySweepStatusResponse> getStatus() {
+        LocalDateTime now = LocalDateTime.now();
+        return sweepCheckpointRepository.findAll().stream()
+                .map(checkpoint -> MaturitySweepStatusResponse.of(checkpoint, now))
+                .toList();
+    }
+
+    private void sweepAll() {
+        for (SweepCheckpoint.Target target : SweepCheckpoint.Target.values()) {
+            sweep(target);
+        }
+    }
+
+    private void sweep(SweepCheckpoint.Target target) {
+        SweepCheckpoint checkpoint = sweepCheckpointRepository.findById(target)
+                .filter(existing -> existing.getStatus() == SweepCheckpoint.Status.RUNNING)
+                .orElse(null);
+        if (checkpoint == null) {
+            LocalDateTime now = LocalDateTime.now();
+            checkpoint = sweepCheckpointRepository.save(new SweepCheckpoint(target, SweepCheckpoint.Status.RUNNING,
+                    now, 0L, 0L, 0L, 0, now, now, null));
+        } else {
+            log.info("Resuming {} sweep after id {} (cutoff {})", target, checkpoint.getLastId(), checkpoint.getCutoff());
+        }
+
+        LocalDateTime cutoff = checkpoint.getCutoff();
+        int wave = parallelism * 2;
+        while (true) {
+            long afterId = checkpoint.getLastId();
+            List<Callable<Integer>> tasks = new ArrayList<>(wave);
+            long scanned = 0;
+            for (int i = 0; i < wave; i++) {
+                MaturitySweepRepository.Chunk chunk = maturitySweepRepository.nextChunk(target, afterId, chunkSize);
+                if (chunk == null) {
+                    break;
+                }
+                long from = afterId;
+                tasks.add(() -> sweepChunk(target, from, chunk.upToId(), cutoff));
+                scanned += chunk.rows();
+                afterId = chunk.upToId();
+            }
+            if (tasks.isEmpty()) {
+                break;
+            }
+
+            int updated = 0;
+            for (Future<Integer> result : pool.invokeAll(tasks)) {
+                updated += await(result);
+            }
+            checkpoint.setLastId(afterId);
+            checkpoint.setRowsScanned(checkpoint.getRowsScanned() + scanned);
+            checkpoint.setRowsUpdated(checkpoint.getRowsUpdated() + updated);
+            checkpoint.setChunks(checkpoint.getChunks() + tasks.size());
+            checkpoint.setUpdatedAt(LocalDateTime.now());
+            checkpoint = sweepCheckpointRepository.save(checkpoint);
+            rowsCounter(target, "scanned").increment(scanned);
+            rowsCounter(target, "updated").increment(updated);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        checkpoint.setStatus(SweepCheckpoint.Status.COMPLETED);
+        checkpoint.setUpdatedAt(now);
+        checkpoint.setCompletedAt(now);
+        sweepCheckpointRepository.save(checkpoint);
+        log.info("{} sweep done: {} rows scanned, {} updated in {} chunks", target,
+                checkpoint.getRowsScanned(), checkpoint.getRowsUpdated(), checkpoint.getChunks());
+    }
+
+    // One chunk in one transaction: the id range is locked, updated in a single statement, and the matching
+    // events, outbox rows and cache evictions are written alongside
+    private int sweepChunk(SweepCheckpoint.Target target, long afterId, long upToId, LocalDateTime cutoff) {
+        return transactionTemplate.execute(status -> target == SweepCheckpoint.Target.LOANS
+                ? defaultLoans(afterId, upToId, cutoff)
+                : expireReceipts(afterId, upToId, cutoff));
+    }
+
+    private int defaultLoans(long afterId, long upToId, LocalDateTime cutoff) {
+        List<MaturitySweepRepository.SweptLoan> rows = maturitySweepRepository.lockOverdueLoans(afterId, upToId, cutoff);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        maturitySweepRepository.defaultOverdueLoans(afterId, upToId, cutoff);
+
+        List<Long> ids = rows.stream().map(MaturitySweepRepository.SweptLoan::id).toList();
+        loanEventService.recordAll(ids, Loan.LoanStatus.DISBURSED, Loan.LoanStatus.DEFAULTED, LocalDateTime.now());
+        ledgerOutboxService.enqueueAll(LedgerOutboxEntry.RecordType.LOAN, ids);
+        rows.forEach(row -> portfolioAnalyticsService.loanMoved(row.lenderId(), row.amount(), row.appliedDate(),
+                Loan.LoanStatus.DISBURSED, Loan.LoanStatus.DEFAULTED));
+        recordCacheEvictor.loansChanged(ids, farmerIds(rows, MaturitySweepRepository.SweptLoan::farmerId));
+        return ids.size();
+    }
+
+    private int expireReceipts(long afterId, long upToId, LocalDateTime cutoff) {
+        List<MaturitySweepRepository.SweptReceipt> rows = maturitySweepRepository.lockExpiredReceipts(afterId, upToId, cutoff);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        maturitySweepRepository.expireReceipts(afterId, upToId, cutoff);
+
+        List<Long> ids = rows.stream().map(MaturitySweepRepository.SweptReceipt::id).toList();
+        ledgerOutboxService.enqueueAll(LedgerOutboxEntry.RecordType.WAREHOUSE_RECEIPT, ids);
+        rows.forEach(row -> portfolioAnalyticsService.receiptLeftActive(row.commodityName(), row.warehouseLocation(),
+                row.unitOfMeasure(), row.quantity()));
+        recordCacheEvictor.receiptsChanged(ids, farmerIds(rows, MaturitySweepRepository.SweptReceipt::farmerId));
+        receiptSearchService.receiptsMoved(ids, WarehouseReceipt.ReceiptStatus.EXPIRED);
+        return ids.size();
+    }
+
+    private Counter rowsCounter(SweepCheckpoint.Target target, String outcome) {
+        return Counter.builder("agricredit.maturity.sweep.rows")
+                .tag("target", target.name())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private void checkpointGauge(String name, SweepCheckpoint.Target target, String unit,
+                                 ToDoubleFunction<MaturitySweepStatusResponse> value) {
+        Gauge.builder(name, () -> {
+                    try {
+                        return sweepCheckpointRepository.findById(target)
+                                .map(checkpoint -> value.applyAsDouble(MaturitySweepStatusResponse.of(checkpoint, LocalDateTime.now())))
+                                .orElse(Double.NaN);
+                    } catch (RuntimeException e) {
+                        return Double.NaN;
+                    }
+                })
+                .tag("target", target.name())
+                .baseUnit(unit)
+                .register(meterRegistry);
+    }
+
+    private static <T> List<Long> farmerIds(List<T> rows, Function<T, Long> farmerId) {
+        return rows.stream().map(farmerId).distinct().toList();
+    }
+
+    // A failed chunk stops the run; the checkpoint still points at the previous wave, which is where it resumes
+    private static int await(Future<Integer> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Maturity sweep interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Maturity sweep chunk failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.agricredit.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "maturity.sweep.enabled", havingValue = "true", matchIfMissing = true)
+public class MaturitySweepWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(MaturitySweepWorker.class);
+
+    @Autowired
+    private MaturitySweepService maturitySweepService;
+
+    @Scheduled(cron = "${maturity.sweep.cron:0 30 1 * * *}")
+    public void nightly() {
+        try {
+            if (!maturitySweepService.run()) {
+                log.info("Maturity sweep already running, skipping this trigger");
+            }
+        } catch (RuntimeException e) {
+            // The checkpoint stays RUNNING and the next trigger resumes from it
+            log.warn("Maturity sweep failed: {}", e.getMessage());
+        }
+    }
+}
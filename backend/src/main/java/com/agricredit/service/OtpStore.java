@@ -0,0 +1,12 @@
+package com.agricredit.service;
+
+// Holds one outstanding login code per user, together with what is needed to issue the tokens,
+// so neither issuing nor verifying a code touches the users table
+public interface OtpStore {
+
+    // Replaces any code already outstanding for the user
+    void issue(String username, String code, Long userId, String role);
+
+    // Counts as one attempt; a verified code is consumed and cannot be used again
+    OtpVerification verify(String username, String code);
+}
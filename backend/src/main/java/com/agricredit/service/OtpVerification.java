@@ -0,0 +1,16 @@
+package com.agricredit.service;
+
+public record OtpVerification(Status status, Long userId, String role) {
+
+    public enum Status {
+        VERIFIED, INVALID, EXPIRED, NOT_FOUND, LOCKED
+    }
+
+    static OtpVerification verified(Long userId, String role) {
+        return new OtpVerification(Status.VERIFIED, userId, role);
+    }
+
+    static OtpVerification of(Status status) {
+        return new OtpVerification(status, null, null);
+    }
+}
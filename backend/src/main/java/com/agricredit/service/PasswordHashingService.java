@@ -0,0 +1,80 @@
+package com.agricredit.service;
+
+import com.agricredit.dto.PasswordHashingStatsResponse;
+import com.agricredit.util.LatencyStats;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Caps how many password hashes run at once. The hash runs on the caller's thread: the request has to wait for
+// the result either way, so handing it to a pool would add a queue hop without freeing anything. At most
+// `threads` hashes run and `queue-capacity` callers wait their turn; past that a login spike is turned away
+// immediately instead of piling up behind ~100ms hashes and starving cheap endpoints.
+@Service
+public class PasswordHashingService {
+
+    @Value("${password.hashing.threads:0}")
+    private int threads;
+
+    @Value("${password.hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    private int concurrency;
+    private Semaphore admitted;
+    private Semaphore running;
+    private final LongAdder rejected = new LongAdder();
+    private final LatencyStats queueWait = new LatencyStats();
+    private final LatencyStats verify = new LatencyStats();
+    private final LatencyStats encode = new LatencyStats();
+
+    @PostConstruct
+    void init() {
+        concurrency = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        admitted = new Semaphore(concurrency + queueCapacity);
+        running = new Semaphore(concurrency, true);
+    }
+
+    // Throws RejectedExecutionException straight away when every slot is busy and the queue is full
+    public <T> T run(Supplier<T> task) {
+        if (!admitted.tryAcquire()) {
+            rejected.increment();
+            throw new RejectedExecutionException("Password hashing is at capacity");
+        }
+        try {
+            long waiting = System.nanoTime();
+            try {
+                running.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("Interrupted while waiting to hash", e);
+            }
+            try {
+                queueWait.record(System.nanoTime() - waiting);
+                return task.get();
+            } finally {
+                running.release();
+            }
+        } finally {
+            admitted.release();
+        }
+    }
+
+    public void recordVerify(long nanos) {
+        verify.record(nanos);
+    }
+
+    public void recordEncode(long nanos) {
+        encode.record(nanos);
+    }
+
+    public PasswordHashingStatsResponse getStats() {
+        return new PasswordHashingStatsResponse(concurrency, concurrency - running.availablePermits(),
+                running.getQueueLength(), rejected.sum(),
+                queueWait.snapshot(), verify.snapshot(), encode.snapshot());
+    }
+}
@@ -0,0 +1,180 @@
+package com.agricredit.service;
+
+import com.agricredit.analytics.PortfolioDeltas;
+import com.agricredit.dto.LoanResponse;
+import com.agricredit.dto.PortfolioAnalyticsResponse;
+import com.agricredit.dto.PortfolioBucketResponse;
+import com.agricredit.entity.Loan;
+import com.agricredit.entity.PortfolioAggregate;
+import com.agricredit.entity.WarehouseReceipt;
+import com.agricredit.repository.JobLockRepository;
+import com.agricredit.repository.PortfolioAggregateRepository;
+import com.agricredit.repository.PortfolioAggregateWriter;
+import com.agricredit.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+// Keeps portfolio_aggregates in step with every loan and receipt change. Callers report changes inside their
+// own transaction; the deltas are netted per transaction and written as one sorted batch just before commit,
+// so the hot platform-wide rows are locked only for the tail of the transaction and a rollback writes nothing.
+// The rows are sharded (see PortfolioAggregateWriter), so concurrent transitions rarely queue on the same one.
+@Service
+public class PortfolioAnalyticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(PortfolioAnalyticsService.class);
+
+    static final String LOCK = "portfolio-rebuild";
+
+    @Autowired
+    private PortfolioAggregateWriter portfolioAggregateWriter;
+
+    @Autowired
+    private PortfolioAggregateRepository portfolioAggregateRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JobLockRepository jobLockRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final class DeltaFlush implements TransactionSynchronization {
+        private final PortfolioDeltas deltas = new PortfolioDeltas();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            portfolioAggregateWriter.apply(deltas.netChanges());
+        }
+    }
+
+    // An empty table next to existing data means the aggregates were never built, e.g. on first deploy. Nodes
+    // starting together queue on the rebuild lock, and the ones behind the first find the table filled.
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        jobLockRepository.run(LOCK, () -> {
+            if (portfolioAggregateRepository.count() == 0) {
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> recount());
+            }
+            return null;
+        });
+    }
+
+    public void loanApplied(Loan loan) {
+        loansApplied(List.of(loan));
+    }
+
+    public void loansApplied(Collection<Loan> loans) {
+        record(deltas -> loans.forEach(loan -> deltas.loans(null, loan.getStatus(), month(loan.getAppliedDate()), 1,
+                loan.getAmount())));
+    }
+
+    // A loan only has a lender once approved, so a move out of PENDING also brings it into the lender's totals
+    public void loanMoved(LoanResponse loan, Loan.LoanStatus from) {
+        loanMoved(loan.getLenderId(), loan.getAmount(), loan.getAppliedDate(), from,
+                Loan.LoanStatus.valueOf(loan.getStatus()));
+    }
+
+    public void loanMoved(Long lenderId, BigDecimal amount, LocalDateTime appliedDate, Loan.LoanStatus from,
+                          Loan.LoanStatus to) {
+        YearMonth month = month(appliedDate);
+        record(deltas -> {
+            deltas.loans(from == Loan.LoanStatus.PENDING ? null : lenderId, from, month, -1, amount);
+            deltas.loans(lenderId, to, month, 1, amount);
+        });
+    }
+
+    // Archived loans leave the base table, so they leave the aggregates a rebuild would compute as well
+    public void loansArchived(Collection<LoanResponse> loans) {
+        record(deltas -> loans.forEach(loan -> deltas.loans(loan.getLenderId(), Loan.LoanStatus.valueOf(loan.getStatus()),
+                month(loan.getAppliedDate()), -1, loan.getAmount())));
+    }
+
+    public void receiptsAdded(Collection<WarehouseReceipt> receipts) {
+        record(deltas -> receipts.forEach(receipt -> deltas.activeReceipts(receipt.getCommodityName(),
+                receipt.getWarehouseLocation(), receipt.getUnitOfMeasure(), 1, receipt.getQuantity())));
+    }
+
+    public void receiptLeftActive(String commodityName, String warehouseLocation, String unitOfMeasure,
+                                  BigDecimal quantity) {
+        record(deltas -> deltas.activeReceipts(commodityName, warehouseLocation, unitOfMeasure, -1, quantity));
+    }
+
+    @Transactional(readOnly = true)
+    public PortfolioAnalyticsResponse getPortfolio(Long lenderId) {
+        if (lenderId != null && !userRepository.existsById(lenderId)) {
+            throw new RuntimeException("Lender not found");
+        }
+        Map<String, List<PortfolioBucketResponse>> buckets = portfolioAggregateRepository
+                .findBucketsByLenderId(lenderId == null ? PortfolioAggregate.PLATFORM : lenderId).stream()
+                .collect(Collectors.groupingBy(PortfolioBucketResponse::getDimension));
+        return new PortfolioAnalyticsResponse(lenderId,
+                buckets.getOrDefault(PortfolioAggregate.Dimension.STATUS.name(), List.of()),
+                buckets.getOrDefault(PortfolioAggregate.Dimension.MONTH.name(), List.of()),
+                buckets.getOrDefault(PortfolioAggregate.Dimension.COMMODITY.name(), List.of()),
+                buckets.getOrDefault(PortfolioAggregate.Dimension.LOCATION.name(), List.of()));
+    }
+
+    // Recounts everything from the base tables, one node at a time. Changes committed while it runs may be
+    // counted twice or not at all, so run it when writes are quiet.
+    public void rebuild() {
+        jobLockRepository.run(LOCK, () -> {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> recount());
+            return null;
+        });
+    }
+
+    private void recount() {
+        PortfolioDeltas deltas = new PortfolioDeltas();
+        portfolioAggregateWriter.scanLoans(deltas);
+        portfolioAggregateWriter.scanActiveReceipts(deltas);
+        portfolioAggregateWriter.deleteAll();
+        // A rebuild writes each bucket whole into the first shard
+        portfolioAggregateWriter.apply(deltas.netChanges(), 0);
+        log.info("Rebuilt {} portfolio aggregate rows", deltas.netChanges().size());
+    }
+
+    private void record(Consumer<PortfolioDeltas> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            PortfolioDeltas deltas = new PortfolioDeltas();
+            change.accept(deltas);
+            portfolioAggregateWriter.apply(deltas.netChanges());
+            return;
+        }
+        // Looked up among the synchronizations rather than bound as a resource, so a suspended outer
+        // transaction keeps its own buffer
+        DeltaFlush flush = TransactionSynchronizationManager.getSynchronizations().stream()
+                .filter(DeltaFlush.class::isInstance)
+                .map(DeltaFlush.class::cast)
+                .findFirst()
+                .orElseGet(() -> {
+                    DeltaFlush created = new DeltaFlush();
+                    TransactionSynchronizationManager.registerSynchronization(created);
+                    return created;
+                });
+        change.accept(flush.deltas);
+    }
+
+    private static YearMonth month(LocalDateTime date) {
+        return date == null ? null : YearMonth.from(date);
+    }
+}
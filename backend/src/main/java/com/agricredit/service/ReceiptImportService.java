@@ -0,0 +1,243 @@
+package com.agricredit.service;
+
+import com.agricredit.cache.RecordCacheEvictor;
+import com.agricredit.dto.ReceiptImportReport;
+import com.agricredit.entity.User;
+import com.agricredit.entity.WarehouseReceipt;
+import com.agricredit.repository.UserRepository;
+import com.agricredit.repository.WarehouseReceiptBulkLoader;
+import com.agricredit.repository.WarehouseReceiptRepository;
+import com.agricredit.util.CsvReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Streams a warehouse intake sheet and loads it in fixed-size chunks; only one chunk is held in memory
+@Service
+public class ReceiptImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReceiptImportService.class);
+    static final int CHUNK_SIZE = 1000;
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final List<String> REQUIRED_COLUMNS = List.of(
+            "farmerid", "commodityname", "variety", "quantity", "unitofmeasure",
+            "warehouselocation", "warehousekeepername");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WarehouseReceiptBulkLoader bulkLoader;
+
+    @Autowired
+    private ReceiptNumberGenerator receiptNumberGenerator;
+
+    @Autowired
+    private RecordCacheEvictor recordCacheEvictor;
+
+    @Autowired
+    private PortfolioAnalyticsService portfolioAnalyticsService;
+
+    @Autowired
+    private ReceiptSearchService receiptSearchService;
+
+    @Autowired
+    private WarehouseReceiptRepository warehouseReceiptRepository;
+
+    private record PendingRow(long line, WarehouseReceipt receipt) {
+    }
+
+    public ReceiptImportReport importReceipts(InputStream input) throws IOException {
+        ReceiptImportReport report = new ReceiptImportReport();
+        try (CsvReader csv = new CsvReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            List<String> header = csv.readRecord();
+            if (header == null) {
+                addError(report, 1, "File is empty");
+                return report;
+            }
+            Map<String, Integer> columns = indexColumns(header);
+            for (String required : REQUIRED_COLUMNS) {
+                if (!columns.containsKey(required)) {
+                    addError(report, csv.getRecordLineNumber(), "Missing column: " + required);
+                    return report;
+                }
+            }
+
+            LocalDateTime storedDate = LocalDateTime.now();
+            List<PendingRow> chunk = new ArrayList<>(CHUNK_SIZE);
+            List<String> record;
+            while ((record = csv.readRecord()) != null) {
+                report.setTotalRows(report.getTotalRows() + 1);
+                try {
+                    chunk.add(new PendingRow(csv.getRecordLineNumber(), parseRow(record, columns, storedDate)));
+                } catch (IllegalArgumentException e) {
+                    addError(report, csv.getRecordLineNumber(), e.getMessage());
+                }
+                if (chunk.size() == CHUNK_SIZE) {
+                    loadChunk(chunk, report);
+                    chunk.clear();
+                }
+            }
+            loadChunk(chunk, report);
+        }
+        return report;
+    }
+
+    private void loadChunk(List<PendingRow> chunk, ReceiptImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Set<Long> existingFarmers = userRepository.findExistingIds(chunk.stream()
+                .map(row -> row.receipt().getFarmer().getId())
+                .collect(Collectors.toSet()));
+
+        List<WarehouseReceipt> receipts = new ArrayList<>(chunk.size());
+        List<PendingRow> accepted = new ArrayList<>(chunk.size());
+        for (PendingRow row : chunk) {
+            WarehouseReceipt receipt = row.receipt();
+            if (!existingFarmers.contains(receipt.getFarmer().getId())) {
+                addError(report, row.line(), "Farmer not found");
+                continue;
+            }
+            receipt.setReceiptNumber(receiptNumberGenerator.next());
+            receipts.add(receipt);
+            accepted.add(row);
+        }
+        if (receipts.isEmpty()) {
+            return;
+        }
+
+        try {
+            report.setLoadMethod(bulkLoader.load(receipts).name());
+        } catch (DataAccessException e) {
+            String message = "Chunk load failed: " + e.getMostSpecificCause().getMessage();
+            for (PendingRow row : accepted) {
+                addError(report, row.line(), message);
+            }
+            return;
+        }
+        report.setImportedRows(report.getImportedRows() + receipts.size());
+
+        // The rows are committed from here on. A failure below leaves derived state behind, not the import, so the
+        // rows are not reported as failed
+        try {
+            // These totals land in their own statement right after the chunk
+            portfolioAnalyticsService.receiptsAdded(receipts);
+            recordCacheEvictor.farmerReceiptsChanged(receipts.stream()
+                    .map(receipt -> receipt.getFarmer().getId())
+                    .distinct()
+                    .toList());
+            // The loader does not hand back ids, so the indexed rows are read back by receipt number
+            receiptSearchService.receiptsChanged(warehouseReceiptRepository.findResponsesByReceiptNumberIn(
+                    receipts.stream().map(WarehouseReceipt::getReceiptNumber).toList()));
+        } catch (RuntimeException e) {
+            log.warn("Imported lines {}-{}, but updating totals, caches and the search index failed",
+                    accepted.get(0).line(), accepted.get(accepted.size() - 1).line(), e);
+            report.getWarnings().add("Lines " + accepted.get(0).line() + "-" + accepted.get(accepted.size() - 1).line()
+                    + " were imported, but portfolio totals, caches or search may lag until they are rebuilt: "
+                    + e.getMessage());
+        }
+    }
+
+    private WarehouseReceipt parseRow(List<String> record, Map<String, Integer> columns, LocalDateTime storedDate) {
+        User farmer = new User();
+        try {
+            farmer.setId(Long.parseLong(required(record, columns, "farmerid")));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid farmerId");
+        }
+
+        WarehouseReceipt receipt = new WarehouseReceipt();
+        receipt.setFarmer(farmer);
+        receipt.setCommodityName(required(record, columns, "commodityname"));
+        receipt.setVariety(required(record, columns, "variety"));
+        try {
+            receipt.setQuantity(new BigDecimal(required(record, columns, "quantity")));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid quantity");
+        }
+        if (receipt.getQuantity().signum() <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        receipt.setUnitOfMeasure(required(record, columns, "unitofmeasure"));
+        receipt.setWarehouseLocation(required(record, columns, "warehouselocation"));
+        receipt.setWarehouseKeeperName(required(record, columns, "warehousekeepername"));
+        receipt.setStoredDate(storedDate);
+        receipt.setExpiryDate(parseDate(optional(record, columns, "expirydate")));
+        receipt.setQualityGrade(optional(record, columns, "qualitygrade"));
+        receipt.setCondition(optional(record, columns, "condition"));
+        receipt.setRemarks(optional(record, columns, "remarks"));
+        if (receipt.getRemarks() != null && receipt.getRemarks().length() > 1000) {
+            throw new IllegalArgumentException("Remarks longer than 1000 characters");
+        }
+        receipt.setStatus(WarehouseReceipt.ReceiptStatus.ACTIVE);
+        return receipt;
+    }
+
+    private static LocalDateTime parseDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return value.length() == 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid expiryDate");
+        }
+    }
+
+    private static String required(List<String> record, Map<String, Integer> columns, String column) {
+        String value = optional(record, columns, column);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing " + column);
+        }
+        if (value.length() > 255) {
+            throw new IllegalArgumentException(column + " longer than 255 characters");
+        }
+        return value;
+    }
+
+    private static String optional(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // Header names are matched case-insensitively and ignoring underscores, so farmer_id and farmerId both work
+    private static Map<String, Integer> indexColumns(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).replace("\uFEFF", "").trim().replace("_", "");
+            columns.put(name.toLowerCase(Locale.ROOT), i);
+        }
+        return columns;
+    }
+
+    private static void addError(ReceiptImportReport report, long line, String message) {
+        report.setFailedRows(report.getFailedRows() + 1);
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            report.getErrors().add(new ReceiptImportReport.RowError(line, message));
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.agricredit.service;
+
+// Source of warehouse receipt numbers; implementations must be unique across all application nodes
+public interface ReceiptNumberGenerator {
+
+    String PREFIX = "WR-";
+
+    long nextId();
+
+    default String next() {
+        return PREFIX + nextId();
+    }
+}
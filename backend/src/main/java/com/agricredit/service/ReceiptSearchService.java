@@ -0,0 +1,118 @@
+package com.agricredit.service;
+
+import com.agricredit.dto.ReceiptSearchResponse;
+import com.agricredit.dto.WarehouseReceiptResponse;
+import com.agricredit.entity.WarehouseReceipt;
+import com.agricredit.repository.WarehouseReceiptRepository;
+import com.agricredit.search.ReceiptSearchIndex;
+import com.agricredit.search.ReceiptSearchQuery;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Keeps ReceiptSearchIndex in step with the warehouse_receipts table: a full load at startup, then every
+// committed receipt write. Writes that commit while the load is still running are held back and replayed
+// after it, so an older row read by the load cannot overwrite them.
+@Service
+@Timed("agricredit.service")
+public class ReceiptSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReceiptSearchService.class);
+
+    private static final int LOAD_BATCH_SIZE = 10_000;
+
+    @Autowired
+    private WarehouseReceiptRepository warehouseReceiptRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ReceiptSearchIndex index = new ReceiptSearchIndex();
+    private final List<Consumer<ReceiptSearchIndex>> pending = new ArrayList<>();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long started = System.nanoTime();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<WarehouseReceiptResponse> receipts = warehouseReceiptRepository.streamAllResponses()) {
+                List<WarehouseReceiptResponse> batch = new ArrayList<>(LOAD_BATCH_SIZE);
+                receipts.forEach(receipt -> {
+                    batch.add(receipt);
+                    if (batch.size() == LOAD_BATCH_SIZE) {
+                        index.index(batch);
+                        batch.clear();
+                    }
+                });
+                index.index(batch);
+            }
+        });
+        synchronized (pending) {
+            pending.forEach(change -> change.accept(index));
+            pending.clear();
+            ready = true;
+        }
+        log.info("Receipt search index loaded {} receipts in {} ms", index.size(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public ReceiptSearchResponse search(ReceiptSearchQuery query) {
+        return index.search(query);
+    }
+
+    public void receiptsChanged(Collection<WarehouseReceiptResponse> receipts) {
+        afterCommit(index -> index.index(receipts));
+    }
+
+    public void receiptsMoved(Collection<Long> receiptIds, WarehouseReceipt.ReceiptStatus status) {
+        afterCommit(index -> index.updateStatus(receiptIds, status.name()));
+    }
+
+    public void receiptsRemoved(Collection<Long> receiptIds) {
+        afterCommit(index -> index.remove(receiptIds));
+    }
+
+    // Like cache eviction, applied only once the write has committed
+    private void afterCommit(Consumer<ReceiptSearchIndex> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    private void apply(Consumer<ReceiptSearchIndex> change) {
+        synchronized (pending) {
+            if (!ready) {
+                pending.add(change);
+                return;
+            }
+        }
+        change.accept(index);
+    }
+}
@@ -0,0 +1,74 @@
+package com.agricredit.service;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.List;
+
+// Cluster-wide store: one hash per user that Redis expires on its own. The attempt counter is
+// bumped atomically in Redis; the code itself is compared here in constant time.
+public class RedisOtpStore implements OtpStore {
+
+    private static final String KEY_PREFIX = "agricredit:otp:";
+
+    private static final RedisScript<Void> ISSUE = new DefaultRedisScript<>(
+            "redis.call('DEL', KEYS[1]) "
+                    + "redis.call('HSET', KEYS[1], 'code', ARGV[1], 'userId', ARGV[2], 'role', ARGV[3], 'attempts', 0) "
+                    + "redis.call('PEXPIRE', KEYS[1], ARGV[4])", Void.class);
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ATTEMPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return nil end "
+                    + "local attempts = redis.call('HINCRBY', KEYS[1], 'attempts', 1) "
+                    + "local entry = redis.call('HMGET', KEYS[1], 'code', 'userId', 'role') "
+                    + "table.insert(entry, tostring(attempts)) "
+                    + "return entry", List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration ttl;
+    private final int maxAttempts;
+
+    public RedisOtpStore(StringRedisTemplate redisTemplate, Duration ttl, int maxAttempts) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = ttl;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Override
+    public void issue(String username, String code, Long userId, String role) {
+        redisTemplate.execute(ISSUE, List.of(KEY_PREFIX + username),
+                code, String.valueOf(userId), role, String.valueOf(ttl.toMillis()));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public OtpVerification verify(String username, String code) {
+        String key = KEY_PREFIX + username;
+        List<String> entry = redisTemplate.execute(ATTEMPT, List.of(key));
+        if (entry == null || entry.isEmpty()) {
+            // Redis drops the key at expiry, so an expired code looks the same as none at all
+            return OtpVerification.of(OtpVerification.Status.NOT_FOUND);
+        }
+        int attempts = Integer.parseInt(entry.get(3));
+        if (attempts > maxAttempts) {
+            redisTemplate.delete(key);
+            return OtpVerification.of(OtpVerification.Status.LOCKED);
+        }
+        byte[] candidate = code == null ? new byte[0] : code.getBytes(StandardCharsets.UTF_8);
+        if (MessageDigest.isEqual(entry.get(0).getBytes(StandardCharsets.UTF_8), candidate)) {
+            // Only the request that actually deletes the key may use the code
+            return Boolean.TRUE.equals(redisTemplate.delete(key))
+                    ? OtpVerification.verified(Long.valueOf(entry.get(1)), entry.get(2))
+                    : OtpVerification.of(OtpVerification.Status.NOT_FOUND);
+        }
+        if (attempts >= maxAttempts) {
+            redisTemplate.delete(key);
+            return OtpVerification.of(OtpVerification.Status.LOCKED);
+        }
+        return OtpVerification.of(OtpVerification.Status.INVALID);
+    }
+}
@@ -0,0 +1,87 @@
+package com.agricredit.service;
+
+import com.agricredit.amortization.AccrualRow;
+import com.agricredit.amortization.AmortizationEngine;
+import com.agricredit.amortization.Instalment;
+import com.agricredit.amortization.PortfolioAccrual;
+import com.agricredit.amortization.ScaledAmortization;
+import com.agricredit.dto.LoanInstalmentResponse;
+import com.agricredit.dto.LoanResponse;
+import com.agricredit.dto.PortfolioAccrualResponse;
+import com.agricredit.entity.Loan;
+import com.agricredit.entity.LoanInstalment;
+import com.agricredit.repository.LoanInstalmentRepository;
+import com.agricredit.repository.LoanRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Service
+public class RepaymentScheduleService {
+
+    // Loans that still carry a balance under their schedule
+    private static final List<Loan.LoanStatus> ACCRUING = List.of(Loan.LoanStatus.DISBURSED, Loan.LoanStatus.DEFAULTED);
+
+    @Autowired
+    private LoanInstalmentRepository loanInstalmentRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    // Runs inside the disbursement transaction; the instalments go out as JDBC batches on the pooled sequence.
+    // The loan's due date moves to the final instalment, which is what the overdue sweep checks.
+    public LocalDateTime createSchedule(LoanResponse loan) {
+        LocalDateTime disbursedAt = loan.getDisbursementDate();
+        List<Instalment> schedule = AmortizationEngine.schedule(loan.getAmount(), loan.getInterestRate(),
+                loan.getDurationInMonths(), Loan.RepaymentType.valueOf(loan.getRepaymentType()),
+                disbursedAt.toLocalDate());
+
+        List<LoanInstalment> instalments = new ArrayList<>(schedule.size());
+        for (Instalment instalment : schedule) {
+            instalments.add(new LoanInstalment(null, loan.getId(), instalment.number(), instalment.dueDate(),
+                    instalment.principal(), instalment.interest(), instalment.total(), instalment.closingBalance()));
+        }
+        loanInstalmentRepository.saveAll(instalments);
+
+        LocalDateTime dueDate = schedule.get(schedule.size() - 1).dueDate().atTime(disbursedAt.toLocalTime());
+        loanRepository.updateDueDate(loan.getId(), dueDate);
+        return dueDate;
+    }
+
+    public List<LoanInstalmentResponse> getSchedule(Long loanId) {
+        if (!loanRepository.existsById(loanId)) {
+            throw new RuntimeException("Loan not found");
+        }
+
+        return loanInstalmentRepository.findResponsesByLoanId(loanId);
+    }
+
+    // Streams the few columns accrual needs into primitive arrays and recomputes every balance in one pass,
+    // assuming each instalment due by asOf was paid on schedule
+    @Transactional(readOnly = true)
+    public PortfolioAccrualResponse computeOutstanding(LocalDate asOf) {
+        long started = System.nanoTime();
+        PortfolioAccrual accrual = new PortfolioAccrual(1024);
+        try (Stream<AccrualRow> rows = loanRepository.streamAccrualRows(ACCRUING)) {
+            rows.forEach(row -> accrual.add(
+                    ScaledAmortization.cents(row.amount()),
+                    ScaledAmortization.rateMilli(row.interestRate()),
+                    row.durationInMonths(),
+                    row.repaymentType(),
+                    AmortizationEngine.elapsedInstalments(row.disbursementDate().toLocalDate(),
+                            row.durationInMonths(), asOf)));
+        }
+        accrual.compute();
+
+        return new PortfolioAccrualResponse(asOf, accrual.size(),
+                ScaledAmortization.amount(accrual.totalOutstandingCents()),
+                ScaledAmortization.amount(accrual.totalAccruedInterestCents()),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+}
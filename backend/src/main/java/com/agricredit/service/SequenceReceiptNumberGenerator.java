@@ -0,0 +1,51 @@
+package com.agricredit.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+// Hi/lo allocation: one database sequence value reserves a whole block of numbers for this node
+public class SequenceReceiptNumberGenerator implements ReceiptNumberGenerator {
+
+    private record Block(long end, AtomicLong next) {
+    }
+
+    private final LongSupplier hiSource;
+    private final long blockSize;
+    private volatile Block block = new Block(0, new AtomicLong());
+    // Not synchronized: a virtual thread blocking on JDBC inside a monitor would pin its carrier
+    private final ReentrantLock refillLock = new ReentrantLock();
+
+    public SequenceReceiptNumberGenerator(LongSupplier hiSource, long blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        this.hiSource = hiSource;
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public long nextId() {
+        while (true) {
+            Block current = block;
+            long id = current.next().getAndIncrement();
+            if (id < current.end()) {
+                return id;
+            }
+            refill(current);
+        }
+    }
+
+    // Only the thread that finds the block exhausted pays for the sequence round trip
+    private void refill(Block exhausted) {
+        refillLock.lock();
+        try {
+            if (block == exhausted) {
+                long start = hiSource.getAsLong() * blockSize;
+                block = new Block(start + blockSize, new AtomicLong(start));
+            }
+        } finally {
+            refillLock.unlock();
+        }
+    }
+}
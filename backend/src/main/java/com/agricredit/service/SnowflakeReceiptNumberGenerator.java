@@ -0,0 +1,48 @@
+package com.agricredit.service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 41 bits of milliseconds since 2024-01-01, 10 bits of node id, 12 bits of per-millisecond counter
+public class SnowflakeReceiptNumberGenerator implements ReceiptNumberGenerator {
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    private final long nodeId;
+    private final Clock clock;
+
+    // Timestamp and counter packed together so a single CAS advances both
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeReceiptNumberGenerator(long nodeId) {
+        this(nodeId, Clock.systemUTC());
+    }
+
+    SnowflakeReceiptNumberGenerator(long nodeId, Clock clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    @Override
+    public long nextId() {
+        while (true) {
+            long current = state.get();
+            long now = clock.millis() - EPOCH_MILLIS;
+            // When the clock has not moved (or went backwards) keep counting; a counter overflow
+            // carries into the timestamp bits, borrowing the next millisecond instead of waiting for it
+            long next = now > (current >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : current + 1;
+            if (state.compareAndSet(current, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+}
@@ -1,20 +1,32 @@
 package com.agricredit.service;
 
+import com.agricredit.archive.ArchiveCodecs;
+import com.agricredit.archive.ArchiveStore;
+import com.agricredit.cache.CacheNames;
+import com.agricredit.cache.RecordCacheEvictor;
 import com.agricredit.dto.WarehouseReceiptRequest;
 import com.agricredit.dto.WarehouseReceiptResponse;
+import com.agricredit.entity.LedgerOutboxEntry;
 import com.agricredit.entity.User;
 import com.agricredit.entity.WarehouseReceipt;
+import com.agricredit.exception.StateConflictException;
 import com.agricredit.repository.UserRepository;
 import com.agricredit.repository.WarehouseReceiptRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+// Every public method is timed as agricredit.service{class,method}
 @Service
+@Timed("agricredit.service")
 public class WarehouseReceiptService {
 
     @Autowired
@@ -23,6 +35,25 @@ public class WarehouseReceiptService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ReceiptNumberGenerator receiptNumberGenerator;
+
+    @Autowired
+    private LedgerOutboxService ledgerOutboxService;
+
+    @Autowired
+    private RecordCacheEvictor recordCacheEvictor;
+
+    @Autowired
+    private PortfolioAnalyticsService portfolioAnalyticsService;
+
+    @Autowired
+    private ReceiptSearchService receiptSearchService;
+
+    @Autowired
+    private ArchiveStore archiveStore;
+
+    @Transactional
     public WarehouseReceiptResponse createReceipt(WarehouseReceiptRequest request) {
         User farmer = userRepository.findById(request.getFarmerId())
                 .orElseThrow(() -> new RuntimeException("Farmer not found"));
@@ -48,75 +79,88 @@ public class WarehouseReceiptService {
         receipt.setRemarks(request.getRemarks());
         
         // Generate receipt number
-        receipt.setReceiptNumber("WR-" + System.currentTimeMillis());
-        
-        // Mock blockchain integration
-        receipt.setBlockchainTransactionHash(generateBlockchainTransactionHash(receipt));
+        receipt.setReceiptNumber(receiptNumberGenerator.next());
+
 
         WarehouseReceipt savedReceipt = warehouseReceiptRepository.save(receipt);
-        return WarehouseReceiptResponse.fromEntity(savedReceipt);
+        ledgerOutboxService.enqueue(LedgerOutboxEntry.RecordType.WAREHOUSE_RECEIPT, savedReceipt.getId());
+        portfolioAnalyticsService.receiptsAdded(List.of(savedReceipt));
+        recordCacheEvictor.receiptChanged(savedReceipt);
+        WarehouseReceiptResponse response = WarehouseReceiptResponse.fromEntity(savedReceipt);
+        receiptSearchService.receiptsChanged(List.of(response));
+        return response;
     }
 
+    @Transactional
     public WarehouseReceiptResponse updateReceiptStatus(Long receiptId, WarehouseReceipt.ReceiptStatus status) {
-        WarehouseReceipt receipt = warehouseReceiptRepository.findById(receiptId)
-                .orElseThrow(() -> new RuntimeException("Warehouse receipt not found"));
+        // Only an active receipt can move on; released and cancelled receipts are final
+        if (status == WarehouseReceipt.ReceiptStatus.ACTIVE) {
+            throw new RuntimeException("Warehouse receipt cannot be moved back to active");
+        }
 
-        receipt.setStatus(status);
-        
-        if (status == WarehouseReceipt.ReceiptStatus.RELEASED) {
-            receipt.setExpiryDate(LocalDateTime.now());
-        } else if (status == WarehouseReceipt.ReceiptStatus.CANCELLED) {
-            receipt.setExpiryDate(LocalDateTime.now());
+        // Expiring by hand ends the receipt now, even if its stored expiry date is still ahead; archival goes by it
+        int updated = warehouseReceiptRepository.updateStatus(receiptId, WarehouseReceipt.ReceiptStatus.ACTIVE,
+                status, LocalDateTime.now());
+        if (updated == 0) {
+            WarehouseReceipt.ReceiptStatus current = warehouseReceiptRepository.findStatusById(receiptId)
+                    .orElseThrow(() -> new RuntimeException("Warehouse receipt not found"));
+            if (current == WarehouseReceipt.ReceiptStatus.ACTIVE
+                    && warehouseReceiptRepository.existsByIdAndPledgedLoanIdIsNotNull(receiptId)) {
+                throw new StateConflictException("Warehouse receipt is pledged as collateral");
+            }
+            throw new StateConflictException("Warehouse receipt is not active");
         }
 
-        WarehouseReceipt updatedReceipt = warehouseReceiptRepository.save(receipt);
-        return WarehouseReceiptResponse.fromEntity(updatedReceipt);
+        WarehouseReceiptResponse response = warehouseReceiptRepository.findResponseById(receiptId)
+                .orElseThrow(() -> new RuntimeException("Warehouse receipt not found"));
+        ledgerOutboxService.enqueue(LedgerOutboxEntry.RecordType.WAREHOUSE_RECEIPT, receiptId);
+        portfolioAnalyticsService.receiptLeftActive(response.getCommodityName(), response.getWarehouseLocation(),
+                response.getUnitOfMeasure(), response.getQuantity());
+        recordCacheEvictor.receiptsChanged(List.of(receiptId), List.of(response.getFarmerId()));
+        receiptSearchService.receiptsChanged(List.of(response));
+        return response;
     }
 
-    public List<WarehouseReceiptResponse> getReceiptsByFarmer(Long farmerId) {
-        User farmer = userRepository.findById(farmerId)
-                .orElseThrow(() -> new RuntimeException("Farmer not found"));
+    @Cacheable(cacheNames = CacheNames.RECEIPTS_BY_FARMER, keyGenerator = "groupedKeyGenerator")
+    public List<WarehouseReceiptResponse> getReceiptsByFarmer(Long farmerId, long afterId, Limit limit) {
+        if (!userRepository.existsById(farmerId)) {
+            throw new RuntimeException("Farmer not found");
+        }
                 
-        List<WarehouseReceipt> receipts = warehouseReceiptRepository.findByFarmer(farmer);
-        return receipts.stream()
-                .map(WarehouseReceiptResponse::fromEntity)
-                .collect(Collectors.toList());
+        return warehouseReceiptRepository.findResponsesByFarmerAfter(farmerId, afterId, limit);
     }
 
-    public List<WarehouseReceiptResponse> getActiveReceipts() {
-        List<WarehouseReceipt> receipts = warehouseReceiptRepository.findByStatus(WarehouseReceipt.ReceiptStatus.ACTIVE);
-        return receipts.stream()
-                .map(WarehouseReceiptResponse::fromEntity)
-                .collect(Collectors.toList());
+    public List<WarehouseReceiptResponse> getActiveReceipts(long afterId, Limit limit) {
+        return getReceiptsByStatus(WarehouseReceipt.ReceiptStatus.ACTIVE, afterId, limit);
     }
 
-    public List<WarehouseReceiptResponse> getReceiptsByStatus(WarehouseReceipt.ReceiptStatus status) {
-        List<WarehouseReceipt> receipts = warehouseReceiptRepository.findByStatus(status);
-        return receipts.stream()
-                .map(WarehouseReceiptResponse::fromEntity)
-                .collect(Collectors.toList());
+    public List<WarehouseReceiptResponse> getReceiptsByStatus(WarehouseReceipt.ReceiptStatus status, long afterId, Limit limit) {
+        return warehouseReceiptRepository.findResponsesByStatusAfter(status, afterId, limit);
     }
 
+    @Cacheable(cacheNames = CacheNames.RECEIPTS, key = "#receiptId")
     public WarehouseReceiptResponse getReceiptById(Long receiptId) {
-        WarehouseReceipt receipt = warehouseReceiptRepository.findById(receiptId)
+        // Closed receipts past the archive horizon live only in the archive segments
+        return warehouseReceiptRepository.findResponseById(receiptId)
+                .or(() -> archiveStore.find(ArchiveCodecs.RECEIPTS, receiptId))
                 .orElseThrow(() -> new RuntimeException("Warehouse receipt not found"));
-        
-        return WarehouseReceiptResponse.fromEntity(receipt);
     }
 
-    public List<WarehouseReceiptResponse> getAllReceipts() {
-        List<WarehouseReceipt> receipts = warehouseReceiptRepository.findAll();
-        return receipts.stream()
-                .map(WarehouseReceiptResponse::fromEntity)
-                .collect(Collectors.toList());
+    public List<WarehouseReceiptResponse> getAllReceipts(long afterId, Limit limit) {
+        return warehouseReceiptRepository.findResponsesAfter(afterId, limit);
+    }
+
+    public List<WarehouseReceiptResponse> getReceiptsStoredBetween(LocalDateTime from, LocalDateTime to, long afterId, Limit limit) {
+        return warehouseReceiptRepository.findResponsesStoredBetweenAfter(from, to, afterId, limit);
     }
 
-    private String generateBlockchainTransactionHash(WarehouseReceipt receipt) {
-        // Mock blockchain transaction hash generation
-        String data = receipt.getFarmer().getId() + "_" + 
-                     receipt.getCommodityName() + "_" + 
-                     receipt.getStoredDate().toString() + "_" +
-                     receipt.getQuantity().toString();
-        return "0x" + java.util.UUID.nameUUIDFromBytes(data.getBytes()).toString().replace("-", "");
+    @Transactional(readOnly = true)
+    public void streamReceipts(WarehouseReceipt.ReceiptStatus status, Consumer<WarehouseReceiptResponse> sink) {
+        try (Stream<WarehouseReceiptResponse> receipts = status == null
+                ? warehouseReceiptRepository.streamAllResponses()
+                : warehouseReceiptRepository.streamResponsesByStatus(status)) {
+            receipts.forEach(sink);
+        }
     }
+
 }
\ No newline at end of file
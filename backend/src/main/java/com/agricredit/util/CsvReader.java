@@ -0,0 +1,88 @@
+package com.agricredit.util;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// Minimal RFC 4180 reader: one record at a time, quoted fields may contain commas, quotes and newlines
+public class CsvReader implements Closeable {
+
+    private final BufferedReader reader;
+    private final StringBuilder field = new StringBuilder();
+    private long lineNumber = 1;
+    private long recordLineNumber;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+    }
+
+    // Returns null at end of input; blank lines are skipped
+    public List<String> readRecord() throws IOException {
+        List<String> record = new ArrayList<>();
+        field.setLength(0);
+        recordLineNumber = lineNumber;
+        boolean quoted = false;
+        boolean sawAnything = false;
+
+        int c;
+        while ((c = reader.read()) != -1) {
+            sawAnything = true;
+            char ch = (char) c;
+            if (quoted) {
+                if (ch == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (next != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    if (ch == '\n') {
+                        lineNumber++;
+                    }
+                    field.append(ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\r') {
+                // Tolerate CRLF line endings
+            } else if (ch == '\n') {
+                lineNumber++;
+                if (record.isEmpty() && field.length() == 0) {
+                    recordLineNumber = lineNumber;
+                    continue;
+                }
+                record.add(field.toString());
+                return record;
+            } else {
+                field.append(ch);
+            }
+        }
+
+        if (!sawAnything || (record.isEmpty() && field.length() == 0)) {
+            return null;
+        }
+        record.add(field.toString());
+        return record;
+    }
+
+    // Line on which the most recently returned record started
+    public long getRecordLineNumber() {
+        return recordLineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
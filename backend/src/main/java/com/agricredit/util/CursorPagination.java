@@ -0,0 +1,37 @@
+package com.agricredit.util;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+public final class CursorPagination {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    private CursorPagination() {
+    }
+
+    public static long after(Long cursor) {
+        return cursor == null ? 0L : cursor;
+    }
+
+    public static Limit limit(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return Limit.of(DEFAULT_LIMIT);
+        }
+        return Limit.of(Math.min(requested, MAX_LIMIT));
+    }
+
+    // A full page means there may be more rows; the last id becomes the next cursor
+    public static <T> ResponseEntity<List<T>> page(List<T> items, Integer requestedLimit, Function<T, Long> idOf) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (!items.isEmpty() && items.size() >= limit(requestedLimit).max()) {
+            builder.header(NEXT_CURSOR_HEADER, String.valueOf(idOf.apply(items.get(items.size() - 1))));
+        }
+        return builder.body(items);
+    }
+}
@@ -0,0 +1,20 @@
+package com.agricredit.util;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// A half-open [start, end) range built from inclusive calendar dates; no start means all history, no end means today
+public record DateRange(LocalDateTime start, LocalDateTime end) {
+
+    private static final LocalDate EARLIEST = LocalDate.EPOCH;
+
+    // null if the dates are the wrong way round
+    public static DateRange of(LocalDate from, LocalDate to) {
+        LocalDate first = from == null ? EARLIEST : from;
+        LocalDate last = to == null ? LocalDate.now() : to;
+        if (first.isAfter(last)) {
+            return null;
+        }
+        return new DateRange(first.atStartOfDay(), last.plusDays(1).atStartOfDay());
+    }
+}
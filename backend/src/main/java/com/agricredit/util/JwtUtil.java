@@ -1,26 +1,58 @@
 package com.agricredit.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
 
+    public static final String ROLES_CLAIM = "roles";
+
     @Value("${jwt.secret}")
     private String SECRET_KEY;
 
     @Value("${jwt.expiration}")
     private Long JWT_EXPIRATION;
 
+    // Absent when constructed by hand (tests, benchmarks); the global registry then makes the timers no-ops
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    // Decoded once; the parser is immutable and safe to share across request threads
+    private SecretKey signingKey;
+    private JwtParser parser;
+    private Timer signTimer;
+    private Timer verifyTimer;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY));
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        MeterRegistry registry = meterRegistry != null ? meterRegistry : Metrics.globalRegistry;
+        signTimer = Timer.builder("agricredit.jwt").tag("operation", "sign").register(registry);
+        verifyTimer = Timer.builder("agricredit.jwt").tag("operation", "verify").register(registry);
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -34,17 +66,21 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser().setSigningKey(SECRET_KEY).parseClaimsJws(token).getBody();
+    // Verifies the signature and rejects expired tokens in a single parse
+    public Claims extractAllClaims(String token) {
+        return verifyTimer.record(() -> parser.parseClaimsJws(token).getBody());
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public String generateToken(UserDetails userDetails) {
+        return generateToken(userDetails.getUsername(), userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList());
     }
 
-    public String generateToken(UserDetails userDetails) {
+    public String generateToken(String username, List<String> roles) {
         Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, userDetails.getUsername());
+        claims.put(ROLES_CLAIM, roles);
+        return createToken(claims, username);
     }
 
     public String generateToken(UserDetails userDetails, Map<String, Object> claims) {
@@ -52,17 +88,20 @@ public class JwtUtil {
     }
 
     private String createToken(Map<String, Object> claims, String subject) {
-        return Jwts.builder()
+        return signTimer.record(() -> Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + JWT_EXPIRATION))
-                .signWith(SignatureAlgorithm.HS512, SECRET_KEY)
-                .compact();
+                .signWith(signingKey)
+                .compact());
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        try {
+            return extractUsername(token).equals(userDetails.getUsername());
+        } catch (JwtException e) {
+            return false;
+        }
     }
-}
\ No newline at end of file
+}
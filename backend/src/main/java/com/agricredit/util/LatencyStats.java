@@ -0,0 +1,75 @@
+package com.agricredit.util;
+
+import com.agricredit.dto.LatencySummary;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Lock-free latency recorder: log-linear microsecond buckets, 16 per power of two, so percentiles are upper
+// bounds within 1/16 of the true value
+public class LatencyStats {
+
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 2) * SUB_BUCKETS;
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    public void record(long nanos) {
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        long micros = Math.min(Math.max(nanos / 1000, 1), (1L << (MAX_EXPONENT + 1)) - 1);
+        buckets.incrementAndGet(bucketOf(micros));
+    }
+
+    public LatencySummary snapshot() {
+        long samples = count.sum();
+        return new LatencySummary(samples,
+                samples == 0 ? 0.0 : totalNanos.sum() / (double) samples / 1_000_000,
+                percentileMillis(0.50), percentileMillis(0.99), percentileMillis(0.999),
+                maxNanos.get() / 1_000_000.0);
+    }
+
+    // Values below 16us get a bucket each; above that, the top bit picks the octave and the next four the bucket
+    private static int bucketOf(long micros) {
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent < SUB_BITS) {
+            return (int) micros;
+        }
+        int sub = (int) (micros >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBoundMicros(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket + 1;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        return (SUB_BUCKETS + sub + 1) << (exponent - SUB_BITS);
+    }
+
+    private double percentileMillis(double percentile) {
+        long[] counts = new long[BUCKETS];
+        long samples = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            samples += counts[i];
+        }
+        long rank = (long) Math.ceil(percentile * samples);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank && seen > 0) {
+                return upperBoundMicros(i) / 1000.0;
+            }
+        }
+        return 0.0;
+    }
+}
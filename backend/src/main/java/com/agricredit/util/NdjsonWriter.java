@@ -0,0 +1,41 @@
+package com.agricredit.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+// Writes one JSON document per line straight to the response, flushing every few rows
+public class NdjsonWriter<T> implements Consumer<T> {
+
+    private static final int FLUSH_EVERY = 100;
+
+    private final JsonGenerator generator;
+    private int written;
+
+    public NdjsonWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(out);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void accept(T item) {
+        try {
+            generator.writeObject(item);
+            generator.writeRaw('\n');
+            if (++written % FLUSH_EVERY == 0) {
+                generator.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void finish() throws IOException {
+        generator.flush();
+    }
+}
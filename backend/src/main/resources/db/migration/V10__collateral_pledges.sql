@@ -0,0 +1,24 @@
+-- Receipts pledged as collateral point at their loan, and every LTV level change is recorded as a margin-call event
+
+alter table warehouse_receipts add column pledged_loan_id bigint;
+
+create index ix_warehouse_receipts_pledged_loan_id
+   on warehouse_receipts (pledged_loan_id);
+
+create sequence margin_call_event_seq start with 1 increment by 50;
+
+create table margin_call_events (
+    collateral_value numeric(14,2) not null,
+    exposure numeric(14,2) not null,
+    ltv numeric(10,4) not null,
+    id bigint not null,
+    loan_id bigint not null,
+    occurred_at timestamp(6) not null,
+    commodity varchar(255),
+    level varchar(255) not null check (level in ('HEALTHY','MARGIN_CALL','LIQUIDATION')),
+    previous_level varchar(255) not null check (previous_level in ('HEALTHY','MARGIN_CALL','LIQUIDATION')),
+    primary key (id)
+);
+
+create index ix_margin_call_events_loan_id
+   on margin_call_events (loan_id, id);
@@ -0,0 +1,11 @@
+-- Per-lender and platform-wide (lender_id 0) portfolio totals, kept up to date as loans and receipts change. The
+-- table starts empty; the first node to start finds it so and rebuilds it from loans and receipts.
+
+create table portfolio_aggregates (
+    total numeric(19,2) not null,
+    item_count bigint not null,
+    lender_id bigint not null,
+    dimension varchar(20) not null check (dimension in ('STATUS','MONTH','COMMODITY','LOCATION')),
+    bucket varchar(255) not null,
+    primary key (lender_id, dimension, bucket)
+);
@@ -0,0 +1,40 @@
+-- Composite indexes for the repository finders. Every listing is keyset-paginated on id, so id is the last
+-- column: the index then serves both the filter and the ORDER BY, and a page stops after LIMIT rows.
+-- CONCURRENTLY keeps writes flowing while large tables are indexed; Flyway runs such a script outside a
+-- transaction. If one fails it leaves an INVALID index behind, which has to be dropped before re-running.
+
+-- LoanRepository: by farmer, by lender, by status and the farmer/lender + status combinations
+create index concurrently if not exists ix_loans_farmer_id_id
+    on loans (farmer_id, id);
+
+create index concurrently if not exists ix_loans_farmer_id_status_id
+    on loans (farmer_id, status, id);
+
+-- Pending loans have no lender yet, so they stay out of the lender indexes
+create index concurrently if not exists ix_loans_lender_id_id
+    on loans (lender_id, id) where lender_id is not null;
+
+create index concurrently if not exists ix_loans_lender_id_status_id
+    on loans (lender_id, status, id) where lender_id is not null;
+
+create index concurrently if not exists ix_loans_status_id
+    on loans (status, id);
+
+-- WarehouseReceiptRepository: by farmer, by status, farmer + status and by warehouse location
+create index concurrently if not exists ix_warehouse_receipts_farmer_id_id
+    on warehouse_receipts (farmer_id, id);
+
+create index concurrently if not exists ix_warehouse_receipts_farmer_id_status_id
+    on warehouse_receipts (farmer_id, status, id);
+
+create index concurrently if not exists ix_warehouse_receipts_status_id
+    on warehouse_receipts (status, id);
+
+create index concurrently if not exists ix_warehouse_receipts_location_id
+    on warehouse_receipts (warehouse_location, id);
+
+-- Most receipts are never pledged; the partial index holds only the ones that are
+drop index concurrently if exists ix_warehouse_receipts_pledged_loan_id;
+
+create index concurrently if not exists ix_warehouse_receipts_pledged_loan_id
+    on warehouse_receipts (pledged_loan_id, id) where pledged_loan_id is not null;
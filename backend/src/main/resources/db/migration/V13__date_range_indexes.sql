@@ -0,0 +1,21 @@
+-- Indexes for the date-bounded listings and the archival job. loans and warehouse_receipts stay plain tables.
+-- Partitioning them would put the partition key into the primary key, and every lookup by id alone would then
+-- probe each monthly partition. Archival deletes closed rows in id batches instead of dropping old months.
+-- Single-column on purpose: ids are handed out in date order, and the planner only credits that heap
+-- correlation in full to a one-column index. CONCURRENTLY for the same reason as in V12.
+
+-- LoanRepository: applied between (GET /api/loans?from&to)
+create index concurrently if not exists ix_loans_applied_date
+    on loans (applied_date);
+
+-- LoanRepository: the archival scan, which dates a loan by when it closed or was rejected
+create index concurrently if not exists ix_loans_ended_date
+    on loans ((coalesce(closed_date, applied_date)));
+
+-- WarehouseReceiptRepository: stored between (GET /api/warehouse/receipts?from&to)
+create index concurrently if not exists ix_warehouse_receipts_stored_date
+    on warehouse_receipts (stored_date);
+
+-- WarehouseReceiptRepository: the archival scan, which dates a receipt by its release, cancellation or expiry
+create index concurrently if not exists ix_warehouse_receipts_ended_date
+    on warehouse_receipts ((coalesce(expiry_date, stored_date)));
@@ -0,0 +1,11 @@
+-- The collateral engine streams every pledged lot when it starts. Pledged receipts are spread over the whole
+-- heap, so fetching them row by row reads most of the table's pages. With the lot columns in the partial
+-- index the stream becomes an index-only scan, and the lookups by pledged_loan_id still use it.
+-- The new index is built before the old one is dropped, so the finders are never left without one.
+
+create index concurrently if not exists ix_warehouse_receipts_pledged_lots
+    on warehouse_receipts (pledged_loan_id, id)
+    include (farmer_id, commodity_name, quantity, unit_of_measure, status)
+    where pledged_loan_id is not null;
+
+drop index concurrently if exists ix_warehouse_receipts_pledged_loan_id;
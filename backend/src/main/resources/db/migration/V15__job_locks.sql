@@ -0,0 +1,7 @@
+-- Background jobs that must run on one node at a time claim their row here with SELECT .. FOR UPDATE for as
+-- long as they run. Rows are inserted on first use.
+
+create table job_locks (
+    name varchar(40) not null,
+    primary key (name)
+);
@@ -0,0 +1,8 @@
+-- Loan event ids come from a pooled sequence, so events written by different nodes are not in id order.
+-- Timelines are ordered by occurred_at with the id breaking ties, and paged on that pair, so the index
+-- leads with it. The new index is built before the old one is dropped, so the timeline is never without one.
+
+create index concurrently if not exists ix_loan_events_loan_timeline
+    on loan_events (loan_id, occurred_at, id);
+
+drop index concurrently if exists ix_loan_events_loan_id;
@@ -0,0 +1,9 @@
+-- Every loan write adds its deltas to the platform-wide rows, so under load those few rows serialize the
+-- transitions. Each bucket is now spread over several shard rows, a writer picks one at random, and readers
+-- sum them. Existing rows become shard 0.
+
+alter table portfolio_aggregates add column shard integer not null default 0;
+
+alter table portfolio_aggregates drop constraint portfolio_aggregates_pkey;
+
+alter table portfolio_aggregates add primary key (lender_id, dimension, bucket, shard);
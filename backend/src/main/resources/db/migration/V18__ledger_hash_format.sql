@@ -0,0 +1,6 @@
+-- Anchors now record the RecordHasher format their hash was computed under, so proofs keep comparing against
+-- the layout they were anchored with after fields are added. Everything anchored so far used format 1.
+
+alter table ledger_outbox add column hash_format integer;
+
+update ledger_outbox set hash_format = 1 where status = 'ANCHORED';
@@ -0,0 +1,10 @@
+-- A batch's Merkle root is committed (SUBMITTING) before it goes to the ledger, and marked ANCHORED in a second
+-- transaction once the ledger has it, so no transaction stays open across the ledger call. prepared_at lets the
+-- worker find roots that were committed but never recorded as anchored.
+
+alter table ledger_outbox drop constraint if exists ledger_outbox_status_check;
+
+alter table ledger_outbox add constraint ledger_outbox_status_check
+    check (status in ('PENDING','SUBMITTING','ANCHORED'));
+
+alter table ledger_outbox add column prepared_at timestamp(6);
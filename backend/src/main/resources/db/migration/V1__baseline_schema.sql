@@ -0,0 +1,77 @@
+-- The schema of the last release before migrations, exactly as its ddl-auto=update created it. Databases from
+-- that release are baselined at this version (spring.flyway.baseline-on-migrate) and skip this script, so
+-- everything added since lives in the versioned migrations after it, never in here.
+
+create table loans (
+    id bigserial not null,
+    amount numeric(10,2) not null,
+    applied_date timestamp(6) not null,
+    approved_date timestamp(6),
+    blockchain_transaction_hash varchar(255),
+    closed_date timestamp(6),
+    disbursement_date timestamp(6),
+    due_date timestamp(6),
+    duration_in_months integer not null,
+    interest_rate float(53) not null,
+    purpose varchar(255) not null,
+    remarks varchar(1000),
+    status varchar(255) not null check (status in ('PENDING','APPROVED','REJECTED','DISBURSED','CLOSED','DEFAULTED')),
+    farmer_id bigint not null,
+    lender_id bigint,
+    primary key (id)
+);
+
+create table users (
+    id bigserial not null,
+    email varchar(255) not null,
+    full_name varchar(255),
+    is_active boolean,
+    otp varchar(255),
+    otp_expiry_time bigint,
+    password varchar(255) not null,
+    phone_number varchar(255),
+    role varchar(255) not null check (role in ('FARMER','LENDER','ADMIN')),
+    username varchar(255) not null,
+    primary key (id)
+);
+
+create table warehouse_receipts (
+    id bigserial not null,
+    blockchain_transaction_hash varchar(255),
+    commodity_name varchar(255) not null,
+    condition varchar(255),
+    expiry_date timestamp(6),
+    quality_grade varchar(255),
+    quantity numeric(38,2) not null,
+    receipt_number varchar(255),
+    remarks varchar(1000),
+    status varchar(255) not null check (status in ('ACTIVE','RELEASED','EXPIRED','CANCELLED')),
+    stored_date timestamp(6) not null,
+    unit_of_measure varchar(255) not null,
+    variety varchar(255) not null,
+    warehouse_keeper_name varchar(255) not null,
+    warehouse_location varchar(255) not null,
+    farmer_id bigint not null,
+    primary key (id)
+);
+
+alter table if exists users
+   add constraint UK_6dotkott2kjsp8vw4d0m25fb7 unique (email);
+
+alter table if exists users
+   add constraint UK_r43af9ap4edm43mmtq01oddj6 unique (username);
+
+alter table if exists loans
+   add constraint FKa9eh1gd8ijvcedwb65c5ij9mo
+   foreign key (farmer_id)
+   references users;
+
+alter table if exists loans
+   add constraint FKmncmom5b7vctpc4tmi5gj2qn8
+   foreign key (lender_id)
+   references users;
+
+alter table if exists warehouse_receipts
+   add constraint FKc406xud13ahnx9bxsyo43w3fp
+   foreign key (farmer_id)
+   references users;
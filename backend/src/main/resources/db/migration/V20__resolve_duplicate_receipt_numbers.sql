@@ -0,0 +1,30 @@
+-- Receipt numbers used to be "WR-" plus the current millisecond, so receipts created in the same millisecond share
+-- one. Before the unique constraint goes on (V21, V22) every duplicate but the oldest receipt gets its id appended;
+-- the generators never issue a number with a second dash, so the result cannot clash with later numbers.
+-- Each change is kept in receipt_number_reissues so the warehouse can reissue the paper receipt, and the receipt
+-- is queued for anchoring again, since its number is part of the anchored record.
+
+create table receipt_number_reissues (
+    receipt_id bigint not null,
+    previous_number varchar(255) not null,
+    reissued_number varchar(255) not null,
+    reissued_at timestamp(6) not null,
+    primary key (receipt_id)
+);
+
+insert into receipt_number_reissues (receipt_id, previous_number, reissued_number, reissued_at)
+select id, receipt_number, receipt_number || '-' || id, now()
+from (select id, receipt_number,
+             row_number() over (partition by receipt_number order by id) as position
+      from warehouse_receipts
+      where receipt_number is not null) numbered
+where position > 1;
+
+update warehouse_receipts r
+set receipt_number = i.reissued_number, version = r.version + 1
+from receipt_number_reissues i
+where i.receipt_id = r.id and r.receipt_number = i.previous_number;
+
+insert into ledger_outbox (id, record_type, record_id, status, created_at)
+select nextval('ledger_outbox_seq'), 'WAREHOUSE_RECEIPT', receipt_id, 'PENDING', now()
+from receipt_number_reissues;
@@ -0,0 +1,5 @@
+-- Built CONCURRENTLY so receipts can still be written meanwhile. If a duplicate slipped in after V20 the build
+-- fails and leaves an INVALID index, which has to be dropped before re-running.
+
+create unique index concurrently if not exists ux_warehouse_receipts_receipt_number
+    on warehouse_receipts (receipt_number);
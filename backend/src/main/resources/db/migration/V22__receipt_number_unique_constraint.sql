@@ -0,0 +1,4 @@
+-- Turns the index from V21 into the constraint; only a brief lock, since the index is already built and checked
+
+alter table warehouse_receipts
+   add constraint ux_warehouse_receipts_receipt_number unique using index ux_warehouse_receipts_receipt_number;
@@ -0,0 +1,10 @@
+-- Loans take ids from a pooled sequence (allocationSize 50) instead of IDENTITY so inserts can be JDBC-batched.
+-- The sequence starts past the largest id the serial column handed out; Hibernate hands out the block that ends
+-- at the next value, so no existing id is reused. The serial default and its sequence go, so nothing else can
+-- draw ids that collide with the pooled blocks.
+
+create sequence loan_seq start with 1 increment by 50;
+select setval('loan_seq', (select coalesce(max(id), 0) + 1 from loans));
+
+alter table loans alter column id drop default;
+drop sequence if exists loans_id_seq;
@@ -0,0 +1,3 @@
+-- The sequence receipt number strategy draws hi/lo blocks from receipt_number_seq
+
+create sequence receipt_number_seq start with 1;
@@ -0,0 +1,24 @@
+-- Loans and receipts queued for anchoring on the ledger, with their Merkle proof once their batch is anchored
+
+create sequence ledger_outbox_seq start with 1 increment by 50;
+
+create table ledger_outbox (
+    leaf_index integer,
+    anchored_at timestamp(6),
+    created_at timestamp(6) not null,
+    id bigint not null,
+    record_id bigint not null,
+    merkle_root varchar(64),
+    record_hash varchar(64),
+    merkle_proof varchar(4000),
+    ledger_transaction_id varchar(255),
+    record_type varchar(255) not null check (record_type in ('LOAN','WAREHOUSE_RECEIPT')),
+    status varchar(255) not null check (status in ('PENDING','ANCHORED')),
+    primary key (id)
+);
+
+create index ix_ledger_outbox_status_id
+   on ledger_outbox (status, id);
+
+create index ix_ledger_outbox_record
+   on ledger_outbox (record_type, record_id);
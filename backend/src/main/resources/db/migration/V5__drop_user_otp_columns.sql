@@ -0,0 +1,5 @@
+-- Login OTPs live in the expiring OtpStore now; the codes left in users were only ever valid for minutes
+
+alter table users drop column if exists otp;
+
+alter table users drop column if exists otp_expiry_time;
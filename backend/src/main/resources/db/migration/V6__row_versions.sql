@@ -0,0 +1,5 @@
+-- Optimistic-locking versions; existing rows start at 0
+
+alter table loans add column version bigint default 0 not null;
+
+alter table warehouse_receipts add column version bigint default 0 not null;
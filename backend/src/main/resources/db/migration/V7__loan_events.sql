@@ -0,0 +1,15 @@
+-- One row per loan status transition, written by the state machine
+
+create sequence loan_event_seq start with 1 increment by 50;
+
+create table loan_events (
+    id bigint not null,
+    loan_id bigint not null,
+    occurred_at timestamp(6) not null,
+    from_status varchar(255) check (from_status in ('PENDING','APPROVED','REJECTED','DISBURSED','CLOSED','DEFAULTED')),
+    to_status varchar(255) not null check (to_status in ('PENDING','APPROVED','REJECTED','DISBURSED','CLOSED','DEFAULTED')),
+    primary key (id)
+);
+
+create index ix_loan_events_loan_id
+   on loan_events (loan_id, id);
@@ -0,0 +1,20 @@
+-- Repayment terms on the loan and its persisted instalment schedule. Existing loans keep the reducing-balance
+-- terms they were priced with.
+
+alter table loans add column repayment_type varchar(20) default 'REDUCING_BALANCE' not null
+    check (repayment_type in ('FLAT','REDUCING_BALANCE','BULLET'));
+
+create sequence loan_instalment_seq start with 1 increment by 50;
+
+create table loan_instalments (
+    closing_balance numeric(12,2) not null,
+    due_date date not null,
+    instalment_number integer not null,
+    interest_due numeric(12,2) not null,
+    principal_due numeric(12,2) not null,
+    total_due numeric(12,2) not null,
+    id bigint not null,
+    loan_id bigint not null,
+    primary key (id),
+    constraint ix_loan_instalments_loan_id unique (loan_id, instalment_number)
+);
@@ -0,0 +1,15 @@
+-- Progress of the maturity sweep, one row per table it walks, so an interrupted sweep resumes where it stopped
+
+create table sweep_checkpoints (
+    chunks integer not null,
+    completed_at timestamp(6),
+    cutoff timestamp(6) not null,
+    last_id bigint not null,
+    rows_scanned bigint not null,
+    rows_updated bigint not null,
+    started_at timestamp(6) not null,
+    updated_at timestamp(6) not null,
+    target varchar(20) not null check (target in ('LOANS','RECEIPTS')),
+    status varchar(255) not null check (status in ('RUNNING','COMPLETED')),
+    primary key (target)
+);
@@ -0,0 +1,84 @@
+package com.agricredit.amortization;
+
+import com.agricredit.entity.Loan;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AmortizationEngineTests {
+
+    private static final LocalDate START = LocalDate.of(2026, 1, 31);
+
+    @Test
+    void reducingBalanceScheduleRepaysExactlyThePrincipal() {
+        List<Instalment> schedule = AmortizationEngine.schedule(new BigDecimal("100000.00"), 12.0, 12,
+                Loan.RepaymentType.REDUCING_BALANCE, START);
+
+        assertEquals(12, schedule.size());
+        assertEquals(new BigDecimal("8884.88"), schedule.get(0).total());
+        assertEquals(new BigDecimal("1000.00"), schedule.get(0).interest());
+        assertEquals(new BigDecimal("100000.00"), sum(schedule, Instalment::principal));
+        assertEquals(new BigDecimal("0.00"), schedule.get(11).closingBalance());
+        assertEquals(LocalDate.of(2026, 2, 28), schedule.get(0).dueDate());
+    }
+
+    @Test
+    void flatAndBulletSchedulesChargeInterestOnTheOriginalPrincipal() {
+        List<Instalment> flat = AmortizationEngine.schedule(new BigDecimal("1000.00"), 9.0, 3,
+                Loan.RepaymentType.FLAT, START);
+        assertEquals(List.of(new BigDecimal("333.33"), new BigDecimal("333.33"), new BigDecimal("333.34")),
+                flat.stream().map(Instalment::principal).toList());
+        assertEquals(new BigDecimal("22.50"), sum(flat, Instalment::interest));
+
+        List<Instalment> bullet = AmortizationEngine.schedule(new BigDecimal("50000.00"), 10.0, 6,
+                Loan.RepaymentType.BULLET, START);
+        assertEquals(1, bullet.size());
+        assertEquals(new BigDecimal("52500.00"), bullet.get(0).total());
+        assertEquals(START.plusMonths(6), bullet.get(0).dueDate());
+    }
+
+    @Test
+    void scaledLongPortfolioPassMatchesBigDecimalPositions() {
+        Random random = new Random(42);
+        Loan.RepaymentType[] types = Loan.RepaymentType.values();
+        int loans = PortfolioAccrual.CHUNK_SIZE * 3 + 17;
+        BigDecimal[] amounts = new BigDecimal[loans];
+        double[] rates = new double[loans];
+        int[] terms = new int[loans];
+        int[] elapsed = new int[loans];
+        PortfolioAccrual accrual = new PortfolioAccrual(16);
+        for (int i = 0; i < loans; i++) {
+            amounts[i] = BigDecimal.valueOf(1_000_00L + random.nextInt(5_000_000_00), 2);
+            rates[i] = random.nextInt(24_000) / 1000.0;
+            terms[i] = 1 + random.nextInt(60);
+            elapsed[i] = random.nextInt(terms[i] + 1);
+            accrual.add(ScaledAmortization.cents(amounts[i]), ScaledAmortization.rateMilli(rates[i]), terms[i],
+                    types[i % types.length], elapsed[i]);
+        }
+        accrual.compute();
+
+        for (int i = 0; i < loans; i++) {
+            AmortizationEngine.Position expected = AmortizationEngine.position(amounts[i], rates[i], terms[i],
+                    types[i % types.length], elapsed[i]);
+            assertEquals(expected.outstandingPrincipal(), ScaledAmortization.amount(accrual.outstandingCents(i)));
+            assertEquals(expected.accruedInterest(), ScaledAmortization.amount(accrual.accruedInterestCents(i)));
+        }
+    }
+
+    @Test
+    void elapsedInstalmentsFollowClampedDueDates() {
+        assertEquals(0, AmortizationEngine.elapsedInstalments(START, 12, LocalDate.of(2026, 2, 27)));
+        assertEquals(1, AmortizationEngine.elapsedInstalments(START, 12, LocalDate.of(2026, 2, 28)));
+        assertEquals(12, AmortizationEngine.elapsedInstalments(START, 12, LocalDate.of(2030, 1, 1)));
+    }
+
+    private BigDecimal sum(List<Instalment> schedule, Function<Instalment, BigDecimal> part) {
+        return schedule.stream().map(part).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
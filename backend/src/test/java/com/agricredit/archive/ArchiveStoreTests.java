@@ -0,0 +1,77 @@
+package com.agricredit.archive;
+
+import com.agricredit.config.ArchiveConfig;
+import com.agricredit.dto.LoanResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArchiveStoreTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recordsRoundTripThroughSegmentsAndSurviveAReopen() {
+        ArchiveStore store = new ArchiveStore(directory);
+        List<LoanResponse> first = LongStream.rangeClosed(1, 500).map(id -> id * 2).mapToObj(ArchiveStoreTests::loan).toList();
+        List<LoanResponse> second = LongStream.rangeClosed(2_000, 2_100).mapToObj(ArchiveStoreTests::loan).toList();
+        store.write(ArchiveCodecs.LOANS, first);
+        store.write(ArchiveCodecs.LOANS, second);
+
+        ArchiveStore reopened = new ArchiveStore(directory);
+        assertEquals(2, reopened.segmentCount(ArchiveCodecs.LOANS.recordType()));
+        assertEquals(first.get(0), reopened.find(ArchiveCodecs.LOANS, 2).orElseThrow());
+        assertEquals(first.get(499), reopened.find(ArchiveCodecs.LOANS, 1_000).orElseThrow());
+        assertEquals(second.get(50), reopened.find(ArchiveCodecs.LOANS, 2_050).orElseThrow());
+
+        // Inside a segment's id range but not in it, and outside every range
+        assertTrue(reopened.find(ArchiveCodecs.LOANS, 3).isEmpty());
+        assertTrue(reopened.find(ArchiveCodecs.LOANS, 1_500).isEmpty());
+        assertTrue(reopened.find(ArchiveCodecs.RECEIPTS, 2).isEmpty());
+    }
+
+    @Test
+    void segmentsWrittenByAnotherNodeAreFoundOnAMiss() {
+        ArchiveStore reader = new ArchiveStore(directory);
+        ArchiveStore writer = new ArchiveStore(directory);
+        LoanResponse archived = loan(42);
+        writer.write(ArchiveCodecs.LOANS, List.of(archived));
+
+        assertEquals(archived, reader.find(ArchiveCodecs.LOANS, 42).orElseThrow());
+        assertEquals(1, reader.segmentCount(ArchiveCodecs.LOANS.recordType()));
+    }
+
+    @Test
+    void archivalNeedsAnExplicitAbsoluteDirectory() {
+        ArchiveConfig config = new ArchiveConfig();
+        assertThrows(IllegalStateException.class, () -> config.archiveStore("", true));
+        assertThrows(IllegalStateException.class, () -> config.archiveStore("data/archive", true));
+
+        ArchiveStore none = config.archiveStore("", false);
+        assertFalse(none.isWritable());
+        assertTrue(none.find(ArchiveCodecs.LOANS, 42).isEmpty());
+        assertThrows(IllegalStateException.class, () -> none.write(ArchiveCodecs.LOANS, List.of(loan(42))));
+    }
+
+    private static LoanResponse loan(long id) {
+        LocalDateTime applied = LocalDateTime.of(2024, 3, 1, 9, 30, 15, 123_456_000).plusHours(id);
+        boolean rejected = id % 3 == 0;
+        return new LoanResponse(id, 100 + id % 7, "Farmer " + id % 7, rejected ? null : 9L, rejected ? null : "Lender",
+                new BigDecimal(id + ".50"), "Seed and fertiliser", 11.5, 12, "REDUCING_BALANCE",
+                rejected ? "REJECTED" : "CLOSED", applied, rejected ? null : applied.plusDays(2),
+                rejected ? null : applied.plusDays(3), rejected ? null : applied.plusMonths(12),
+                rejected ? null : applied.plusMonths(11), rejected ? "Insufficient collateral" : null,
+                id % 2 == 0 ? "0x" + Long.toHexString(id) : null);
+    }
+}
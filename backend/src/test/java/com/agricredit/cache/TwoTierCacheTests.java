@@ -0,0 +1,94 @@
+package com.agricredit.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TwoTierCacheTests {
+
+    private final InMemoryRemoteCacheStore store = new InMemoryRemoteCacheStore();
+    private final InMemoryCacheInvalidationBus bus = new InMemoryCacheInvalidationBus();
+
+    @Test
+    void secondNodeIsServedFromSharedTierThenLocally() {
+        TwoTierCache nodeA = node(store).getCache(CacheNames.LOANS);
+        TwoTierCache nodeB = node(store).getCache(CacheNames.LOANS);
+
+        assertNull(nodeA.get(7L));
+        nodeA.put(7L, "loan-7");
+
+        assertEquals("loan-7", nodeB.get(7L).get());
+        assertEquals("loan-7", nodeB.get(7L).get());
+        assertEquals(1, nodeB.getStatistics().getRemoteHits());
+        assertEquals(1, nodeB.getStatistics().getLocalHits());
+        assertEquals(1, nodeA.getStatistics().getMisses());
+    }
+
+    @Test
+    void evictionOnOneNodeDropsLocalCopiesEverywhere() {
+        TwoTierCache nodeA = node(store).getCache(CacheNames.LOANS);
+        TwoTierCache nodeB = node(store).getCache(CacheNames.LOANS);
+        nodeA.put(7L, "loan-7");
+        nodeB.get(7L);
+
+        nodeA.evict(7L);
+
+        assertNull(nodeB.get(7L));
+        assertEquals(1, nodeB.getStatistics().getRemoteInvalidations());
+        assertEquals(0, nodeA.getStatistics().getRemoteInvalidations());
+    }
+
+    @Test
+    void evictingAGroupDropsEveryPage() {
+        TwoTierCache nodeA = node(store).getCache(CacheNames.LOANS_BY_FARMER);
+        TwoTierCache nodeB = node(store).getCache(CacheNames.LOANS_BY_FARMER);
+        nodeA.put(new GroupedKey("3", "0:100"), List.of("first page"));
+        nodeA.put(new GroupedKey("3", "41:100"), List.of("second page"));
+        nodeA.put(new GroupedKey("4", "0:100"), List.of("other farmer"));
+        nodeB.get(new GroupedKey("3", "0:100"));
+
+        nodeA.evictAll(List.of(3L));
+
+        assertNull(nodeA.get(new GroupedKey("3", "41:100")));
+        assertNull(nodeB.get(new GroupedKey("3", "0:100")));
+        assertEquals(List.of("other farmer"), nodeB.get(new GroupedKey("4", "0:100")).get());
+    }
+
+    @Test
+    void unreachableSharedTierDegradesToLocalOnly() {
+        TwoTierCache cache = node(new InMemoryRemoteCacheStore() {
+            @Override
+            public Object get(String key) {
+                throw new IllegalStateException("Unable to connect to Redis");
+            }
+
+            @Override
+            public void put(String key, Object value, Duration ttl) {
+                throw new IllegalStateException("Unable to connect to Redis");
+            }
+
+            @Override
+            public void delete(Collection<String> keys) {
+                throw new IllegalStateException("Unable to connect to Redis");
+            }
+        }).getCache(CacheNames.RECEIPTS);
+
+        assertNull(cache.get(1L));
+        cache.put(1L, "receipt-1");
+        assertEquals("receipt-1", cache.get(1L).get());
+        cache.evict(1L);
+        assertNull(cache.get(1L));
+        assertEquals(2, cache.getStatistics().getRemoteErrors());
+    }
+
+    private TwoTierCacheManager node(RemoteCacheStore remote) {
+        return new TwoTierCacheManager(
+                List.of(CacheNames.LOANS, CacheNames.LOANS_BY_FARMER, CacheNames.RECEIPTS, CacheNames.RECEIPTS_BY_FARMER),
+                100, Duration.ofMinutes(1), remote, bus, Duration.ofMinutes(10));
+    }
+}
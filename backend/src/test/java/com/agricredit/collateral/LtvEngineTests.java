@@ -0,0 +1,64 @@
+package com.agricredit.collateral;
+
+import com.agricredit.entity.MarginCallEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LtvEngineTests {
+
+    @Test
+    void priceTickOnlyMovesLoansPledgingThatCommodity() {
+        LtvEngine engine = new LtvEngine(0.80, 0.90);
+        engine.onPrice("maize", 20.0);
+        engine.onPrice("coffee", 300.0);
+        engine.addLot(1L, 10_000.0, "Maize", 1_000.0);
+        engine.addLots(2L, 10_000.0, Map.of("maize", 500.0, "coffee", 50.0));
+        engine.addLot(3L, 10_000.0, "coffee", 100.0);
+
+        List<LtvBreach> breaches = engine.onPrice("maize", 10.0);
+
+        assertEquals(10_000.0, engine.snapshot(1L).orElseThrow().collateralValue(), 1e-6);
+        assertEquals(20_000.0, engine.snapshot(2L).orElseThrow().collateralValue(), 1e-6);
+        assertEquals(30_000.0, engine.snapshot(3L).orElseThrow().collateralValue(), 1e-6);
+        assertEquals(1, breaches.size());
+        assertEquals(1L, breaches.get(0).loanId());
+        assertEquals(MarginCallEvent.Level.LIQUIDATION, breaches.get(0).level());
+        assertEquals("maize", breaches.get(0).commodity());
+    }
+
+    @Test
+    void levelChangesAreReportedOnceInEachDirection() {
+        LtvEngine engine = new LtvEngine(0.80, 0.90);
+        engine.onPrice("wheat", 25.0);
+        assertTrue(engine.addLot(7L, 8_000.0, "wheat", 500.0).isEmpty());
+
+        List<LtvBreach> marginCall = engine.onPrice("wheat", 19.0);
+        assertEquals(MarginCallEvent.Level.MARGIN_CALL, marginCall.get(0).level());
+        assertTrue(engine.onPrice("wheat", 18.5).isEmpty());
+
+        List<LtvBreach> recovered = engine.onPrice("wheat", 24.0);
+        assertEquals(MarginCallEvent.Level.MARGIN_CALL, recovered.get(0).previousLevel());
+        assertEquals(MarginCallEvent.Level.HEALTHY, recovered.get(0).level());
+    }
+
+    @Test
+    void releasingCollateralDropsTheLoanFromTheIndex() {
+        LtvEngine engine = new LtvEngine(0.80, 0.90);
+        engine.onPrice("rice", 30.0);
+        engine.addLots(4L, 5_000.0, Map.of("rice", 400.0));
+
+        Optional<LtvBreach> breach = engine.removeLot(4L, "rice", 300.0);
+        assertEquals(MarginCallEvent.Level.LIQUIDATION, breach.orElseThrow().level());
+        engine.removeLot(4L, "rice", 100.0);
+
+        assertTrue(engine.snapshot(4L).isEmpty());
+        assertTrue(engine.onPrice("rice", 1.0).isEmpty());
+        assertEquals(0, engine.loanCount());
+    }
+}
@@ -0,0 +1,26 @@
+package com.agricredit.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BCryptCostCalibratorTests {
+
+    @Test
+    void eachStepDoublesTheEstimate() {
+        long tenMillis = Duration.ofMillis(10).toNanos();
+        assertEquals(10, BCryptCostCalibrator.strengthFor(tenMillis, Duration.ofMillis(15).toNanos(), 10, 16));
+        assertEquals(13, BCryptCostCalibrator.strengthFor(tenMillis, Duration.ofMillis(80).toNanos(), 10, 16));
+        assertEquals(16, BCryptCostCalibrator.strengthFor(tenMillis, Duration.ofSeconds(10).toNanos(), 10, 16));
+        assertEquals(10, BCryptCostCalibrator.strengthFor(Duration.ofMillis(500).toNanos(), Duration.ofMillis(100).toNanos(), 10, 16));
+    }
+
+    @Test
+    void calibrationStaysWithinBounds() {
+        int strength = BCryptCostCalibrator.calibrate(Duration.ofMillis(5), 4, 6);
+        assertTrue(strength >= 4 && strength <= 6);
+    }
+}
@@ -0,0 +1,55 @@
+package com.agricredit.config;
+
+import com.agricredit.entity.User;
+import com.agricredit.util.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class JwtAuthenticationFilterTests {
+
+    private JwtUtil jwtUtil;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "SECRET_KEY", "agriculturalCreditSecretKeyForTokenGenerationAndVerification");
+        ReflectionTestUtils.setField(jwtUtil, "JWT_EXPIRATION", 60_000L);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        filter = new JwtAuthenticationFilter(jwtUtil, 100);
+    }
+
+    @Test
+    void buildsPrincipalFromClaimsAndCachesIt() {
+        User user = new User();
+        user.setUsername("ramesh");
+        user.setRole(User.Role.LENDER);
+        String token = jwtUtil.generateToken(user);
+
+        Authentication authentication = filter.authenticate(token);
+        assertEquals("ramesh", authentication.getName());
+        assertEquals("ROLE_LENDER", authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .findFirst()
+                .orElse(null));
+        assertSame(authentication, filter.authenticate(token));
+    }
+
+    @Test
+    void rejectsTamperedToken() {
+        User user = new User();
+        user.setUsername("ramesh");
+        user.setRole(User.Role.FARMER);
+        String token = jwtUtil.generateToken(user);
+
+        assertNull(filter.authenticate(token.substring(0, token.length() - 2) + "xx"));
+        assertNull(filter.authenticate("not-a-token"));
+    }
+}
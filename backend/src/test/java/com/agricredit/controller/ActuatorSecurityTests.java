@@ -0,0 +1,45 @@
+package com.agricredit.controller;
+
+import com.agricredit.util.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Same exposure as production, so the test shows what the security rules alone leave open; no Redis here, so its
+// health check is off to let health answer 200
+@SpringBootTest(properties = {"management.endpoints.web.exposure.include=health,info,metrics,prometheus",
+        "management.health.redis.enabled=false"})
+@AutoConfigureMockMvc
+class ActuatorSecurityTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    void healthAndInfoAreOpen() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/info")).andExpect(status().isOk());
+    }
+
+    @Test
+    void metricsAreForAdminsOnly() throws Exception {
+        String farmer = "Bearer " + jwtUtil.generateToken("metricsfarmer", List.of("ROLE_FARMER"));
+        String admin = "Bearer " + jwtUtil.generateToken("metricsadmin", List.of("ROLE_ADMIN"));
+        for (String endpoint : List.of("/actuator/metrics", "/actuator/prometheus")) {
+            mockMvc.perform(get(endpoint)).andExpect(status().isForbidden());
+            mockMvc.perform(get(endpoint).header(HttpHeaders.AUTHORIZATION, farmer)).andExpect(status().isForbidden());
+        }
+        mockMvc.perform(get("/actuator/metrics").header(HttpHeaders.AUTHORIZATION, admin)).andExpect(status().isOk());
+    }
+}
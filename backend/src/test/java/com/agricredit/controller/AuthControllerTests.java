@@ -0,0 +1,105 @@
+package com.agricredit.controller;
+
+import com.agricredit.entity.User;
+import com.agricredit.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Not transactional, so the login reads and rehashes a committed row as it would in production
+@SpringBootTest
+@AutoConfigureMockMvc
+class AuthControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.findByUsername("legacyhash").ifPresent(userRepository::delete);
+        userRepository.findByUsername("selfadmin").ifPresent(userRepository::delete);
+    }
+
+    @Test
+    void loginUpgradesLegacyHashes() throws Exception {
+        User user = new User();
+        user.setUsername("legacyhash");
+        user.setEmail("legacyhash@example.com");
+        user.setPassword(new BCryptPasswordEncoder(4).encode("s3cret"));
+        user.setRole(User.Role.FARMER);
+        userRepository.save(user);
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"legacyhash\",\"password\":\"s3cret\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value("legacyhash"));
+
+        assertTrue(userRepository.findByUsername("legacyhash").orElseThrow().getPassword().startsWith("{bcrypt}"));
+    }
+
+    @Test
+    void unknownUserAndWrongPasswordAreRejectedAlike() throws Exception {
+        User user = new User();
+        user.setUsername("legacyhash");
+        user.setEmail("legacyhash@example.com");
+        user.setPassword(new BCryptPasswordEncoder(4).encode("s3cret"));
+        user.setRole(User.Role.FARMER);
+        userRepository.save(user);
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"legacyhash\",\"password\":\"wrong\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid credentials"));
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"nobody\",\"password\":\"s3cret\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid credentials"));
+    }
+
+    @Test
+    void adminAccountsCannotBeSelfRegistered() throws Exception {
+        mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"selfadmin\",\"email\":\"selfadmin@example.com\","
+                                + "\"password\":\"s3cret\",\"role\":\"ADMIN\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Admin accounts cannot be self-registered"));
+
+        assertFalse(userRepository.findByUsername("selfadmin").isPresent());
+    }
+
+    @Test
+    void accountWithoutAnActiveFlagIsRejectedLikeBadCredentials() throws Exception {
+        User user = new User();
+        user.setUsername("legacyhash");
+        user.setEmail("legacyhash@example.com");
+        user.setPassword(new BCryptPasswordEncoder(4).encode("s3cret"));
+        user.setRole(User.Role.FARMER);
+        user.setIsActive(null);
+        userRepository.save(user);
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"legacyhash\",\"password\":\"s3cret\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid credentials"));
+    }
+}
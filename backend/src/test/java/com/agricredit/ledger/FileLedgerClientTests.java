@@ -0,0 +1,96 @@
+package com.agricredit.ledger;
+
+import com.agricredit.config.LedgerConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileLedgerClientTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void failedAppendLeavesTheChainWhereTheFileIs() throws Exception {
+        Path file = dir.resolve("anchors.csv");
+        byte[] first = root("first");
+        byte[] second = root("second");
+        FileLedgerClient client = new FileLedgerClient(file);
+        String firstId = client.submitRoot(first, 4);
+
+        // A directory in place of the file makes the next append fail
+        Path moved = dir.resolve("anchors.moved");
+        Files.move(file, moved);
+        Files.createDirectory(file);
+        assertThrows(UncheckedIOException.class, () -> client.submitRoot(second, 2));
+        assertEquals(1, client.getAnchors().size());
+        Files.delete(file);
+        Files.move(moved, file);
+
+        // The retry chains from the persisted head, exactly as a restarted client would
+        String secondId = client.submitRoot(second, 2);
+        FileLedgerClient restarted = new FileLedgerClient(file);
+        assertEquals(2, restarted.getAnchors().size());
+        assertEquals(secondId, restarted.getAnchors().get(1).transactionId());
+        assertTrue(restarted.isAnchored(firstId, first));
+        assertTrue(restarted.isAnchored(secondId, second));
+    }
+
+    @Test
+    void nodesSharingTheFileChainOntoEachOthersAnchors() {
+        Path file = dir.resolve("anchors.csv");
+        FileLedgerClient node1 = new FileLedgerClient(file);
+        FileLedgerClient node2 = new FileLedgerClient(file);
+        String firstId = node1.submitRoot(root("first"), 4);
+        String secondId = node2.submitRoot(root("second"), 2);
+        String thirdId = node1.submitRoot(root("third"), 1);
+
+        // Each node answers for anchors the other one made
+        assertTrue(node2.isAnchored(firstId, root("first")));
+        assertTrue(node1.isAnchored(secondId, root("second")));
+        assertTrue(node2.isAnchored(thirdId, root("third")));
+
+        // One chain, which a single client submitting the same roots would have produced
+        FileLedgerClient single = new FileLedgerClient(dir.resolve("single.csv"));
+        assertEquals(List.of(firstId, secondId, thirdId), List.of(single.submitRoot(root("first"), 4),
+                single.submitRoot(root("second"), 2), single.submitRoot(root("third"), 1)));
+        assertEquals(List.of(firstId, secondId, thirdId), new FileLedgerClient(file).getAnchors().stream()
+                .map(InMemoryLedgerClient.Anchor::transactionId).toList());
+    }
+
+    @Test
+    void lineCutShortByACrashedWriterIsSkipped() throws Exception {
+        Path file = dir.resolve("anchors.csv");
+        FileLedgerClient node1 = new FileLedgerClient(file);
+        String firstId = node1.submitRoot(root("first"), 4);
+        Files.writeString(file, "0x12ab", StandardOpenOption.APPEND);
+
+        FileLedgerClient node2 = new FileLedgerClient(file);
+        String secondId = node2.submitRoot(root("second"), 2);
+
+        FileLedgerClient restarted = new FileLedgerClient(file);
+        assertEquals(List.of(firstId, secondId), restarted.getAnchors().stream()
+                .map(InMemoryLedgerClient.Anchor::transactionId).toList());
+        assertTrue(node1.isAnchored(secondId, root("second")));
+        assertEquals(3, Files.readAllLines(file).size());
+    }
+
+    @Test
+    void inMemoryLedgerIsRefusedOutsideTests() {
+        assertThrows(IllegalStateException.class, () -> new LedgerConfig().inMemoryLedgerClient(false));
+    }
+
+    private static byte[] root(String value) {
+        return MerkleTree.sha256().digest(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,39 @@
+package com.agricredit.ledger;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MerkleTreeTests {
+
+    @Test
+    void everyLeafProvesAgainstTheRootForAnyBatchSize() {
+        for (int size = 1; size <= 33; size++) {
+            List<byte[]> hashes = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                hashes.add(MerkleTree.sha256().digest(("record-" + i).getBytes(StandardCharsets.UTF_8)));
+            }
+            MerkleTree tree = MerkleTree.build(hashes);
+            for (int i = 0; i < size; i++) {
+                List<MerkleTree.ProofStep> proof = MerkleTree.decodeProof(MerkleTree.encodeProof(tree.proof(i)));
+                assertTrue(MerkleTree.verify(hashes.get(i), proof, tree.root()), "size " + size + " leaf " + i);
+            }
+        }
+    }
+
+    @Test
+    void alteredRecordDoesNotVerify() {
+        List<byte[]> hashes = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            hashes.add(MerkleTree.sha256().digest(("record-" + i).getBytes(StandardCharsets.UTF_8)));
+        }
+        MerkleTree tree = MerkleTree.build(hashes);
+        byte[] altered = MerkleTree.sha256().digest("record-9".getBytes(StandardCharsets.UTF_8));
+        assertFalse(MerkleTree.verify(altered, tree.proof(2), tree.root()));
+    }
+}
@@ -0,0 +1,163 @@
+package com.agricredit.load;
+
+import org.flywaydb.core.Flyway;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+// Seeds a PostgreSQL database with a production-sized book for LoadScenarioRunner: users, loans and
+// warehouse receipts written through COPY in chunks, on top of whatever is already there. Runs the Flyway
+// migrations first, so it also works against an empty database such as the one LoadTestDatabase starts:
+//
+//   java -cp target/classes:target/test-classes:$(cat target/test-classpath.txt) \
+//       com.agricredit.load.LoadDataGenerator <jdbc-url> <user> <password> \
+//       users=1000000 loans=2000000 receipts=3000000 months=24 seed=42
+//
+// Every generated user has the password "loadtest". Start the application afterwards, so the portfolio
+// aggregates are rebuilt from the new rows.
+public class LoadDataGenerator {
+
+    static final String PASSWORD = "loadtest";
+
+    private static final int CHUNK_ROWS = 20_000;
+
+    public static void main(String[] args) throws SQLException {
+        if (args.length < 3) {
+            System.err.println("Usage: LoadDataGenerator <jdbc-url> <user> <password> "
+                    + "[users=N] [loans=N] [receipts=N] [months=N] [seed=N]");
+            System.exit(1);
+        }
+        Map<String, Long> options = options(args, 3);
+        long users = options.getOrDefault("users", 100_000L);
+        long loans = options.getOrDefault("loans", 200_000L);
+        long receipts = options.getOrDefault("receipts", 300_000L);
+        int months = options.getOrDefault("months", 24L).intValue();
+        long seed = options.getOrDefault("seed", 42L);
+
+        // Same settings as spring.flyway.* in application.properties
+        Flyway.configure()
+                .dataSource(args[0], args[1], args[2])
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load()
+                .migrate();
+
+        // 1% admins, 4% lenders, the rest farmers
+        long admins = Math.max(1, users / 100);
+        long lenders = Math.max(1, users * 4 / 100);
+        long farmers = Math.max(1, users - admins - lenders);
+
+        SyntheticRecords records = new SyntheticRecords(seed, LocalDateTime.now(), months);
+        try (Connection connection = DriverManager.getConnection(args[0], args[1], args[2])) {
+            CopyManager copy = connection.unwrap(PGConnection.class).getCopyAPI();
+
+            long firstUser = maxId(connection, "users") + 1;
+            long firstFarmer = firstUser;
+            long firstLender = firstFarmer + farmers;
+            long firstAdmin = firstLender + lenders;
+            // One hash for everyone: at a calibrated cost, hashing per row would dominate the load
+            String passwordHash = "{bcrypt}" + new BCryptPasswordEncoder(10).encode(PASSWORD);
+
+            copy(copy, "users (id, username, email, password, full_name, phone_number, role, is_active)",
+                    farmers + lenders + admins, (csv, i) -> {
+                        if (i < farmers) {
+                            records.user(csv, firstFarmer + i, "FARMER", i, passwordHash);
+                        } else if (i < farmers + lenders) {
+                            records.user(csv, firstUser + i, "LENDER", i - farmers, passwordHash);
+                        } else {
+                            records.user(csv, firstUser + i, "ADMIN", i - farmers - lenders, passwordHash);
+                        }
+                    });
+
+            long firstLoan = maxId(connection, "loans") + 1;
+            copy(copy, "loans (id, farmer_id, lender_id, amount, purpose, interest_rate, duration_in_months, "
+                            + "repayment_type, status, applied_date, approved_date, disbursement_date, due_date, "
+                            + "closed_date, remarks, version)",
+                    loans, (csv, i) -> records.loan(csv, firstLoan + i,
+                            firstFarmer + Math.floorMod(i * 7919, farmers),
+                            firstLender + Math.floorMod(i * 104_729, lenders)));
+
+            long firstReceipt = maxId(connection, "warehouse_receipts") + 1;
+            copy(copy, "warehouse_receipts (id, farmer_id, commodity_name, variety, quantity, unit_of_measure, "
+                            + "warehouse_location, warehouse_keeper_name, stored_date, expiry_date, quality_grade, "
+                            + "condition, receipt_number, status, version)",
+                    receipts, (csv, i) -> records.receipt(csv, firstReceipt + i,
+                            firstFarmer + Math.floorMod(i * 6151, farmers)));
+
+            try (Statement statement = connection.createStatement()) {
+                // Move the generators past the copied ids; loan_seq hands out blocks of 50 above its value
+                statement.execute("select setval('users_id_seq', (select max(id) from users))");
+                statement.execute("select setval('warehouse_receipts_id_seq', (select max(id) from warehouse_receipts))");
+                statement.execute("select setval('loan_seq', (select max(id) from loans))");
+                // Rebuilt from the loans table on the next application start
+                statement.execute("delete from portfolio_aggregates");
+                statement.execute("analyze users");
+                statement.execute("analyze loans");
+                statement.execute("analyze warehouse_receipts");
+            }
+        }
+
+        System.out.printf("Seeded %d farmers, %d lenders, %d admins (password \"%s\"), %d loans, %d receipts%n",
+                farmers, lenders, admins, PASSWORD, loans, receipts);
+        System.out.printf("Runner args: farmers=%d lenders=%d admins=%d%n", farmers, lenders, admins);
+    }
+
+    private static long maxId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("select coalesce(max(id), 0) from " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private interface RowWriter {
+        void write(StringBuilder csv, long index);
+    }
+
+    private static void copy(CopyManager copy, String target, long rows, RowWriter writer) throws SQLException {
+        long started = System.nanoTime();
+        CopyIn in = copy.copyIn("copy " + target + " from stdin with (format csv)");
+        try {
+            StringBuilder csv = new StringBuilder(CHUNK_ROWS * 200);
+            for (long i = 0; i < rows; i++) {
+                writer.write(csv, i);
+                if ((i + 1) % CHUNK_ROWS == 0 || i == rows - 1) {
+                    byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+                    in.writeToCopy(bytes, 0, bytes.length);
+                    csv.setLength(0);
+                }
+            }
+            in.endCopy();
+        } finally {
+            if (in.isActive()) {
+                in.cancelCopy();
+            }
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.out.printf("%-20s %,12d rows %8.1fs %,12.0f rows/s%n",
+                target.substring(0, target.indexOf(' ')), rows, seconds, rows / seconds);
+    }
+
+    static Map<String, Long> options(String[] args, int from) {
+        Map<String, Long> options = new HashMap<>();
+        for (int i = from; i < args.length; i++) {
+            String[] pair = args[i].split("=", 2);
+            if (pair.length == 2) {
+                options.put(pair[0], Long.parseLong(pair[1].replace("_", "")));
+            }
+        }
+        return options;
+    }
+}
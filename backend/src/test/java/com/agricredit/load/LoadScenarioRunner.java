@@ -0,0 +1,311 @@
+package com.agricredit.load;
+
+import com.agricredit.dto.LatencySummary;
+import com.agricredit.util.LatencyStats;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+// Replays the loan journey against a running application seeded by LoadDataGenerator and started through
+// LoadTestApplication, which accepts a fixed OTP. Each virtual user is a thread that logs in, verifies the OTP
+// and then works in a closed loop as a farmer, lender or admin: farmers apply for loans and browse their
+// loans and receipts, lenders approve what farmers applied for, admins disburse what lenders approved.
+// Sessions are renewed every few operations, so login and OTP verification stay in the mix.
+//
+//   java -cp target/classes:target/test-classes:$(cat target/test-classpath.txt) \
+//       com.agricredit.load.LoadScenarioRunner http://localhost:8080 \
+//       users=200 seconds=120 farmers=95000 lenders=4000 admins=1000
+//
+// Prints throughput and p50/p99/p99.9 per operation, the end-to-end apply-to-disburse time, and how busy
+// the database connection pool was, sampled from /api/diagnostics/datasource.
+public class LoadScenarioRunner {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int SESSION_OPERATIONS = 25;
+    private static final Duration POOL_SAMPLE_INTERVAL = Duration.ofMillis(500);
+    private static final String[] COMMODITIES = {"Maize", "Wheat", "Teff", "Sorghum", "Coffee", "Sesame"};
+
+    private final String baseUrl;
+    private final long farmers;
+    private final long lenders;
+    private final long admins;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private final Map<String, LatencyStats> latencies = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    // Loan ids waiting for the next step, with the nanoTime the farmer applied at
+    private final ConcurrentLinkedQueue<long[]> applied = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<long[]> approved = new ConcurrentLinkedQueue<>();
+    private final List<DataSourceSample> poolSamples = new ArrayList<>();
+
+    private record Session(String token, long userId, String role) {
+    }
+
+    private record DataSourceSample(int active, int maximum, int awaiting) {
+    }
+
+    LoadScenarioRunner(String baseUrl, long farmers, long lenders, long admins) {
+        this.baseUrl = baseUrl;
+        this.farmers = farmers;
+        this.lenders = lenders;
+        this.admins = admins;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 1) {
+            System.err.println("Usage: LoadScenarioRunner <base-url> [users=N] [seconds=N] "
+                    + "[farmers=N] [lenders=N] [admins=N]");
+            System.exit(1);
+        }
+        Map<String, Long> options = LoadDataGenerator.options(args, 1);
+        LoadScenarioRunner runner = new LoadScenarioRunner(args[0],
+                options.getOrDefault("farmers", 95_000L),
+                options.getOrDefault("lenders", 4_000L),
+                options.getOrDefault("admins", 1_000L));
+        runner.run(options.getOrDefault("users", 200L).intValue(),
+                Duration.ofSeconds(options.getOrDefault("seconds", 60L)));
+    }
+
+    void run(int users, Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicBoolean sampling = new AtomicBoolean(true);
+        Thread sampler = new Thread(() -> samplePool(sampling), "pool-sampler");
+        sampler.start();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            // 80% farmers, 15% lenders, 5% admins
+            int slot = i % 20;
+            int index = i;
+            String role = slot < 16 ? "farmer" : slot < 19 ? "lender" : "admin";
+            Thread thread = new Thread(() -> virtualUser(role, deadline), "vu-" + role + "-" + index);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        sampling.set(false);
+        sampler.join();
+        report(users, duration);
+    }
+
+    private void virtualUser(String role, long deadline) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long population = role.equals("farmer") ? farmers : role.equals("lender") ? lenders : admins;
+        Session session = null;
+        int operations = 0;
+        List<Long> ownLoans = new ArrayList<>();
+        while (System.nanoTime() < deadline) {
+            if (session == null || operations++ % SESSION_OPERATIONS == 0) {
+                session = login("load-" + role + "-" + random.nextLong(population));
+                ownLoans.clear();
+                if (session == null) {
+                    continue;
+                }
+            }
+            switch (role) {
+                case "farmer" -> farmerOperation(session, random, ownLoans);
+                case "lender" -> lenderOperation(session);
+                default -> adminOperation(session);
+            }
+        }
+    }
+
+    private void farmerOperation(Session session, ThreadLocalRandom random, List<Long> ownLoans) {
+        int roll = random.nextInt(100);
+        if (roll < 30) {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("farmerId", session.userId());
+            body.put("amount", 5_000 + random.nextInt(95_000));
+            body.put("purpose", "Seed and fertiliser");
+            body.put("interestRate", 12.5);
+            body.put("durationInMonths", 12);
+            JsonNode loan = call("apply", session, "POST", "/api/loans/apply", body);
+            if (loan != null) {
+                ownLoans.add(loan.get("id").asLong());
+                applied.add(new long[]{loan.get("id").asLong(), System.nanoTime()});
+            }
+        } else if (roll < 60) {
+            call("list-loans", session, "GET", "/api/loans/farmer/" + session.userId() + "?limit=20", null);
+        } else if (roll < 75 && !ownLoans.isEmpty()) {
+            call("get-loan", session, "GET", "/api/loans/" + ownLoans.get(random.nextInt(ownLoans.size())), null);
+        } else if (roll < 85) {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("farmerId", session.userId());
+            body.put("commodityName", COMMODITIES[random.nextInt(COMMODITIES.length)]);
+            body.put("variety", "Local");
+            body.put("quantity", 10 + random.nextInt(200));
+            body.put("unitOfMeasure", "quintal");
+            body.put("warehouseLocation", "Adama");
+            body.put("warehouseKeeperName", "Adama Warehouse Enterprise");
+            body.put("expiryDate", LocalDateTime.now().plusMonths(6).withNano(0).toString());
+            body.put("qualityGrade", "A");
+            body.put("condition", "Dry and sealed");
+            call("create-receipt", session, "POST", "/api/warehouse/receipts", body);
+        } else {
+            call("list-receipts", session, "GET",
+                    "/api/warehouse/receipts/farmer/" + session.userId() + "?limit=20", null);
+        }
+    }
+
+    private void lenderOperation(Session session) {
+        long[] next = applied.poll();
+        if (next == null) {
+            call("list-lender-loans", session, "GET", "/api/loans/lender/" + session.userId() + "?limit=20", null);
+            return;
+        }
+        if (call("approve", session, "PUT", "/api/loans/" + next[0] + "/approve?lenderId=" + session.userId(),
+                null) != null) {
+            approved.add(next);
+        }
+    }
+
+    private void adminOperation(Session session) {
+        long[] next = approved.poll();
+        if (next == null) {
+            call("list-all-loans", session, "GET", "/api/loans?limit=20", null);
+            return;
+        }
+        if (call("disburse", session, "PUT", "/api/loans/" + next[0] + "/disburse", null) != null) {
+            latencies.computeIfAbsent("journey apply->disburse", k -> new LatencyStats())
+                    .record(System.nanoTime() - next[1]);
+        }
+    }
+
+    private Session login(String username) {
+        Map<String, Object> credentials = Map.of("username", username, "password", LoadDataGenerator.PASSWORD);
+        if (call("login", null, "POST", "/api/auth/login", credentials) == null) {
+            return null;
+        }
+        JsonNode auth = call("verify-otp", null, "POST", "/api/auth/verify-otp",
+                Map.of("username", username, "otp", LoadTestApplication.OTP));
+        if (auth == null) {
+            return null;
+        }
+        return new Session(auth.get("accessToken").asText(), auth.get("userId").asLong(), auth.get("role").asText());
+    }
+
+    // Returns the parsed body of a 2xx response, or null after counting the failure against the operation
+    private JsonNode call(String operation, Session session, String method, String path, Object body) {
+        long start = System.nanoTime();
+        try {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json");
+            if (session != null) {
+                request.header("Authorization", "Bearer " + session.token());
+            }
+            request.method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofByteArray(MAPPER.writeValueAsBytes(body)));
+            HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() / 100 != 2) {
+                errors.computeIfAbsent(operation, k -> new LongAdder()).increment();
+                return null;
+            }
+            latencies.computeIfAbsent(operation, k -> new LatencyStats()).record(System.nanoTime() - start);
+            return response.body().length == 0 ? MAPPER.nullNode() : MAPPER.readTree(response.body());
+        } catch (IOException e) {
+            errors.computeIfAbsent(operation, k -> new LongAdder()).increment();
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private void samplePool(AtomicBoolean sampling) {
+        Session admin = login("load-admin-0");
+        while (sampling.get()) {
+            try {
+                Thread.sleep(POOL_SAMPLE_INTERVAL.toMillis());
+                if (admin == null) {
+                    admin = login("load-admin-0");
+                    continue;
+                }
+                HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/diagnostics/datasource"))
+                        .header("Authorization", "Bearer " + admin.token())
+                        .timeout(Duration.ofSeconds(5))
+                        .GET()
+                        .build();
+                HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                if (response.statusCode() == 200) {
+                    JsonNode pool = MAPPER.readTree(response.body());
+                    poolSamples.add(new DataSourceSample(pool.get("active").asInt(), pool.get("maximum").asInt(),
+                            pool.get("threadsAwaitingConnection").asInt()));
+                }
+            } catch (IOException e) {
+                // A missed sample only thins the pool statistics
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void report(int users, Duration duration) {
+        double seconds = duration.toSeconds();
+        System.out.printf("%n%d virtual users for %ds (%d farmers, %d lenders, %d admins seeded)%n%n",
+                users, duration.toSeconds(), farmers, lenders, admins);
+        System.out.printf("%-26s %10s %10s %10s %10s %10s %10s %8s%n",
+                "operation", "count", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "errors");
+        long total = 0;
+        List<String> operations = new ArrayList<>(latencies.keySet());
+        errors.keySet().stream().filter(op -> !latencies.containsKey(op)).forEach(operations::add);
+        operations.sort(String::compareTo);
+        for (String operation : operations) {
+            LatencySummary summary = latencies.getOrDefault(operation, new LatencyStats()).snapshot();
+            long failed = errors.getOrDefault(operation, new LongAdder()).sum();
+            if (!operation.startsWith("journey")) {
+                total += summary.getCount();
+            }
+            System.out.printf("%-26s %10d %10.1f %10.1f %10.1f %10.1f %10.1f %8d%n", operation,
+                    summary.getCount(), summary.getCount() / seconds, summary.getP50Millis(),
+                    summary.getP99Millis(), summary.getP999Millis(), summary.getMaxMillis(), failed);
+        }
+        System.out.printf("%nthroughput %.1f req/s, %d loans still waiting for approval, %d for disbursement%n",
+                total / seconds, applied.size(), approved.size());
+
+        if (poolSamples.isEmpty()) {
+            System.out.println("no connection pool samples (is /api/diagnostics/datasource reachable?)");
+            return;
+        }
+        int maximum = poolSamples.get(0).maximum();
+        int peak = 0;
+        long activeSum = 0;
+        long saturated = 0;
+        long waiting = 0;
+        int maxAwaiting = 0;
+        for (DataSourceSample sample : poolSamples) {
+            peak = Math.max(peak, sample.active());
+            activeSum += sample.active();
+            saturated += sample.active() >= sample.maximum() ? 1 : 0;
+            waiting += sample.awaiting() > 0 ? 1 : 0;
+            maxAwaiting = Math.max(maxAwaiting, sample.awaiting());
+        }
+        int samples = poolSamples.size();
+        System.out.printf("connection pool: max %d, active avg %.1f peak %d, saturated in %.1f%% of %d samples, "
+                        + "threads waiting in %.1f%% (peak %d)%n",
+                maximum, activeSum / (double) samples, peak, 100.0 * saturated / samples, samples,
+                100.0 * waiting / samples, maxAwaiting);
+    }
+}
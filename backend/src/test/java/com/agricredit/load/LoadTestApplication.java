@@ -0,0 +1,47 @@
+package com.agricredit.load;
+
+import com.agricredit.AgriculturalCreditApplication;
+import com.agricredit.service.InMemoryOtpStore;
+import com.agricredit.service.OtpStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+
+// Starts the application for LoadScenarioRunner: the loadtest profile, plus an OTP store that accepts the
+// fixed code the runner sends, so scripted users can get past the OTP step. It only exists in the test
+// sources, so the packaged application has no way to skip the OTP check. Pass the datasource arguments
+// LoadTestDatabase prints:
+//
+//   java -cp target/classes:target/test-classes:$(cat target/test-classpath.txt) \
+//       com.agricredit.load.LoadTestApplication --spring.datasource.url=... \
+//       --spring.datasource.username=... --spring.datasource.password=...
+public class LoadTestApplication {
+
+    static final String OTP = "000000";
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(AgriculturalCreditApplication.class, FixedOtp.class)
+                .profiles("loadtest")
+                .run(args);
+    }
+
+    // Registered by main only; without @Configuration the regular test suite's component scan skips it
+    static class FixedOtp {
+
+        // Takes precedence over the store OtpConfig configures
+        @Bean
+        @Primary
+        OtpStore fixedOtpStore(@Value("${otp.ttl-seconds:300}") long ttlSeconds,
+                               @Value("${otp.max-attempts:5}") int maxAttempts) {
+            return new InMemoryOtpStore(Duration.ofSeconds(ttlSeconds), maxAttempts) {
+                @Override
+                public void issue(String username, String code, Long userId, String role) {
+                    super.issue(username, OTP, userId, role);
+                }
+            };
+        }
+    }
+}
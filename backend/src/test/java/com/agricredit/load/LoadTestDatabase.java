@@ -0,0 +1,33 @@
+package com.agricredit.load;
+
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.concurrent.CountDownLatch;
+
+// A throwaway local PostgreSQL for load tests, in a container with production-like settings. Prints the
+// arguments for LoadDataGenerator and for the application, then keeps running until interrupted:
+//
+//   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/test-classpath.txt
+//   java -cp target/classes:target/test-classes:$(cat target/test-classpath.txt) \
+//       com.agricredit.load.LoadTestDatabase
+public class LoadTestDatabase {
+
+    public static void main(String[] args) throws InterruptedException {
+        PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+                .withDatabaseName("agricredit_load")
+                .withCommand("postgres", "-c", "max_connections=200", "-c", "shared_buffers=512MB",
+                        "-c", "effective_cache_size=1536MB", "-c", "work_mem=16MB", "-c", "synchronous_commit=on");
+        postgres.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(postgres::stop));
+
+        System.out.println("PostgreSQL is up. Seed it with:");
+        System.out.printf("  LoadDataGenerator %s %s %s%n", postgres.getJdbcUrl(), postgres.getUsername(),
+                postgres.getPassword());
+        System.out.println("and start the application with:");
+        System.out.printf("  LoadTestApplication --spring.datasource.url=%s "
+                + "--spring.datasource.username=%s --spring.datasource.password=%s%n",
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        System.out.println("Ctrl-C stops and removes the container.");
+        new CountDownLatch(1).await();
+    }
+}
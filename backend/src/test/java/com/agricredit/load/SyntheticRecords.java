@@ -0,0 +1,171 @@
+package com.agricredit.load;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+// Row generator for LoadDataGenerator: one COPY csv line per call, with the status, amount, commodity and
+// location mixes of a live book. Applications grow over the window, so recent months hold more rows than old
+// ones, and statuses stay consistent with dates: pending and approved loans are recent, defaulted ones are
+// past due, receipts past expiry are closed.
+final class SyntheticRecords {
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String[] COMMODITIES = {"Maize", "Wheat", "Teff", "Sorghum", "Coffee", "Sesame", "Barley"};
+    private static final int[] COMMODITY_WEIGHTS = {28, 18, 18, 12, 10, 8, 6};
+    private static final String[][] VARIETIES = {
+            {"BH-660", "BH-540"}, {"Kakaba", "Danda'a"}, {"Quncho", "Magna"}, {"Melkam", "Teshale"},
+            {"Sidamo Grade 2", "Yirgacheffe Grade 1"}, {"Humera", "Wollega"}, {"HB-1307", "Malt Grade"}};
+    private static final String[] LOCATIONS = {"Adama", "Hawassa", "Bahir Dar", "Jimma", "Mekelle", "Dire Dawa",
+            "Gondar", "Nekemte", "Shashemene", "Debre Markos", "Humera", "Dessie"};
+    private static final int[] LOCATION_WEIGHTS = {16, 12, 11, 10, 8, 8, 7, 7, 6, 6, 5, 4};
+    private static final String[] UNITS = {"quintal", "kg", "ton"};
+    private static final int[] UNIT_WEIGHTS = {70, 20, 10};
+
+    private static final String[] LOAN_STATUSES = {"PENDING", "APPROVED", "REJECTED", "DISBURSED", "CLOSED", "DEFAULTED"};
+    private static final int[] LOAN_STATUS_WEIGHTS = {8, 4, 10, 40, 33, 5};
+    private static final String[] REPAYMENT_TYPES = {"REDUCING_BALANCE", "FLAT", "BULLET"};
+    private static final int[] REPAYMENT_TYPE_WEIGHTS = {60, 30, 10};
+    private static final int[] DURATIONS = {3, 6, 9, 12, 18, 24, 36};
+    private static final int[] DURATION_WEIGHTS = {10, 25, 10, 30, 10, 10, 5};
+    private static final String[] PURPOSES = {"Seed and fertiliser", "Irrigation pump", "Harvest labour",
+            "Storage bags and pallets", "Oxen and ploughing", "Transport to market"};
+
+    private final SplittableRandom random;
+    private final LocalDateTime now;
+    private final long windowMinutes;
+
+    SyntheticRecords(long seed, LocalDateTime now, int months) {
+        this.random = new SplittableRandom(seed);
+        this.now = now.withNano(0);
+        this.windowMinutes = java.time.Duration.between(now.minusMonths(months), now).toMinutes();
+    }
+
+    // users (id, username, email, password, full_name, phone_number, role, is_active)
+    void user(StringBuilder csv, long id, String role, long index, String passwordHash) {
+        String username = "load-" + role.toLowerCase() + "-" + index;
+        csv.append(id).append(',')
+                .append(username).append(',')
+                .append(username).append("@load.example.com,")
+                .append(passwordHash).append(',')
+                .append(role.equals("LENDER") ? "Cooperative Bank Branch " : "Load User ").append(index).append(',')
+                .append("+2519").append(10_000_000 + random.nextInt(89_999_999)).append(',')
+                .append(role).append(",true\n");
+    }
+
+    // loans (id, farmer_id, lender_id, amount, purpose, interest_rate, duration_in_months, repayment_type,
+    //        status, applied_date, approved_date, disbursement_date, due_date, closed_date, remarks, version)
+    void loan(StringBuilder csv, long id, long farmerId, long lenderId) {
+        String status = LOAN_STATUSES[pick(LOAN_STATUS_WEIGHTS)];
+        int duration = DURATIONS[pick(DURATION_WEIGHTS)];
+        LocalDateTime applied = status.equals("PENDING") || status.equals("APPROVED")
+                ? now.minusMinutes(random.nextLong(30L * 24 * 60))
+                : recent();
+        LocalDateTime approved = applied.plusHours(12 + random.nextInt(6 * 24));
+        LocalDateTime disbursed = approved.plusHours(12 + random.nextInt(4 * 24));
+        LocalDateTime due = disbursed.plusMonths(duration);
+        if (status.equals("DEFAULTED") && !due.isBefore(now)) {
+            status = "DISBURSED";
+        }
+        if (status.equals("CLOSED") && due.minusDays(30).isAfter(now)) {
+            status = "DISBURSED";
+        }
+        boolean hasLender = !status.equals("PENDING") && !status.equals("REJECTED");
+        boolean disbursedYet = status.equals("DISBURSED") || status.equals("CLOSED") || status.equals("DEFAULTED");
+
+        csv.append(id).append(',').append(farmerId).append(',');
+        if (hasLender) {
+            csv.append(lenderId);
+        }
+        csv.append(',').append(String.format(Locale.ROOT, "%.2f", amount())).append(',')
+                .append(PURPOSES[random.nextInt(PURPOSES.length)]).append(',')
+                .append(String.format(Locale.ROOT, "%.2f", 8 + random.nextDouble() * 10)).append(',')
+                .append(duration).append(',')
+                .append(REPAYMENT_TYPES[pick(REPAYMENT_TYPE_WEIGHTS)]).append(',')
+                .append(status).append(',')
+                .append(TIMESTAMP.format(applied)).append(',');
+        timestamp(csv, hasLender ? approved : null).append(',');
+        timestamp(csv, disbursedYet ? disbursed : null).append(',');
+        timestamp(csv, disbursedYet ? due : null).append(',');
+        timestamp(csv, status.equals("CLOSED") ? min(due.minusDays(random.nextInt(30)), now) : null).append(',');
+        csv.append(status.equals("REJECTED") ? "Insufficient repayment capacity" : "").append(",0\n");
+    }
+
+    // warehouse_receipts (id, farmer_id, commodity_name, variety, quantity, unit_of_measure, warehouse_location,
+    //                     warehouse_keeper_name, stored_date, expiry_date, quality_grade, condition,
+    //                     receipt_number, status, version)
+    void receipt(StringBuilder csv, long id, long farmerId) {
+        int commodity = pick(COMMODITY_WEIGHTS);
+        String unit = UNITS[pick(UNIT_WEIGHTS)];
+        LocalDateTime stored = recent();
+        LocalDateTime expiry = stored.plusMonths(6);
+        String status;
+        if (expiry.isBefore(now)) {
+            int roll = random.nextInt(100);
+            status = roll < 50 ? "EXPIRED" : roll < 95 ? "RELEASED" : "CANCELLED";
+        } else {
+            int roll = random.nextInt(100);
+            status = roll < 80 ? "ACTIVE" : roll < 98 ? "RELEASED" : "CANCELLED";
+        }
+        String location = LOCATIONS[pick(LOCATION_WEIGHTS)];
+
+        csv.append(id).append(',').append(farmerId).append(',')
+                .append(COMMODITIES[commodity]).append(',')
+                .append('"').append(VARIETIES[commodity][random.nextInt(2)]).append("\",")
+                .append(String.format(Locale.ROOT, "%.2f", quantity(unit))).append(',')
+                .append(unit).append(',')
+                .append(location).append(',')
+                .append(location).append(" Warehouse Enterprise,")
+                .append(TIMESTAMP.format(stored)).append(',')
+                .append(TIMESTAMP.format(expiry)).append(',')
+                .append((char) ('A' + random.nextInt(3))).append(',')
+                .append(random.nextInt(10) == 0 ? "Moisture above 13%" : "Dry and sealed").append(',')
+                .append("LT-").append(id).append(',')
+                .append(status).append(",0\n");
+    }
+
+    // Loan sizes are roughly log-normal around 20,000 ETB
+    private double amount() {
+        double gaussian = new Random(random.nextLong()).nextGaussian();
+        return Math.min(Math.max(Math.exp(Math.log(20_000) + 0.8 * gaussian), 1_000), 2_000_000);
+    }
+
+    private double quantity(String unit) {
+        return switch (unit) {
+            case "kg" -> 100 + random.nextInt(5_000);
+            case "ton" -> 1 + random.nextInt(40) + random.nextDouble();
+            default -> 5 + random.nextInt(300);
+        };
+    }
+
+    // Density rises linearly towards today, as it would for a growing book
+    private LocalDateTime recent() {
+        return now.minusMinutes((long) (windowMinutes * (1 - Math.sqrt(random.nextDouble()))));
+    }
+
+    private int pick(int[] weights) {
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        int roll = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            roll -= weights[i];
+            if (roll < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private static StringBuilder timestamp(StringBuilder csv, LocalDateTime value) {
+        return value == null ? csv : csv.append(TIMESTAMP.format(value));
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
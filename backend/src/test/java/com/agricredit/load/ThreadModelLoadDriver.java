@@ -0,0 +1,88 @@
+package com.agricredit.load;
+
+import com.agricredit.dto.LatencySummary;
+import com.agricredit.util.LatencyStats;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Closed-loop load driver for comparing the platform- and virtual-thread request models.
+// Each client keeps exactly one request in flight against an endpoint that does several JDBC
+// round trips, so concurrency is exactly the client count. Start the app once normally and once
+// with --spring.profiles.active=virtual (Java 21 build), then run against each:
+//
+//   mvn test-compile
+//   java -cp target/classes:target/test-classes com.agricredit.load.ThreadModelLoadDriver \
+//       http://localhost:8080 <bearer-token> 1000,5000,10000 30
+//
+// 10k clients need a matching open-file limit (ulimit -n) on both sides.
+public class ThreadModelLoadDriver {
+
+    private static final String PATH = "/api/loans?limit=20";
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 2) {
+            System.err.println("Usage: ThreadModelLoadDriver <base-url> <token> [clients,...] [seconds]");
+            System.exit(1);
+        }
+        URI uri = URI.create(args[0] + PATH);
+        String token = args[1];
+        String[] levels = (args.length > 2 ? args[2] : "1000,5000,10000").split(",");
+        Duration duration = Duration.ofSeconds(args.length > 3 ? Long.parseLong(args[3]) : 30);
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        System.out.printf("%8s %12s %10s %10s %10s %8s%n", "clients", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+        for (String level : levels) {
+            run(client, uri, token, Integer.parseInt(level.trim()), duration);
+        }
+    }
+
+    private static void run(HttpClient client, URI uri, String token, int clients, Duration duration)
+            throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        LatencyStats latency = new LatencyStats();
+        LongAdder errors = new LongAdder();
+        CountDownLatch finished = new CountDownLatch(clients);
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        for (int i = 0; i < clients; i++) {
+            send(client, request, deadline, latency, errors, finished);
+        }
+        finished.await(duration.toSeconds() + 60, TimeUnit.SECONDS);
+
+        LatencySummary summary = latency.snapshot();
+        System.out.printf("%8d %12.1f %10.1f %10.1f %10.1f %8d%n", clients,
+                summary.getCount() / (double) duration.toSeconds(),
+                summary.getP50Millis(), summary.getP99Millis(), summary.getMaxMillis(), errors.sum());
+    }
+
+    private static void send(HttpClient client, HttpRequest request, long deadline,
+                             LatencyStats latency, LongAdder errors, CountDownLatch finished) {
+        if (System.nanoTime() >= deadline) {
+            finished.countDown();
+            return;
+        }
+        long start = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+            if (failure != null || response.statusCode() != 200) {
+                errors.increment();
+            } else {
+                latency.record(System.nanoTime() - start);
+            }
+            send(client, request, deadline, latency, errors, finished);
+        });
+    }
+}
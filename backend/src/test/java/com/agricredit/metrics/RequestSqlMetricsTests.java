@@ -0,0 +1,62 @@
+package com.agricredit.metrics;
+
+import com.agricredit.util.JwtUtil;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class RequestSqlMetricsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    void requestsAreTaggedWithTheirStatementCountAndServiceTimings() throws Exception {
+        String token = jwtUtil.generateToken("metrics-admin", List.of("ROLE_ADMIN"));
+        // The registry lives as long as the cached test context, so compare against what is already there
+        long requestsBefore = statements().map(DistributionSummary::count).orElse(0L);
+        long callsBefore = serviceTimer().map(Timer::count).orElse(0L);
+
+        mockMvc.perform(get("/api/loans?limit=5").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        DistributionSummary statements = statements().orElseThrow();
+        assertEquals(requestsBefore + 1, statements.count());
+        assertTrue(statements.max() >= 1);
+        assertEquals(callsBefore + 1, serviceTimer().orElseThrow().count());
+        assertTrue(meterRegistry.find("agricredit.jdbc.statements").tag("type", "SELECT").functionTimer().count() > 0);
+    }
+
+    private Optional<DistributionSummary> statements() {
+        return Optional.ofNullable(meterRegistry.find("agricredit.http.sql.statements")
+                .tags("method", "GET", "uri", "/api/loans")
+                .summary());
+    }
+
+    private Optional<Timer> serviceTimer() {
+        return Optional.ofNullable(meterRegistry.find("agricredit.service")
+                .tags("class", "com.agricredit.service.LoanService", "method", "getAllLoans")
+                .timer());
+    }
+}
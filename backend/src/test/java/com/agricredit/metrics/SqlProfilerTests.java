@@ -0,0 +1,98 @@
+package com.agricredit.metrics;
+
+import com.agricredit.dto.SqlProfileReport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SqlProfilerTests {
+
+    private static final String FARMER_BY_ID = "select u1_0.id,u1_0.username from users u1_0 where u1_0.id=?";
+    private static final String LOANS_PAGE = "select l1_0.id,l1_0.farmer_id from loans l1_0 order by l1_0.id limit ?";
+
+    private SimpleMeterRegistry meterRegistry;
+    private SqlProfiler profiler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        profiler = new SqlProfiler();
+        ReflectionTestUtils.setField(profiler, "enabled", true);
+        ReflectionTestUtils.setField(profiler, "repeatThreshold", 10);
+        ReflectionTestUtils.setField(profiler, "slowStatementMs", 100L);
+        ReflectionTestUtils.setField(profiler, "slowRequestMs", 500L);
+        ReflectionTestUtils.setField(profiler, "sampleRate", 1.0);
+        ReflectionTestUtils.setField(profiler, "ringSize", 4);
+        ReflectionTestUtils.setField(profiler, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.invokeMethod(profiler, "init");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(profiler, "shutdown");
+    }
+
+    @Test
+    void repeatedStatementShapeIsReportedAsNPlusOne() throws Exception {
+        SqlRequestContext context = SqlRequestContext.begin(true);
+        context.record(LOANS_PAGE, TimeUnit.MILLISECONDS.toNanos(3));
+        for (int i = 0; i < 20; i++) {
+            context.record(FARMER_BY_ID, TimeUnit.MICROSECONDS.toNanos(400));
+        }
+        SqlRequestContext.end();
+
+        profiler.completed("GET", "/api/loans", 200, context);
+
+        SqlProfileReport report = awaitReports(1).get(0);
+        assertEquals(List.of("N_PLUS_ONE"), report.getFlags());
+        assertEquals(21, report.getStatements());
+        assertEquals(FARMER_BY_ID, report.getShapes().get(0).getSql());
+        assertEquals(20, report.getShapes().get(0).getCount());
+        assertEquals(1.0, meterRegistry.get("agricredit.sql.profile.flags")
+                .tags("uri", "/api/loans", "flag", "N_PLUS_ONE").counter().count());
+    }
+
+    @Test
+    void onlyFlaggedRequestsAreKeptAndTheRingHoldsTheNewest() throws Exception {
+        SqlRequestContext quiet = SqlRequestContext.begin(true);
+        quiet.record(LOANS_PAGE, TimeUnit.MILLISECONDS.toNanos(2));
+        SqlRequestContext.end();
+        profiler.completed("GET", "/api/loans", 200, quiet);
+
+        for (int i = 0; i < 6; i++) {
+            SqlRequestContext slow = SqlRequestContext.begin(true);
+            slow.record(LOANS_PAGE + " -- " + i, TimeUnit.MILLISECONDS.toNanos(150));
+            SqlRequestContext.end();
+            profiler.completed("GET", "/api/loans/{loanId}", 200, slow);
+        }
+
+        List<SqlProfileReport> reports = awaitReports(4);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!reports.get(0).getShapes().get(0).getSql().endsWith("-- 5") && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            reports = profiler.getReports(null, 10);
+        }
+        assertEquals(4, reports.size());
+        assertTrue(reports.stream().allMatch(report -> report.getFlags().equals(List.of("SLOW_STATEMENT"))));
+        assertEquals(LOANS_PAGE + " -- 5", reports.get(0).getShapes().get(0).getSql());
+        assertEquals(0, profiler.getReports("N_PLUS_ONE", 10).size());
+    }
+
+    private List<SqlProfileReport> awaitReports(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        List<SqlProfileReport> reports = profiler.getReports(null, 10);
+        while (reports.size() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            reports = profiler.getReports(null, 10);
+        }
+        return reports;
+    }
+}
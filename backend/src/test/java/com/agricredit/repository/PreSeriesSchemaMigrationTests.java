@@ -0,0 +1,181 @@
+package com.agricredit.repository;
+
+import com.agricredit.entity.Loan;
+import com.agricredit.entity.User;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationState;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Upgrades a database the release before migrations created with ddl-auto, holding a few of that release's rows,
+// the way production does: Flyway baselines it at V1 and runs everything after. The context only starts if
+// Hibernate then validates the schema. The result is compared with a database migrated from scratch, which also
+// checks that V1 is still exactly the old release's schema.
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class PreSeriesSchemaMigrationTests {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.flyway.baseline-on-migrate", () -> "true");
+        registry.add("spring.flyway.baseline-version", () -> "1");
+        registry.add("spring.flyway.postgresql.transactional-lock", () -> "false");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    // Builds the old release's database in front of Flyway, with ids handed out by its serial columns
+    @TestConfiguration
+    static class PreSeriesDatabase {
+
+        @Bean
+        FlywayMigrationStrategy preSeriesDatabase() {
+            return flyway -> {
+                DataSource dataSource = flyway.getConfiguration().getDataSource();
+                new ResourceDatabasePopulator(new ClassPathResource("db/pre-series-schema.sql")).execute(dataSource);
+                JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+                jdbcTemplate.update("INSERT INTO users (username, email, password, role, is_active, otp, otp_expiry_time) "
+                        + "VALUES ('preserieslender', 'preserieslender@example.com', 'x', 'LENDER', true, null, null), "
+                        + "('preseriesfarmer', 'preseriesfarmer@example.com', 'x', 'FARMER', true, '123456', 0)");
+                jdbcTemplate.update("INSERT INTO loans (farmer_id, lender_id, amount, purpose, interest_rate, "
+                        + "duration_in_months, status, applied_date) "
+                        + "SELECT f.id, CASE WHEN g = 1 THEN l.id END, 1000 * g, 'Seed', 12.0, 12, "
+                        + "CASE WHEN g = 1 THEN 'APPROVED' ELSE 'PENDING' END, now() "
+                        + "FROM users f, users l, generate_series(1, 3) g "
+                        + "WHERE f.username = 'preseriesfarmer' AND l.username = 'preserieslender'");
+                // That release numbered receipts by the millisecond, so the first two share a number
+                jdbcTemplate.update("INSERT INTO warehouse_receipts (farmer_id, commodity_name, variety, quantity, "
+                        + "unit_of_measure, warehouse_location, warehouse_keeper_name, stored_date, receipt_number, status) "
+                        + "SELECT id, 'Maize', 'Hybrid', 10, 'quintal', 'Nakuru', 'Keeper', now(), "
+                        + "CASE WHEN g < 3 THEN 'WR-1700000000000' ELSE 'WR-1700000000001' END, 'ACTIVE' "
+                        + "FROM users, generate_series(1, 3) g WHERE username = 'preseriesfarmer'");
+                flyway.migrate();
+            };
+        }
+    }
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void oldReleaseIsBaselinedAtV1AndTakesEveryLaterMigration() {
+        MigrationInfo[] applied = flyway.info().applied();
+        assertTrue(applied[0].getType().isBaseline());
+        assertEquals("1", applied[0].getVersion().getVersion());
+        for (int i = 1; i < applied.length; i++) {
+            assertEquals(MigrationState.SUCCESS, applied[i].getState(), applied[i].getScript());
+        }
+        assertEquals(0, flyway.info().pending().length);
+    }
+
+    @Test
+    void existingRowsAreKeptAndNewLoansDoNotReuseTheirIds() {
+        assertEquals(List.of("REDUCING_BALANCE", "REDUCING_BALANCE", "REDUCING_BALANCE"),
+                jdbcTemplate.queryForList("SELECT repayment_type FROM loans ORDER BY id", String.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM loans WHERE version <> 0", Integer.class));
+        assertEquals(3, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM warehouse_receipts WHERE pledged_loan_id IS NULL", Integer.class));
+        long largestOldId = jdbcTemplate.queryForObject("SELECT max(id) FROM loans", Long.class);
+
+        User farmer = userRepository.findByUsername("preseriesfarmer").orElseThrow();
+        Loan loan = new Loan();
+        loan.setFarmer(farmer);
+        loan.setAmount(new BigDecimal("2500.00"));
+        loan.setPurpose("Seed");
+        loan.setInterestRate(10.0);
+        loan.setDurationInMonths(6);
+        loan.setStatus(Loan.LoanStatus.PENDING);
+        loan.setAppliedDate(LocalDateTime.now());
+        assertTrue(loanRepository.save(loan).getId() > largestOldId);
+    }
+
+    @Test
+    void receiptsSharingANumberAreReissuedBeforeNumbersBecomeUnique() {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM warehouse_receipts ORDER BY id", Long.class);
+        assertEquals(List.of("WR-1700000000000", "WR-1700000000000-" + ids.get(1), "WR-1700000000001"),
+                jdbcTemplate.queryForList("SELECT receipt_number FROM warehouse_receipts ORDER BY id", String.class));
+        assertEquals(List.of(ids.get(1)),
+                jdbcTemplate.queryForList("SELECT receipt_id FROM receipt_number_reissues", Long.class));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM ledger_outbox "
+                + "WHERE record_type = 'WAREHOUSE_RECEIPT' AND record_id = ?", Integer.class, ids.get(1)));
+
+        assertThrows(DuplicateKeyException.class, () -> jdbcTemplate.update(
+                "UPDATE warehouse_receipts SET receipt_number = 'WR-1700000000001' WHERE id = ?", ids.get(0)));
+    }
+
+    @Test
+    void upgradedDatabaseMatchesOneMigratedFromScratch() {
+        jdbcTemplate.execute("CREATE DATABASE fresh");
+        DriverManagerDataSource fresh = new DriverManagerDataSource(
+                "jdbc:postgresql://" + POSTGRES.getHost() + ":" + POSTGRES.getMappedPort(5432) + "/fresh",
+                POSTGRES.getUsername(), POSTGRES.getPassword());
+        Flyway.configure()
+                .dataSource(fresh)
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load()
+                .migrate();
+
+        assertEquals(schema(new JdbcTemplate(fresh)), schema(jdbcTemplate));
+    }
+
+    // Columns, constraints, indexes and sequences of the application's tables, one line each
+    private static List<String> schema(JdbcTemplate jdbcTemplate) {
+        List<String> lines = new ArrayList<>();
+        lines.addAll(jdbcTemplate.queryForList("SELECT concat_ws(' ', table_name, column_name, data_type, "
+                + "character_maximum_length, numeric_precision, numeric_scale, is_nullable, column_default) "
+                + "FROM information_schema.columns WHERE table_schema = 'public' "
+                + "AND table_name <> 'flyway_schema_history' ORDER BY table_name, column_name", String.class));
+        lines.addAll(jdbcTemplate.queryForList("SELECT concat_ws(' ', conrelid::regclass, conname, "
+                + "pg_get_constraintdef(oid)) FROM pg_constraint WHERE connamespace = 'public'::regnamespace "
+                + "AND conrelid::regclass::text <> 'flyway_schema_history' ORDER BY 1", String.class));
+        lines.addAll(jdbcTemplate.queryForList("SELECT indexdef FROM pg_indexes WHERE schemaname = 'public' "
+                + "AND tablename <> 'flyway_schema_history' ORDER BY indexname", String.class));
+        lines.addAll(jdbcTemplate.queryForList("SELECT concat_ws(' ', sequence_name, increment) "
+                + "FROM information_schema.sequences WHERE sequence_schema = 'public' ORDER BY sequence_name",
+                String.class));
+        return lines;
+    }
+}
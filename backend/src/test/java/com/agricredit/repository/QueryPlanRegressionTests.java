@@ -0,0 +1,212 @@
+package com.agricredit.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+// Runs the Flyway migrations against a real PostgreSQL, seeds it with a few hundred thousand rows and checks the
+// plan of every LoanRepository/WarehouseReceiptRepository finder. A finder fails if its plan scans loans or
+// warehouse_receipts sequentially, or if it costs more than a fixed share of such a full scan. The SQL mirrors
+// what Hibernate generates for each finder, minus the joins to users, which do not decide the access path.
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanRegressionTests {
+
+    private static final int LOANS = 200_000;
+    private static final int RECEIPTS = 200_000;
+    private static final int LENDERS = 1_000;
+    private static final int FARMERS = 10_000;
+
+    // A finder may cost at most this share of a sequential scan of its table
+    private static final double MAX_COST_SHARE = 0.25;
+
+    private static final Set<String> SEEDED_TABLES = Set.of("loans", "warehouse_receipts");
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.flyway.postgresql.transactional-lock", () -> "false");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeAll
+    void seed() {
+        // Users 1..LENDERS are lenders, the rest farmers
+        jdbcTemplate.update("INSERT INTO users (username, email, password, full_name, role, is_active) "
+                + "SELECT 'plan' || g, 'plan' || g || '@example.com', 'x', 'Plan ' || g, "
+                + "CASE WHEN g <= ? THEN 'LENDER' ELSE 'FARMER' END, true FROM generate_series(1, ?) g",
+                LENDERS, LENDERS + FARMERS);
+
+        // 40% pending without a lender, then approved, disbursed, closed and rejected; one in a thousand defaulted.
+        // Ids are handed out in application order, so applied_date (and stored_date below) rises with id. Closed and
+        // rejected loans, like released and expired receipts, ended 30 days after they started
+        jdbcTemplate.update("INSERT INTO loans (id, farmer_id, lender_id, amount, purpose, interest_rate, "
+                + "duration_in_months, repayment_type, status, applied_date, closed_date, version) "
+                + "SELECT g, ? + 1 + g % ?, CASE WHEN g % 10 < 4 THEN NULL ELSE 1 + g % ? END, 1000 + g % 9000, "
+                + "'Seed', 12.0, 12, 'REDUCING_BALANCE', "
+                + "CASE WHEN g % 10 < 4 THEN 'PENDING' WHEN g % 10 < 6 THEN 'APPROVED' WHEN g % 10 < 8 THEN 'DISBURSED' "
+                + "WHEN g % 10 = 8 THEN 'CLOSED' WHEN g % 1000 = 999 THEN 'DEFAULTED' ELSE 'REJECTED' END, "
+                + "timestamp '2025-01-01' + (g * 600 / ?) * interval '1 day', "
+                + "CASE WHEN g % 10 = 8 OR (g % 10 = 9 AND g % 1000 <> 999) "
+                + "THEN timestamp '2025-01-01' + (g * 600 / ? + 30) * interval '1 day' END, "
+                + "0 FROM generate_series(1, ?) g",
+                LENDERS, FARMERS, LENDERS, LOANS, LOANS, LOANS);
+
+        // 70% active, one in a hundred pledged
+        jdbcTemplate.update("INSERT INTO warehouse_receipts (farmer_id, commodity_name, variety, quantity, "
+                + "unit_of_measure, warehouse_location, warehouse_keeper_name, stored_date, receipt_number, status, "
+                + "pledged_loan_id, expiry_date, version) "
+                + "SELECT ? + 1 + g % ?, (ARRAY['maize','wheat','rice','sorghum','soybean','coffee'])[1 + g % 6], "
+                + "'standard', 10 + g % 90, 'quintal', 'warehouse-' || (g % 2000), 'keeper', "
+                + "timestamp '2025-01-01' + (g * 600 / ?) * interval '1 day', 'WR-PLAN-' || g, "
+                + "CASE WHEN g % 10 < 7 THEN 'ACTIVE' WHEN g % 10 < 9 THEN 'RELEASED' ELSE 'EXPIRED' END, "
+                + "CASE WHEN g % 100 = 0 THEN g ELSE NULL END, "
+                + "CASE WHEN g % 10 >= 7 THEN timestamp '2025-01-01' + (g * 600 / ? + 30) * interval '1 day' END, "
+                + "0 FROM generate_series(1, ?) g",
+                LENDERS, FARMERS, RECEIPTS, RECEIPTS, RECEIPTS);
+
+        jdbcTemplate.execute("ANALYZE users");
+        jdbcTemplate.execute("ANALYZE loans");
+        // Vacuumed as autovacuum would, so the visibility map lets covering indexes skip the heap
+        jdbcTemplate.execute("VACUUM ANALYZE warehouse_receipts");
+    }
+
+    static Stream<Arguments> finders() {
+        long farmer = LENDERS + 4_321;
+        long lender = 417;
+        Timestamp march = Timestamp.valueOf("2025-03-01 00:00:00");
+        Timestamp april = Timestamp.valueOf("2025-04-01 00:00:00");
+        // A first run catching up on a month of closed rows; nightly runs find a day's worth
+        Timestamp cutoff = Timestamp.valueOf("2025-02-01 00:00:00");
+        return Stream.of(
+                // LoanRepository
+                finder("Loan.findByFarmer", "loans", "SELECT * FROM loans WHERE farmer_id = ?", farmer),
+                finder("Loan.findByLender", "loans", "SELECT * FROM loans WHERE lender_id = ?", lender),
+                finder("Loan.findByStatus", "loans", "SELECT * FROM loans WHERE status = ?", "DEFAULTED"),
+                finder("Loan.findByFarmerAndStatus", "loans",
+                        "SELECT * FROM loans WHERE farmer_id = ? AND status = ?", farmer, "APPROVED"),
+                finder("Loan.findByLenderAndStatus", "loans",
+                        "SELECT * FROM loans WHERE lender_id = ? AND status = ?", lender, "DISBURSED"),
+                finder("Loan.findResponsesByFarmerAfter", "loans",
+                        "SELECT * FROM loans WHERE farmer_id = ? AND id > ? ORDER BY id LIMIT ?", farmer, 0L, 100),
+                finder("Loan.findResponsesByLenderAfter", "loans",
+                        "SELECT * FROM loans WHERE lender_id = ? AND id > ? ORDER BY id LIMIT ?", lender, 0L, 100),
+                finder("Loan.findResponsesByStatusAfter", "loans",
+                        "SELECT * FROM loans WHERE status = ? AND id > ? ORDER BY id LIMIT ?", "APPROVED", 150_000L, 100),
+                finder("Loan.findResponsesByFarmerAndStatusAfter", "loans",
+                        "SELECT * FROM loans WHERE farmer_id = ? AND status = ? AND id > ? ORDER BY id LIMIT ?",
+                        farmer, "APPROVED", 0L, 100),
+                finder("Loan.findResponsesByLenderAndStatusAfter", "loans",
+                        "SELECT * FROM loans WHERE lender_id = ? AND status = ? AND id > ? ORDER BY id LIMIT ?",
+                        lender, "DISBURSED", 0L, 100),
+                finder("Loan.findResponsesAppliedBetweenAfter", "loans",
+                        "SELECT * FROM loans WHERE applied_date >= ? AND applied_date < ? AND id > ? ORDER BY id LIMIT ?",
+                        march, april, 0L, 100),
+                finder("Loan.findArchivableResponsesAfter", "loans",
+                        "SELECT * FROM loans WHERE coalesce(closed_date, applied_date) < ? "
+                                + "AND status IN ('CLOSED', 'REJECTED') AND id > ? "
+                                + "ORDER BY id LIMIT ?", cutoff, 0L, 5_000),
+
+                // WarehouseReceiptRepository
+                finder("Receipt.findByFarmer", "warehouse_receipts",
+                        "SELECT * FROM warehouse_receipts WHERE farmer_id = ?", farmer),
+                finder("Receipt.findByFarmerAndStatus", "warehouse_receipts",
+                        "SELECT * FROM warehouse_receipts WHERE farmer_id = ? AND status = ?", farmer, "ACTIVE"),
+                finder("Receipt.findByWarehouseLocation", "warehouse_receipts",
+                        "SELECT * FROM warehouse_receipts WHERE warehouse_location = ?", "warehouse-77"),
+                finder("Receipt.findResponsesByFarmerAfter", "warehouse_receipts",
+                        "SELECT * FROM warehouse_receipts WHERE farmer_id = ? AND id > ? ORDER BY id LIMIT ?",
+                        farmer, 0L, 100),
+                finder("Receipt.findResponsesByStatusAfter", "warehouse_receipts",
+                        "SELECT * FROM warehouse_receipts WHERE status = ? AND id > ? ORDER BY id LIMIT ?",
+                        "EXPIRED", 100_000L, 100),
+                finder("Receipt.findResponsesByFarmerAndStatusAfter", "warehouse_receipts",
+                        "SELECT * FROM warehouse_receipts WHERE farmer_id = ? AND status = ? AND id > ? ORDER BY id LIMIT ?",
+                        farmer, "ACTIVE", 0L, 100),
+                finder("Receipt.findResponsesByWarehouseLocationAfter", "warehouse_receipts",
+                        "SELECT * FROM warehouse_receipts WHERE warehouse_location = ? AND id > ? ORDER BY id LIMIT ?",
+                        "warehouse-77", 0L, 100),
+                finder("Receipt.findLotsByPledgedLoanId", "warehouse_receipts",
+                        "SELECT * FROM warehouse_receipts WHERE pledged_loan_id = ? ORDER BY id", 4_200L),
+                finder("Receipt.streamPledgedLots", "warehouse_receipts",
+                        "SELECT id, pledged_loan_id, farmer_id, commodity_name, quantity, unit_of_measure, status "
+                                + "FROM warehouse_receipts WHERE pledged_loan_id IS NOT NULL"),
+                finder("Receipt.findResponsesStoredBetweenAfter", "warehouse_receipts",
+                        "SELECT * FROM warehouse_receipts WHERE stored_date >= ? AND stored_date < ? AND id > ? "
+                                + "ORDER BY id LIMIT ?", march, april, 0L, 100),
+                finder("Receipt.findArchivableResponsesAfter", "warehouse_receipts",
+                        "SELECT * FROM warehouse_receipts WHERE coalesce(expiry_date, stored_date) < ? "
+                                + "AND status IN ('RELEASED', 'EXPIRED', 'CANCELLED') AND pledged_loan_id IS NULL "
+                                + "AND id > ? ORDER BY id LIMIT ?", cutoff, 0L, 5_000));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("finders")
+    void finderUsesAnIndex(String finder, String table, String sql, Object[] params) throws Exception {
+        JsonNode plan = explain(sql, params);
+        double fullScanCost = explain("SELECT * FROM " + table).path("Total Cost").asDouble();
+
+        List<String> seqScans = new ArrayList<>();
+        collectSeqScans(plan, seqScans);
+        if (!seqScans.isEmpty()) {
+            fail(finder + " scans " + seqScans + " sequentially:\n" + plan.toPrettyString());
+        }
+        double cost = plan.path("Total Cost").asDouble();
+        assertTrue(cost <= fullScanCost * MAX_COST_SHARE, () -> finder + " costs " + cost + ", more than "
+                + MAX_COST_SHARE + " of a full scan (" + fullScanCost + "):\n" + plan.toPrettyString());
+    }
+
+    private JsonNode explain(String sql, Object... params) throws Exception {
+        String json = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + sql, String.class, params);
+        return objectMapper.readTree(json).get(0).get("Plan");
+    }
+
+    private void collectSeqScans(JsonNode node, List<String> seqScans) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())
+                && SEEDED_TABLES.contains(node.path("Relation Name").asText())) {
+            seqScans.add(node.path("Relation Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectSeqScans(child, seqScans);
+        }
+    }
+
+    private static Arguments finder(String name, String table, String sql, Object... params) {
+        return Arguments.of(name, table, sql, params);
+    }
+}
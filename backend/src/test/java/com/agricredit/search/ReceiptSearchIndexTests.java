@@ -0,0 +1,114 @@
+package com.agricredit.search;
+
+import com.agricredit.dto.FacetCountResponse;
+import com.agricredit.dto.ReceiptSearchHit;
+import com.agricredit.dto.ReceiptSearchResponse;
+import com.agricredit.dto.WarehouseReceiptResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReceiptSearchIndexTests {
+
+    private ReceiptSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ReceiptSearchIndex();
+        index.index(List.of(
+                receipt(1, "Maize", "Yellow Dent", "A", "200", "Nakuru North Store", "2024-01-10T08:00", "ACTIVE"),
+                receipt(2, "Maize", "White", "B", "50", "Nakuru South Store", "2024-02-03T08:00", "ACTIVE"),
+                receipt(3, "Wheat", "Durum", "A", "120", "Eldoret Silo", "2024-02-20T08:00", "ACTIVE"),
+                receipt(4, "Coffee", "Arabica", "AA", "10", "Nyeri Mill", "2024-03-01T08:00", "RELEASED"),
+                receipt(5, "maize", "White", "A", "75", "Eldoret Silo", "2024-03-15T08:00", "ACTIVE")));
+    }
+
+    @Test
+    void filtersAreCaseInsensitiveAndFacetsCoverAllMatches() {
+        ReceiptSearchResponse response = index.search(query(null, List.of("MAIZE"), null, null, null, 2));
+
+        assertEquals(3, response.getTotal());
+        assertEquals(List.of(1L, 2L), ids(response));
+        List<FacetCountResponse> grades = response.getFacets().get("qualityGrade");
+        assertEquals("A", grades.get(0).getValue());
+        assertEquals(2, grades.get(0).getCount());
+        assertEquals(1, response.getFacets().get("commodityName").size());
+    }
+
+    @Test
+    void valuesWithinAFieldAreAlternatives() {
+        ReceiptSearchResponse response = index.search(query(null, List.of("wheat", "coffee"), null, null, null, 10));
+
+        assertEquals(List.of(3L, 4L), ids(response));
+    }
+
+    @Test
+    void textMatchesWordPrefixesAcrossFields() {
+        assertEquals(List.of(1L, 2L), ids(index.search(query("naku", null, null, null, null, 10))));
+        assertEquals(List.of(2L, 5L), ids(index.search(query("whi mai", null, null, null, null, 10))));
+        assertEquals(List.of(), ids(index.search(query("sorghum", null, null, null, null, 10))));
+    }
+
+    @Test
+    void quantityAndStoredDateRangesAreExact() {
+        ReceiptSearchQuery range = new ReceiptSearchQuery(null, null, null, null, null, null, null,
+                new BigDecimal("50"), new BigDecimal("120"),
+                LocalDateTime.parse("2024-02-03T08:00"), LocalDateTime.parse("2024-03-15T08:00"), 0, 10);
+
+        // 2 and 3 fall inside both ranges; 4 is too small and 5 is stored exactly at the exclusive end
+        assertEquals(List.of(2L, 3L), ids(index.search(range)));
+    }
+
+    @Test
+    void locationPrefixAndStatusUpdates() {
+        index.updateStatus(List.of(3L), "EXPIRED");
+
+        ReceiptSearchResponse active = index.search(query(null, null, "eldoret", List.of("ACTIVE"), null, 10));
+        assertEquals(List.of(5L), ids(active));
+        ReceiptSearchResponse expired = index.search(query(null, null, null, List.of("expired"), null, 10));
+        assertEquals(List.of(3L), ids(expired));
+    }
+
+    @Test
+    void reindexingReplacesAndRemovalDrops() {
+        index.index(List.of(receipt(2, "Sorghum", "Red", "B", "50", "Kisumu Depot", "2024-02-03T08:00", "ACTIVE")));
+        index.remove(List.of(1L));
+
+        assertEquals(4, index.size());
+        assertEquals(List.of(5L), ids(index.search(query(null, List.of("maize"), null, null, null, 10))));
+        assertEquals(List.of(2L), ids(index.search(query("kisumu", null, null, null, null, 10))));
+    }
+
+    @Test
+    void pagesFollowTheIdCursor() {
+        ReceiptSearchQuery page = new ReceiptSearchQuery(null, null, null, null, null, null, null, null, null,
+                null, null, 2, 2);
+
+        ReceiptSearchResponse response = index.search(page);
+        assertEquals(5, response.getTotal());
+        assertEquals(List.of(3L, 4L), ids(response));
+    }
+
+    private static ReceiptSearchQuery query(String text, List<String> commodities, String location,
+                                            List<String> statuses, List<String> grades, int limit) {
+        return new ReceiptSearchQuery(text, commodities, null, grades, null, statuses, location,
+                null, null, null, null, 0, limit);
+    }
+
+    private static List<Long> ids(ReceiptSearchResponse response) {
+        return response.getHits().stream().map(ReceiptSearchHit::getId).toList();
+    }
+
+    private static WarehouseReceiptResponse receipt(long id, String commodity, String variety, String grade,
+                                                    String quantity, String location, String storedDate,
+                                                    String status) {
+        return new WarehouseReceiptResponse(id, 100 + id, "Farmer " + id, commodity, variety, new BigDecimal(quantity),
+                "KG", location, "Keeper", LocalDateTime.parse(storedDate), null, grade, "Dry", null,
+                "WR-" + id, null, status, null);
+    }
+}
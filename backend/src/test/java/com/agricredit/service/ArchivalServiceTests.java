@@ -0,0 +1,168 @@
+package com.agricredit.service;
+
+import com.agricredit.dto.LoanEventResponse;
+import com.agricredit.dto.LoanResponse;
+import com.agricredit.dto.WarehouseReceiptResponse;
+import com.agricredit.entity.LoanEvent;
+import com.agricredit.entity.User;
+import com.agricredit.entity.WarehouseReceipt;
+import com.agricredit.repository.JobLockRepository;
+import com.agricredit.repository.LoanEventRepository;
+import com.agricredit.repository.LoanRepository;
+import com.agricredit.repository.WarehouseReceiptRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.agricredit.service.TestUsers.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Not @Transactional: each archival batch commits on its own
+@SpringBootTest
+class ArchivalServiceTests {
+
+    @Autowired
+    private ArchivalService archivalService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private WarehouseReceiptService warehouseReceiptService;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private WarehouseReceiptRepository warehouseReceiptRepository;
+
+    @Autowired
+    private LoanEventRepository loanEventRepository;
+
+    @Autowired
+    private LoanEventService loanEventService;
+
+    @Autowired
+    private JobLockRepository jobLockRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestRecords records;
+
+    @AfterEach
+    void tearDown() {
+        records.cleanUp();
+    }
+
+    @Test
+    void closedRecordsPastTheHorizonMoveToTheArchiveAndStayReadable() {
+        User farmer = records.save(user("archivefarmer", User.Role.FARMER));
+        Long rejected = apply(farmer);
+        Long pending = apply(farmer);
+        loanService.rejectLoan(rejected, "Insufficient collateral");
+        Long released = createReceipt(farmer);
+        Long active = createReceipt(farmer);
+        warehouseReceiptService.updateReceiptStatus(released, WarehouseReceipt.ReceiptStatus.RELEASED);
+
+        LocalDateTime longAgo = LocalDateTime.now().minusYears(2);
+        jdbcTemplate.update("UPDATE loans SET applied_date = ? WHERE farmer_id = ?", longAgo, farmer.getId());
+        jdbcTemplate.update("UPDATE loans SET closed_date = ? WHERE id = ?", longAgo, rejected);
+        jdbcTemplate.update("UPDATE warehouse_receipts SET stored_date = ? WHERE farmer_id = ?", longAgo, farmer.getId());
+        jdbcTemplate.update("UPDATE warehouse_receipts SET expiry_date = ? WHERE id = ?", longAgo, released);
+        LoanResponse rejectedBefore = loanRepository.findResponseById(rejected).orElseThrow();
+        WarehouseReceiptResponse releasedBefore = warehouseReceiptRepository.findResponseById(released).orElseThrow();
+        List<LoanEvent> eventsBefore = loanEventRepository.findByLoanIdOrderByOccurredAtAscIdAsc(rejected);
+        assertFalse(eventsBefore.isEmpty());
+
+        assertTrue(archivalService.run(LocalDateTime.now().minusYears(1)));
+
+        // Only the closed records left the live tables
+        assertFalse(loanRepository.existsById(rejected));
+        assertTrue(loanRepository.existsById(pending));
+        assertFalse(warehouseReceiptRepository.existsById(released));
+        assertTrue(warehouseReceiptRepository.existsById(active));
+        assertTrue(archivalService.getStatus().getLoansArchived() >= 1);
+
+        assertEquals(rejectedBefore, loanService.getLoanById(rejected));
+        assertEquals(releasedBefore, warehouseReceiptService.getReceiptById(released));
+
+        // The loan's timeline went with it and is still served, page by page
+        assertTrue(loanEventRepository.findByLoanIdOrderByOccurredAtAscIdAsc(rejected).isEmpty());
+        List<LoanEventResponse> timeline = loanEventService.getTimeline(rejected, 0L, Limit.of(10));
+        assertEquals(eventsBefore.stream().map(LoanEvent::getId).toList(),
+                timeline.stream().map(LoanEventResponse::getId).toList());
+        assertEquals(eventsBefore.stream().map(event -> event.getToStatus().name()).toList(),
+                timeline.stream().map(LoanEventResponse::getToStatus).toList());
+        assertEquals(timeline.subList(1, timeline.size()),
+                loanEventService.getTimeline(rejected, timeline.get(0).getId(), Limit.of(10)));
+    }
+
+    @Test
+    void recordsClosedInsideTheHorizonStayLiveHoweverOld() {
+        User farmer = records.save(user("archiverecent", User.Role.FARMER));
+        Long rejected = apply(farmer);
+        Long released = createReceipt(farmer);
+        LocalDateTime longAgo = LocalDateTime.now().minusYears(2);
+        jdbcTemplate.update("UPDATE loans SET applied_date = ? WHERE id = ?", longAgo, rejected);
+        jdbcTemplate.update("UPDATE warehouse_receipts SET stored_date = ? WHERE id = ?", longAgo, released);
+        loanService.rejectLoan(rejected, "Withdrawn");
+        warehouseReceiptService.updateReceiptStatus(released, WarehouseReceipt.ReceiptStatus.RELEASED);
+
+        assertTrue(archivalService.run(LocalDateTime.now().minusYears(1)));
+
+        assertTrue(loanRepository.existsById(rejected));
+        assertTrue(warehouseReceiptRepository.existsById(released));
+        assertFalse(loanEventRepository.findByLoanIdOrderByOccurredAtAscIdAsc(rejected).isEmpty());
+    }
+
+    @Test
+    void receiptExpiredAheadOfItsExpiryDateEndsWhenItIsExpired() {
+        User farmer = records.save(user("archiveexpired", User.Role.FARMER));
+        Long expired = createReceipt(farmer);
+        jdbcTemplate.update("UPDATE warehouse_receipts SET expiry_date = ? WHERE id = ?",
+                LocalDateTime.now().plusMonths(6), expired);
+
+        warehouseReceiptService.updateReceiptStatus(expired, WarehouseReceipt.ReceiptStatus.EXPIRED);
+
+        List<WarehouseReceiptResponse> archivable = warehouseReceiptRepository.findArchivableResponsesAfter(
+                LocalDateTime.now().plusSeconds(1), List.of(WarehouseReceipt.ReceiptStatus.EXPIRED), 0L, Limit.of(1000));
+        assertTrue(archivable.stream().anyMatch(receipt -> receipt.getId().equals(expired)));
+    }
+
+    @Test
+    void archivalIsSkippedWhileAnotherNodeHoldsTheLock() {
+        User farmer = records.save(user("archivelocked", User.Role.FARMER));
+        Long rejected = apply(farmer);
+        loanService.rejectLoan(rejected, "Withdrawn");
+        LocalDateTime longAgo = LocalDateTime.now().minusYears(2);
+        jdbcTemplate.update("UPDATE loans SET applied_date = ?, closed_date = ? WHERE id = ?", longAgo, longAgo, rejected);
+
+        // The outer claim stands in for another node: it holds the row on a connection of its own
+        assertTrue(jobLockRepository.tryRun(ArchivalService.LOCK, () -> {
+            assertFalse(archivalService.run(LocalDateTime.now().minusYears(1)));
+            assertFalse(archivalService.trigger());
+        }));
+        assertTrue(loanRepository.existsById(rejected));
+
+        assertTrue(archivalService.run(LocalDateTime.now().minusYears(1)));
+        assertFalse(loanRepository.existsById(rejected));
+    }
+
+    private Long apply(User farmer) {
+        return records.apply(farmer, "1500.00");
+    }
+
+    private Long createReceipt(User farmer) {
+        return records.createReceipt(farmer, "Barley", "12");
+    }
+}
@@ -0,0 +1,138 @@
+package com.agricredit.service;
+
+import com.agricredit.collateral.CommodityQuote;
+import com.agricredit.collateral.PledgeChange;
+import com.agricredit.collateral.PledgeChangeBus;
+import com.agricredit.dto.MarginCallEventResponse;
+import com.agricredit.entity.MarginCallEvent;
+import com.agricredit.entity.User;
+import com.agricredit.repository.MarginCallEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.agricredit.service.TestUsers.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Not @Transactional: the LTV engine only hears about a pledge once it has committed
+@SpringBootTest
+class CollateralServiceTests {
+
+    private static final BigDecimal MAIZE = new BigDecimal("2200.00");
+
+    @Autowired
+    private CollateralService collateralService;
+
+    @Autowired
+    private PledgeChangeBus pledgeChangeBus;
+
+    @Autowired
+    private MarginCallEventRepository marginCallEventRepository;
+
+    @Autowired
+    private LedgerOutboxService ledgerOutboxService;
+
+    @Autowired
+    private LedgerProofService ledgerProofService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestRecords records;
+
+    @AfterEach
+    void tearDown() {
+        collateralService.applyQuotes(List.of(new CommodityQuote("maize", "quintal", MAIZE)));
+        // A bulk delete, so it needs a transaction of its own
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> marginCallEventRepository.deleteByLoanIdIn(records.loanIds()));
+        records.cleanUp();
+    }
+
+    @Test
+    void pledgeMadeOnAnotherNodeIsReloadedWhenAnnounced() {
+        User farmer = records.save(user("remotepledgefarmer", User.Role.FARMER));
+        Long loanId = apply(farmer);
+        Long receiptId = createReceipt(farmer);
+
+        // Committed by another node, which then announces it
+        jdbcTemplate.update("UPDATE warehouse_receipts SET pledged_loan_id = ? WHERE id = ?", loanId, receiptId);
+        assertEquals(0, collateralService.getCollateral(loanId).getCollateralValue().signum());
+        pledgeChangeBus.publish(new PledgeChange("another-node", loanId));
+
+        assertEquals(new BigDecimal("22000.00"), collateralService.getCollateral(loanId).getCollateralValue());
+        assertEquals("HEALTHY", collateralService.getCollateral(loanId).getLevel());
+    }
+
+    @Test
+    void breachAlreadyRecordedByAnotherNodeIsNotRecordedAgain() {
+        User farmer = records.save(user("marginfarmer", User.Role.FARMER));
+        Long loanId = apply(farmer);
+        collateralService.pledge(loanId, List.of(createReceipt(farmer)));
+
+        // Another node saw the same price move first
+        marginCallEventRepository.save(new MarginCallEvent(null, loanId, MarginCallEvent.Level.HEALTHY,
+                MarginCallEvent.Level.LIQUIDATION, new BigDecimal("10.0000"), new BigDecimal("1000.00"),
+                new BigDecimal("100.00"), "maize", LocalDateTime.now()));
+        List<MarginCallEventResponse> recorded = collateralService.applyQuotes(
+                List.of(new CommodityQuote("maize", "quintal", new BigDecimal("10.00"))));
+
+        assertTrue(recorded.stream().noneMatch(event -> event.getLoanId().equals(loanId)));
+        assertEquals(1, marginCallEventRepository.findLatestByLoanIdIn(List.of(loanId)).size());
+    }
+
+    @Test
+    void breachFromAPledgeIsQueuedAndWrittenOutsideTheRequest() {
+        User farmer = records.save(user("queuedfarmer", User.Role.FARMER));
+        Long loanId = apply(farmer);
+        Long first = createReceipt(farmer);
+        Long second = createReceipt(farmer);
+        collateralService.pledge(loanId, List.of(first, second));
+        collateralService.applyQuotes(List.of(new CommodityQuote("maize", "quintal", new BigDecimal("100.00"))));
+
+        // 1000 against 20 quintals at 100 is healthy; with one receipt gone the cover is 1000, past liquidation
+        collateralService.unpledge(loanId, second);
+        assertEquals("LIQUIDATION", collateralService.getCollateral(loanId).getLevel());
+        assertTrue(marginCallEventRepository.findLatestByLoanIdIn(List.of(loanId)).isEmpty());
+
+        List<MarginCallEventResponse> recorded = collateralService.recordPendingBreaches();
+        assertEquals(List.of("LIQUIDATION"), recorded.stream()
+                .filter(event -> event.getLoanId().equals(loanId)).map(MarginCallEventResponse::getLevel).toList());
+    }
+
+    @Test
+    void pledgeIsReanchoredAsPartOfTheReceipt() {
+        User farmer = records.save(user("anchoredpledgefarmer", User.Role.FARMER));
+        Long loanId = apply(farmer);
+        Long receiptId = createReceipt(farmer);
+        ledgerOutboxService.anchorPendingBatch();
+
+        collateralService.pledge(loanId, List.of(receiptId));
+        assertFalse(ledgerProofService.getReceiptProof(receiptId).isMatchesCurrentState());
+
+        ledgerOutboxService.anchorPendingBatch();
+        assertTrue(ledgerProofService.getReceiptProof(receiptId).isMatchesCurrentState());
+    }
+
+    private Long apply(User farmer) {
+        return records.apply(farmer, "1000.00");
+    }
+
+    private Long createReceipt(User farmer) {
+        return records.createReceipt(farmer, "Maize", "10");
+    }
+}
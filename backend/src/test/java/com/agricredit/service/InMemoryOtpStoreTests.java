@@ -0,0 +1,109 @@
+package com.agricredit.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class InMemoryOtpStoreTests {
+
+    private final MutableClock clock = new MutableClock();
+    private final InMemoryOtpStore store = new InMemoryOtpStore(Duration.ofMinutes(5), 3, clock);
+
+    @Test
+    void verifiedCodeIsConsumed() {
+        store.issue("ramesh", "123456", 42L, "FARMER");
+
+        OtpVerification verification = store.verify("ramesh", "123456");
+        assertEquals(OtpVerification.Status.VERIFIED, verification.status());
+        assertEquals(42L, verification.userId());
+        assertEquals("FARMER", verification.role());
+        assertEquals(OtpVerification.Status.NOT_FOUND, store.verify("ramesh", "123456").status());
+    }
+
+    @Test
+    void locksAfterMaxAttempts() {
+        store.issue("ramesh", "123456", 42L, "FARMER");
+
+        assertEquals(OtpVerification.Status.INVALID, store.verify("ramesh", "000000").status());
+        assertEquals(OtpVerification.Status.INVALID, store.verify("ramesh", "111111").status());
+        assertEquals(OtpVerification.Status.LOCKED, store.verify("ramesh", "222222").status());
+        assertEquals(OtpVerification.Status.NOT_FOUND, store.verify("ramesh", "123456").status());
+    }
+
+    @Test
+    void expiredCodesAreRejectedAndSwept() {
+        store.issue("ramesh", "123456", 42L, "FARMER");
+        store.issue("suresh", "654321", 43L, "LENDER");
+        clock.advance(Duration.ofMinutes(6));
+
+        assertEquals(OtpVerification.Status.EXPIRED, store.verify("ramesh", "123456").status());
+        IntStream.range(0, 64).forEach(i -> store.issue("user" + i, "000000", (long) i, "FARMER"));
+        assertEquals(64, store.size());
+    }
+
+    @Test
+    void concurrentGuessesCannotExceedTheAttemptCap() throws Exception {
+        store.issue("ramesh", "123456", 42L, "FARMER");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<OtpVerification.Status>> guesses = IntStream.range(0, 64)
+                    .<Callable<OtpVerification.Status>>mapToObj(i -> () -> store.verify("ramesh", "9999" + i).status())
+                    .toList();
+            long invalid = 0;
+            long locked = 0;
+            for (Future<OtpVerification.Status> result : executor.invokeAll(guesses)) {
+                switch (result.get()) {
+                    case INVALID -> invalid++;
+                    case LOCKED -> locked++;
+                    default -> {
+                    }
+                }
+            }
+            assertEquals(2, invalid);
+            assertEquals(1, locked);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private final AtomicLong millis = new AtomicLong(Instant.parse("2025-01-01T00:00:00Z").toEpochMilli());
+
+        void advance(Duration duration) {
+            millis.addAndGet(duration.toMillis());
+        }
+
+        @Override
+        public long millis() {
+            return millis.get();
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis());
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.agricredit.service;
+
+import com.agricredit.dto.LoanRequest;
+import com.agricredit.dto.LoanResponse;
+import com.agricredit.dto.WarehouseReceiptRequest;
+import com.agricredit.dto.WarehouseReceiptResponse;
+import com.agricredit.entity.LedgerOutboxEntry;
+import com.agricredit.entity.User;
+import com.agricredit.ledger.MerkleTree;
+import com.agricredit.repository.LedgerOutboxRepository;
+import com.agricredit.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+import static com.agricredit.service.TestUsers.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+class LedgerOutboxServiceTests {
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private WarehouseReceiptService warehouseReceiptService;
+
+    @Autowired
+    private LedgerOutboxService ledgerOutboxService;
+
+    @Autowired
+    private LedgerOutboxRepository ledgerOutboxRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void requestPathOnlyQueuesAndWorkerAnchorsOneRootPerBatch() {
+        User farmer = userRepository.save(user("ledgerfarmer", User.Role.FARMER));
+
+        LoanRequest loanRequest = new LoanRequest();
+        loanRequest.setFarmerId(farmer.getId());
+        loanRequest.setAmount(new BigDecimal("20000.00"));
+        loanRequest.setPurpose("Irrigation");
+        loanRequest.setInterestRate(8.0);
+        loanRequest.setDurationInMonths(9);
+        LoanResponse loan = loanService.applyForLoan(loanRequest);
+
+        WarehouseReceiptRequest receiptRequest = new WarehouseReceiptRequest();
+        receiptRequest.setFarmerId(farmer.getId());
+        receiptRequest.setCommodityName("Cotton");
+        receiptRequest.setVariety("Shankar-6");
+        receiptRequest.setQuantity(new BigDecimal("40"));
+        receiptRequest.setUnitOfMeasure("bale");
+        receiptRequest.setWarehouseLocation("Rajkot");
+        receiptRequest.setWarehouseKeeperName("Keeper");
+        WarehouseReceiptResponse receipt = warehouseReceiptService.createReceipt(receiptRequest);
+
+        assertNull(loan.getBlockchainTransactionHash());
+        assertTrue(entry(LedgerOutboxEntry.RecordType.LOAN, loan.getId(), LedgerOutboxEntry.OutboxStatus.PENDING).isPresent());
+        assertTrue(entry(LedgerOutboxEntry.RecordType.WAREHOUSE_RECEIPT, receipt.getId(),
+                LedgerOutboxEntry.OutboxStatus.PENDING).isPresent());
+
+        // Other suites may have left rows queued; both of ours fit in the first batch either way
+        assertTrue(ledgerOutboxService.anchorPendingBatch() >= 2);
+
+        LedgerOutboxEntry anchoredLoan = entry(LedgerOutboxEntry.RecordType.LOAN, loan.getId(),
+                LedgerOutboxEntry.OutboxStatus.ANCHORED).orElseThrow();
+        LedgerOutboxEntry anchoredReceipt = entry(LedgerOutboxEntry.RecordType.WAREHOUSE_RECEIPT, receipt.getId(),
+                LedgerOutboxEntry.OutboxStatus.ANCHORED).orElseThrow();
+        assertEquals(anchoredLoan.getMerkleRoot(), anchoredReceipt.getMerkleRoot());
+        String transactionId = anchoredLoan.getLedgerTransactionId();
+        assertEquals(transactionId, anchoredReceipt.getLedgerTransactionId());
+        assertEquals(transactionId, loanService.getLoanById(loan.getId()).getBlockchainTransactionHash());
+        assertEquals(transactionId, warehouseReceiptService.getReceiptById(receipt.getId()).getBlockchainTransactionHash());
+        HexFormat hex = HexFormat.of();
+        for (LedgerOutboxEntry entry : List.of(anchoredLoan, anchoredReceipt)) {
+            assertTrue(MerkleTree.verify(hex.parseHex(entry.getRecordHash()),
+                    MerkleTree.decodeProof(entry.getMerkleProof()), hex.parseHex(entry.getMerkleRoot())));
+        }
+        assertFalse(entry(LedgerOutboxEntry.RecordType.LOAN, loan.getId(), LedgerOutboxEntry.OutboxStatus.PENDING).isPresent());
+    }
+
+    @Test
+    void batchCommittedButNeverAnchoredIsSubmittedAgain() {
+        User farmer = userRepository.save(user("stalledledgerfarmer", User.Role.FARMER));
+
+        LoanRequest loanRequest = new LoanRequest();
+        loanRequest.setFarmerId(farmer.getId());
+        loanRequest.setAmount(new BigDecimal("5000.00"));
+        loanRequest.setPurpose("Fertiliser");
+        loanRequest.setInterestRate(9.0);
+        loanRequest.setDurationInMonths(6);
+        LoanResponse loan = loanService.applyForLoan(loanRequest);
+
+        // The node stopped between committing the root and hearing back from the ledger
+        ledgerOutboxService.prepareBatch();
+        LedgerOutboxEntry prepared = entry(LedgerOutboxEntry.RecordType.LOAN, loan.getId(),
+                LedgerOutboxEntry.OutboxStatus.SUBMITTING).orElseThrow();
+        assertNull(prepared.getLedgerTransactionId());
+
+        // Not stalled for long enough yet
+        ledgerOutboxService.resubmitStalled(prepared.getPreparedAt().minusSeconds(1));
+        assertTrue(entry(LedgerOutboxEntry.RecordType.LOAN, loan.getId(),
+                LedgerOutboxEntry.OutboxStatus.SUBMITTING).isPresent());
+
+        assertTrue(ledgerOutboxService.resubmitStalled(LocalDateTime.now().plusSeconds(1)) >= 1);
+        LedgerOutboxEntry anchored = entry(LedgerOutboxEntry.RecordType.LOAN, loan.getId(),
+                LedgerOutboxEntry.OutboxStatus.ANCHORED).orElseThrow();
+        assertEquals(prepared.getMerkleRoot(), anchored.getMerkleRoot());
+        assertEquals(anchored.getLedgerTransactionId(), loanService.getLoanById(loan.getId()).getBlockchainTransactionHash());
+    }
+
+    private Optional<LedgerOutboxEntry> entry(LedgerOutboxEntry.RecordType recordType, Long recordId,
+                                              LedgerOutboxEntry.OutboxStatus status) {
+        return ledgerOutboxRepository.findFirstByRecordTypeAndRecordIdAndStatusOrderByIdDesc(recordType, recordId, status);
+    }
+}
@@ -0,0 +1,162 @@
+package com.agricredit.service;
+
+import com.agricredit.dto.LedgerProofResponse;
+import com.agricredit.dto.LoanResponse;
+import com.agricredit.dto.ProofVerificationRequest;
+import com.agricredit.dto.ProofVerificationResponse;
+import com.agricredit.entity.LedgerOutboxEntry;
+import com.agricredit.entity.Loan;
+import com.agricredit.entity.User;
+import com.agricredit.ledger.MerkleTree;
+import com.agricredit.ledger.RecordHasher;
+import com.agricredit.repository.LedgerOutboxRepository;
+import com.agricredit.repository.LoanRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+import static com.agricredit.service.TestUsers.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+class LedgerProofServiceTests {
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private LedgerOutboxService ledgerOutboxService;
+
+    @Autowired
+    private LedgerProofService ledgerProofService;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private LedgerOutboxRepository ledgerOutboxRepository;
+
+    // Rolled back with the test, so nothing to clean up
+    @Autowired
+    private TestRecords records;
+
+    @Test
+    void anchoredLoanProofVerifiesUntilTheRecordChanges() {
+        LoanResponse loan = applyForLoan(farmer("prooffarmer"));
+        ledgerOutboxService.anchorPendingBatch();
+
+        LedgerProofResponse proof = ledgerProofService.getLoanProof(loan.getId());
+        assertTrue(proof.isProofValid());
+        assertTrue(proof.isAnchoredOnLedger());
+        assertTrue(proof.isMatchesCurrentState());
+
+        Loan stored = loanRepository.findById(loan.getId()).orElseThrow();
+        stored.setAmount(new BigDecimal("99999.00"));
+        loanRepository.saveAndFlush(stored);
+
+        LedgerProofResponse tampered = ledgerProofService.getLoanProof(loan.getId());
+        assertTrue(tampered.isProofValid());
+        assertFalse(tampered.isMatchesCurrentState());
+    }
+
+    @Test
+    void repaymentTermsArePartOfTheAnchoredState() {
+        LoanResponse loan = applyForLoan(farmer("termsprooffarmer"));
+        ledgerOutboxService.anchorPendingBatch();
+
+        Loan stored = loanRepository.findById(loan.getId()).orElseThrow();
+        stored.setRepaymentType(Loan.RepaymentType.BULLET);
+        loanRepository.saveAndFlush(stored);
+
+        LedgerProofResponse proof = ledgerProofService.getLoanProof(loan.getId());
+        assertEquals(RecordHasher.CURRENT_FORMAT, proof.getHashFormat());
+        assertFalse(proof.isMatchesCurrentState());
+    }
+
+    @Test
+    void anchorHashedUnderAnOlderFormatStillMatchesAnUnchangedRecord() {
+        LoanResponse loan = applyForLoan(farmer("oldformatfarmer"));
+        ledgerOutboxService.anchorPendingBatch();
+
+        // As anchored before the repayment type was hashed
+        LedgerOutboxEntry entry = ledgerOutboxRepository.findFirstByRecordTypeAndRecordIdAndStatusOrderByIdDesc(
+                LedgerOutboxEntry.RecordType.LOAN, loan.getId(), LedgerOutboxEntry.OutboxStatus.ANCHORED).orElseThrow();
+        Loan stored = loanRepository.findById(loan.getId()).orElseThrow();
+        entry.setHashFormat(1);
+        entry.setRecordHash(HexFormat.of().formatHex(new RecordHasher().hash(stored, 1)));
+        ledgerOutboxRepository.saveAndFlush(entry);
+
+        LedgerProofResponse proof = ledgerProofService.getLoanProof(loan.getId());
+        assertEquals(1, proof.getHashFormat());
+        assertTrue(proof.isMatchesCurrentState());
+    }
+
+    @Test
+    void batchVerificationFlagsForgedProofs() {
+        User farmer = farmer("batchprooffarmer");
+        List<Long> loanIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            loanIds.add(applyForLoan(farmer).getId());
+        }
+        ledgerOutboxService.anchorPendingBatch();
+
+        List<ProofVerificationRequest> requests = new ArrayList<>();
+        for (Long loanId : loanIds) {
+            LedgerProofResponse proof = ledgerProofService.getLoanProof(loanId);
+            ProofVerificationRequest request = new ProofVerificationRequest();
+            request.setRecordHash(proof.getAnchoredRecordHash());
+            request.setMerkleProof(proof.getMerkleProof());
+            request.setMerkleRoot(proof.getMerkleRoot());
+            request.setLedgerTransactionId(proof.getLedgerTransactionId());
+            requests.add(request);
+        }
+        ProofVerificationRequest forged = new ProofVerificationRequest();
+        forged.setRecordHash("00".repeat(32));
+        forged.setMerkleProof(requests.get(0).getMerkleProof());
+        forged.setMerkleRoot(requests.get(0).getMerkleRoot());
+        requests.add(forged);
+
+        ProofVerificationResponse response = ledgerProofService.verifyAll(requests);
+        assertEquals(6, response.getTotal());
+        assertEquals(5, response.getValid());
+        assertFalse(response.getResults().get(5));
+    }
+
+    @Test
+    void selfConsistentProofWithoutALedgerAnchorIsRejected() {
+        byte[] invented = new byte[MerkleTree.HASH_LENGTH];
+        byte[] sibling = new byte[MerkleTree.HASH_LENGTH];
+        sibling[0] = 1;
+        MerkleTree tree = MerkleTree.build(List.of(invented, sibling));
+
+        ProofVerificationRequest request = new ProofVerificationRequest();
+        request.setRecordHash(HexFormat.of().formatHex(invented));
+        request.setMerkleProof(MerkleTree.encodeProof(tree.proof(0)));
+        request.setMerkleRoot(HexFormat.of().formatHex(tree.root()));
+        ProofVerificationRequest unknownTransaction = new ProofVerificationRequest();
+        unknownTransaction.setRecordHash(request.getRecordHash());
+        unknownTransaction.setMerkleProof(request.getMerkleProof());
+        unknownTransaction.setMerkleRoot(request.getMerkleRoot());
+        unknownTransaction.setLedgerTransactionId("no-such-transaction");
+
+        ProofVerificationResponse response = ledgerProofService.verifyAll(List.of(request, unknownTransaction));
+        assertEquals(0, response.getValid());
+    }
+
+    private User farmer(String username) {
+        return records.save(user(username, User.Role.FARMER));
+    }
+
+    private LoanResponse applyForLoan(User farmer) {
+        return loanService.applyForLoan(TestRecords.loanRequest(farmer, "15000.00"));
+    }
+}
@@ -0,0 +1,124 @@
+package com.agricredit.service;
+
+import com.agricredit.dto.LoanResponse;
+import com.agricredit.dto.WarehouseReceiptResponse;
+import com.agricredit.entity.Loan;
+import com.agricredit.entity.User;
+import com.agricredit.entity.WarehouseReceipt;
+import com.agricredit.repository.LoanRepository;
+import com.agricredit.repository.UserRepository;
+import com.agricredit.repository.WarehouseReceiptRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.agricredit.service.TestUsers.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@Transactional
+class ListQueryCountTests {
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private WarehouseReceiptService warehouseReceiptService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private WarehouseReceiptRepository warehouseReceiptRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void loanListIsOneStatementRegardlessOfSize(int rows) {
+        seed(rows);
+
+        List<LoanResponse> loans = loanService.getAllLoans(0L, Limit.of(1000));
+        assertEquals(rows, loans.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals("lender0", loans.get(0).getLenderName());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void receiptListIsOneStatementRegardlessOfSize(int rows) {
+        seed(rows);
+
+        List<WarehouseReceiptResponse> receipts = warehouseReceiptService.getAllReceipts(0L, Limit.of(1000));
+        assertEquals(rows, receipts.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals("farmer0", receipts.get(0).getFarmerName());
+    }
+
+    // Every row gets its own farmer and lender so lazy loading would show up as extra statements
+    private void seed(int rows) {
+        List<Loan> loans = new ArrayList<>();
+        List<WarehouseReceipt> receipts = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            User farmer = userRepository.save(user("farmer" + i, User.Role.FARMER));
+            User lender = userRepository.save(user("lender" + i, User.Role.LENDER));
+
+            Loan loan = new Loan();
+            loan.setFarmer(farmer);
+            loan.setLender(lender);
+            loan.setAmount(new BigDecimal("10000.00"));
+            loan.setPurpose("Seeds");
+            loan.setInterestRate(7.5);
+            loan.setDurationInMonths(12);
+            loan.setStatus(Loan.LoanStatus.APPROVED);
+            loan.setAppliedDate(LocalDateTime.now());
+            loans.add(loan);
+
+            WarehouseReceipt receipt = new WarehouseReceipt();
+            receipt.setFarmer(farmer);
+            receipt.setCommodityName("Wheat");
+            receipt.setVariety("Sharbati");
+            receipt.setQuantity(new BigDecimal("25.5"));
+            receipt.setUnitOfMeasure("quintal");
+            receipt.setWarehouseLocation("Indore");
+            receipt.setWarehouseKeeperName("Keeper");
+            receipt.setStoredDate(LocalDateTime.now());
+            receipt.setStatus(WarehouseReceipt.ReceiptStatus.ACTIVE);
+            receipts.add(receipt);
+        }
+        loanRepository.saveAll(loans);
+        warehouseReceiptRepository.saveAll(receipts);
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+}
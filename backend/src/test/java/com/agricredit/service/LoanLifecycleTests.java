@@ -0,0 +1,84 @@
+package com.agricredit.service;
+
+import com.agricredit.dto.LoanEventResponse;
+import com.agricredit.dto.LoanRequest;
+import com.agricredit.entity.Loan;
+import com.agricredit.entity.User;
+import com.agricredit.exception.StateConflictException;
+import com.agricredit.repository.LoanRepository;
+import com.agricredit.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.agricredit.service.TestUsers.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@Transactional
+class LoanLifecycleTests {
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private LoanEventService loanEventService;
+
+    @Autowired
+    private RepaymentScheduleService repaymentScheduleService;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void overdueLoanDefaultsThenClosesAndTheTimelineReplays() {
+        User lender = userRepository.save(user("lifecyclelender", User.Role.LENDER));
+        Long loanId = applyForLoan(userRepository.save(user("lifecyclefarmer", User.Role.FARMER)));
+        loanService.approveLoan(loanId, lender.getId());
+        loanService.disburseLoan(loanId);
+        assertEquals(12, repaymentScheduleService.getSchedule(loanId).size());
+
+        assertThrows(StateConflictException.class, () -> loanService.markDefaulted(loanId));
+        makeOverdue(loanId);
+        assertEquals("DEFAULTED", loanService.markDefaulted(loanId).getStatus());
+        assertNotNull(loanService.repayLoan(loanId).getClosedDate());
+        assertThrows(StateConflictException.class, () -> loanService.repayLoan(loanId));
+
+        List<LoanEventResponse> timeline = loanEventService.getTimeline(loanId, 0L, Limit.of(10));
+        assertEquals(List.of("PENDING", "APPROVED", "DISBURSED", "DEFAULTED", "CLOSED"),
+                timeline.stream().map(LoanEventResponse::getToStatus).toList());
+        assertEquals(Loan.LoanStatus.CLOSED, loanEventService.replayStatus(loanId));
+
+        List<LoanEventResponse> firstPage = loanEventService.getTimeline(loanId, 0L, Limit.of(2));
+        List<LoanEventResponse> secondPage = loanEventService.getTimeline(loanId, firstPage.get(1).getId(), Limit.of(10));
+        assertEquals(timeline.subList(0, 2), firstPage);
+        assertEquals(timeline.subList(2, 5), secondPage);
+    }
+
+    private void makeOverdue(Long loanId) {
+        Loan loan = loanRepository.findById(loanId).orElseThrow();
+        loan.setDueDate(LocalDateTime.now().minusDays(1));
+        loanRepository.saveAndFlush(loan);
+    }
+
+    private Long applyForLoan(User farmer) {
+        LoanRequest request = new LoanRequest();
+        request.setFarmerId(farmer.getId());
+        request.setAmount(new BigDecimal("8000.00"));
+        request.setPurpose("Irrigation");
+        request.setInterestRate(11.0);
+        request.setDurationInMonths(12);
+        return loanService.applyForLoan(request).getId();
+    }
+}
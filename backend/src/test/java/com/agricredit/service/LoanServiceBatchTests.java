@@ -0,0 +1,94 @@
+package com.agricredit.service;
+
+import com.agricredit.dto.BatchItemResult;
+import com.agricredit.dto.LoanRequest;
+import com.agricredit.dto.LoanResponse;
+import com.agricredit.entity.User;
+import com.agricredit.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.agricredit.service.TestUsers.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+class LoanServiceBatchTests {
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void batchApplyUsesBatchedInsertsAndReportsEachItem() {
+        User farmer = userRepository.save(user("batchfarmer", User.Role.FARMER));
+        List<LoanRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            requests.add(request(farmer.getId()));
+        }
+        requests.add(request(-1L));
+        entityManager.flush();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<BatchItemResult<LoanResponse>> results = loanService.applyForLoans(requests);
+        entityManager.flush();
+
+        assertEquals(121, results.size());
+        assertEquals(120, results.stream().filter(BatchItemResult::isSuccess).count());
+        assertFalse(results.get(120).isSuccess());
+        assertEquals("Farmer not found", results.get(120).getError());
+        // One user lookup, a few sequence calls and one statement per JDBC batch (loans, events, outbox)
+        // instead of one per loan
+        assertTrue(statistics.getPrepareStatementCount() < 15,
+                "statements: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void batchApproveSkipsLoansThatAreNotPending() {
+        User farmer = userRepository.save(user("approvefarmer", User.Role.FARMER));
+        User lender = userRepository.save(user("approvelender", User.Role.LENDER));
+        List<BatchItemResult<LoanResponse>> applied = loanService.applyForLoans(
+                List.of(request(farmer.getId()), request(farmer.getId())));
+        Long first = applied.get(0).getResult().getId();
+        Long second = applied.get(1).getResult().getId();
+
+        loanService.approveLoans(List.of(first), lender.getId());
+        List<BatchItemResult<LoanResponse>> results = loanService.approveLoans(
+                List.of(first, second, Long.MAX_VALUE), lender.getId());
+
+        assertEquals("Loan is not in pending status", results.get(0).getError());
+        assertEquals("APPROVED", results.get(1).getResult().getStatus());
+        assertEquals("Loan not found", results.get(2).getError());
+    }
+
+    private LoanRequest request(Long farmerId) {
+        LoanRequest request = new LoanRequest();
+        request.setFarmerId(farmerId);
+        request.setAmount(new BigDecimal("5000.00"));
+        request.setPurpose("Fertiliser");
+        request.setInterestRate(9.0);
+        request.setDurationInMonths(6);
+        return request;
+    }
+}
@@ -0,0 +1,52 @@
+package com.agricredit.service;
+
+import com.agricredit.entity.Loan;
+import com.agricredit.entity.LoanEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoanStateMachineTests {
+
+    @Test
+    void tableAllowsOnlyTheLifecycleEdges() {
+        assertTrue(LoanStateMachine.canTransition(Loan.LoanStatus.PENDING, Loan.LoanStatus.APPROVED));
+        assertTrue(LoanStateMachine.canTransition(Loan.LoanStatus.DISBURSED, Loan.LoanStatus.DEFAULTED));
+        assertTrue(LoanStateMachine.canTransition(Loan.LoanStatus.DEFAULTED, Loan.LoanStatus.CLOSED));
+        assertFalse(LoanStateMachine.canTransition(Loan.LoanStatus.PENDING, Loan.LoanStatus.DISBURSED));
+        assertFalse(LoanStateMachine.canTransition(Loan.LoanStatus.CLOSED, Loan.LoanStatus.DISBURSED));
+        assertFalse(LoanStateMachine.canTransition(Loan.LoanStatus.APPROVED, Loan.LoanStatus.APPROVED));
+
+        assertEquals(Set.of(Loan.LoanStatus.DISBURSED, Loan.LoanStatus.DEFAULTED),
+                LoanStateMachine.sourcesOf(Loan.LoanStatus.CLOSED));
+        assertTrue(LoanStateMachine.isTerminal(Loan.LoanStatus.REJECTED));
+        assertTrue(LoanStateMachine.isTerminal(Loan.LoanStatus.CLOSED));
+        assertFalse(LoanStateMachine.isTerminal(Loan.LoanStatus.DEFAULTED));
+    }
+
+    @Test
+    void replayFoldsHistoryAndRejectsGaps() {
+        List<LoanEvent> history = List.of(
+                event(1L, null, Loan.LoanStatus.PENDING),
+                event(2L, Loan.LoanStatus.PENDING, Loan.LoanStatus.APPROVED),
+                event(3L, Loan.LoanStatus.APPROVED, Loan.LoanStatus.DISBURSED),
+                event(4L, Loan.LoanStatus.DISBURSED, Loan.LoanStatus.CLOSED));
+        assertEquals(Loan.LoanStatus.CLOSED, LoanStateMachine.replay(history));
+
+        List<LoanEvent> skipped = List.of(
+                event(1L, null, Loan.LoanStatus.PENDING),
+                event(2L, Loan.LoanStatus.PENDING, Loan.LoanStatus.DISBURSED));
+        assertThrows(IllegalStateException.class, () -> LoanStateMachine.replay(skipped));
+    }
+
+    private LoanEvent event(Long id, Loan.LoanStatus from, Loan.LoanStatus to) {
+        return new LoanEvent(id, 7L, from, to, LocalDateTime.now());
+    }
+}
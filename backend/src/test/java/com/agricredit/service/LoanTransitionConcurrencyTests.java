@@ -0,0 +1,97 @@
+package com.agricredit.service;
+
+import com.agricredit.entity.Loan;
+import com.agricredit.entity.User;
+import com.agricredit.exception.StateConflictException;
+import com.agricredit.repository.LoanRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.agricredit.service.TestUsers.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Not @Transactional: every thread needs its own committed transaction to race on the same row
+@SpringBootTest
+class LoanTransitionConcurrencyTests {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private TestRecords records;
+
+    @AfterEach
+    void tearDown() {
+        records.cleanUp();
+    }
+
+    @Test
+    void concurrentApprovalsLetExactlyOneWin() throws Exception {
+        User farmer = records.save(user("racefarmer", User.Role.FARMER));
+        User lender = records.save(user("racelender", User.Role.LENDER));
+        Long loanId = records.apply(farmer, "5000.00");
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        loanService.approveLoan(loanId, lender.getId());
+                        approved.incrementAndGet();
+                    } catch (StateConflictException e) {
+                        conflicts.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, approved.get());
+        assertEquals(THREADS - 1, conflicts.get());
+        Loan loan = loanRepository.findById(loanId).orElseThrow();
+        assertEquals(Loan.LoanStatus.APPROVED, loan.getStatus());
+        assertEquals(1L, loan.getVersion());
+    }
+
+    @Test
+    void transitionsFromTheWrongStateConflictButMissingLoansDoNot() {
+        User farmer = records.save(user("stalefarmer", User.Role.FARMER));
+        Long loanId = records.apply(farmer, "5000.00");
+
+        loanService.rejectLoan(loanId, "Incomplete documents");
+
+        StateConflictException conflict = assertThrows(StateConflictException.class,
+                () -> loanService.disburseLoan(loanId));
+        assertEquals("Loan is not approved", conflict.getMessage());
+        RuntimeException missing = assertThrows(RuntimeException.class,
+                () -> loanService.rejectLoan(Long.MAX_VALUE, "n/a"));
+        assertEquals("Loan not found", missing.getMessage());
+    }
+}
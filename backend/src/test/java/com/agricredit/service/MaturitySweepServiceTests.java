@@ -0,0 +1,187 @@
+package com.agricredit.service;
+
+import com.agricredit.dto.MaturitySweepStatusResponse;
+import com.agricredit.dto.WarehouseReceiptRequest;
+import com.agricredit.entity.LedgerOutboxEntry;
+import com.agricredit.entity.Loan;
+import com.agricredit.entity.SweepCheckpoint;
+import com.agricredit.entity.User;
+import com.agricredit.entity.WarehouseReceipt;
+import com.agricredit.repository.JobLockRepository;
+import com.agricredit.repository.LedgerOutboxRepository;
+import com.agricredit.repository.LoanRepository;
+import com.agricredit.repository.SweepCheckpointRepository;
+import com.agricredit.repository.WarehouseReceiptRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.agricredit.service.TestUsers.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Not @Transactional: chunks commit on fork-join threads, which cannot see an open test transaction.
+// Small chunks force several waves; the separate database keeps this context's schema from being
+// recreated under the shared one.
+@SpringBootTest(properties = {
+        "maturity.sweep.chunk-size=2",
+        "maturity.sweep.parallelism=2",
+        "spring.datasource.url=jdbc:h2:mem:agricredit_sweep_test;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"
+})
+class MaturitySweepServiceTests {
+
+    @Autowired
+    private MaturitySweepService maturitySweepService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private LoanEventService loanEventService;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private WarehouseReceiptRepository warehouseReceiptRepository;
+
+    @Autowired
+    private LedgerOutboxRepository ledgerOutboxRepository;
+
+    @Autowired
+    private SweepCheckpointRepository sweepCheckpointRepository;
+
+    @Autowired
+    private JobLockRepository jobLockRepository;
+
+    @Autowired
+    private TestRecords records;
+
+    private List<SweepCheckpoint> checkpoints;
+
+    @BeforeEach
+    void setUp() {
+        checkpoints = sweepCheckpointRepository.findAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        // One checkpoint per table rather than per record, so they are put back as this test found them
+        sweepCheckpointRepository.deleteAllById(sweepCheckpointRepository.findAll().stream()
+                .map(SweepCheckpoint::getTarget)
+                .filter(target -> checkpoints.stream().noneMatch(checkpoint -> checkpoint.getTarget() == target))
+                .toList());
+        sweepCheckpointRepository.saveAll(checkpoints);
+        records.cleanUp();
+    }
+
+    @Test
+    void sweepDefaultsOverdueLoansAndExpiresLapsedReceipts() {
+        User farmer = records.save(user("sweepfarmer", User.Role.FARMER));
+        User lender = records.save(user("sweeplender", User.Role.LENDER));
+        List<Long> overdue = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            overdue.add(disbursedLoan(farmer, lender));
+        }
+        Long current = disbursedLoan(farmer, lender);
+        Long pending = applyForLoan(farmer);
+        overdue.forEach(this::makeOverdue);
+        makeOverdue(pending);
+        Long lapsed = receipt(farmer, LocalDateTime.now().minusDays(1));
+        Long valid = receipt(farmer, LocalDateTime.now().plusDays(30));
+
+        assertTrue(maturitySweepService.run());
+
+        overdue.forEach(loanId -> {
+            assertEquals(Loan.LoanStatus.DEFAULTED, loanRepository.findStatusById(loanId).orElseThrow());
+            assertEquals(Loan.LoanStatus.DEFAULTED, loanEventService.replayStatus(loanId));
+        });
+        assertEquals(Loan.LoanStatus.DISBURSED, loanRepository.findStatusById(current).orElseThrow());
+        assertEquals(Loan.LoanStatus.PENDING, loanRepository.findStatusById(pending).orElseThrow());
+        assertEquals(WarehouseReceipt.ReceiptStatus.EXPIRED, warehouseReceiptRepository.findStatusById(lapsed).orElseThrow());
+        assertEquals(WarehouseReceipt.ReceiptStatus.ACTIVE, warehouseReceiptRepository.findStatusById(valid).orElseThrow());
+        assertTrue(ledgerOutboxRepository.findFirstByRecordTypeAndRecordIdAndStatusOrderByIdDesc(
+                LedgerOutboxEntry.RecordType.WAREHOUSE_RECEIPT, lapsed, LedgerOutboxEntry.OutboxStatus.PENDING).isPresent());
+
+        MaturitySweepStatusResponse loans = status(SweepCheckpoint.Target.LOANS);
+        assertEquals("COMPLETED", loans.getStatus());
+        assertEquals(7L, loans.getRowsScanned());
+        assertEquals(5L, loans.getRowsUpdated());
+        assertEquals(4, loans.getChunks());
+    }
+
+    @Test
+    void runningCheckpointResumesAfterTheLastCompletedId() {
+        User farmer = records.save(user("resumefarmer", User.Role.FARMER));
+        User lender = records.save(user("resumelender", User.Role.LENDER));
+        Long first = disbursedLoan(farmer, lender);
+        Long second = disbursedLoan(farmer, lender);
+        makeOverdue(first);
+        makeOverdue(second);
+        // As left behind by a run that crashed after committing everything up to `first`
+        LocalDateTime crashedAt = LocalDateTime.now();
+        sweepCheckpointRepository.save(new SweepCheckpoint(SweepCheckpoint.Target.LOANS, SweepCheckpoint.Status.RUNNING,
+                crashedAt, first, 1L, 0L, 1, crashedAt, crashedAt, null));
+
+        maturitySweepService.run();
+
+        assertEquals(Loan.LoanStatus.DISBURSED, loanRepository.findStatusById(first).orElseThrow());
+        assertEquals(Loan.LoanStatus.DEFAULTED, loanRepository.findStatusById(second).orElseThrow());
+        assertEquals(2L, status(SweepCheckpoint.Target.LOANS).getRowsScanned());
+    }
+
+    @Test
+    void sweepIsSkippedWhileAnotherNodeHoldsTheLock() {
+        User farmer = records.save(user("lockedfarmer", User.Role.FARMER));
+        User lender = records.save(user("lockedlender", User.Role.LENDER));
+        Long loanId = disbursedLoan(farmer, lender);
+        makeOverdue(loanId);
+
+        // The outer claim stands in for another node: it holds the row on a connection of its own
+        assertTrue(jobLockRepository.tryRun(MaturitySweepService.LOCK, () -> {
+            assertFalse(maturitySweepService.run());
+            assertFalse(maturitySweepService.trigger());
+        }));
+        assertEquals(Loan.LoanStatus.DISBURSED, loanRepository.findStatusById(loanId).orElseThrow());
+
+        assertTrue(maturitySweepService.run());
+        assertEquals(Loan.LoanStatus.DEFAULTED, loanRepository.findStatusById(loanId).orElseThrow());
+    }
+
+    private MaturitySweepStatusResponse status(SweepCheckpoint.Target target) {
+        return maturitySweepService.getStatus().stream()
+                .filter(status -> status.getTarget().equals(target.toString()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private Long disbursedLoan(User farmer, User lender) {
+        Long loanId = applyForLoan(farmer);
+        loanService.approveLoan(loanId, lender.getId());
+        loanService.disburseLoan(loanId);
+        return loanId;
+    }
+
+    private Long applyForLoan(User farmer) {
+        return records.apply(farmer, "3000.00");
+    }
+
+    private void makeOverdue(Long loanId) {
+        Loan loan = loanRepository.findById(loanId).orElseThrow();
+        loan.setDueDate(LocalDateTime.now().minusDays(1));
+        loanRepository.save(loan);
+    }
+
+    private Long receipt(User farmer, LocalDateTime expiryDate) {
+        WarehouseReceiptRequest request = TestRecords.receiptRequest(farmer, "Maize", "40");
+        request.setExpiryDate(expiryDate);
+        return records.createReceipt(request);
+    }
+}
@@ -0,0 +1,79 @@
+package com.agricredit.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHashingServiceTests {
+
+    private PasswordHashingService service;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        service = new PasswordHashingService();
+        ReflectionTestUtils.setField(service, "threads", 1);
+        ReflectionTestUtils.setField(service, "queueCapacity", 1);
+        ReflectionTestUtils.invokeMethod(service, "init");
+        callers = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void rejectsImmediatelyOnceSlotsAndQueueAreFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        // The hash runs on the calling thread, not a pool of its own
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> {
+            Thread caller = Thread.currentThread();
+            return service.run(() -> {
+                running.countDown();
+                await(release);
+                return Thread.currentThread() == caller;
+            });
+        }, callers);
+        running.await(5, TimeUnit.SECONDS);
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> service.run(() -> "queued"), callers);
+        waitUntilQueued(1);
+
+        assertThrows(RejectedExecutionException.class, () -> service.run(() -> "rejected"));
+        assertEquals(1, service.getStats().getRejectedTasks());
+        assertEquals(1, service.getStats().getQueuedTasks());
+
+        release.countDown();
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+        assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+        assertEquals(2, service.getStats().getQueueWait().getCount());
+    }
+
+    private void waitUntilQueued(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (service.getStats().getQueuedTasks() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.agricredit.service;
+
+import com.agricredit.dto.ReceiptImportReport;
+import com.agricredit.entity.User;
+import com.agricredit.entity.WarehouseReceipt;
+import com.agricredit.repository.UserRepository;
+import com.agricredit.repository.WarehouseReceiptRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@Transactional
+class ReceiptImportServiceTests {
+
+    @Autowired
+    private ReceiptImportService receiptImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WarehouseReceiptRepository warehouseReceiptRepository;
+
+    @Test
+    void importsValidRowsAndReportsTheRest() throws Exception {
+        User farmer = new User();
+        farmer.setUsername("importfarmer");
+        farmer.setEmail("importfarmer@example.com");
+        farmer.setPassword("secret");
+        farmer.setRole(User.Role.FARMER);
+        farmer = userRepository.save(farmer);
+
+        String csv = "farmer_id,commodity_name,variety,quantity,unit_of_measure,warehouse_location,warehouse_keeper_name,expiry_date,remarks\n"
+                + farmer.getId() + ",Wheat,Lokwan,12.5,quintal,Indore,Keeper,2027-03-31,\"Dry, \"\"clean\"\"\"\n"
+                + farmer.getId() + ",Soybean,JS-335,abc,quintal,Indore,Keeper,,\n"
+                + "\n"
+                + "999999,Gram,Kabuli,4,quintal,Indore,Keeper,,\n"
+                + farmer.getId() + ",Maize,Hybrid,30,quintal,Indore,Keeper,,\"multi\nline\"\n";
+
+        ReceiptImportReport report = receiptImportService.importReceipts(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(4, report.getTotalRows());
+        assertEquals(2, report.getImportedRows());
+        assertEquals(2, report.getFailedRows());
+        assertEquals("JDBC_BATCH", report.getLoadMethod());
+        assertEquals(3, report.getErrors().get(0).getLine());
+        assertEquals("Invalid quantity", report.getErrors().get(0).getMessage());
+        assertEquals(5, report.getErrors().get(1).getLine());
+        assertEquals("Farmer not found", report.getErrors().get(1).getMessage());
+
+        List<WarehouseReceipt> imported = warehouseReceiptRepository.findByFarmer(farmer);
+        assertEquals(2, imported.size());
+        assertEquals("Dry, \"clean\"", imported.stream()
+                .filter(receipt -> receipt.getCommodityName().equals("Wheat"))
+                .findFirst()
+                .orElseThrow()
+                .getRemarks());
+    }
+}
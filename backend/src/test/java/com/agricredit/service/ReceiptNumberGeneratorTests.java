@@ -0,0 +1,97 @@
+package com.agricredit.service;
+
+import com.agricredit.config.ReceiptNumberConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReceiptNumberGeneratorTests {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 250_000;
+
+    @Test
+    void snowflakeIdsAreUniqueAcrossThreadsAndNodes() throws Exception {
+        // Two nodes sharing the same threads stand in for two application instances
+        ReceiptNumberGenerator nodeA = new SnowflakeReceiptNumberGenerator(1);
+        ReceiptNumberGenerator nodeB = new SnowflakeReceiptNumberGenerator(2);
+        assertAllUnique(generate(thread -> thread % 2 == 0 ? nodeA : nodeB));
+    }
+
+    @Test
+    void sequenceIdsAreUniqueAcrossThreadsAndNodes() throws Exception {
+        AtomicLong sequence = new AtomicLong();
+        ReceiptNumberGenerator nodeA = new SequenceReceiptNumberGenerator(sequence::incrementAndGet, 1000);
+        ReceiptNumberGenerator nodeB = new SequenceReceiptNumberGenerator(sequence::incrementAndGet, 1000);
+        assertAllUnique(generate(thread -> thread % 2 == 0 ? nodeA : nodeB));
+    }
+
+    @Test
+    void snowflakeIdsIncreaseAndCarryNodeId() {
+        ReceiptNumberGenerator generator = new SnowflakeReceiptNumberGenerator(5);
+        long previous = generator.nextId();
+        for (int i = 0; i < 100_000; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            assertEquals(5, (id >>> SnowflakeReceiptNumberGenerator.SEQUENCE_BITS) & SnowflakeReceiptNumberGenerator.MAX_NODE_ID);
+            previous = id;
+        }
+        assertTrue(generator.next().startsWith("WR-"));
+    }
+
+    @Test
+    void rejectsOutOfRangeNodeId() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeReceiptNumberGenerator(1024));
+    }
+
+    @Test
+    void snowflakeRequiresAnExplicitNodeId() {
+        assertThrows(IllegalStateException.class, () -> new ReceiptNumberConfig().snowflakeReceiptNumberGenerator(null));
+    }
+
+    private long[] generate(IntFunction<ReceiptNumberGenerator> generatorForThread) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                ReceiptNumberGenerator generator = generatorForThread.apply(t);
+                Callable<long[]> task = () -> {
+                    long[] ids = new long[IDS_PER_THREAD];
+                    for (int i = 0; i < ids.length; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return ids;
+                };
+                futures.add(executor.submit(task));
+            }
+            long[] all = new long[THREADS * IDS_PER_THREAD];
+            for (int t = 0; t < THREADS; t++) {
+                System.arraycopy(futures.get(t).get(), 0, all, t * IDS_PER_THREAD, IDS_PER_THREAD);
+            }
+            return all;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void assertAllUnique(long[] ids) {
+        Arrays.sort(ids);
+        for (int i = 1; i < ids.length; i++) {
+            if (ids[i] == ids[i - 1]) {
+                throw new AssertionError("Duplicate id " + ids[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.agricredit.service;
+
+import com.agricredit.dto.LoanRequest;
+import com.agricredit.dto.WarehouseReceiptRequest;
+import com.agricredit.entity.LedgerOutboxEntry;
+import com.agricredit.entity.User;
+import com.agricredit.repository.LedgerOutboxRepository;
+import com.agricredit.repository.LoanEventRepository;
+import com.agricredit.repository.LoanInstalmentRepository;
+import com.agricredit.repository.LoanRepository;
+import com.agricredit.repository.UserRepository;
+import com.agricredit.repository.WarehouseReceiptRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+// Users, loans and receipts created through the services for tests that commit, remembered so cleanUp deletes
+// only those and what hangs off them. Prototype-scoped, so each test instance gets its own.
+@Component
+@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
+class TestRecords {
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private WarehouseReceiptService warehouseReceiptService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private WarehouseReceiptRepository warehouseReceiptRepository;
+
+    @Autowired
+    private LoanEventRepository loanEventRepository;
+
+    @Autowired
+    private LoanInstalmentRepository loanInstalmentRepository;
+
+    @Autowired
+    private LedgerOutboxRepository ledgerOutboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Long> loanIds = new ArrayList<>();
+    private final List<Long> receiptIds = new ArrayList<>();
+    private final List<Long> userIds = new ArrayList<>();
+
+    User save(User user) {
+        User saved = userRepository.save(user);
+        userIds.add(saved.getId());
+        return saved;
+    }
+
+    Long apply(User farmer, String amount) {
+        return apply(loanRequest(farmer, amount));
+    }
+
+    Long apply(LoanRequest request) {
+        Long loanId = loanService.applyForLoan(request).getId();
+        loanIds.add(loanId);
+        return loanId;
+    }
+
+    Long createReceipt(User farmer, String commodityName, String quantity) {
+        return createReceipt(receiptRequest(farmer, commodityName, quantity));
+    }
+
+    Long createReceipt(WarehouseReceiptRequest request) {
+        Long receiptId = warehouseReceiptService.createReceipt(request).getId();
+        receiptIds.add(receiptId);
+        return receiptId;
+    }
+
+    List<Long> loanIds() {
+        return loanIds;
+    }
+
+    // Rows the test archived or deleted itself are skipped
+    void cleanUp() {
+        ledgerOutboxRepository.deleteAll(ledgerOutboxRepository.findAll().stream()
+                .filter(entry -> entry.getRecordType() == LedgerOutboxEntry.RecordType.LOAN
+                        ? loanIds.contains(entry.getRecordId()) : receiptIds.contains(entry.getRecordId()))
+                .toList());
+        loanIds.forEach(loanId -> loanEventRepository.deleteAll(loanEventRepository.findByLoanIdOrderByOccurredAtAscIdAsc(loanId)));
+        // A bulk delete, so it needs a transaction of its own
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> loanInstalmentRepository.deleteByLoanIdIn(loanIds));
+        loanRepository.deleteAllById(loanRepository.findExistingIds(loanIds));
+        warehouseReceiptRepository.deleteAllById(receiptIds.stream().filter(warehouseReceiptRepository::existsById).toList());
+        userRepository.deleteAllById(userIds);
+    }
+
+    static LoanRequest loanRequest(User farmer, String amount) {
+        LoanRequest request = new LoanRequest();
+        request.setFarmerId(farmer.getId());
+        request.setAmount(new BigDecimal(amount));
+        request.setPurpose("Seed");
+        request.setInterestRate(10.0);
+        request.setDurationInMonths(6);
+        return request;
+    }
+
+    static WarehouseReceiptRequest receiptRequest(User farmer, String commodityName, String quantity) {
+        WarehouseReceiptRequest request = new WarehouseReceiptRequest();
+        request.setFarmerId(farmer.getId());
+        request.setCommodityName(commodityName);
+        request.setVariety("Standard");
+        request.setQuantity(new BigDecimal(quantity));
+        request.setUnitOfMeasure("quintal");
+        request.setWarehouseLocation("Adama");
+        request.setWarehouseKeeperName("Central Stores");
+        return request;
+    }
+}
@@ -0,0 +1,20 @@
+package com.agricredit.service;
+
+import com.agricredit.entity.User;
+
+// An unsaved user with the username doubling as name and email prefix; callers save it and clean it up
+final class TestUsers {
+
+    private TestUsers() {
+    }
+
+    static User user(String username, User.Role role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("secret");
+        user.setRole(role);
+        user.setFullName(username);
+        return user;
+    }
+}
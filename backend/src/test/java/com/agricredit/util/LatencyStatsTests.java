@@ -0,0 +1,46 @@
+package com.agricredit.util;
+
+import com.agricredit.dto.LatencySummary;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyStatsTests {
+
+    @Test
+    void percentilesAreUpperBoundsWithinOneSixteenth() {
+        LatencyStats stats = new LatencyStats();
+        // 1ms .. 1000ms, one sample each
+        for (int millis = 1; millis <= 1000; millis++) {
+            stats.record(millis * 1_000_000L);
+        }
+
+        LatencySummary summary = stats.snapshot();
+        assertEquals(1000, summary.getCount());
+        assertBetween(500, summary.getP50Millis());
+        assertBetween(990, summary.getP99Millis());
+        assertBetween(999, summary.getP999Millis());
+        assertEquals(1000.0, summary.getMaxMillis());
+    }
+
+    @Test
+    void tailIsSeparatedFromTheBody() {
+        LatencyStats stats = new LatencyStats();
+        for (int i = 0; i < 9_980; i++) {
+            stats.record(2_000_000L);
+        }
+        for (int i = 0; i < 20; i++) {
+            stats.record(3_000_000_000L);
+        }
+
+        LatencySummary summary = stats.snapshot();
+        assertBetween(2, summary.getP99Millis());
+        assertBetween(3_000, summary.getP999Millis());
+    }
+
+    private static void assertBetween(double expectedMillis, double actualMillis) {
+        assertTrue(actualMillis >= expectedMillis && actualMillis <= expectedMillis * 17 / 16,
+                () -> "expected " + expectedMillis + "ms within 1/16, was " + actualMillis + "ms");
+    }
+}
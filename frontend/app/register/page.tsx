@@ -329,7 +329,6 @@ export default function Register() {
               >
                 <option value="FARMER">Farmer</option>
                 <option value="LENDER">Lender</option>
-                <option value="ADMIN">Admin</option>
               </select>
             </div>
 